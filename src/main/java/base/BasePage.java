@@ -5,8 +5,15 @@ import io.qameta.allure.Step;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.*;
+import org.openqa.selenium.interactions.Actions;
+import org.openqa.selenium.interactions.MoveTargetOutOfBoundsException;
+import utils.ClickStrategyStore;
+import utils.InteractionTimeline;
+import utils.InteractionTimeline.Action;
 import utils.WaitUtils;
 
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -16,6 +23,7 @@ import java.util.List;
  * - Proper error handling and logging
  * - Wait utilities integration
  * - Thread-safe WebDriver management
+ * - Per-test interaction timeline (see {@link InteractionTimeline})
  * 
  * All page objects should extend this class to inherit common functionality.
  * 
@@ -56,11 +64,27 @@ public class BasePage {
     // ---------------------------------------------------------
 
     protected WebElement find(By locator) {
-        return WaitUtils.waitForPresence(driver, locator);
+        long start = InteractionTimeline.start();
+        boolean success = false;
+        try {
+            WebElement element = WaitUtils.waitForPresence(driver, locator);
+            success = true;
+            return element;
+        } finally {
+            InteractionTimeline.record(Action.FIND, locator, start, success);
+        }
     }
 
     /**
-     * Clicks on an element after waiting for it to be clickable.
+     * Clicks on an element using the self-tuning click ladder.
+     * The element is first waited for once until it is displayed and enabled;
+     * a missing, hidden or disabled element fails there, after one timeout,
+     * and no other strategy is tried. The strategy that last worked for this
+     * locator (see {@link ClickStrategyStore}) is tried first, then the rest
+     * against the same element. JS_CLICK and ACTIONS are only used once a
+     * native click was intercepted (another element on top) while the element
+     * itself was displayed and enabled, or when they are the remembered
+     * strategy for the locator.
      * Includes error handling and logging.
      * 
      * @param locator Element locator
@@ -68,16 +92,114 @@ public class BasePage {
      * @throws ElementNotInteractableException if element cannot be clicked
      */
     protected void click(By locator) {
+        long start = InteractionTimeline.start();
+        boolean success = false;
+        RuntimeException firstFailure = null;
         try {
-            WebElement element = WaitUtils.waitForClickable(driver, locator);
-            element.click();
-            logger.debug("Successfully clicked element: {}", locator);
-        } catch (TimeoutException e) {
-            logger.error("Element not clickable: {}", locator);
-            throw new TimeoutException("Element not clickable within timeout: " + locator, e);
-        } catch (ElementNotInteractableException e) {
-            logger.error("Element not interactable: {}", locator);
-            throw new ElementNotInteractableException("Element not interactable: " + locator, e);
+            WebElement element;
+            try {
+                element = WaitUtils.waitForClickable(driver, locator);
+            } catch (TimeoutException e) {
+                logger.error("Element not clickable: {}", locator);
+                throw new TimeoutException("Element not clickable within timeout: " + locator, e);
+            }
+            List<ClickStrategy> ladder = ClickStrategyStore.ladderFor(locator);
+            // A remembered last resort was needed because of an interception before
+            boolean intercepted = ladder.get(0).isLastResort();
+            for (ClickStrategy strategy : ladder) {
+                if (strategy.isLastResort() && !intercepted) {
+                    continue;
+                }
+                try {
+                    clickWith(strategy, locator, element);
+                    ClickStrategyStore.remember(locator, strategy);
+                    success = true;
+                    if (strategy.isLastResort()) {
+                        logger.warn("Clicked {} with {} because native clicks were intercepted", locator, strategy);
+                    } else {
+                        logger.debug("Successfully clicked element {} using {}", locator, strategy);
+                    }
+                    return;
+                } catch (StaleElementReferenceException e) {
+                    firstFailure = firstFailure == null ? e : firstFailure;
+                    try {
+                        element = findNow(locator);
+                    } catch (NoSuchElementException gone) {
+                        break;
+                    }
+                } catch (ElementClickInterceptedException e) {
+                    firstFailure = firstFailure == null ? e : firstFailure;
+                    intercepted = element.isDisplayed() && element.isEnabled();
+                    logger.debug("Click strategy {} was intercepted for {}", strategy, locator);
+                } catch (ElementNotInteractableException e) {
+                    firstFailure = firstFailure == null ? e : firstFailure;
+                    logger.debug("Click strategy {} failed for {}: {}", strategy, locator, e.getClass().getSimpleName());
+                }
+            }
+        } finally {
+            InteractionTimeline.record(Action.CLICK, locator, start, success);
+        }
+
+        logger.error("Element not interactable: {}", locator);
+        throw new ElementNotInteractableException("Element not interactable: " + locator, firstFailure);
+    }
+
+    /**
+     * Looks the element up once, without the implicit wait.
+     *
+     * @throws NoSuchElementException if it is not in the DOM
+     */
+    private WebElement findNow(By locator) {
+        WebDriver.Timeouts timeouts = driver.manage().timeouts();
+        Duration implicitWait = timeouts.getImplicitWaitTimeout();
+        timeouts.implicitlyWait(Duration.ZERO);
+        try {
+            List<WebElement> elements = driver.findElements(locator);
+            if (elements.isEmpty()) {
+                throw new NoSuchElementException("Element not in the DOM: " + locator);
+            }
+            return elements.get(0);
+        } finally {
+            timeouts.implicitlyWait(implicitWait);
+        }
+    }
+
+    /**
+     * Performs a single click attempt with the given strategy.
+     *
+     * @param strategy Click strategy to use
+     * @param locator Element locator
+     * @param element Located element, displayed and enabled when last checked
+     */
+    private void clickWith(ClickStrategy strategy, By locator, WebElement element) {
+        switch (strategy) {
+            case NATIVE:
+                element.click();
+                return;
+
+            case SCROLL_THEN_NATIVE:
+                ((JavascriptExecutor) driver).executeScript(
+                        "arguments[0].scrollIntoView({block: 'center', inline: 'center'});", element);
+                element.click();
+                return;
+
+            case JS_CLICK:
+                ((JavascriptExecutor) driver).executeScript("arguments[0].click();", element);
+                return;
+
+            case ACTIONS:
+                try {
+                    new Actions(driver)
+                            .moveToElement(element)
+                            .click()
+                            .perform();
+                } catch (MoveTargetOutOfBoundsException e) {
+                    throw new ElementNotInteractableException("Element outside the viewport: " + locator, e);
+                }
+                return;
+
+            default:
+                throw new IllegalArgumentException("Unsupported click strategy: " + strategy);
         }
     }
 
@@ -90,10 +212,13 @@ public class BasePage {
      * @throws TimeoutException if element is not visible
      */
     protected void write(By locator, String text) {
+        long start = InteractionTimeline.start();
+        boolean success = false;
         try {
             WebElement element = WaitUtils.waitForVisibility(driver, locator);
             element.clear();
             element.sendKeys(text);
+            success = true;
             logger.debug("Successfully entered text '{}' into element: {}", text, locator);
         } catch (TimeoutException e) {
             logger.error("Element not visible for writing: {}", locator);
@@ -101,11 +226,21 @@ public class BasePage {
         } catch (Exception e) {
             logger.error("Failed to write text to element: {}", locator, e);
             throw new RuntimeException("Failed to write text to element: " + locator, e);
+        } finally {
+            InteractionTimeline.record(Action.WRITE, locator, start, success);
         }
     }
 
     protected String getText(By locator) {
-        return WaitUtils.waitForVisibility(driver, locator).getText();
+        long start = InteractionTimeline.start();
+        boolean success = false;
+        try {
+            String text = WaitUtils.waitForVisibility(driver, locator).getText();
+            success = true;
+            return text;
+        } finally {
+            InteractionTimeline.record(Action.GET_TEXT, locator, start, success);
+        }
     }
 
     protected String getAttribute(By locator, String attribute) {
@@ -184,11 +319,40 @@ public class BasePage {
     }
 
     protected int getElementCount(By locator) {
-        return findElements(locator).size();
+        return ElementQueryBackends.forDriver(driver).count(locator);
     }
 
     protected boolean elementExists(By locator) {
-        return driver.findElements(locator).size() > 0;
+        return getElementCount(locator) > 0;
+    }
+
+    /**
+     * Counts elements for several locators in one pass.
+     * With the DevTools backend this is a single message to the browser.
+     *
+     * @param locators Element locators
+     * @return Match count per locator, in the same order
+     */
+    protected int[] getElementCounts(By... locators) {
+        List<ElementSnapshot> snapshots = ElementQueryBackends.forDriver(driver)
+                .query(Arrays.asList(locators), false, null);
+        int[] counts = new int[snapshots.size()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = snapshots.get(i).getCount();
+        }
+        return counts;
+    }
+
+    /**
+     * Reads count, text and optionally one attribute for several locators without waiting.
+     * Meant for read-heavy page checks; use {@link #getText(By)} when the element may still be loading.
+     *
+     * @param attribute Attribute to read from each first match, or null
+     * @param locators Element locators
+     * @return Snapshot per locator, in the same order
+     */
+    protected List<ElementSnapshot> readElements(String attribute, By... locators) {
+        return ElementQueryBackends.forDriver(driver).query(Arrays.asList(locators), true, attribute);
     }
 
     // ---------------------------------------------------------
@@ -220,13 +384,27 @@ public class BasePage {
     // ---------------------------------------------------------
 
     protected void scrollToElement(By locator) {
-        WebElement element = find(locator);
-        ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", element);
+        long start = InteractionTimeline.start();
+        boolean success = false;
+        try {
+            WebElement element = find(locator);
+            ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", element);
+            success = true;
+        } finally {
+            InteractionTimeline.record(Action.SCROLL, locator, start, success);
+        }
     }
 
     protected void clickUsingJS(By locator) {
-        WebElement element = find(locator);
-        ((JavascriptExecutor) driver).executeScript("arguments[0].click();", element);
+        long start = InteractionTimeline.start();
+        boolean success = false;
+        try {
+            WebElement element = find(locator);
+            ((JavascriptExecutor) driver).executeScript("arguments[0].click();", element);
+            success = true;
+        } finally {
+            InteractionTimeline.record(Action.JS_CLICK, locator, start, success);
+        }
     }
 
     protected void clear(By locator) {
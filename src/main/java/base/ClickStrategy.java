@@ -0,0 +1,31 @@
+package base;
+
+/**
+ * Ordered ladder of click strategies used by {@link BasePage#click}.
+ *
+ * The declaration order is the default order in which strategies are tried.
+ * The strategy that last succeeded for a locator is remembered by
+ * {@link utils.ClickStrategyStore} and tried first next time.
+ */
+public enum ClickStrategy {
+
+    /** Wait for clickable, then WebElement.click(). */
+    NATIVE,
+
+    /** Scroll the element into the viewport centre, then WebElement.click(). */
+    SCROLL_THEN_NATIVE,
+
+    /** Dispatch the click through JavaScript (ignores overlays and visibility). */
+    JS_CLICK,
+
+    /** Move the mouse to the element and click with the Actions API. */
+    ACTIONS;
+
+    /**
+     * @return true for JS_CLICK and ACTIONS, which BasePage only uses after a
+     *         native click on a displayed, enabled element was intercepted
+     */
+    public boolean isLastResort() {
+        return this == JS_CLICK || this == ACTIONS;
+    }
+}
@@ -0,0 +1,173 @@
+package base;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link ElementQueryBackend} that reads the DOM directly over the DevTools
+ * connection Selenium already holds for Chromium browsers.
+ *
+ * All locators of a call are resolved in the page by a single
+ * {@code Runtime.evaluate} message, so checking twenty locators costs one
+ * round trip instead of twenty, and missing elements do not pay the implicit
+ * wait. The evaluation runs in the top-level document of the attached tab.
+ *
+ * Falls back to {@link WebDriverQueryBackend} for locator types it cannot
+ * translate (linkText, chained, relative) and permanently after the first
+ * DevTools failure.
+ */
+public class DevToolsQueryBackend implements ElementQueryBackend {
+
+    private static final Logger logger = LogManager.getLogger(DevToolsQueryBackend.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final Duration COMMAND_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final String QUERY_SCRIPT =
+            "(function(qs){"
+            + "function all(q){var v=q[1];switch(q[0]){"
+            + "case 'xpath':var r=document.evaluate(v,document,null,XPathResult.ORDERED_NODE_SNAPSHOT_TYPE,null),a=[];"
+            + "for(var i=0;i<r.snapshotLength;i++){a.push(r.snapshotItem(i));}return a;"
+            + "case 'id':return document.querySelectorAll('#'+CSS.escape(v));"
+            + "case 'name':return document.querySelectorAll('[name=\"'+CSS.escape(v)+'\"]');"
+            + "case 'className':return document.querySelectorAll('.'+CSS.escape(v));"
+            + "default:return document.querySelectorAll(v);}}"
+            + "function attr(e,n){var p=e[n];if(typeof p==='boolean'){return p?'true':null;}"
+            + "if(p!==undefined&&p!==null&&typeof p!=='object'&&typeof p!=='function'){return String(p);}"
+            + "return e.getAttribute(n);}"
+            + "return qs.map(function(q){try{var n=all(q),f=n.length?n[0]:null;"
+            + "return [n.length,(q[2]&&f)?(f.innerText!==undefined?f.innerText:f.textContent):null,"
+            + "(q[3]&&f)?attr(f,q[3]):null];}catch(e){return [-1,String(e),null];}});"
+            + "})(%s)";
+
+    private final WebDriver driver;
+    private final WebDriverQueryBackend fallback;
+    private DevTools devTools;
+    private boolean broken;
+
+    public DevToolsQueryBackend(WebDriver driver) {
+        if (!(driver instanceof ChromiumDriver)) {
+            throw new IllegalArgumentException("DevTools query backend requires a Chromium driver, got: "
+                    + (driver == null ? "null" : driver.getClass().getSimpleName()));
+        }
+        this.driver = driver;
+        this.fallback = new WebDriverQueryBackend(driver);
+    }
+
+    @Override
+    public List<ElementSnapshot> query(List<By> locators, boolean withText, String attribute) {
+        if (broken) {
+            return fallback.query(locators, withText, attribute);
+        }
+
+        List<Object[]> queries = new ArrayList<>(locators.size());
+        for (By locator : locators) {
+            String[] parsed = parse(locator);
+            if (parsed == null) {
+                logger.debug("Locator {} not supported over DevTools, using WebDriver", locator);
+                return fallback.query(locators, withText, attribute);
+            }
+            queries.add(new Object[]{parsed[0], parsed[1], withText, attribute});
+        }
+
+        try {
+            List<?> rows = evaluate(String.format(QUERY_SCRIPT, mapper.writeValueAsString(queries)));
+            List<ElementSnapshot> snapshots = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                List<?> row = (List<?>) rows.get(i);
+                int count = ((Number) row.get(0)).intValue();
+                if (count < 0) {
+                    throw new IllegalStateException("Query failed for " + locators.get(i) + ": " + row.get(1));
+                }
+                snapshots.add(new ElementSnapshot(count, (String) row.get(1), (String) row.get(2)));
+            }
+            return snapshots;
+        } catch (IllegalStateException e) {
+            // Invalid selector for this page - let WebDriver raise its usual exception
+            logger.debug("DevTools query failed, retrying over WebDriver: {}", e.getMessage());
+            return fallback.query(locators, withText, attribute);
+        } catch (Exception e) {
+            logger.warn("DevTools query backend unavailable, falling back to WebDriver: {}", e.getMessage());
+            broken = true;
+            return fallback.query(locators, withText, attribute);
+        }
+    }
+
+    @Override
+    public String name() {
+        return broken ? "devtools(fallback)" : "devtools";
+    }
+
+    @Override
+    public void close() {
+        if (devTools != null) {
+            try {
+                devTools.disconnectSession();
+            } catch (Exception e) {
+                logger.debug("DevTools session already closed: {}", e.getMessage());
+            }
+            devTools = null;
+        }
+    }
+
+    /**
+     * Sends one Runtime.evaluate message and returns the by-value result.
+     */
+    @SuppressWarnings("unchecked")
+    private List<?> evaluate(String expression) {
+        if (devTools == null) {
+            devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne(driver.getWindowHandle());
+        }
+        Map<String, Object> params = new HashMap<>();
+        params.put("expression", expression);
+        params.put("returnByValue", true);
+
+        Map<String, Object> response = devTools.send(
+                new Command<Map<String, Object>>("Runtime.evaluate", params, Map.class), COMMAND_TIMEOUT);
+        if (response.containsKey("exceptionDetails")) {
+            throw new IllegalStateException(String.valueOf(response.get("exceptionDetails")));
+        }
+        Map<String, Object> result = (Map<String, Object>) response.get("result");
+        return (List<?>) result.get("value");
+    }
+
+    /**
+     * Translates a locator into a [kind, value] pair understood by the query script.
+     *
+     * @return pair, or null if the locator type has no DOM equivalent
+     */
+    static String[] parse(By locator) {
+        String description = locator.toString();
+        int separator = description.indexOf(": ");
+        if (!description.startsWith("By.") || separator < 0) {
+            return null;
+        }
+        String kind = description.substring(3, separator);
+        String value = description.substring(separator + 2);
+        switch (kind) {
+            case "xpath":
+            case "id":
+            case "name":
+            case "className":
+                return new String[]{kind, value};
+            case "cssSelector":
+            case "tagName":
+                return new String[]{"css", value};
+            default:
+                return null;
+        }
+    }
+}
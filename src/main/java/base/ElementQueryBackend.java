@@ -0,0 +1,48 @@
+package base;
+
+import org.openqa.selenium.By;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Backend used by {@link BasePage} for read-only DOM checks (counts, existence,
+ * text and attribute reads). Interactions always go through WebDriver.
+ *
+ * Implementations:
+ * - {@link WebDriverQueryBackend}: classic WebDriver protocol, one round trip per call
+ * - {@link DevToolsQueryBackend}: Chromium DevTools connection, many locators per message
+ */
+public interface ElementQueryBackend {
+
+    /**
+     * Queries several locators at once.
+     *
+     * @param locators  locators to query
+     * @param withText  whether to read the visible text of the first match
+     * @param attribute attribute to read from the first match, or null
+     * @return one snapshot per locator, in the same order
+     */
+    List<ElementSnapshot> query(List<By> locators, boolean withText, String attribute);
+
+    /**
+     * @return short backend name used in logs and reports
+     */
+    String name();
+
+    /**
+     * Counts elements matching a single locator.
+     *
+     * @param locator element locator
+     * @return number of matching elements
+     */
+    default int count(By locator) {
+        return query(Collections.singletonList(locator), false, null).get(0).getCount();
+    }
+
+    /**
+     * Releases connections the backend opened besides the driver itself.
+     */
+    default void close() {
+    }
+}
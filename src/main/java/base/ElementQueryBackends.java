@@ -0,0 +1,66 @@
+package base;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import utils.ConfigReader;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Selects and caches the {@link ElementQueryBackend} for a WebDriver session.
+ *
+ * Reads from config.properties: domQueryBackend (webdriver | devtools, default: webdriver).
+ * The DevTools backend is only used for Chromium browsers; every other browser
+ * gets the WebDriver backend regardless of configuration. One backend is kept
+ * per driver so the DevTools session is opened once, not once per page object.
+ * Backends hold their driver, so entries are removed explicitly: DriverFactory
+ * calls {@link #release(WebDriver)} when it quits a browser.
+ */
+public final class ElementQueryBackends {
+
+    private static final Logger logger = LogManager.getLogger(ElementQueryBackends.class);
+    private static final Map<WebDriver, ElementQueryBackend> backends = new ConcurrentHashMap<>();
+
+    private ElementQueryBackends() {
+        throw new IllegalStateException("Utility class - cannot be instantiated");
+    }
+
+    /**
+     * Returns the configured backend for a driver, creating it on first use.
+     *
+     * @param driver WebDriver session
+     * @return backend bound to the driver
+     */
+    public static ElementQueryBackend forDriver(WebDriver driver) {
+        return backends.computeIfAbsent(driver, ElementQueryBackends::create);
+    }
+
+    /**
+     * Forgets the driver's backend and closes its DevTools session, if any.
+     * Call before the driver quits.
+     *
+     * @param driver WebDriver session
+     */
+    public static void release(WebDriver driver) {
+        ElementQueryBackend backend = backends.remove(driver);
+        if (backend != null) {
+            backend.close();
+        }
+    }
+
+    private static ElementQueryBackend create(WebDriver driver) {
+        String configured = ConfigReader.get("domQueryBackend", "webdriver").trim().toLowerCase();
+        if ("devtools".equals(configured)) {
+            if (driver instanceof ChromiumDriver) {
+                logger.info("Using DevTools DOM query backend for read-only checks");
+                return new DevToolsQueryBackend(driver);
+            }
+            logger.info("DevTools query backend requested but {} is not Chromium, using WebDriver",
+                    driver.getClass().getSimpleName());
+        }
+        return new WebDriverQueryBackend(driver);
+    }
+}
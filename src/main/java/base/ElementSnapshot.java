@@ -0,0 +1,55 @@
+package base;
+
+/**
+ * Read-only result of a single locator query made through an {@link ElementQueryBackend}.
+ * Text and attribute always refer to the first matching element.
+ */
+public final class ElementSnapshot {
+
+    private final int count;
+    private final String text;
+    private final String attribute;
+
+    public ElementSnapshot(int count, String text, String attribute) {
+        this.count = count;
+        this.text = text;
+        this.attribute = attribute;
+    }
+
+    /**
+     * @return number of elements matching the locator
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return true if at least one element matches the locator
+     */
+    public boolean exists() {
+        return count > 0;
+    }
+
+    /**
+     * @return visible text of the first match, or null if not requested or no match
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * @return requested attribute of the first match, or null if not requested, absent or no match
+     */
+    public String getAttribute() {
+        return attribute;
+    }
+
+    @Override
+    public String toString() {
+        return "ElementSnapshot{" +
+                "count=" + count +
+                ", text='" + text + '\'' +
+                ", attribute='" + attribute + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,43 @@
+package base;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link ElementQueryBackend} over the classic WebDriver protocol.
+ * Every locator costs at least one HTTP round trip to the driver, plus one
+ * per text or attribute read. Works with every browser.
+ */
+public class WebDriverQueryBackend implements ElementQueryBackend {
+
+    private final WebDriver driver;
+
+    public WebDriverQueryBackend(WebDriver driver) {
+        if (driver == null) {
+            throw new IllegalArgumentException("WebDriver cannot be null");
+        }
+        this.driver = driver;
+    }
+
+    @Override
+    public List<ElementSnapshot> query(List<By> locators, boolean withText, String attribute) {
+        List<ElementSnapshot> snapshots = new ArrayList<>(locators.size());
+        for (By locator : locators) {
+            List<WebElement> elements = driver.findElements(locator);
+            WebElement first = elements.isEmpty() ? null : elements.get(0);
+            String text = withText && first != null ? first.getText() : null;
+            String value = attribute != null && first != null ? first.getAttribute(attribute) : null;
+            snapshots.add(new ElementSnapshot(elements.size(), text, value));
+        }
+        return snapshots;
+    }
+
+    @Override
+    public String name() {
+        return "webdriver";
+    }
+}
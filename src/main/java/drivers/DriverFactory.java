@@ -1,8 +1,11 @@
 package drivers;
 
+import base.ElementQueryBackends;
 import io.github.bonigarcia.wdm.WebDriverManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.Proxy;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
@@ -10,9 +13,13 @@ import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.remote.AbstractDriverOptions;
 import utils.ConfigReader;
 
 import java.time.Duration;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Factory class for WebDriver initialization and management.
@@ -21,6 +28,9 @@ import java.time.Duration;
 public class DriverFactory {
     private static final Logger logger = LogManager.getLogger(DriverFactory.class);
     private static final ThreadLocal<WebDriver> driver = new ThreadLocal<>();
+    /** Browsers released with reuseBrowser=true, waiting for the next test on any thread. */
+    private static final Deque<WebDriver> idleDrivers = new ConcurrentLinkedDeque<>();
+    private static final AtomicBoolean shutdownHookAdded = new AtomicBoolean();
 
     private DriverFactory() {
         throw new IllegalStateException("Utility class");
@@ -35,6 +45,13 @@ public class DriverFactory {
             return;
         }
 
+        WebDriver idle = idleDrivers.pollFirst();
+        if (idle != null) {
+            driver.set(idle);
+            logger.info("Reusing open browser");
+            return;
+        }
+
         String browser = ConfigReader.get("browser", "chrome").toLowerCase();
         boolean headless = ConfigReader.getBoolean("headless", true);
 
@@ -85,6 +102,7 @@ public class DriverFactory {
         options.addArguments("--disable-dev-shm-usage");
         options.addArguments("--disable-gpu");
         options.addArguments("--window-size=1920,1080");
+        applyProxy(options);
         return options;
     }
 
@@ -98,6 +116,7 @@ public class DriverFactory {
         }
         options.addArguments("--width=1920");
         options.addArguments("--height=1080");
+        applyProxy(options);
         return options;
     }
 
@@ -112,9 +131,25 @@ public class DriverFactory {
         options.addArguments("--no-sandbox");
         options.addArguments("--disable-dev-shm-usage");
         options.addArguments("--window-size=1920,1080");
+        applyProxy(options);
         return options;
     }
 
+    /**
+     * Routes browser HTTP traffic through the proxy configured as httpProxy (host:port),
+     * e.g. the record/replay proxy. Nothing is changed when httpProxy is empty.
+     */
+    private static void applyProxy(AbstractDriverOptions<?> options) {
+        String httpProxy = ConfigReader.get("httpProxy", "");
+        if (httpProxy.isEmpty()) {
+            return;
+        }
+        Proxy proxy = new Proxy();
+        proxy.setHttpProxy(httpProxy);
+        options.setProxy(proxy);
+        logger.info("Browser HTTP proxy: {}", httpProxy);
+    }
+
     /**
      * Applies common driver configurations from config.properties.
      * Sets window size, implicit wait, and page load timeout.
@@ -175,6 +210,7 @@ public class DriverFactory {
     public static void quitDriver() {
         if (driver.get() != null) {
             try {
+                ElementQueryBackends.release(driver.get());
                 driver.get().quit();
                 logger.info("Driver quit successfully");
             } catch (Exception e) {
@@ -184,4 +220,54 @@ public class DriverFactory {
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Ends the current thread's use of its driver. With reuseBrowser=true the browser
+     * is reset (cookies, local and session storage of the current site, about:blank)
+     * and kept open for the next test; otherwise, or if the reset fails, it is quit.
+     */
+    public static void releaseDriver() {
+        WebDriver webDriver = driver.get();
+        if (webDriver == null) {
+            return;
+        }
+        if (!ConfigReader.getBoolean("reuseBrowser", false)) {
+            quitDriver();
+            return;
+        }
+        try {
+            webDriver.manage().deleteAllCookies();
+            try {
+                ((JavascriptExecutor) webDriver).executeScript("window.localStorage.clear(); window.sessionStorage.clear();");
+            } catch (Exception e) {
+                logger.debug("No web storage to clear: {}", e.getMessage());
+            }
+            webDriver.get("about:blank");
+        } catch (Exception e) {
+            logger.warn("Browser could not be reset, quitting it: {}", e.getMessage());
+            quitDriver();
+            return;
+        }
+        driver.remove();
+        idleDrivers.addFirst(webDriver);
+        if (shutdownHookAdded.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(DriverFactory::quitIdleDrivers, "quit-idle-browsers"));
+        }
+        logger.info("Browser reset and kept open for the next test");
+    }
+
+    /**
+     * Quits the browsers kept open by {@link #releaseDriver()}
+     */
+    public static void quitIdleDrivers() {
+        WebDriver idle;
+        while ((idle = idleDrivers.pollFirst()) != null) {
+            try {
+                ElementQueryBackends.release(idle);
+                idle.quit();
+            } catch (Exception e) {
+                logger.error("Error while quitting idle driver: {}", e.getMessage(), e);
+            }
+        }
+    }
+}
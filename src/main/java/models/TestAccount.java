@@ -0,0 +1,38 @@
+package models;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Data model for a shop account owned by the test account pool.
+ * Persisted as JSON between runs so provisioned accounts are reused.
+ */
+public class TestAccount {
+
+    @JsonProperty("email")
+    private String email;
+
+    @JsonProperty("password")
+    private String password;
+
+    // Default constructor for Jackson
+    public TestAccount() {
+    }
+
+    public TestAccount(String email, String password) {
+        this.email = email;
+        this.password = password;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String toString() {
+        return "TestAccount{email='" + email + "'}";
+    }
+}
@@ -3,11 +3,19 @@ package pages;
 import base.BasePage;
 import io.qameta.allure.Step;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
+import utils.ConfigReader;
 import utils.WaitUtils;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public class CheckoutPage extends BasePage {
 
     // Page Title & Steps Locators
@@ -17,6 +25,8 @@ public class CheckoutPage extends BasePage {
     // Step 1: Billing Address Section Locators
     private final By billingAddressSection = By.id("billing-buttons-container");
     private final By billingAddressDropdown = By.id("billing-address-select");
+    // The dropdown when the account has saved addresses, otherwise the new address form
+    private final By billingAddressChoice = By.cssSelector("#billing-address-select, #billing-new-address-form");
     private final By newAddressButton = By.xpath("//input[@onclick='Billing.newAddress(event)']");
 
     // Billing Address Form Fields Locators
@@ -174,8 +184,24 @@ public class CheckoutPage extends BasePage {
         return isVisible(billingAddressSection);
     }
 
+    /**
+     * Selects a saved billing address, or "New Address" for the new address form.
+     * Accounts without saved addresses (e.g. pooled accounts) get no dropdown,
+     * just the form, so "New Address" needs no selection for them.
+     *
+     * @param addressText visible text of the dropdown option
+     * @throws NoSuchElementException if a saved address is requested and the account has none
+     */
     @Step("Select existing billing address: {addressText}")
     public void selectBillingAddress(String addressText) {
+        WebElement choice = WaitUtils.waitForVisibility(driver, billingAddressChoice);
+        if (!"billing-address-select".equals(choice.getAttribute("id"))) {
+            if (!"New Address".equals(addressText)) {
+                throw new NoSuchElementException("No saved billing addresses to select '" + addressText + "' from");
+            }
+            logger.info("No saved billing addresses - the new address form is already open");
+            return;
+        }
         Select select = new Select(driver.findElement(billingAddressDropdown));
         select.selectByVisibleText(addressText);
     }
@@ -531,6 +557,137 @@ public class CheckoutPage extends BasePage {
         clickConfirmOrder();
     }
 
+// ---------------------------------------------------------
+// Checkout Fast-Forward
+// ---------------------------------------------------------
+
+    /**
+     * One-page checkout sections, in the order the shop walks through them.
+     * The name is the section id used by the shop's OPC save responses.
+     */
+    public enum CheckoutStep {
+        BILLING("billing"),
+        SHIPPING("shipping"),
+        SHIPPING_METHOD("shipping_method"),
+        PAYMENT_METHOD("payment_method"),
+        PAYMENT_INFO("payment_info"),
+        CONFIRM_ORDER("confirm_order");
+
+        private final String section;
+
+        CheckoutStep(String section) {
+            this.section = section;
+        }
+
+        public String getSection() {
+            return section;
+        }
+    }
+
+    /*
+     * Posts each section form to its OPC save endpoint (the same calls Billing.save(),
+     * Shipping.save(), ... make) with the browser's own session. Intermediate sections
+     * are rendered into their placeholders without animation so the next form can be
+     * serialized; the response that leads to the target is handed to
+     * Checkout.setStepResponse so the page shows the target section as usual.
+     */
+    private static final String FAST_FORWARD_SCRIPT =
+            "var target=arguments[0],billing=arguments[1],radios=arguments[2],done=arguments[arguments.length-1];"
+            + "var order=['billing','shipping','shipping_method','payment_method','payment_info','confirm_order'];"
+            + "var urls={billing:'OpcSaveBilling',shipping:'OpcSaveShipping',shipping_method:'OpcSaveShippingMethod',"
+            + "payment_method:'OpcSavePaymentMethod',payment_info:'OpcSavePaymentInfo'};"
+            + "function form(s){return document.getElementById('co-'+s.replace(/_/g,'-')+'-form');}"
+            + "function set(id,v){var e=document.getElementById(id);if(!e){return;}"
+            + "if(e.tagName==='SELECT'&&v!==''){for(var i=0;i<e.options.length;i++){"
+            + "if(e.options[i].text.trim()===v){e.selectedIndex=i;return;}}}e.value=v;}"
+            + "var sel=document.getElementById('billing-address-select');if(sel){sel.value='';}"
+            + "Object.keys(billing).forEach(function(k){set('BillingNewAddress_'+k,billing[k]);});"
+            + "var steps=0;"
+            + "function post(s){var f=form(s);if(!f){done({error:'No form for section '+s});return;}"
+            + "radios.forEach(function(id){var r=document.getElementById(id);if(r&&f.contains(r)){r.checked=true;}});"
+            + "fetch('/checkout/'+urls[s]+'/',{method:'POST',credentials:'same-origin',"
+            + "headers:{'X-Requested-With':'XMLHttpRequest'},body:new URLSearchParams(new FormData(f))})"
+            + ".then(function(r){return r.json();}).then(function(json){steps++;"
+            + "if(json.error){done({error:s+': '+[].concat(json.message).join('; ')});return;}"
+            + "if(json.redirect){done({error:s+': redirected to '+json.redirect});return;}"
+            + "var next=json.goto_section;"
+            + "if(next===target){Checkout.setStepResponse(json);done({steps:steps});return;}"
+            + "if(!next||order.indexOf(next)>order.indexOf(target)){done({error:'Shop skipped to '+next+' after '+s});return;}"
+            + "var u=json.update_section;if(u){var load=document.getElementById('checkout-'+u.name.replace(/_/g,'-')+'-load');"
+            + "if(load){if(window.jQuery){jQuery(load).html(u.html);}else{load.innerHTML=u.html;}}}"
+            + "post(next);})['catch'](function(e){done({error:s+': '+e});});}"
+            + "post('billing');";
+
+    /**
+     * Completes every checkout section before {@code target} through the shop's
+     * save endpoints and leaves the browser on the target section.
+     * Uses the default address from config.properties (checkoutFirstName, ...).
+     *
+     * @param target section the test wants to start from
+     */
+    public void fastForwardTo(CheckoutStep target) {
+        fastForwardTo(target,
+                ConfigReader.get("checkoutFirstName", "John"),
+                ConfigReader.get("checkoutLastName", "Doe"),
+                ConfigReader.get("checkoutEmail", ConfigReader.get("validEmail")),
+                ConfigReader.get("checkoutCountry", "United States"),
+                ConfigReader.get("checkoutCity", "New York"),
+                ConfigReader.get("checkoutAddress1", "123 Main Street"),
+                ConfigReader.get("checkoutZipCode", "10001"),
+                ConfigReader.get("checkoutPhoneNumber", "1234567890"));
+    }
+
+    /**
+     * Completes every checkout section before {@code target} through the shop's
+     * save endpoints and leaves the browser on the target section. The billing
+     * address is saved as a new address; ground shipping and Cash on Delivery
+     * are chosen, as in {@link #completeCheckoutWithCOD}.
+     *
+     * Loads the checkout page only if the browser is not already on it, so the
+     * whole call costs at most one page load.
+     *
+     * @param target section the test wants to start from
+     * @throws IllegalStateException if the shop rejects any section
+     */
+    @Step("Fast-forward checkout to {target}")
+    public void fastForwardTo(CheckoutStep target, String firstName, String lastName, String email,
+                              String country, String city, String address1,
+                              String zipCode, String phoneNumber) {
+        ensureOnCheckoutPage();
+        if (target == CheckoutStep.BILLING) {
+            return;
+        }
+        waitForPageToLoad();
+
+        Map<String, String> billing = new LinkedHashMap<>();
+        billing.put("FirstName", firstName);
+        billing.put("LastName", lastName);
+        billing.put("Email", email);
+        billing.put("CountryId", country);
+        billing.put("City", city);
+        billing.put("Address1", address1);
+        billing.put("ZipPostalCode", zipCode);
+        billing.put("PhoneNumber", phoneNumber);
+
+        Object result = ((JavascriptExecutor) driver).executeAsyncScript(FAST_FORWARD_SCRIPT,
+                target.getSection(), billing, Arrays.asList("shippingoption_0", "paymentmethod_0"));
+
+        Map<?, ?> outcome = result instanceof Map ? (Map<?, ?>) result : null;
+        if (outcome == null || outcome.containsKey("error")) {
+            String reason = outcome == null ? String.valueOf(result) : String.valueOf(outcome.get("error"));
+            logger.error("Checkout fast-forward to {} failed: {}", target, reason);
+            throw new IllegalStateException("Checkout fast-forward to " + target + " failed: " + reason);
+        }
+        logger.info("Fast-forwarded checkout to {} with {} save call(s)", target, outcome.get("steps"));
+    }
+
+    private void ensureOnCheckoutPage() {
+        if (!isOnCheckoutPage()) {
+            String baseUrl = ConfigReader.get("baseUrl");
+            driver.get((baseUrl.endsWith("/") ? baseUrl : baseUrl + "/") + "onepagecheckout");
+        }
+    }
+
 // ---------------------------------------------------------
 // Helper Methods
 // ---------------------------------------------------------
@@ -1,12 +1,16 @@
 package pages;
 
 import base.BasePage;
+import base.ElementSnapshot;
 import io.qameta.allure.Step;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Page Object for Home Page.
  * Handles all home page operations including navigation, search, and category selection.
@@ -39,6 +43,10 @@ public class HomePage extends BasePage {
     private final By jewelryCategory     = By.xpath("//ul[@class='top-menu']//a[normalize-space()='Jewelry']");
     private final By giftCategory        = By.xpath("//ul[@class='top-menu']//a[normalize-space()='Gift Cards']");
 
+    // Read in one pass by the category menu checks
+    private final By[] categoryLinks = {booksCategory, computersCategory, electronicsCategory, apparelCategory,
+            digitalCategory, jewelryCategory, giftCategory};
+
     // ≡ Constructor
     public HomePage(WebDriver driver) {
         super(driver);
@@ -209,6 +217,28 @@ public class HomePage extends BasePage {
         return visible;
     }
 
+    @Step("Count category menu links present")
+    public int getCategoryLinkCount() {
+        int present = 0;
+        for (int count : getElementCounts(categoryLinks)) {
+            if (count > 0) {
+                present++;
+            }
+        }
+        logger.info("Category menu links present: {} of {}", present, categoryLinks.length);
+        return present;
+    }
+
+    @Step("Read category menu link texts")
+    public List<String> getCategoryLinkTexts() {
+        List<String> texts = new ArrayList<>();
+        for (ElementSnapshot link : readElements(null, categoryLinks)) {
+            texts.add(link.getText() == null ? null : link.getText().trim());
+        }
+        logger.info("Category menu link texts: {}", texts);
+        return texts;
+    }
+
     @Step("Get current page title")
     public String getPageTitle() {
         String title = driver.getTitle();
@@ -0,0 +1,372 @@
+package proxy;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.ConfigReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Proxy backend that injects latency and faults in front of another backend,
+ * so wait strategies, retries and timeouts can be measured under slow or
+ * failing conditions that are the same on every run.
+ *
+ * A fault profile is a list of {@link FaultRule}s; the first rule whose route
+ * matches a request decides, per request: added latency (fixed, uniform or
+ * long-tail), an injected error status, a truncated body, a slow first byte and
+ * a bandwidth limit. Every decision is drawn from a random source seeded with
+ * (profile seed, rule, request number for that rule), so the n-th request to
+ * a route gets the same treatment on every run.
+ *
+ * Profiles are classpath resources fault-profiles/&lt;name&gt;.json:
+ * <pre>
+ * {"seed": 42, "rules": [
+ *   {"route": "^/checkout/", "method": "POST", "latency": "longtail:200:3000", "errorRate": 0.1},
+ *   {"route": ".*", "bandwidthBytesPerSecond": 65536, "firstByteDelayMs": 150}
+ * ]}
+ * </pre>
+ *
+ * The shared proxy is started by {@link #startIfConfigured()} in front of the
+ * current baseUrl (live site, record/replay proxy or offline stub) and points
+ * baseUrl and httpProxy at itself. Tests select a profile with
+ * {@link InjectFaults}; TestListener applies it for the duration of the test.
+ *
+ * The proxy has one active profile for all traffic, so a test with a profile
+ * runs alone: {@link #beginTest(String)} waits until every other test has
+ * ended and holds off new ones until {@link #endTest(String, int)}. Tests
+ * without a profile run in parallel as usual. The profile covers the test's
+ * whole run, &#64;BeforeMethod to &#64;AfterMethod. A profile selected before
+ * the proxy started (the first test's set-up starts it) is applied when it
+ * starts.
+ *
+ * Configuration (config.properties):
+ * - faultProxyEnabled (default: false)
+ * - faultProfile: profile used when a test declares none (default: empty = pass-through)
+ * - faultProxyPort (default: 0 = random free port)
+ * - faultExclusiveWaitSeconds: how long a test waits for its turn before
+ *   running anyway, with a warning (default: 600)
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public class FaultInjectionProxy implements ProxyBackend {
+
+    private static final Logger logger = LogManager.getLogger(FaultInjectionProxy.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final String PROFILE_DIRECTORY = "fault-profiles/";
+
+    /** Permits a test with a profile takes: all of them, so it runs alone. */
+    private static final int EXCLUSIVE = 1 << 16;
+    private static final Semaphore tests = new Semaphore(EXCLUSIVE, true);
+
+    private static ProxyServer server;
+    private static FaultInjectionProxy shared;
+    /** Profile selected before the proxy started; applied by startIfConfigured. */
+    private static String pendingProfile;
+
+    private final ProxyBackend delegate;
+    private volatile ActiveProfile active = new ActiveProfile("none", 0, Collections.emptyList());
+
+    public FaultInjectionProxy(ProxyBackend delegate) {
+        this.delegate = delegate;
+    }
+
+    // ---------------------------------------------------------
+    // LIFECYCLE
+    // ---------------------------------------------------------
+
+    /**
+     * Starts the shared fault proxy if faultProxyEnabled is true, in front of
+     * the current baseUrl, and points baseUrl and httpProxy at it.
+     *
+     * @return the running proxy server, or null when disabled
+     */
+    public static synchronized ProxyServer startIfConfigured() {
+        if (!ConfigReader.getBoolean("faultProxyEnabled", false)) {
+            return null;
+        }
+        if (server != null) {
+            return server;
+        }
+        URI upstream = URI.create(ConfigReader.get("baseUrl"));
+        shared = new FaultInjectionProxy(new UpstreamBackend(Duration.ofSeconds(ConfigReader.getInt("apiTimeout", 30))));
+        // Delayed requests hold a worker each, so allow plenty of them
+        server = new ProxyServer(ConfigReader.getInt("faultProxyPort", 0), upstream, shared, 64);
+        ConfigReader.set("baseUrl", server.getBaseUrl());
+        ConfigReader.set("httpProxy", server.getAddress());
+        String requested = pendingProfile;
+        reset();
+        if (requested != null) {
+            useProfile(requested);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(FaultInjectionProxy::stop, "fault-proxy-shutdown"));
+        return server;
+    }
+
+    public static synchronized void stop() {
+        if (server != null) {
+            server.stop();
+            server = null;
+            shared = null;
+        }
+    }
+
+    /**
+     * @return true if the shared fault proxy is running
+     */
+    public static synchronized boolean isRunning() {
+        return server != null;
+    }
+
+    // ---------------------------------------------------------
+    // PROFILES
+    // ---------------------------------------------------------
+
+    /**
+     * Activates a profile from fault-profiles/&lt;name&gt;.json. Request counters
+     * restart, so the test sees the same fault sequence on every run.
+     *
+     * @param name profile name
+     * @throws IllegalArgumentException if the profile is missing or malformed
+     */
+    public static synchronized void useProfile(String name) {
+        if (shared == null && ConfigReader.getBoolean("faultProxyEnabled", false)) {
+            loadProfile(name);
+            pendingProfile = name;
+            return;
+        }
+        if (shared == null) {
+            logger.warn("Fault profile '{}' requested but the fault proxy is not running (faultProxyEnabled=false)", name);
+            return;
+        }
+        Profile profile = loadProfile(name);
+        use(name, profile.getSeed(), profile.getRules());
+    }
+
+    /**
+     * Activates an ad-hoc set of rules.
+     *
+     * @param name  label used in logs and summaries
+     * @param seed  random seed
+     * @param rules rules, first match wins
+     */
+    public static synchronized void use(String name, long seed, List<FaultRule> rules) {
+        if (shared == null) {
+            logger.warn("Fault profile '{}' requested but the fault proxy is not running (faultProxyEnabled=false)", name);
+            return;
+        }
+        shared.active = new ActiveProfile(name, seed, rules);
+        logger.info("Fault profile '{}' active: {} rule(s), seed {}", name, rules.size(), seed);
+    }
+
+    /**
+     * Returns to the configured default profile (faultProfile), or to pass-through.
+     */
+    public static synchronized void reset() {
+        pendingProfile = null;
+        if (shared == null) {
+            return;
+        }
+        String name = ConfigReader.get("faultProfile", "").trim();
+        if (name.isEmpty()) {
+            shared.active = new ActiveProfile("none", 0, Collections.emptyList());
+        } else {
+            useProfile(name);
+        }
+    }
+
+    // ---------------------------------------------------------
+    // TEST ISOLATION
+    // ---------------------------------------------------------
+
+    /**
+     * Enters a test. With a profile, waits until no other test is running,
+     * then activates the profile; without one, waits only while a profiled
+     * test runs. Does nothing when faultProxyEnabled is false.
+     *
+     * @param profile profile name, or null for the default profile
+     * @return permits to pass to {@link #endTest(String, int)}
+     */
+    public static int beginTest(String profile) {
+        if (!ConfigReader.getBoolean("faultProxyEnabled", false)) {
+            return 0;
+        }
+        int permits = profile == null ? 1 : EXCLUSIVE;
+        long waitSeconds = ConfigReader.getInt("faultExclusiveWaitSeconds", 600);
+        try {
+            if (!tests.tryAcquire(permits, waitSeconds, TimeUnit.SECONDS)) {
+                logger.warn("Waited {}s for {} - running it anyway, faults may reach other tests",
+                        waitSeconds, profile == null ? "a profiled test to finish" : "other tests to finish");
+                permits = 0;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the fault proxy", e);
+        }
+        if (profile != null) {
+            useProfile(profile);
+        }
+        return permits;
+    }
+
+    /**
+     * Leaves a test entered with {@link #beginTest(String)}, restoring the default profile after a profiled test.
+     *
+     * @param profile the profile passed to beginTest
+     * @param permits value returned by beginTest
+     */
+    public static void endTest(String profile, int permits) {
+        if (profile != null) {
+            reset();
+        }
+        if (permits > 0) {
+            tests.release(permits);
+        }
+    }
+
+    /**
+     * @return one-line summary of what the active profile injected so far
+     */
+    public static synchronized String getSummary() {
+        return shared == null ? "fault proxy not running" : shared.active.summary();
+    }
+
+    private static Profile loadProfile(String name) {
+        String resource = PROFILE_DIRECTORY + name + ".json";
+        try (InputStream input = FaultInjectionProxy.class.getClassLoader().getResourceAsStream(resource)) {
+            if (input == null) {
+                throw new IllegalArgumentException("Fault profile not found on classpath: " + resource);
+            }
+            return mapper.readValue(input, Profile.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to read fault profile " + resource + ": " + e.getMessage(), e);
+        }
+    }
+
+    // ---------------------------------------------------------
+    // INJECTION
+    // ---------------------------------------------------------
+
+    @Override
+    public ProxyResponse handle(ProxyRequest request) throws IOException {
+        ActiveProfile profile = active;
+        String path = request.getTarget().getRawPath();
+        int ruleIndex = profile.match(path, request.getMethod());
+        if (ruleIndex < 0) {
+            return delegate.handle(request);
+        }
+        FaultRule rule = profile.rules.get(ruleIndex);
+        long sequence = profile.counters[ruleIndex].getAndIncrement();
+        SplittableRandom random = new SplittableRandom(
+                profile.seed ^ (ruleIndex * 0x9E3779B97F4A7C15L) ^ (sequence * 0xBF58476D1CE4E5B9L));
+
+        // Draw every decision up front so one setting never shifts another's sequence
+        long latency = rule.getLatencyDistribution().sample(random);
+        boolean error = random.nextDouble() < rule.getErrorRate();
+        boolean truncate = random.nextDouble() < rule.getTruncateRate();
+        double truncateAt = random.nextDouble();
+
+        profile.requests.incrementAndGet();
+        if (latency > 0) {
+            profile.delayMillis.addAndGet(latency);
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while delaying " + request, e);
+            }
+        }
+        if (error) {
+            profile.errors.incrementAndGet();
+            logger.debug("Injecting HTTP {} for {} (rule {})", rule.getErrorStatus(), request, rule);
+            return ProxyResponse.text(rule.getErrorStatus(), "Injected fault (profile " + profile.name + ", rule " + rule + ")");
+        }
+
+        ProxyResponse response = delegate.handle(request);
+        int truncateAfter = -1;
+        if (truncate && response.getBody().length > 0) {
+            profile.truncations.incrementAndGet();
+            truncateAfter = (int) (response.getBody().length * truncateAt);
+            logger.debug("Truncating {} after {} of {} bytes", request, truncateAfter, response.getBody().length);
+        }
+        ResponseDelivery delivery = new ResponseDelivery(
+                rule.getFirstByteDelayMs(), rule.getBandwidthBytesPerSecond(), truncateAfter);
+        return delivery.isImmediate() ? response : response.withDelivery(delivery);
+    }
+
+    /**
+     * Rules of the active profile with their per-rule request counters and tallies.
+     */
+    private static final class ActiveProfile {
+        final String name;
+        final long seed;
+        final List<FaultRule> rules;
+        final AtomicLong[] counters;
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong delayMillis = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong truncations = new AtomicLong();
+
+        ActiveProfile(String name, long seed, List<FaultRule> rules) {
+            this.name = name;
+            this.seed = seed;
+            this.rules = new ArrayList<>(rules);
+            this.counters = new AtomicLong[rules.size()];
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] = new AtomicLong();
+            }
+        }
+
+        int match(String path, String method) {
+            for (int i = 0; i < rules.size(); i++) {
+                if (rules.get(i).matches(path, method)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        String summary() {
+            return String.format(Locale.ROOT, "profile '%s': %d request(s) matched, %d ms added latency, %d error(s), %d truncation(s)",
+                    name, requests.get(), delayMillis.get(), errors.get(), truncations.get());
+        }
+    }
+
+    /**
+     * JSON form of a fault profile.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Profile {
+        private long seed;
+        private List<FaultRule> rules = new ArrayList<>();
+
+        public long getSeed() {
+            return seed;
+        }
+
+        public void setSeed(long seed) {
+            this.seed = seed;
+        }
+
+        public List<FaultRule> getRules() {
+            return rules;
+        }
+
+        public void setRules(List<FaultRule> rules) {
+            this.rules = rules;
+        }
+    }
+}
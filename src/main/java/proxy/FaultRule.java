@@ -0,0 +1,129 @@
+package proxy;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.regex.Pattern;
+
+/**
+ * Faults applied to requests whose path matches a route pattern.
+ * Deserialized from a fault profile (see {@link FaultInjectionProxy}).
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class FaultRule {
+
+    /** Regular expression matched against the request path (find, not full match). */
+    private String route = ".*";
+    /** HTTP method to match, or null for any. */
+    private String method;
+    /** Latency spec, see {@link LatencyDistribution}. */
+    private String latency = "none";
+    /** Probability of answering with errorStatus instead of forwarding. */
+    private double errorRate;
+    private int errorStatus = 500;
+    /** Probability of cutting the response body short. */
+    private double truncateRate;
+    /** Pause before the first response byte, in milliseconds. */
+    private long firstByteDelayMs;
+    /** Body throughput limit, 0 for unlimited. */
+    private long bandwidthBytesPerSecond;
+
+    private Pattern routePattern;
+    private LatencyDistribution latencyDistribution;
+
+    public FaultRule() {
+    }
+
+    /**
+     * @param path   request path
+     * @param method request method
+     * @return true if this rule applies to the request
+     */
+    public boolean matches(String path, String method) {
+        if (routePattern == null) {
+            routePattern = Pattern.compile(route);
+        }
+        return (this.method == null || this.method.equalsIgnoreCase(method)) && routePattern.matcher(path).find();
+    }
+
+    public LatencyDistribution getLatencyDistribution() {
+        if (latencyDistribution == null) {
+            latencyDistribution = LatencyDistribution.parse(latency);
+        }
+        return latencyDistribution;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public void setRoute(String route) {
+        this.route = route;
+        this.routePattern = null;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    public String getLatency() {
+        return latency;
+    }
+
+    public void setLatency(String latency) {
+        // Parse eagerly so a bad profile fails when loaded, not mid-test
+        this.latencyDistribution = LatencyDistribution.parse(latency);
+        this.latency = latency;
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    public int getErrorStatus() {
+        return errorStatus;
+    }
+
+    public void setErrorStatus(int errorStatus) {
+        this.errorStatus = errorStatus;
+    }
+
+    public double getTruncateRate() {
+        return truncateRate;
+    }
+
+    public void setTruncateRate(double truncateRate) {
+        this.truncateRate = truncateRate;
+    }
+
+    public long getFirstByteDelayMs() {
+        return firstByteDelayMs;
+    }
+
+    public void setFirstByteDelayMs(long firstByteDelayMs) {
+        this.firstByteDelayMs = firstByteDelayMs;
+    }
+
+    public long getBandwidthBytesPerSecond() {
+        return bandwidthBytesPerSecond;
+    }
+
+    public void setBandwidthBytesPerSecond(long bandwidthBytesPerSecond) {
+        this.bandwidthBytesPerSecond = bandwidthBytesPerSecond;
+    }
+
+    @Override
+    public String toString() {
+        return (method == null ? "" : method + " ") + route;
+    }
+}
@@ -0,0 +1,25 @@
+package proxy;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Selects the fault profile the fault-injection proxy applies while a test runs.
+ * On a class, applies to all its tests; a method annotation wins over the class one.
+ *
+ * Example: {@code @InjectFaults("slow-network")} loads fault-profiles/slow-network.json.
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface InjectFaults {
+
+    /**
+     * @return profile name, resolved as classpath resource fault-profiles/&lt;name&gt;.json
+     */
+    String value();
+}
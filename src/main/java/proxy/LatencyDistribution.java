@@ -0,0 +1,108 @@
+package proxy;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Added response latency, parsed from a compact spec:
+ * - {@code none} (or empty): no delay
+ * - {@code fixed:200}: always 200 ms
+ * - {@code uniform:100-500}: uniform between 100 and 500 ms
+ * - {@code longtail:150:2000}: log-normal with median 150 ms and p99 2000 ms
+ *
+ * Samples are drawn from the caller's random source, so a seeded source
+ * gives the same delays on every run.
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public final class LatencyDistribution {
+
+    public static final LatencyDistribution NONE = new LatencyDistribution("none", 0, 0, 0);
+
+    /** z-score of the 99th percentile of the standard normal distribution. */
+    private static final double Z_99 = 2.3263;
+    private static final long MAX_MILLIS = 60_000;
+
+    private final String spec;
+    private final int kind;   // 0 = none/fixed, 1 = uniform, 2 = long tail
+    private final double first;
+    private final double second;
+
+    private LatencyDistribution(String spec, int kind, double first, double second) {
+        this.spec = spec;
+        this.kind = kind;
+        this.first = first;
+        this.second = second;
+    }
+
+    /**
+     * @param spec latency spec, see class documentation
+     * @return parsed distribution
+     * @throws IllegalArgumentException for malformed specs
+     */
+    public static LatencyDistribution parse(String spec) {
+        if (spec == null || spec.trim().isEmpty() || spec.trim().equalsIgnoreCase("none")) {
+            return NONE;
+        }
+        String[] parts = spec.trim().toLowerCase(Locale.ROOT).split(":");
+        try {
+            switch (parts[0]) {
+                case "fixed":
+                    return new LatencyDistribution(spec, 0, Long.parseLong(parts[1]), 0);
+                case "uniform":
+                    String[] range = parts[1].split("-");
+                    long min = Long.parseLong(range[0]);
+                    long max = Long.parseLong(range[1]);
+                    if (max < min) {
+                        throw new IllegalArgumentException("Uniform latency max below min: " + spec);
+                    }
+                    return new LatencyDistribution(spec, 1, min, max);
+                case "longtail":
+                    double median = Double.parseDouble(parts[1]);
+                    double p99 = Double.parseDouble(parts[2]);
+                    if (median <= 0 || p99 < median) {
+                        throw new IllegalArgumentException("Long-tail latency needs 0 < median <= p99: " + spec);
+                    }
+                    return new LatencyDistribution(spec, 2, Math.log(median), Math.log(p99 / median) / Z_99);
+                default:
+                    throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed latency spec '" + spec
+                    + "' (expected none, fixed:MS, uniform:MIN-MAX or longtail:MEDIAN:P99)", e);
+        }
+    }
+
+    /**
+     * @param random random source
+     * @return delay in milliseconds, capped at one minute
+     */
+    public long sample(SplittableRandom random) {
+        double millis;
+        switch (kind) {
+            case 1:
+                millis = first + random.nextDouble() * (second - first);
+                break;
+            case 2:
+                millis = Math.exp(first + second * gaussian(random));
+                break;
+            default:
+                millis = first;
+        }
+        return Math.min(MAX_MILLIS, Math.max(0, Math.round(millis)));
+    }
+
+    /**
+     * Standard normal sample (Box-Muller), since SplittableRandom has no nextGaussian.
+     */
+    private static double gaussian(SplittableRandom random) {
+        double u = 1.0 - random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+}
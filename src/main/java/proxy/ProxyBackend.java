@@ -0,0 +1,22 @@
+package proxy;
+
+import java.io.IOException;
+
+/**
+ * Produces the response for a request received by {@link ProxyServer}:
+ * forwarding it upstream, replaying a recording, or anything in between.
+ *
+ * Implementations are called concurrently from the server's worker threads.
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public interface ProxyBackend {
+
+    /**
+     * @param request incoming request
+     * @return complete response to send back
+     * @throws IOException if the response cannot be produced (answered with 502)
+     */
+    ProxyResponse handle(ProxyRequest request) throws IOException;
+}
@@ -0,0 +1,78 @@
+package proxy;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A request received by {@link ProxyServer}, with its target resolved to an absolute URI.
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public final class ProxyRequest {
+
+    private final String method;
+    private final URI target;
+    private final boolean upstreamTarget;
+    private final Map<String, List<String>> headers;
+    private final byte[] body;
+
+    ProxyRequest(String method, URI target, boolean upstreamTarget, Map<String, List<String>> headers, byte[] body) {
+        this.method = method;
+        this.target = target;
+        this.upstreamTarget = upstreamTarget;
+        this.headers = Collections.unmodifiableMap(headers);
+        this.body = body;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return absolute URI the request is meant for
+     */
+    public URI getTarget() {
+        return target;
+    }
+
+    /**
+     * @return true if the target is on the proxy's configured upstream origin
+     */
+    public boolean isUpstreamTarget() {
+        return upstreamTarget;
+    }
+
+    /**
+     * @return end-to-end request headers (hop-by-hop headers are already removed)
+     */
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Returns the first value of a header, matching the name case-insensitively.
+     *
+     * @param name header name
+     * @return value, or null if absent
+     */
+    public String getHeader(String name) {
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name) && !header.getValue().isEmpty()) {
+                return header.getValue().get(0);
+            }
+        }
+        return null;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + target;
+    }
+}
@@ -0,0 +1,69 @@
+package proxy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A complete response returned by a {@link ProxyBackend}: status, headers and the whole body.
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public final class ProxyResponse {
+
+    private final int status;
+    private final Map<String, List<String>> headers;
+    private final byte[] body;
+    private final ResponseDelivery delivery;
+
+    public ProxyResponse(int status, Map<String, List<String>> headers, byte[] body) {
+        this(status, headers, body, ResponseDelivery.IMMEDIATE);
+    }
+
+    private ProxyResponse(int status, Map<String, List<String>> headers, byte[] body, ResponseDelivery delivery) {
+        this.status = status;
+        this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(headers));
+        this.body = body;
+        this.delivery = delivery;
+    }
+
+    /**
+     * Creates a plain-text response generated by the proxy itself.
+     *
+     * @param status  HTTP status
+     * @param message body text
+     * @return response
+     */
+    public static ProxyResponse text(int status, String message) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        headers.put("Content-Type", Collections.singletonList("text/plain; charset=utf-8"));
+        return new ProxyResponse(status, headers, message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public ResponseDelivery getDelivery() {
+        return delivery;
+    }
+
+    /**
+     * @param delivery how the server should write this response
+     * @return copy of this response with the given delivery
+     */
+    public ProxyResponse withDelivery(ResponseDelivery delivery) {
+        return new ProxyResponse(status, headers, body, delivery);
+    }
+}
@@ -0,0 +1,241 @@
+package proxy;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+/**
+ * Local HTTP proxy that hands every request to a {@link ProxyBackend}.
+ *
+ * Accepts both request forms:
+ * - origin-form ("GET /cart"), as sent by clients whose base URL points at the
+ *   proxy; the target is resolved against the upstream origin (reverse proxy)
+ * - absolute-form ("GET http://host/cart"), as sent by clients configured with
+ *   the proxy as their HTTP proxy (forward proxy)
+ *
+ * HTTPS upstreams are reached in reverse mode only: CONNECT tunnels would need
+ * a man-in-the-middle certificate and are not supported. Redirects and cookies
+ * from the upstream origin are rewritten so the client stays on the proxy.
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public class ProxyServer {
+
+    private static final Logger logger = LogManager.getLogger(ProxyServer.class);
+
+    private static final Set<String> HOP_BY_HOP = new HashSet<>(Arrays.asList(
+            "connection", "proxy-connection", "keep-alive", "transfer-encoding", "te", "trailer",
+            "upgrade", "proxy-authorization", "proxy-authenticate", "host", "content-length", "expect",
+            "accept-encoding"));
+    private static final Pattern COOKIE_DOMAIN = Pattern.compile(";\\s*domain=[^;]*", Pattern.CASE_INSENSITIVE);
+    private static final Pattern COOKIE_SECURE = Pattern.compile(";\\s*secure(?=;|$)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern COOKIE_SAMESITE_NONE = Pattern.compile(";\\s*samesite=none", Pattern.CASE_INSENSITIVE);
+
+    private final URI upstream;
+    private final String upstreamOrigin;
+    private final ProxyBackend backend;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Starts a proxy on a loopback port.
+     *
+     * @param port     port to bind, 0 for any free port
+     * @param upstream origin that origin-form requests are forwarded to, e.g. https://demowebshop.tricentis.com
+     * @param backend  produces the responses
+     * @param threads  worker threads
+     */
+    public ProxyServer(int port, URI upstream, ProxyBackend backend, int threads) {
+        this.upstream = upstream;
+        this.upstreamOrigin = origin(upstream);
+        this.backend = backend;
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to start proxy on port " + port, e);
+        }
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "proxy-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        logger.info("Proxy listening on {} (upstream {})", getBaseUrl(), upstreamOrigin);
+    }
+
+    /**
+     * @return URL clients use as base URL in reverse mode, without trailing slash
+     */
+    public String getBaseUrl() {
+        return "http://" + getAddress();
+    }
+
+    /**
+     * @return host:port clients use as HTTP proxy in forward mode
+     */
+    public String getAddress() {
+        return "127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public URI getUpstream() {
+        return upstream;
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+        logger.info("Proxy on {} stopped", getAddress());
+    }
+
+    // ---------------------------------------------------------
+    // REQUEST HANDLING
+    // ---------------------------------------------------------
+
+    private void handle(HttpExchange exchange) {
+        try {
+            ProxyRequest request = toRequest(exchange);
+            ProxyResponse response;
+            try {
+                response = backend.handle(request);
+            } catch (IOException e) {
+                logger.warn("Proxy request {} failed: {}", request, e.getMessage());
+                response = ProxyResponse.text(502, "Upstream request failed: " + e.getMessage());
+            }
+            write(exchange, request, response);
+        } catch (Exception e) {
+            logger.error("Proxy failed on {} {}: {}", exchange.getRequestMethod(), exchange.getRequestURI(), e.getMessage(), e);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private ProxyRequest toRequest(HttpExchange exchange) throws IOException {
+        URI uri = exchange.getRequestURI();
+        String pathAndQuery = (uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath())
+                + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+
+        // Absolute-form addressed to the proxy itself is treated like origin-form
+        boolean forward = uri.isAbsolute() && !isSelf(uri);
+        URI target = forward ? URI.create(origin(uri) + pathAndQuery) : URI.create(upstreamOrigin + pathAndQuery);
+
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        exchange.getRequestHeaders().forEach((name, values) -> {
+            if (!HOP_BY_HOP.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.put(name, new ArrayList<>(values));
+            }
+        });
+        byte[] body = exchange.getRequestBody().readAllBytes();
+        return new ProxyRequest(exchange.getRequestMethod(), target, origin(target).equals(upstreamOrigin), headers, body);
+    }
+
+    private boolean isSelf(URI uri) {
+        String host = uri.getHost();
+        return uri.getPort() == server.getAddress().getPort()
+                && ("127.0.0.1".equals(host) || "localhost".equalsIgnoreCase(host));
+    }
+
+    private void write(HttpExchange exchange, ProxyRequest request, ProxyResponse response) throws IOException {
+        boolean reverse = request.isUpstreamTarget();
+        response.getHeaders().forEach((name, values) -> {
+            String lower = name.toLowerCase(Locale.ROOT);
+            if (HOP_BY_HOP.contains(lower) || lower.startsWith(":")) {
+                return;
+            }
+            for (String value : values) {
+                if (reverse && lower.equals("location") && value.startsWith(upstreamOrigin)) {
+                    value = getBaseUrl() + value.substring(upstreamOrigin.length());
+                } else if (reverse && lower.equals("set-cookie")) {
+                    // The client talks plain HTTP to the proxy, so secure/domain-bound cookies would be dropped
+                    value = COOKIE_SAMESITE_NONE.matcher(COOKIE_SECURE.matcher(
+                            COOKIE_DOMAIN.matcher(value).replaceAll("")).replaceAll("")).replaceAll("");
+                }
+                exchange.getResponseHeaders().add(name, value);
+            }
+        });
+
+        byte[] body = response.getBody();
+        boolean noBody = "HEAD".equals(request.getMethod()) || response.getStatus() == 204 || response.getStatus() == 304;
+        ResponseDelivery delivery = response.getDelivery();
+        pause(delivery.getFirstByteDelayMillis());
+        exchange.sendResponseHeaders(response.getStatus(), noBody || body.length == 0 ? -1 : body.length);
+        if (noBody || body.length == 0) {
+            return;
+        }
+        if (delivery.isImmediate()) {
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+            return;
+        }
+        writeShaped(exchange, body, delivery);
+    }
+
+    /**
+     * Writes the body in paced chunks and, for truncated responses, stops early.
+     * Content-Length still announces the full body, so clients see a premature end of stream.
+     */
+    private void writeShaped(HttpExchange exchange, byte[] body, ResponseDelivery delivery) throws IOException {
+        int limit = delivery.getTruncateAfter() >= 0 ? Math.min(delivery.getTruncateAfter(), body.length) : body.length;
+        long rate = delivery.getBytesPerSecond();
+        // Ten chunks per second keeps the pacing smooth without a write per byte
+        int chunk = rate > 0 ? (int) Math.max(1, Math.min(rate / 10, Integer.MAX_VALUE)) : limit;
+        OutputStream output = exchange.getResponseBody();
+        for (int offset = 0; offset < limit; offset += chunk) {
+            int length = Math.min(chunk, limit - offset);
+            output.write(body, offset, length);
+            output.flush();
+            if (rate > 0) {
+                pause(length * 1000L / rate);
+            }
+        }
+        if (limit < body.length) {
+            logger.debug("Truncated response after {} of {} bytes", limit, body.length);
+            // Closing before Content-Length is reached drops the connection
+            exchange.close();
+            return;
+        }
+        output.close();
+    }
+
+    private static void pause(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return scheme://host[:port] of a URI, lower-cased, without default ports
+     */
+    static String origin(URI uri) {
+        String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+        int port = uri.getPort();
+        boolean defaultPort = port < 0 || ("http".equals(scheme) && port == 80) || ("https".equals(scheme) && port == 443);
+        return scheme + "://" + uri.getHost().toLowerCase(Locale.ROOT) + (defaultPort ? "" : ":" + port);
+    }
+}
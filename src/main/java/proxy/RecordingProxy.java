@@ -0,0 +1,232 @@
+package proxy;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.ConfigReader;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Record/replay proxy for shop traffic.
+ *
+ * In record mode every request is forwarded upstream and its response appended
+ * to a {@link ResponseArchive}; in replay mode responses come from the archive
+ * only, so runs are fast and deterministic and the public site is not needed.
+ *
+ * Requests are keyed on method + URL + normalized body:
+ * - URLs on the upstream origin are keyed by path only, so the same recording
+ *   replays whatever host or port the upstream had
+ * - query parameters and form fields are sorted; anti-forgery tokens are dropped
+ * - bodies longer than 512 characters are keyed by their SHA-256
+ * The n-th identical request of a run replays the n-th recorded response (the
+ * last one once the recording is exhausted), so stateful sequences such as
+ * "add to cart, then open cart" replay in order.
+ *
+ * Started once per JVM by {@link #startIfConfigured()}, which points baseUrl
+ * and httpProxy at the proxy so DriverFactory, BaseAPITest and the HTTP helpers
+ * route through it without further changes.
+ *
+ * Configuration (config.properties):
+ * - proxyMode: off | record | replay (default: off)
+ * - proxyArchive (default: recordings/demowebshop)
+ * - proxyUpstream (default: baseUrl)
+ * - proxyPort (default: 0 = random free port)
+ * - proxyReplayMiss: error | forward (default: error)
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public class RecordingProxy implements ProxyBackend {
+
+    private static final Logger logger = LogManager.getLogger(RecordingProxy.class);
+
+    private static final int MAX_INLINE_BODY = 512;
+    private static final Set<String> VOLATILE_FIELDS = new HashSet<>(Collections.singletonList("__RequestVerificationToken"));
+
+    private static ProxyServer server;
+    private static RecordingProxy shared;
+
+    private final boolean recording;
+    private final boolean forwardMisses;
+    private final ResponseArchive archive;
+    private final ProxyBackend upstream;
+    private final Map<String, AtomicInteger> occurrences = new ConcurrentHashMap<>();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    /**
+     * @param recording     true to record, false to replay
+     * @param forwardMisses in replay, forward unrecorded requests upstream instead of failing them
+     * @param archive       archive opened with {@link ResponseArchive#create} or {@link ResponseArchive#open}
+     * @param upstream      backend used for recording and forwarded misses
+     */
+    public RecordingProxy(boolean recording, boolean forwardMisses, ResponseArchive archive, ProxyBackend upstream) {
+        this.recording = recording;
+        this.forwardMisses = forwardMisses;
+        this.archive = archive;
+        this.upstream = upstream;
+    }
+
+    // ---------------------------------------------------------
+    // LIFECYCLE
+    // ---------------------------------------------------------
+
+    /**
+     * Starts the shared proxy if proxyMode is record or replay, and points
+     * baseUrl and httpProxy at it. Safe to call from every setup method.
+     *
+     * @return the running proxy server, or null when proxyMode is off
+     */
+    public static synchronized ProxyServer startIfConfigured() {
+        String mode = ConfigReader.get("proxyMode", "off").trim().toLowerCase(Locale.ROOT);
+        if (mode.isEmpty() || mode.equals("off")) {
+            return null;
+        }
+        if (server != null) {
+            return server;
+        }
+        if (!mode.equals("record") && !mode.equals("replay")) {
+            throw new IllegalStateException("Unsupported proxyMode '" + mode + "' (expected off, record or replay)");
+        }
+
+        boolean record = mode.equals("record");
+        String archivePath = ConfigReader.get("proxyArchive", "recordings/demowebshop");
+        URI upstreamUri = URI.create(ConfigReader.hasProperty("proxyUpstream")
+                ? ConfigReader.get("proxyUpstream") : ConfigReader.get("baseUrl"));
+        ResponseArchive archive = record
+                ? ResponseArchive.create(Paths.get(archivePath))
+                : ResponseArchive.open(Paths.get(archivePath));
+
+        shared = new RecordingProxy(record,
+                "forward".equalsIgnoreCase(ConfigReader.get("proxyReplayMiss", "error")),
+                archive,
+                new UpstreamBackend(Duration.ofSeconds(ConfigReader.getInt("apiTimeout", 30))));
+        server = new ProxyServer(ConfigReader.getInt("proxyPort", 0), upstreamUri, shared, 16);
+
+        ConfigReader.set("baseUrl", server.getBaseUrl());
+        ConfigReader.set("httpProxy", server.getAddress());
+        Runtime.getRuntime().addShutdownHook(new Thread(RecordingProxy::stop, "recording-proxy-shutdown"));
+        logger.info("Record/replay proxy started in {} mode: {} -> {}, archive {}",
+                mode, server.getBaseUrl(), upstreamUri, archivePath);
+        return server;
+    }
+
+    /**
+     * Stops the shared proxy and, when recording, writes the archive index.
+     */
+    public static synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop();
+        shared.archive.close();
+        if (shared.recording) {
+            logger.info("Recorded {} request keys", shared.archive.getKeyCount());
+        } else {
+            logger.info("Replayed {} responses, {} misses", shared.hits.get(), shared.misses.get());
+        }
+        server = null;
+        shared = null;
+    }
+
+    // ---------------------------------------------------------
+    // RECORD / REPLAY
+    // ---------------------------------------------------------
+
+    @Override
+    public ProxyResponse handle(ProxyRequest request) throws IOException {
+        String key = key(request);
+        int occurrence = occurrences.computeIfAbsent(key, k -> new AtomicInteger()).getAndIncrement();
+
+        if (recording) {
+            ProxyResponse response = upstream.handle(request);
+            archive.append(key, response);
+            return response;
+        }
+
+        ProxyResponse recorded = archive.find(key, occurrence);
+        if (recorded != null) {
+            hits.incrementAndGet();
+            return recorded;
+        }
+        misses.incrementAndGet();
+        if (forwardMisses) {
+            logger.debug("No recording for {}, forwarding upstream", key);
+            return upstream.handle(request);
+        }
+        logger.warn("No recorded response for {}", key);
+        return ProxyResponse.text(504, "No recorded response for: " + key);
+    }
+
+    /**
+     * Builds the archive key for a request: method, URL and normalized body.
+     *
+     * @param request proxied request
+     * @return key
+     */
+    static String key(ProxyRequest request) {
+        URI target = request.getTarget();
+        String path = target.getRawPath() == null || target.getRawPath().isEmpty() ? "/" : target.getRawPath();
+        String url = (request.isUpstreamTarget() ? "" : ProxyServer.origin(target)) + path;
+        if (target.getRawQuery() != null) {
+            url += "?" + sortedParameters(target.getRawQuery());
+        }
+
+        StringBuilder key = new StringBuilder(request.getMethod()).append(' ').append(url);
+        byte[] body = request.getBody();
+        if (body.length > 0) {
+            String contentType = request.getHeader("Content-Type");
+            String text = new String(body, StandardCharsets.UTF_8);
+            if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("application/x-www-form-urlencoded")) {
+                text = sortedParameters(text);
+            } else {
+                text = text.trim();
+            }
+            key.append('\n').append(text.length() > MAX_INLINE_BODY ? "sha256:" + sha256(text) : text);
+        }
+        return key.toString();
+    }
+
+    private static String sortedParameters(String encoded) {
+        List<String> pairs = new ArrayList<>(Arrays.asList(encoded.split("&")));
+        pairs.removeIf(pair -> {
+            int separator = pair.indexOf('=');
+            String name = URLDecoder.decode(separator < 0 ? pair : pair.substring(0, separator), StandardCharsets.UTF_8);
+            return pair.isEmpty() || VOLATILE_FIELDS.contains(name);
+        });
+        // Stable sort keeps the relative order of repeated fields
+        pairs.sort((a, b) -> a.substring(0, a.indexOf('=') < 0 ? a.length() : a.indexOf('='))
+                .compareTo(b.substring(0, b.indexOf('=') < 0 ? b.length() : b.indexOf('='))));
+        return String.join("&", pairs);
+    }
+
+    private static String sha256(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package proxy;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * On-disk archive of recorded responses, looked up by request key.
+ *
+ * Two files share a base path:
+ * - {@code <base>.dat}: records appended in arrival order (key, status, headers, body)
+ * - {@code <base>.idx}: open-addressing hash table from the 64-bit FNV-1a hash
+ *   of each key to the list of its record offsets, in recording order
+ *
+ * For replay both files are memory-mapped read-only, so opening an archive costs
+ * the same with ten responses or ten thousand: nothing is parsed up front, and a
+ * lookup touches one or two index slots plus the record itself. Records are read
+ * with absolute gets only, so lookups are safe from any number of threads.
+ *
+ * While recording, records go straight to the data file and only the offsets
+ * are kept in memory; the index is written (atomically) on {@link #close()}.
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public class ResponseArchive {
+
+    private static final Logger logger = LogManager.getLogger(ResponseArchive.class);
+
+    private static final int INDEX_MAGIC = 0x52524958;   // "RRIX"
+    private static final int RECORD_MAGIC = 0x52524452;  // "RRDR"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int SLOT_BYTES = 16;
+
+    private final Path dataFile;
+    private final Path indexFile;
+
+    // Recording state
+    private final FileChannel output;
+    private final Map<String, List<Long>> recorded;
+    private long dataSize;
+
+    // Replay state
+    private final MappedByteBuffer data;
+    private final MappedByteBuffer index;
+    private final int slotCount;
+    private final int keyCount;
+
+    private ResponseArchive(Path base, boolean recording) throws IOException {
+        this.dataFile = Paths.get(base + ".dat");
+        this.indexFile = Paths.get(base + ".idx");
+        if (recording) {
+            Path parent = dataFile.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            this.output = FileChannel.open(dataFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.recorded = new LinkedHashMap<>();
+            this.data = null;
+            this.index = null;
+            this.slotCount = 0;
+            this.keyCount = 0;
+        } else {
+            this.output = null;
+            this.recorded = null;
+            this.data = map(dataFile);
+            this.index = map(indexFile);
+            if (index.getInt(0) != INDEX_MAGIC || index.getInt(4) != VERSION) {
+                throw new IllegalStateException("Not a response archive index: " + indexFile);
+            }
+            this.slotCount = index.getInt(8);
+            this.keyCount = index.getInt(12);
+        }
+    }
+
+    /**
+     * Creates an empty archive for recording, replacing any existing one at the same path.
+     *
+     * @param base path without extension
+     * @return archive open for {@link #append}
+     */
+    public static ResponseArchive create(Path base) {
+        try {
+            return new ResponseArchive(base, true);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to create response archive " + base, e);
+        }
+    }
+
+    /**
+     * Opens an existing archive for replay.
+     *
+     * @param base path without extension
+     * @return archive open for {@link #find}
+     * @throws IllegalStateException if the archive is missing or corrupt
+     */
+    public static ResponseArchive open(Path base) {
+        try {
+            ResponseArchive archive = new ResponseArchive(base, false);
+            logger.info("Opened response archive {} ({} request keys)", base, archive.keyCount);
+            return archive;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to open response archive " + base
+                    + " - record it first with proxyMode=record", e);
+        }
+    }
+
+    private static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Archive file larger than 2 GB: " + file);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    // ---------------------------------------------------------
+    // RECORDING
+    // ---------------------------------------------------------
+
+    /**
+     * Appends a response for a key. Repeated keys keep every response, in order.
+     *
+     * @param key      normalized request key
+     * @param response response to store
+     */
+    public synchronized void append(String key, ProxyResponse response) {
+        if (output == null) {
+            throw new IllegalStateException("Archive " + dataFile + " is open for replay, not recording");
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + response.getBody().length);
+            DataOutputStream record = new DataOutputStream(bytes);
+            record.writeInt(RECORD_MAGIC);
+            writeBytes(record, key.getBytes(StandardCharsets.UTF_8));
+            record.writeInt(response.getStatus());
+            int headerCount = 0;
+            for (List<String> values : response.getHeaders().values()) {
+                headerCount += values.size();
+            }
+            record.writeInt(headerCount);
+            for (Map.Entry<String, List<String>> header : response.getHeaders().entrySet()) {
+                for (String value : header.getValue()) {
+                    writeBytes(record, header.getKey().getBytes(StandardCharsets.UTF_8));
+                    writeBytes(record, value.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            writeBytes(record, response.getBody());
+            record.flush();
+
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            long offset = dataSize;
+            while (buffer.hasRemaining()) {
+                dataSize += output.write(buffer, dataSize);
+            }
+            recorded.computeIfAbsent(key, k -> new ArrayList<>()).add(offset);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to append to response archive " + dataFile, e);
+        }
+    }
+
+    private static void writeBytes(DataOutputStream output, byte[] bytes) throws IOException {
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * Finishes recording by writing the index. No-op for replay archives.
+     */
+    public synchronized void close() {
+        if (output == null) {
+            return;
+        }
+        try {
+            output.force(true);
+            output.close();
+            writeIndex();
+            logger.info("Saved response archive {} ({} request keys, {} KB)",
+                    dataFile, recorded.size(), dataSize / 1024);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write response archive index " + indexFile, e);
+        }
+    }
+
+    private void writeIndex() throws IOException {
+        int slots = 16;
+        while (slots < recorded.size() * 2) {
+            slots <<= 1;
+        }
+        long size = HEADER_BYTES + (long) slots * SLOT_BYTES;
+        for (List<Long> offsets : recorded.values()) {
+            size += 4 + 8L * offsets.size();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(size));
+        buffer.putInt(INDEX_MAGIC).putInt(VERSION).putInt(slots).putInt(recorded.size());
+
+        int listPosition = HEADER_BYTES + slots * SLOT_BYTES;
+        for (Map.Entry<String, List<Long>> entry : recorded.entrySet()) {
+            long hash = hash(entry.getKey());
+            int slot = (int) (hash & (slots - 1));
+            while (buffer.getLong(HEADER_BYTES + slot * SLOT_BYTES) != 0) {
+                slot = (slot + 1) & (slots - 1);
+            }
+            buffer.putLong(HEADER_BYTES + slot * SLOT_BYTES, hash);
+            buffer.putLong(HEADER_BYTES + slot * SLOT_BYTES + 8, listPosition);
+
+            buffer.putInt(listPosition, entry.getValue().size());
+            listPosition += 4;
+            for (long offset : entry.getValue()) {
+                buffer.putLong(listPosition, offset);
+                listPosition += 8;
+            }
+        }
+
+        Path temp = Files.createTempFile(indexFile.toAbsolutePath().getParent(), "archive", ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            buffer.rewind();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // ---------------------------------------------------------
+    // REPLAY
+    // ---------------------------------------------------------
+
+    /**
+     * Finds the response recorded for the n-th occurrence of a key. Occurrences
+     * beyond the recorded count get the last recorded response.
+     *
+     * @param key        normalized request key
+     * @param occurrence zero-based occurrence of the key in this run
+     * @return response, or null if the key was never recorded
+     */
+    public ProxyResponse find(String key, int occurrence) {
+        if (index == null) {
+            throw new IllegalStateException("Archive " + dataFile + " is open for recording, not replay");
+        }
+        long hash = hash(key);
+        int mask = slotCount - 1;
+        int slot = (int) (hash & mask);
+        for (int probes = 0; probes < slotCount; probes++) {
+            int position = HEADER_BYTES + slot * SLOT_BYTES;
+            long slotHash = index.getLong(position);
+            if (slotHash == 0) {
+                return null;
+            }
+            if (slotHash == hash) {
+                int listPosition = (int) index.getLong(position + 8);
+                int count = index.getInt(listPosition);
+                long first = index.getLong(listPosition + 4);
+                // Hash collisions are possible; the record carries the full key
+                if (key.equals(readKey((int) first))) {
+                    long offset = index.getLong(listPosition + 4 + 8 * Math.min(occurrence, count - 1));
+                    return readRecord((int) offset);
+                }
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * @return number of distinct request keys in a replay archive
+     */
+    public int getKeyCount() {
+        return index != null ? keyCount : recorded.size();
+    }
+
+    private String readKey(int offset) {
+        if (data.getInt(offset) != RECORD_MAGIC) {
+            throw new IllegalStateException("Corrupt response archive " + dataFile + " at offset " + offset);
+        }
+        return new String(readBytes(offset + 4), StandardCharsets.UTF_8);
+    }
+
+    private ProxyResponse readRecord(int offset) {
+        int position = offset + 4;
+        position += 4 + data.getInt(position);
+        int status = data.getInt(position);
+        int headerCount = data.getInt(position + 4);
+        position += 8;
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (int i = 0; i < headerCount; i++) {
+            byte[] name = readBytes(position);
+            position += 4 + name.length;
+            byte[] value = readBytes(position);
+            position += 4 + value.length;
+            headers.computeIfAbsent(new String(name, StandardCharsets.UTF_8), k -> new ArrayList<>())
+                    .add(new String(value, StandardCharsets.UTF_8));
+        }
+        return new ProxyResponse(status, headers, readBytes(position));
+    }
+
+    private byte[] readBytes(int position) {
+        byte[] bytes = new byte[data.getInt(position)];
+        data.get(position + 4, bytes);
+        return bytes;
+    }
+
+    /**
+     * 64-bit FNV-1a of the key's UTF-8 bytes; never 0, which marks an empty slot.
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash == 0 ? 1 : hash;
+    }
+}
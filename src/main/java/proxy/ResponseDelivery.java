@@ -0,0 +1,45 @@
+package proxy;
+
+/**
+ * How {@link ProxyServer} writes a response: immediately, or shaped to
+ * simulate a slow or broken server.
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public final class ResponseDelivery {
+
+    /** Headers and body written as fast as the connection allows. */
+    public static final ResponseDelivery IMMEDIATE = new ResponseDelivery(0, 0, -1);
+
+    private final long firstByteDelayMillis;
+    private final long bytesPerSecond;
+    private final int truncateAfter;
+
+    /**
+     * @param firstByteDelayMillis pause before the status line is sent
+     * @param bytesPerSecond       body throughput limit, 0 for unlimited
+     * @param truncateAfter        close the connection after this many body bytes, -1 to send all
+     */
+    public ResponseDelivery(long firstByteDelayMillis, long bytesPerSecond, int truncateAfter) {
+        this.firstByteDelayMillis = firstByteDelayMillis;
+        this.bytesPerSecond = bytesPerSecond;
+        this.truncateAfter = truncateAfter;
+    }
+
+    public long getFirstByteDelayMillis() {
+        return firstByteDelayMillis;
+    }
+
+    public long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    public int getTruncateAfter() {
+        return truncateAfter;
+    }
+
+    public boolean isImmediate() {
+        return firstByteDelayMillis <= 0 && bytesPerSecond <= 0 && truncateAfter < 0;
+    }
+}
@@ -0,0 +1,66 @@
+package proxy;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link ProxyBackend} that forwards requests to their real target.
+ *
+ * Redirects are passed back to the client rather than followed, and no cookie
+ * jar is kept: cookies travel in the client's own headers, so several browser
+ * and API sessions can share one proxy.
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public class UpstreamBackend implements ProxyBackend {
+
+    /** Headers java.net.http sets itself and refuses from callers. */
+    private static final Set<String> RESTRICTED = new HashSet<>(Arrays.asList("date", "from", "via", "warning"));
+
+    private final HttpClient client;
+    private final Duration timeout;
+
+    public UpstreamBackend(Duration timeout) {
+        this.timeout = timeout;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    @Override
+    public ProxyResponse handle(ProxyRequest request) throws IOException {
+        byte[] body = request.getBody();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request.getTarget())
+                .timeout(timeout)
+                .method(request.getMethod(), body.length == 0
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body));
+        request.getHeaders().forEach((name, values) -> {
+            if (!RESTRICTED.contains(name.toLowerCase(Locale.ROOT))) {
+                values.forEach(value -> builder.header(name, value));
+            }
+        });
+
+        try {
+            HttpResponse<byte[]> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+            Map<String, List<String>> headers = new LinkedHashMap<>(response.headers().map());
+            return new ProxyResponse(response.statusCode(), headers, response.body());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while forwarding " + request, e);
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package session;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import models.TestAccount;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.ConfigReader;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Pool of shop accounts leased one per test thread.
+ *
+ * Tests that share a single login corrupt each other's cart and addresses when
+ * run in parallel. The pool hands one account to each thread that asks,
+ * registering a new one over HTTP only when every known account is in use
+ * (up to accountPoolSize), and on release empties the account's cart and
+ * deletes its saved addresses before making it available again. Only threads
+ * that leased an account pay for that reset. Accounts are stored in a local
+ * JSON file per shop host (e.g. account-pool-demowebshop.tricentis.com.json)
+ * and reused by later runs against the same host; accounts on a loopback host
+ * (the offline stub) are not stored, as they live only as long as the stub.
+ * Without saved addresses the checkout shows the new
+ * address form straight away, which CheckoutPage.selectBillingAddress handles.
+ *
+ * A lease belongs to a scope, normally the test class: BaseTest enters the
+ * class's scope before each test and releases it after the class, so the
+ * tests of one class keep one account (and the session snapshots captured
+ * with it) instead of resetting it after every test. A thread that enters
+ * another scope first releases the lease it still holds.
+ *
+ * Configuration (config.properties):
+ * - accountPoolEnabled     (true in the shipped config.properties; false when unset - everything uses validEmail)
+ * - accountPoolSize        (most accounts registered per host, default: 4)
+ * - accountPoolFile        (default: test-output/account-pool.json; the host is added to the name)
+ * - accountPoolPassword    (default: validPassword)
+ * - accountPoolEmailDomain (default: example.com)
+ * - accountLeaseTimeout    (seconds to wait for a free account, default: 120)
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public class AccountPool {
+
+    private static final Logger logger = LogManager.getLogger(AccountPool.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static final int POOL_SIZE = Math.max(1, ConfigReader.getInt("accountPoolSize", 4));
+    private static final long LEASE_TIMEOUT = ConfigReader.getInt("accountLeaseTimeout", 120);
+
+    private static final Pattern CART_ITEM = Pattern.compile("name=\"itemquantity(\\d+)\"");
+    private static final Pattern ADDRESS_DELETE = Pattern.compile("/customer/addressdelete/(\\d+)");
+
+    private static final List<TestAccount> accounts = new ArrayList<>();
+    private static final LinkedBlockingQueue<TestAccount> available = new LinkedBlockingQueue<>();
+    private static final Map<Thread, Lease> leases = new ConcurrentHashMap<>();
+    private static final ThreadLocal<String> scope = ThreadLocal.withInitial(() -> "");
+    private static boolean provisioned;
+    /** Where this run's accounts are stored, or null when they are not (loopback host). */
+    private static Path poolFile;
+
+    private AccountPool() {
+        throw new IllegalStateException("Utility class - cannot be instantiated");
+    }
+
+    /**
+     * @return true if tests should log in with pooled accounts instead of validEmail
+     */
+    public static boolean isEnabled() {
+        return ConfigReader.getBoolean("accountPoolEnabled", false);
+    }
+
+    // ---------------------------------------------------------
+    // LEASING
+    // ---------------------------------------------------------
+
+    /**
+     * Returns the account leased by the current thread, leasing a free one if
+     * the thread holds none. Blocks while all accounts are in use.
+     *
+     * @return leased account
+     * @throws IllegalStateException if no account frees up within accountLeaseTimeout
+     */
+    public static TestAccount lease() {
+        Lease current = leases.get(Thread.currentThread());
+        if (current != null) {
+            return current.account;
+        }
+        provision();
+        try {
+            TestAccount account = available.poll();
+            if (account == null) {
+                account = registerIfRoom();
+            }
+            if (account == null) {
+                account = available.poll(LEASE_TIMEOUT, TimeUnit.SECONDS);
+            }
+            if (account == null) {
+                throw new IllegalStateException("No pooled account became free within " + LEASE_TIMEOUT
+                        + "s (pool size " + accounts.size() + ")");
+            }
+            leases.put(Thread.currentThread(), new Lease(account, scope.get()));
+            logger.info("Leased {} to thread {} ({})", account.getEmail(), Thread.currentThread().getName(), scope.get());
+            return account;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a pooled account", e);
+        }
+    }
+
+    /**
+     * @return the account the current thread holds, or null; never leases one
+     */
+    public static TestAccount current() {
+        Lease current = leases.get(Thread.currentThread());
+        return current == null ? null : current.account;
+    }
+
+    /**
+     * Makes later leases on the current thread belong to the given scope. A
+     * lease the thread still holds for another scope is released first.
+     *
+     * @param owner scope name, e.g. the test class
+     */
+    public static void enterScope(String owner) {
+        scope.set(owner);
+        Lease current = leases.get(Thread.currentThread());
+        if (current != null && !current.owner.equals(owner)) {
+            release();
+        }
+    }
+
+    /**
+     * Resets the current thread's account (cart and addresses) and returns it
+     * to the pool. Does nothing if the thread holds no lease.
+     */
+    public static void release() {
+        Lease lease = leases.remove(Thread.currentThread());
+        if (lease != null) {
+            giveBack(lease.account);
+        }
+    }
+
+    /**
+     * Releases every lease of a scope, whichever thread holds it.
+     *
+     * @param owner scope name, e.g. the test class
+     */
+    public static void releaseScope(String owner) {
+        for (Map.Entry<Thread, Lease> entry : leases.entrySet()) {
+            if (entry.getValue().owner.equals(owner) && leases.remove(entry.getKey(), entry.getValue())) {
+                giveBack(entry.getValue().account);
+            }
+        }
+    }
+
+    private static void giveBack(TestAccount account) {
+        try {
+            if (reset(account)) {
+                // Snapshots hold the cart or addresses the reset just removed
+                SessionSnapshots.invalidateAccount(account.getEmail());
+            }
+        } catch (RuntimeException e) {
+            // A dirty account is still better than a shrinking pool; the next release retries
+            logger.warn("Failed to reset pooled account {}: {}", account.getEmail(), e.getMessage());
+            SessionSnapshots.invalidateAccount(account.getEmail());
+        }
+        available.offer(account);
+        logger.info("Returned {} to the account pool", account.getEmail());
+    }
+
+    // ---------------------------------------------------------
+    // PROVISIONING
+    // ---------------------------------------------------------
+
+    /**
+     * Loads the accounts stored for the current baseUrl host. Runs once per JVM;
+     * further accounts are registered by {@link #lease()} as needed.
+     */
+    public static synchronized void provision() {
+        if (provisioned) {
+            return;
+        }
+        poolFile = poolFile(ConfigReader.get("baseUrl"));
+        accounts.addAll(load());
+        available.addAll(accounts);
+        provisioned = true;
+        logger.info("Account pool ready: {} stored account(s) for {}, up to {}", accounts.size(),
+                ConfigReader.get("baseUrl"), POOL_SIZE);
+    }
+
+    /**
+     * Registers and stores one more account unless the pool is already full.
+     *
+     * @return the new account (not yet available to others), or null when the pool is full
+     */
+    private static synchronized TestAccount registerIfRoom() {
+        if (accounts.size() >= POOL_SIZE) {
+            return null;
+        }
+        TestAccount account = register();
+        accounts.add(account);
+        save();
+        return account;
+    }
+
+    private static TestAccount register() {
+        String email = "pool-" + Long.toString(System.currentTimeMillis(), 36) + "-" + (accounts.size() + 1)
+                + "@" + ConfigReader.get("accountPoolEmailDomain", "example.com");
+        String password = ConfigReader.hasProperty("accountPoolPassword")
+                ? ConfigReader.get("accountPoolPassword") : ConfigReader.get("validPassword");
+
+        ShopHttpClient http = new ShopHttpClient();
+        HttpResponse<String> form = http.get("/register");
+
+        Map<String, String> fields = new LinkedHashMap<>();
+        String token = ShopHttpClient.extractAntiForgeryToken(form.body());
+        if (token != null) {
+            fields.put("__RequestVerificationToken", token);
+        }
+        fields.put("Gender", "M");
+        fields.put("FirstName", "Pool");
+        fields.put("LastName", "Account" + (accounts.size() + 1));
+        fields.put("Email", email);
+        fields.put("Password", password);
+        fields.put("ConfirmPassword", password);
+        fields.put("register-button", "Register");
+
+        HttpResponse<String> response = http.postForm("/register", fields);
+        String location = response.headers().firstValue("Location").orElse("");
+        if (response.statusCode() != 302 || !location.contains("registerresult")) {
+            logger.error("Registration failed for {} (status {}, location '{}')", email, response.statusCode(), location);
+            throw new IllegalStateException("Failed to register pooled account " + email);
+        }
+        logger.info("Registered pooled account {}", email);
+        return new TestAccount(email, password);
+    }
+
+    // ---------------------------------------------------------
+    // RESET
+    // ---------------------------------------------------------
+
+    /**
+     * Logs in as the account over HTTP, empties its cart and deletes its saved addresses.
+     *
+     * @param account account to reset
+     * @return true if there was anything to remove
+     */
+    public static boolean reset(TestAccount account) {
+        ShopHttpClient http = new ShopHttpClient();
+        SessionBootstrapper.login(http, account.getEmail(), account.getPassword());
+
+        HttpResponse<String> cart = http.get("/cart");
+        Set<String> items = matches(CART_ITEM, cart.body());
+        if (!items.isEmpty()) {
+            // Updating the cart with quantity 0 removes the line
+            Map<String, String> fields = new LinkedHashMap<>();
+            String token = ShopHttpClient.extractAntiForgeryToken(cart.body());
+            if (token != null) {
+                fields.put("__RequestVerificationToken", token);
+            }
+            for (String item : items) {
+                fields.put("itemquantity" + item, "0");
+            }
+            fields.put("updatecart", "Update shopping cart");
+            http.postForm("/cart", fields);
+        }
+
+        Set<String> addresses = matches(ADDRESS_DELETE, http.get("/customer/addresses").body());
+        for (String address : addresses) {
+            http.get("/customer/addressdelete/" + address);
+        }
+        logger.info("Reset pooled account {}: {} cart item(s), {} address(es) removed",
+                account.getEmail(), items.size(), addresses.size());
+        return !items.isEmpty() || !addresses.isEmpty();
+    }
+
+    private static Set<String> matches(Pattern pattern, String html) {
+        Set<String> values = new LinkedHashSet<>();
+        Matcher matcher = pattern.matcher(html);
+        while (matcher.find()) {
+            values.add(matcher.group(1));
+        }
+        return values;
+    }
+
+    // ---------------------------------------------------------
+    // LEASES
+    // ---------------------------------------------------------
+
+    /**
+     * An account held by one thread on behalf of a scope.
+     */
+    private static final class Lease {
+        private final TestAccount account;
+        private final String owner;
+
+        private Lease(TestAccount account, String owner) {
+            this.account = account;
+            this.owner = owner;
+        }
+    }
+
+    // ---------------------------------------------------------
+    // PERSISTENCE
+    // ---------------------------------------------------------
+
+    /**
+     * @return accountPoolFile with the shop's host (and port) added to its name, or null for a loopback host
+     */
+    static Path poolFile(String baseUrl) {
+        URI uri = URI.create(baseUrl);
+        String host = uri.getHost() == null ? "" : uri.getHost().toLowerCase(Locale.ROOT);
+        if (host.isEmpty() || host.equals("localhost") || host.startsWith("127.") || host.equals("[::1]")) {
+            return null;
+        }
+        String key = uri.getPort() > 0 ? host + "_" + uri.getPort() : host;
+        Path configured = Paths.get(ConfigReader.get("accountPoolFile", "test-output/account-pool.json"));
+        String name = configured.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return configured.resolveSibling(dot > 0
+                ? name.substring(0, dot) + "-" + key + name.substring(dot)
+                : name + "-" + key);
+    }
+
+    private static List<TestAccount> load() {
+        if (poolFile == null) {
+            logger.debug("Loopback shop: pooled accounts are registered fresh and not stored");
+            return new ArrayList<>();
+        }
+        if (!Files.exists(poolFile)) {
+            logger.debug("No account pool file at {}, starting empty", poolFile);
+            return new ArrayList<>();
+        }
+        try {
+            List<TestAccount> stored = mapper.readValue(poolFile.toFile(), new TypeReference<List<TestAccount>>() { });
+            logger.info("Loaded {} pooled account(s) from {}", stored.size(), poolFile);
+            return stored;
+        } catch (IOException e) {
+            logger.warn("Failed to read account pool file {}: {}", poolFile, e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Writes the pool to disk via a temporary file so a crash never leaves a truncated pool.
+     */
+    private static void save() {
+        if (poolFile == null) {
+            return;
+        }
+        try {
+            Path parent = poolFile.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "account-pool", ".tmp");
+            mapper.writerWithDefaultPrettyPrinter().writeValue(temp.toFile(), accounts);
+            Files.move(temp, poolFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.debug("Saved {} pooled account(s) to {}", accounts.size(), poolFile);
+        } catch (IOException e) {
+            logger.warn("Failed to save account pool file {}: {}", poolFile, e.getMessage());
+        }
+    }
+}
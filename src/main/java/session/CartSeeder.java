@@ -0,0 +1,106 @@
+package session;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.qameta.allure.Step;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Seeds the browser's shopping cart through the shop's add-to-cart endpoint
+ * ({@code /addproducttocart/details/{productId}/1}) instead of driving the PDP.
+ *
+ * The HTTP calls reuse the browser's session cookie, so the items land in the
+ * same cart the browser sees. Any cookie the shop issues along the way is
+ * copied back to the browser.
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public class CartSeeder {
+
+    private static final Logger logger = LogManager.getLogger(CartSeeder.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private CartSeeder() {
+        throw new IllegalStateException("Utility class - cannot be instantiated");
+    }
+
+    /**
+     * Adds one product to the browser's cart.
+     *
+     * @param driver    browser currently on the shop domain
+     * @param productId shop product id (e.g. 13 for "Computing and Internet")
+     * @param quantity  quantity to add
+     */
+    public static void seed(WebDriver driver, int productId, int quantity) {
+        seed(driver, Collections.singletonMap(productId, quantity));
+    }
+
+    /**
+     * Adds several products to the browser's cart in one call.
+     *
+     * @param driver             browser currently on the shop domain
+     * @param productQuantities  product id to quantity, added in iteration order
+     * @throws IllegalStateException if the shop rejects any item
+     */
+    @Step("Seed cart over HTTP: {productQuantities}")
+    public static void seed(WebDriver driver, Map<Integer, Integer> productQuantities) {
+        ShopHttpClient http = new ShopHttpClient();
+        http.importCookiesFrom(driver);
+        seed(http, productQuantities);
+        http.exportCookiesTo(driver);
+    }
+
+    /**
+     * Adds several products to the cart of the session held by an HTTP client.
+     *
+     * @param http               client holding the shop session
+     * @param productQuantities  product id to quantity, added in iteration order
+     * @throws IllegalStateException if the shop rejects any item
+     */
+    public static void seed(ShopHttpClient http, Map<Integer, Integer> productQuantities) {
+        for (Map.Entry<Integer, Integer> item : productQuantities.entrySet()) {
+            int productId = item.getKey();
+            int quantity = item.getValue();
+
+            HttpResponse<String> response = http.postForm(
+                    "/addproducttocart/details/" + productId + "/1",
+                    Collections.singletonMap("addtocart_" + productId + ".EnteredQuantity", String.valueOf(quantity)));
+
+            if (response.statusCode() != 200 || !isSuccess(response.body())) {
+                logger.error("Failed to add product {} x{} to cart: HTTP {} {}",
+                        productId, quantity, response.statusCode(), response.body());
+                throw new IllegalStateException("Failed to add product " + productId + " to cart: " + response.body());
+            }
+            logger.debug("Added product {} x{} to cart", productId, quantity);
+        }
+        logger.info("Seeded cart with {} product(s) over HTTP", productQuantities.size());
+    }
+
+    /**
+     * Seeds the cart and opens the cart page - a single browser navigation.
+     *
+     * @param driver             browser currently on the shop domain
+     * @param productQuantities  product id to quantity
+     */
+    public static void seedAndOpenCart(WebDriver driver, Map<Integer, Integer> productQuantities) {
+        seed(driver, productQuantities);
+        driver.get(new ShopHttpClient().resolve("/cart").toString());
+    }
+
+    private static boolean isSuccess(String body) {
+        try {
+            JsonNode json = mapper.readTree(body);
+            return json.path("success").asBoolean(false);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package session;
+
+import io.qameta.allure.Step;
+import models.TestAccount;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import utils.ConfigReader;
+
+import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Logs in over HTTP and hands the authenticated session to the browser.
+ *
+ * Tests that only need "a logged-in user" as a precondition should use this
+ * instead of driving LoginPage: it fetches the login form for the anti-forgery
+ * token, posts the credentials, and injects the resulting auth cookie into the
+ * current WebDriver session. UI login stays covered by LoginTest.
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public class SessionBootstrapper {
+
+    private static final Logger logger = LogManager.getLogger(SessionBootstrapper.class);
+
+    static final String AUTH_COOKIE = "NOPCOMMERCE.AUTH";
+
+    private SessionBootstrapper() {
+        throw new IllegalStateException("Utility class - cannot be instantiated");
+    }
+
+    /**
+     * Logs in with the configured validEmail/validPassword, or with the account
+     * leased to the current thread when the account pool is enabled.
+     *
+     * @param driver browser currently on the shop domain
+     */
+    public static void loginWithDefaultUser(WebDriver driver) {
+        if (AccountPool.isEnabled()) {
+            TestAccount account = AccountPool.lease();
+            login(driver, account.getEmail(), account.getPassword());
+            return;
+        }
+        login(driver, ConfigReader.get("validEmail"), ConfigReader.get("validPassword"));
+    }
+
+    /**
+     * Logs in over HTTP and injects the session cookies into the browser.
+     * The browser's existing guest cookies are sent along, so a guest cart is
+     * carried over exactly as with a UI login. The current page is reloaded.
+     *
+     * @param driver   browser currently on the shop domain
+     * @param email    account email
+     * @param password account password
+     * @throws IllegalStateException if the shop rejects the credentials
+     */
+    @Step("Log in over HTTP as {email}")
+    public static void login(WebDriver driver, String email, String password) {
+        ShopHttpClient http = new ShopHttpClient();
+        http.importCookiesFrom(driver);
+
+        login(http, email, password);
+
+        http.exportCookiesTo(driver);
+        driver.navigate().refresh();
+        logger.info("Injected authenticated session for {} into browser", email);
+    }
+
+    /**
+     * Logs in on an existing HTTP client, leaving the auth cookie in its jar.
+     *
+     * @param http     client holding the shop session
+     * @param email    account email
+     * @param password account password
+     * @throws IllegalStateException if the shop rejects the credentials
+     */
+    public static void login(ShopHttpClient http, String email, String password) {
+        HttpResponse<String> form = http.get("/login");
+        if (form.statusCode() != 200) {
+            throw new IllegalStateException("Login page returned HTTP " + form.statusCode());
+        }
+
+        Map<String, String> fields = new LinkedHashMap<>();
+        String token = ShopHttpClient.extractAntiForgeryToken(form.body());
+        if (token != null) {
+            fields.put("__RequestVerificationToken", token);
+        }
+        fields.put("Email", email);
+        fields.put("Password", password);
+        fields.put("RememberMe", "false");
+
+        HttpResponse<String> response = http.postForm("/login", fields);
+        String location = response.headers().firstValue("Location").orElse("");
+
+        // Success redirects away from /login; failure re-renders the form with 200
+        if (response.statusCode() != 302 || location.contains("/login") || http.getCookie(AUTH_COOKIE) == null) {
+            logger.error("HTTP login failed for {} (status {}, location '{}')", email, response.statusCode(), location);
+            throw new IllegalStateException("HTTP login failed for " + email + " (status " + response.statusCode() + ")");
+        }
+        logger.info("Logged in over HTTP as {}", email);
+    }
+}
@@ -0,0 +1,73 @@
+package session;
+
+import org.openqa.selenium.Cookie;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable copy of a browser session: cookies, localStorage, sessionStorage
+ * and the URL the browser was on when it was captured.
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public final class SessionSnapshot {
+
+    private final String fixture;
+    private final List<Cookie> cookies;
+    private final Map<String, String> localStorage;
+    private final Map<String, String> sessionStorage;
+    private final String url;
+    private final long capturedAtMillis;
+
+    SessionSnapshot(String fixture, List<Cookie> cookies, Map<String, String> localStorage,
+                    Map<String, String> sessionStorage, String url, long capturedAtMillis) {
+        this.fixture = fixture;
+        this.cookies = Collections.unmodifiableList(cookies);
+        this.localStorage = Collections.unmodifiableMap(localStorage);
+        this.sessionStorage = Collections.unmodifiableMap(sessionStorage);
+        this.url = url;
+        this.capturedAtMillis = capturedAtMillis;
+    }
+
+    public String getFixture() {
+        return fixture;
+    }
+
+    public List<Cookie> getCookies() {
+        return cookies;
+    }
+
+    public Map<String, String> getLocalStorage() {
+        return localStorage;
+    }
+
+    public Map<String, String> getSessionStorage() {
+        return sessionStorage;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public long getCapturedAtMillis() {
+        return capturedAtMillis;
+    }
+
+    /**
+     * @param ttlMillis time to live in milliseconds
+     * @return true if the snapshot is older than the TTL
+     */
+    public boolean isExpired(long ttlMillis) {
+        return System.currentTimeMillis() - capturedAtMillis > ttlMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "SessionSnapshot{fixture='" + fixture + "', cookies=" + cookies.size()
+                + ", localStorage=" + localStorage.size() + ", sessionStorage=" + sessionStorage.size()
+                + ", url='" + url + "'}";
+    }
+}
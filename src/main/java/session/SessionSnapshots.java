@@ -0,0 +1,232 @@
+package session;
+
+import io.qameta.allure.Step;
+import models.TestAccount;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import utils.ConfigReader;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * In-memory store of {@link SessionSnapshot}s keyed by fixture name.
+ *
+ * An expensive setup (log in, seed cart, save billing) runs once; its browser
+ * state is captured under a fixture name and later tests restore it into their
+ * own browser instead of repeating the setup. Snapshots are dropped after
+ * sessionSnapshotTtl seconds, or when restoring one does not land on the
+ * captured page (e.g. the server expired the session and redirected to /login)
+ * or the caller's validator rejects it.
+ *
+ * A snapshot carries the auth cookie of the account that captured it, so
+ * snapshots are kept per pooled account: a thread only restores snapshots
+ * captured with the account it currently holds (or, holding none, the ones
+ * captured without a pooled account). Looking a snapshot up never leases an
+ * account. When AccountPool's release has to reset an account, it drops the
+ * account's snapshots, since they hold the cart or addresses just removed.
+ *
+ * Configuration (config.properties):
+ * - sessionSnapshotsEnabled (default: true)
+ * - sessionSnapshotTtl      (seconds, default: 600)
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public class SessionSnapshots {
+
+    private static final Logger logger = LogManager.getLogger(SessionSnapshots.class);
+
+    private static final boolean ENABLED = ConfigReader.getBoolean("sessionSnapshotsEnabled", true);
+    private static final long TTL_MILLIS = ConfigReader.getInt("sessionSnapshotTtl", 600) * 1000L;
+
+    private static final String READ_STORAGE_SCRIPT =
+            "var s=arguments[0]==='local'?window.localStorage:window.sessionStorage,r={};"
+            + "for(var i=0;i<s.length;i++){var k=s.key(i);r[k]=s.getItem(k);}return r;";
+    private static final String WRITE_STORAGE_SCRIPT =
+            "var s=arguments[0]==='local'?window.localStorage:window.sessionStorage,v=arguments[1];"
+            + "s.clear();Object.keys(v).forEach(function(k){s.setItem(k,v[k]);});";
+
+    /** Pooled account email ("" for none) to fixture name to snapshot. */
+    private static final Map<String, Map<String, SessionSnapshot>> snapshots = new ConcurrentHashMap<>();
+
+    private SessionSnapshots() {
+        throw new IllegalStateException("Utility class - cannot be instantiated");
+    }
+
+    /**
+     * Captures the browser's current session under a fixture name, replacing any previous one.
+     *
+     * @param fixture fixture name
+     * @param driver  browser to capture
+     * @return the captured snapshot
+     */
+    @Step("Capture session snapshot: {fixture}")
+    public static SessionSnapshot capture(String fixture, WebDriver driver) {
+        SessionSnapshot snapshot = new SessionSnapshot(fixture,
+                new ArrayList<>(driver.manage().getCookies()),
+                readStorage(driver, "local"),
+                readStorage(driver, "session"),
+                driver.getCurrentUrl(),
+                System.currentTimeMillis());
+        fixtures().put(fixture, snapshot);
+        logger.info("Captured {}", snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Restores a fixture's snapshot into the browser, which must already be on
+     * the shop domain. Ends on the captured URL.
+     *
+     * @param fixture   fixture name
+     * @param driver    browser to restore into
+     * @param validator extra check on the restored page, or null
+     * @return true if restored; false if there was no valid snapshot (it is then discarded)
+     */
+    @Step("Restore session snapshot: {fixture}")
+    public static boolean restore(String fixture, WebDriver driver, Predicate<WebDriver> validator) {
+        if (!ENABLED) {
+            return false;
+        }
+        Map<String, SessionSnapshot> fixtures = fixtures();
+        SessionSnapshot snapshot = fixtures.get(fixture);
+        if (snapshot == null) {
+            return false;
+        }
+        if (snapshot.isExpired(TTL_MILLIS)) {
+            logger.info("Session snapshot '{}' expired after {}s", fixture, TTL_MILLIS / 1000);
+            fixtures.remove(fixture, snapshot);
+            return false;
+        }
+
+        long start = System.nanoTime();
+        driver.manage().deleteAllCookies();
+        for (Cookie cookie : snapshot.getCookies()) {
+            driver.manage().addCookie(new Cookie.Builder(cookie.getName(), cookie.getValue())
+                    .path(cookie.getPath())
+                    .expiresOn(cookie.getExpiry())
+                    .isSecure(cookie.isSecure())
+                    .isHttpOnly(cookie.isHttpOnly())
+                    .build());
+        }
+        // Storage is per origin, so it can be written before leaving the current page
+        writeStorage(driver, "local", snapshot.getLocalStorage());
+        writeStorage(driver, "session", snapshot.getSessionStorage());
+        driver.get(snapshot.getUrl());
+
+        if (!samePage(driver.getCurrentUrl(), snapshot.getUrl())
+                || (validator != null && !validator.test(driver))) {
+            logger.warn("Server rejected session snapshot '{}' (landed on {}), discarding it",
+                    fixture, driver.getCurrentUrl());
+            fixtures.remove(fixture, snapshot);
+            return false;
+        }
+        logger.info("Restored session snapshot '{}' in {} ms", fixture, (System.nanoTime() - start) / 1_000_000);
+        return true;
+    }
+
+    /**
+     * Restores a fixture if a valid snapshot exists; otherwise runs the setup
+     * and captures the resulting state for the next caller.
+     *
+     * @param fixture   fixture name
+     * @param driver    browser on the shop domain
+     * @param setup     expensive setup producing the fixture state
+     * @param validator extra check on a restored page, or null
+     * @return true if a snapshot was restored, false if the setup ran
+     */
+    public static boolean restoreOrCapture(String fixture, WebDriver driver, Runnable setup,
+                                           Predicate<WebDriver> validator) {
+        if (restore(fixture, driver, validator)) {
+            return true;
+        }
+        setup.run();
+        if (ENABLED) {
+            // Keyed by the account the setup logged in with
+            capture(fixture, driver);
+        }
+        return false;
+    }
+
+    /**
+     * Drops a fixture's snapshot for the current thread's account.
+     *
+     * @param fixture fixture name
+     */
+    public static void invalidate(String fixture) {
+        if (fixtures().remove(fixture) != null) {
+            logger.info("Invalidated session snapshot '{}'", fixture);
+        }
+    }
+
+    /**
+     * Drops every snapshot an account captured. Called when the account is reset.
+     *
+     * @param email account email
+     */
+    public static void invalidateAccount(String email) {
+        Map<String, SessionSnapshot> dropped = snapshots.remove(email);
+        if (dropped != null && !dropped.isEmpty()) {
+            logger.info("Invalidated {} session snapshot(s) of {}", dropped.size(), email);
+        }
+    }
+
+    /**
+     * @return true unless sessionSnapshotsEnabled is false
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * @return snapshots of the account the current thread holds, or of no pooled account
+     */
+    private static Map<String, SessionSnapshot> fixtures() {
+        TestAccount account = AccountPool.current();
+        return snapshots.computeIfAbsent(account == null ? "" : account.getEmail(), key -> new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Drops all snapshots.
+     */
+    public static void clear() {
+        snapshots.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> readStorage(WebDriver driver, String area) {
+        Object value = ((JavascriptExecutor) driver).executeScript(READ_STORAGE_SCRIPT, area);
+        Map<String, String> storage = new LinkedHashMap<>();
+        if (value instanceof Map) {
+            ((Map<String, Object>) value).forEach((k, v) -> storage.put(k, String.valueOf(v)));
+        }
+        return storage;
+    }
+
+    private static void writeStorage(WebDriver driver, String area, Map<String, String> values) {
+        ((JavascriptExecutor) driver).executeScript(WRITE_STORAGE_SCRIPT, area, values);
+    }
+
+    /**
+     * Compares URLs without fragment and trailing slash.
+     */
+    private static boolean samePage(String actual, String expected) {
+        return normalize(actual).equalsIgnoreCase(normalize(expected));
+    }
+
+    private static String normalize(String url) {
+        String value = url == null ? "" : url;
+        int hash = value.indexOf('#');
+        if (hash >= 0) {
+            value = value.substring(0, hash);
+        }
+        return value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+    }
+}
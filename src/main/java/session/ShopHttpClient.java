@@ -0,0 +1,232 @@
+package session;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import utils.ConfigReader;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal HTTP client for driving DemoWebShop endpoints outside the browser.
+ *
+ * Keeps its own cookie jar so several requests share one shop session, and can
+ * copy that jar to and from a WebDriver session. Redirects are not followed,
+ * so callers can tell a successful form post (302) from a re-rendered form (200).
+ *
+ * Not thread-safe: use one instance per test thread.
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public class ShopHttpClient {
+
+    private static final Logger logger = LogManager.getLogger(ShopHttpClient.class);
+
+    private static final Pattern TOKEN_INPUT = Pattern.compile(
+            "<input[^>]*name=\"__RequestVerificationToken\"[^>]*>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern VALUE_ATTRIBUTE = Pattern.compile("value=\"([^\"]*)\"");
+
+    private final URI baseUri;
+    private final CookieManager cookieManager;
+    private final HttpClient client;
+    private final Duration timeout;
+
+    /**
+     * Creates a client bound to the configured baseUrl.
+     */
+    public ShopHttpClient() {
+        this(ConfigReader.get("baseUrl"));
+    }
+
+    /**
+     * Creates a client bound to the given shop URL.
+     *
+     * @param baseUrl shop root, e.g. https://demowebshop.tricentis.com
+     */
+    public ShopHttpClient(String baseUrl) {
+        if (baseUrl == null || baseUrl.isEmpty()) {
+            throw new IllegalArgumentException("Base URL cannot be null or empty");
+        }
+        this.baseUri = URI.create(baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl);
+        this.cookieManager = new CookieManager(null, CookiePolicy.ACCEPT_ALL);
+        this.timeout = Duration.ofSeconds(ConfigReader.getInt("apiTimeout", 30));
+        this.client = HttpClient.newBuilder()
+                .cookieHandler(cookieManager)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    // ---------------------------------------------------------
+    // REQUESTS
+    // ---------------------------------------------------------
+
+    /**
+     * Sends a GET request.
+     *
+     * @param path path relative to the shop root, e.g. "/login"
+     * @return response with body as string
+     */
+    public HttpResponse<String> get(String path) {
+        return send(newRequest(path).GET().build());
+    }
+
+    /**
+     * Sends an application/x-www-form-urlencoded POST request.
+     *
+     * @param path   path relative to the shop root
+     * @param fields form fields, in order
+     * @return response with body as string
+     */
+    public HttpResponse<String> postForm(String path, Map<String, String> fields) {
+        HttpRequest request = newRequest(path)
+                .header("Content-Type", "application/x-www-form-urlencoded; charset=UTF-8")
+                .POST(HttpRequest.BodyPublishers.ofString(encodeForm(fields)))
+                .build();
+        return send(request);
+    }
+
+    private HttpRequest.Builder newRequest(String path) {
+        return HttpRequest.newBuilder(resolve(path))
+                .timeout(timeout)
+                .header("User-Agent", "DemoShop-Test-Bootstrap");
+    }
+
+    private HttpResponse<String> send(HttpRequest request) {
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            logger.debug("{} {} -> {}", request.method(), request.uri(), response.statusCode());
+            return response;
+        } catch (IOException e) {
+            throw new IllegalStateException("HTTP " + request.method() + " " + request.uri() + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during HTTP " + request.method() + " " + request.uri(), e);
+        }
+    }
+
+    /**
+     * Resolves a shop-relative path to an absolute URI.
+     *
+     * @param path path such as "/cart"
+     * @return absolute URI
+     */
+    public URI resolve(String path) {
+        return URI.create(baseUri + (path.startsWith("/") ? path : "/" + path));
+    }
+
+    // ---------------------------------------------------------
+    // HTML HELPERS
+    // ---------------------------------------------------------
+
+    /**
+     * Extracts the ASP.NET anti-forgery token from a rendered form.
+     *
+     * @param html page HTML
+     * @return token value, or null if the form has none
+     */
+    public static String extractAntiForgeryToken(String html) {
+        Matcher input = TOKEN_INPUT.matcher(html);
+        if (!input.find()) {
+            return null;
+        }
+        Matcher value = VALUE_ATTRIBUTE.matcher(input.group());
+        return value.find() ? value.group(1) : null;
+    }
+
+    private static String encodeForm(Map<String, String> fields) {
+        StringJoiner body = new StringJoiner("&");
+        fields.forEach((name, value) -> body.add(
+                URLEncoder.encode(name, StandardCharsets.UTF_8) + "="
+                        + URLEncoder.encode(value == null ? "" : value, StandardCharsets.UTF_8)));
+        return body.toString();
+    }
+
+    // ---------------------------------------------------------
+    // COOKIE JAR
+    // ---------------------------------------------------------
+
+    /**
+     * @return cookies currently held for the shop host
+     */
+    public List<HttpCookie> getCookies() {
+        return cookieManager.getCookieStore().get(baseUri);
+    }
+
+    /**
+     * Returns a cookie value by name.
+     *
+     * @param name cookie name
+     * @return value, or null if not present
+     */
+    public String getCookie(String name) {
+        for (HttpCookie cookie : getCookies()) {
+            if (cookie.getName().equals(name)) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds or replaces a cookie in this client's jar.
+     *
+     * @param name  cookie name
+     * @param value cookie value
+     */
+    public void setCookie(String name, String value) {
+        HttpCookie cookie = new HttpCookie(name, value);
+        cookie.setPath("/");
+        cookie.setVersion(0);
+        cookieManager.getCookieStore().add(baseUri, cookie);
+    }
+
+    /**
+     * Copies all cookies from the browser into this client, so requests
+     * continue the browser's shop session (same guest or customer).
+     *
+     * @param driver browser currently on the shop domain
+     */
+    public void importCookiesFrom(WebDriver driver) {
+        for (Cookie cookie : driver.manage().getCookies()) {
+            setCookie(cookie.getName(), cookie.getValue());
+        }
+        logger.debug("Imported {} cookies from browser", driver.manage().getCookies().size());
+    }
+
+    /**
+     * Copies all cookies from this client into the browser. The browser must
+     * already be on the shop domain; reload the page afterwards to apply them.
+     *
+     * @param driver browser currently on the shop domain
+     */
+    public void exportCookiesTo(WebDriver driver) {
+        List<HttpCookie> cookies = getCookies();
+        for (HttpCookie cookie : cookies) {
+            driver.manage().deleteCookieNamed(cookie.getName());
+            driver.manage().addCookie(new Cookie.Builder(cookie.getName(), cookie.getValue())
+                    .path("/")
+                    .isHttpOnly(cookie.isHttpOnly())
+                    .isSecure(cookie.getSecure())
+                    .build());
+        }
+        logger.debug("Exported {} cookies to browser", cookies.size());
+    }
+}
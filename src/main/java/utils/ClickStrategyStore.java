@@ -0,0 +1,140 @@
+package utils;
+
+import base.ClickStrategy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Remembers, per locator, which {@link ClickStrategy} last succeeded.
+ *
+ * Entries are loaded once from a properties file and written back when the
+ * JVM exits, so the knowledge survives across runs. Thread-safe.
+ *
+ * Every strategy is remembered. BasePage only reaches JS_CLICK and ACTIONS
+ * after a native click on a displayed, enabled element was intercepted, and
+ * still waits for the element to be displayed and enabled before using a
+ * remembered one, so a hidden or disabled element fails instead of being
+ * clicked by script.
+ *
+ * Configuration (config.properties):
+ * - clickStrategyFile (default: test-output/click-strategies.properties)
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public class ClickStrategyStore {
+
+    private static final Logger logger = LogManager.getLogger(ClickStrategyStore.class);
+
+    private static final Path STORE_FILE = Paths.get(
+            ConfigReader.get("clickStrategyFile", "test-output/click-strategies.properties"));
+    private static final Map<String, ClickStrategy> strategies = new ConcurrentHashMap<>();
+    private static final AtomicBoolean dirty = new AtomicBoolean(false);
+
+    static {
+        load();
+        Runtime.getRuntime().addShutdownHook(new Thread(ClickStrategyStore::save, "click-strategy-store"));
+    }
+
+    private ClickStrategyStore() {
+        throw new IllegalStateException("Utility class - cannot be instantiated");
+    }
+
+    /**
+     * Returns the strategies to try for a locator: the remembered one first,
+     * followed by the rest of the ladder in declaration order.
+     *
+     * @param locator element locator
+     * @return ordered list of strategies
+     */
+    public static List<ClickStrategy> ladderFor(By locator) {
+        ClickStrategy preferred = strategies.getOrDefault(locator.toString(), ClickStrategy.NATIVE);
+        List<ClickStrategy> ladder = new ArrayList<>(ClickStrategy.values().length);
+        ladder.add(preferred);
+        for (ClickStrategy strategy : ClickStrategy.values()) {
+            if (strategy != preferred) {
+                ladder.add(strategy);
+            }
+        }
+        return ladder;
+    }
+
+    /**
+     * Records the strategy that just succeeded for a locator.
+     *
+     * @param locator  element locator
+     * @param strategy successful strategy
+     */
+    public static void remember(By locator, ClickStrategy strategy) {
+        ClickStrategy previous = strategies.put(locator.toString(), strategy);
+        if (previous != strategy) {
+            dirty.set(true);
+            logger.info("Click strategy for {} is now {} (was {})", locator, strategy,
+                    previous == null ? ClickStrategy.NATIVE : previous);
+        }
+    }
+
+    /**
+     * Loads remembered strategies from disk. Unknown or malformed entries are ignored.
+     */
+    private static void load() {
+        if (!Files.exists(STORE_FILE)) {
+            logger.debug("No click strategy file at {}, starting empty", STORE_FILE);
+            return;
+        }
+        Properties props = new Properties();
+        try (InputStream input = Files.newInputStream(STORE_FILE)) {
+            props.load(input);
+        } catch (IOException e) {
+            logger.warn("Failed to read click strategy file {}: {}", STORE_FILE, e.getMessage());
+            return;
+        }
+        for (String key : props.stringPropertyNames()) {
+            try {
+                strategies.put(key, ClickStrategy.valueOf(props.getProperty(key).trim()));
+            } catch (IllegalArgumentException e) {
+                logger.warn("Ignoring unknown click strategy '{}' for {}", props.getProperty(key), key);
+            }
+        }
+        logger.info("Loaded {} remembered click strategies from {}", strategies.size(), STORE_FILE);
+    }
+
+    /**
+     * Writes remembered strategies to disk if anything changed during this run.
+     * Writes to a temporary file first so a crash never leaves a truncated store.
+     */
+    public static synchronized void save() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        Properties props = new Properties();
+        strategies.forEach((locator, strategy) -> props.setProperty(locator, strategy.name()));
+        try {
+            Path parent = STORE_FILE.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "click-strategies", ".tmp");
+            try (OutputStream output = Files.newOutputStream(temp)) {
+                props.store(output, "Last successful click strategy per locator");
+            }
+            Files.move(temp, STORE_FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.debug("Saved {} click strategies to {}", strategies.size(), STORE_FILE);
+        } catch (IOException e) {
+            logger.warn("Failed to save click strategy file {}: {}", STORE_FILE, e.getMessage());
+        }
+    }
+}
@@ -5,13 +5,18 @@ import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utility class for reading configuration properties from config.properties file.
  * Provides type-safe methods to retrieve configuration values.
  * Thread-safe singleton implementation.
  *
+ * Lookup order: runtime overrides ({@link #set}), then JVM system properties
+ * (e.g. -DbaseUrl=...), then config.properties.
+ *
  * @author QA Team
  * @version 1.0
  */
@@ -19,6 +24,7 @@ public class ConfigReader {
     private static final Logger logger = LogManager.getLogger(ConfigReader.class);
     private static Properties props = new Properties();
     private static final String CONFIG_FILE = "config/config.properties";
+    private static final Map<String, String> overrides = new ConcurrentHashMap<>();
 
     static {
         loadProperties();
@@ -53,6 +59,17 @@ public class ConfigReader {
         }
     }
 
+    /**
+     * Resolves a key against overrides, system properties and the config file, in that order
+     */
+    private static String lookup(String key) {
+        String value = overrides.get(key);
+        if (value == null) {
+            value = System.getProperty(key);
+        }
+        return value != null ? value : props.getProperty(key);
+    }
+
     /**
      * Retrieves a string property value by key
      *
@@ -60,7 +77,7 @@ public class ConfigReader {
      * @return the property value, or null if not found
      */
     public static String get(String key) {
-        String value = props.getProperty(key);
+        String value = lookup(key);
         if (value == null) {
             logger.warn("Property key '{}' not found in configuration", key);
         }
@@ -75,9 +92,10 @@ public class ConfigReader {
      * @return the property value, or defaultValue if not found
      */
     public static String get(String key, String defaultValue) {
-        String value = props.getProperty(key, defaultValue);
-        if (!props.containsKey(key)) {
+        String value = lookup(key);
+        if (value == null) {
             logger.warn("Property key '{}' not found, using default value: '{}'", key, defaultValue);
+            return defaultValue;
         }
         return value;
     }
@@ -91,7 +109,7 @@ public class ConfigReader {
      * @throws NullPointerException if the property key is not found
      */
     public static int getInt(String key) {
-        String value = props.getProperty(key);
+        String value = lookup(key);
         if (value == null) {
             logger.error("Property key '{}' not found in configuration", key);
             throw new NullPointerException("Property '" + key + "' not found in configuration");
@@ -113,7 +131,7 @@ public class ConfigReader {
      * @return the integer value, or defaultValue if not found or invalid
      */
     public static int getInt(String key, int defaultValue) {
-        String value = props.getProperty(key);
+        String value = lookup(key);
         if (value == null) {
             logger.warn("Property key '{}' not found, using default value: {}", key, defaultValue);
             return defaultValue;
@@ -135,7 +153,7 @@ public class ConfigReader {
      * @return true if the property value is "true" (case-insensitive), false otherwise
      */
     public static boolean getBoolean(String key) {
-        String value = props.getProperty(key);
+        String value = lookup(key);
         if (value == null) {
             logger.warn("Property key '{}' not found, returning false", key);
             return false;
@@ -153,7 +171,7 @@ public class ConfigReader {
      * @return the boolean value, or defaultValue if not found
      */
     public static boolean getBoolean(String key, boolean defaultValue) {
-        String value = props.getProperty(key);
+        String value = lookup(key);
         if (value == null) {
             logger.warn("Property key '{}' not found, using default value: {}", key, defaultValue);
             return defaultValue;
@@ -172,7 +190,7 @@ public class ConfigReader {
      * @throws NullPointerException if the property key is not found
      */
     public static long getLong(String key) {
-        String value = props.getProperty(key);
+        String value = lookup(key);
         if (value == null) {
             logger.error("Property key '{}' not found in configuration", key);
             throw new NullPointerException("Property '" + key + "' not found in configuration");
@@ -194,11 +212,32 @@ public class ConfigReader {
      * @return true if the key exists, false otherwise
      */
     public static boolean hasProperty(String key) {
-        boolean exists = props.containsKey(key);
+        boolean exists = lookup(key) != null;
         logger.debug("Property '{}' exists: {}", key, exists);
         return exists;
     }
 
+    /**
+     * Overrides a property for the rest of the run, e.g. to point baseUrl at a
+     * locally started stub server. Takes precedence over system properties and the file.
+     *
+     * @param key the property key
+     * @param value the value to use from now on
+     */
+    public static void set(String key, String value) {
+        overrides.put(key, value);
+        logger.info("Property '{}' overridden at runtime: '{}'", key, value);
+    }
+
+    /**
+     * Removes a runtime override set with {@link #set}
+     *
+     * @param key the property key
+     */
+    public static void clearOverride(String key) {
+        overrides.remove(key);
+    }
+
     /**
      * Reloads the properties from the configuration file
      * Useful for dynamic configuration updates during test execution
@@ -0,0 +1,285 @@
+package utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.qameta.allure.Allure;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Per-thread timeline of BasePage interactions (click, write, find, ...).
+ *
+ * Every call records start, end, locator and outcome into a fixed-size ring
+ * buffer owned by the current thread. The buffer is allocated once per thread
+ * and only stores primitives and references, so recording does not allocate.
+ * At the end of a test the buffer is rendered as JSON plus a small HTML
+ * waterfall and attached to the Allure report.
+ *
+ * Configuration (config.properties):
+ * - timelineEnabled  (default: true)
+ * - timelineCapacity (default: 256 events per test)
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public class InteractionTimeline {
+
+    private static final Logger logger = LogManager.getLogger(InteractionTimeline.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static final boolean ENABLED = ConfigReader.getBoolean("timelineEnabled", true);
+    private static final int CAPACITY = Math.max(16, ConfigReader.getInt("timelineCapacity", 256));
+
+    private static final ThreadLocal<Buffer> buffer = ThreadLocal.withInitial(() -> new Buffer(CAPACITY));
+
+    /**
+     * Interaction types recorded by BasePage.
+     */
+    public enum Action {
+        FIND("find", "#9e9e9e"),
+        CLICK("click", "#1e88e5"),
+        WRITE("write", "#43a047"),
+        GET_TEXT("getText", "#8e24aa"),
+        SCROLL("scroll", "#fb8c00"),
+        JS_CLICK("jsClick", "#00897b");
+
+        private final String label;
+        private final String color;
+
+        Action(String label, String color) {
+            this.label = label;
+            this.color = color;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private InteractionTimeline() {
+        throw new IllegalStateException("Utility class - cannot be instantiated");
+    }
+
+    // ---------------------------------------------------------
+    // RECORDING (hot path - no allocation)
+    // ---------------------------------------------------------
+
+    /**
+     * Returns the start timestamp for an interaction.
+     *
+     * @return monotonic timestamp in nanoseconds
+     */
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records a finished interaction into the current thread's ring buffer.
+     *
+     * @param action     interaction type
+     * @param locator    element locator (stored by reference)
+     * @param startNanos value previously returned by {@link #start()}
+     * @param success    whether the interaction completed without exception
+     */
+    public static void record(Action action, By locator, long startNanos, boolean success) {
+        if (!ENABLED) {
+            return;
+        }
+        buffer.get().add(action, locator, startNanos, System.nanoTime(), success);
+    }
+
+    /**
+     * Clears the current thread's timeline. Called when a test starts.
+     */
+    public static void reset() {
+        if (ENABLED) {
+            buffer.get().clear();
+        }
+    }
+
+    /**
+     * Returns the number of events currently held for this thread.
+     *
+     * @return event count (bounded by capacity)
+     */
+    public static int size() {
+        return ENABLED ? buffer.get().size() : 0;
+    }
+
+    // ---------------------------------------------------------
+    // RENDERING (test end only)
+    // ---------------------------------------------------------
+
+    /**
+     * Renders the current thread's timeline as JSON.
+     *
+     * @param testName name of the test the timeline belongs to
+     * @return JSON document with events and per-action totals
+     */
+    public static String toJson(String testName) {
+        Buffer buf = buffer.get();
+        ObjectNode root = mapper.createObjectNode();
+        root.put("test", testName);
+        root.put("startedAtEpochMs", buf.startEpochMillis);
+        root.put("recorded", buf.total);
+        root.put("dropped", Math.max(0, buf.total - buf.size()));
+
+        long[] totalNanos = new long[Action.values().length];
+        int[] counts = new int[Action.values().length];
+        ArrayNode events = root.putArray("events");
+        for (int i = 0; i < buf.size(); i++) {
+            int slot = buf.slot(i);
+            Action action = Action.values()[buf.actions[slot]];
+            long duration = buf.ends[slot] - buf.starts[slot];
+            totalNanos[action.ordinal()] += duration;
+            counts[action.ordinal()]++;
+
+            ObjectNode event = events.addObject();
+            event.put("action", action.label);
+            event.put("locator", String.valueOf(buf.locators[slot]));
+            event.put("startMs", toMillis(buf.starts[slot] - buf.startNanos));
+            event.put("durationMs", toMillis(duration));
+            event.put("outcome", buf.outcomes[slot] ? "ok" : "failed");
+        }
+
+        ObjectNode totals = root.putObject("totals");
+        for (Action action : Action.values()) {
+            if (counts[action.ordinal()] > 0) {
+                ObjectNode total = totals.putObject(action.label);
+                total.put("count", counts[action.ordinal()]);
+                total.put("durationMs", toMillis(totalNanos[action.ordinal()]));
+            }
+        }
+        return root.toString();
+    }
+
+    /**
+     * Renders the current thread's timeline as a compact HTML waterfall.
+     *
+     * @param testName name of the test the timeline belongs to
+     * @return standalone HTML document
+     */
+    public static String toHtml(String testName) {
+        Buffer buf = buffer.get();
+        long span = 1;
+        for (int i = 0; i < buf.size(); i++) {
+            int slot = buf.slot(i);
+            span = Math.max(span, buf.ends[slot] - buf.startNanos);
+        }
+
+        StringBuilder html = new StringBuilder(256 + buf.size() * 200);
+        html.append("<!DOCTYPE html><html><head><meta charset=\"UTF-8\"><style>")
+                .append("body{font:12px monospace;margin:8px}")
+                .append(".row{display:flex;align-items:center;height:16px}")
+                .append(".lbl{width:420px;overflow:hidden;white-space:nowrap;text-overflow:ellipsis}")
+                .append(".lane{position:relative;flex:1;height:12px;background:#f5f5f5}")
+                .append(".bar{position:absolute;height:12px;min-width:1px}")
+                .append(".failed{outline:2px solid #e53935}")
+                .append("</style></head><body>")
+                .append("<h3>").append(escapeHtml(testName)).append(" &mdash; ")
+                .append(String.format(Locale.ROOT, "%.1f", toMillis(span))).append(" ms</h3>");
+
+        for (int i = 0; i < buf.size(); i++) {
+            int slot = buf.slot(i);
+            Action action = Action.values()[buf.actions[slot]];
+            double left = 100.0 * (buf.starts[slot] - buf.startNanos) / span;
+            double width = 100.0 * (buf.ends[slot] - buf.starts[slot]) / span;
+            String label = action.label + " " + buf.locators[slot]
+                    + String.format(Locale.ROOT, " (%.1f ms)", toMillis(buf.ends[slot] - buf.starts[slot]));
+
+            html.append("<div class=\"row\"><div class=\"lbl\" title=\"").append(escapeHtml(label)).append("\">")
+                    .append(escapeHtml(label)).append("</div><div class=\"lane\"><div class=\"bar")
+                    .append(buf.outcomes[slot] ? "" : " failed").append("\" style=\"")
+                    .append(String.format(Locale.ROOT, "left:%.3f%%;width:%.3f%%;", left, width))
+                    .append("background:").append(action.color).append("\"></div></div></div>");
+        }
+        html.append("</body></html>");
+        return html.toString();
+    }
+
+    /**
+     * Attaches the current thread's timeline (JSON and HTML) to Allure and clears it.
+     * Does nothing when no interaction was recorded (e.g. API tests).
+     *
+     * @param testName name of the finished test
+     */
+    public static void attachToAllure(String testName) {
+        if (!ENABLED || buffer.get().size() == 0) {
+            return;
+        }
+        try {
+            Allure.addAttachment("Interaction Timeline (JSON)", "application/json", toJson(testName), ".json");
+            Allure.addAttachment("Interaction Timeline", "text/html", toHtml(testName), ".html");
+            logger.debug("Attached interaction timeline with {} events for test: {}", size(), testName);
+        } catch (Exception e) {
+            logger.warn("Failed to attach interaction timeline for test '{}': {}", testName, e.getMessage());
+        } finally {
+            reset();
+        }
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    private static String escapeHtml(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    /**
+     * Fixed-size ring buffer stored as parallel primitive arrays.
+     */
+    private static final class Buffer {
+        private final long[] starts;
+        private final long[] ends;
+        private final byte[] actions;
+        private final boolean[] outcomes;
+        private final By[] locators;
+        private long total;
+        private long startNanos;
+        private long startEpochMillis;
+
+        private Buffer(int capacity) {
+            starts = new long[capacity];
+            ends = new long[capacity];
+            actions = new byte[capacity];
+            outcomes = new boolean[capacity];
+            locators = new By[capacity];
+            clear();
+        }
+
+        private void add(Action action, By locator, long start, long end, boolean success) {
+            int slot = (int) (total % starts.length);
+            starts[slot] = start;
+            ends[slot] = end;
+            actions[slot] = (byte) action.ordinal();
+            outcomes[slot] = success;
+            locators[slot] = locator;
+            total++;
+        }
+
+        private void clear() {
+            Arrays.fill(locators, null);
+            total = 0;
+            startNanos = System.nanoTime();
+            startEpochMillis = System.currentTimeMillis();
+        }
+
+        private int size() {
+            return (int) Math.min(total, starts.length);
+        }
+
+        /**
+         * Maps the i-th oldest retained event to its array slot.
+         */
+        private int slot(int i) {
+            long first = total - size();
+            return (int) ((first + i) % starts.length);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package api.base;
+
+import io.restassured.config.HttpClientConfig;
+import org.apache.http.HttpHost;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.conn.ClientConnectionOperator;
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.OperatedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.DefaultClientConnectionOperator;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.ConfigReader;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One bounded pool of keep-alive HTTP connections shared by every RestAssured request of the run.
+ *
+ * RestAssured's default client factory creates a new client with a
+ * single-connection manager for each request, so every request opens a fresh
+ * TCP connection and, against the live shop, pays a TLS handshake. Here every
+ * request still gets its own client (cookies and parameters stay per request),
+ * but all clients lease connections from one pooling manager:
+ * - at most apiPoolMaxTotal connections, apiPoolMaxPerRoute per host
+ * - a connection is kept alive for the server's Keep-Alive timeout, capped at
+ *   apiPoolKeepAliveSeconds (the cap is used when the server sends none)
+ * - a daemon thread closes expired connections and ones idle for
+ *   apiPoolIdleSeconds; stale connections are checked before reuse
+ * - a request waits at most apiTimeout seconds for a free connection
+ *
+ * RestAssured 5 drives HttpClient 4's AbstractHttpClient API, hence the
+ * deprecated manager. The pool counts leased and newly opened connections and
+ * the time spent opening them (TCP connect plus TLS handshake), reported by
+ * {@link #getSummary()} at the end of the suite.
+ *
+ * Configuration (config.properties):
+ * - apiPoolMaxTotal (default: 50)
+ * - apiPoolMaxPerRoute (default: 20)
+ * - apiPoolKeepAliveSeconds (default: 30)
+ * - apiPoolIdleSeconds (default: 30)
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+@SuppressWarnings("deprecation")
+public final class ApiConnectionPool {
+
+    private static final Logger logger = LogManager.getLogger(ApiConnectionPool.class);
+
+    private static final AtomicLong leased = new AtomicLong();
+    private static final AtomicLong opened = new AtomicLong();
+    private static final AtomicLong openNanos = new AtomicLong();
+
+    private static PoolingClientConnectionManager manager;
+
+    private ApiConnectionPool() {
+        throw new IllegalStateException("Utility class - cannot be instantiated");
+    }
+
+    /**
+     * @return RestAssured client configuration whose clients share the pool
+     */
+    public static HttpClientConfig httpClientConfig() {
+        return HttpClientConfig.httpClientConfig().httpClientFactory(ApiConnectionPool::newClient);
+    }
+
+    private static DefaultHttpClient newClient() {
+        DefaultHttpClient client = new DefaultHttpClient(manager());
+        long keepAliveMillis = TimeUnit.SECONDS.toMillis(ConfigReader.getInt("apiPoolKeepAliveSeconds", 30));
+        client.setKeepAliveStrategy((response, context) -> {
+            long offered = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return offered > 0 ? Math.min(offered, keepAliveMillis) : keepAliveMillis;
+        });
+        client.getParams().setLongParameter(ClientPNames.CONN_MANAGER_TIMEOUT,
+                TimeUnit.SECONDS.toMillis(ConfigReader.getInt("apiTimeout", 30)));
+        return client;
+    }
+
+    private static synchronized PoolingClientConnectionManager manager() {
+        if (manager == null) {
+            manager = new CountingConnectionManager(SchemeRegistryFactory.createDefault());
+            manager.setMaxTotal(ConfigReader.getInt("apiPoolMaxTotal", 50));
+            manager.setDefaultMaxPerRoute(ConfigReader.getInt("apiPoolMaxPerRoute", 20));
+            startEvictor(manager, ConfigReader.getInt("apiPoolIdleSeconds", 30));
+            logger.info("API connection pool started: {} connections, {} per route", manager.getMaxTotal(),
+                    manager.getDefaultMaxPerRoute());
+        }
+        return manager;
+    }
+
+    private static void startEvictor(PoolingClientConnectionManager pool, int idleSeconds) {
+        long period = TimeUnit.SECONDS.toMillis(Math.max(1, idleSeconds / 2));
+        Thread evictor = new Thread(() -> {
+            try {
+                while (true) {
+                    Thread.sleep(period);
+                    pool.closeExpiredConnections();
+                    pool.closeIdleConnections(idleSeconds, TimeUnit.SECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "api-connection-evictor");
+        evictor.setDaemon(true);
+        evictor.start();
+    }
+
+    // ---------------------------------------------------------
+    // STATISTICS
+    // ---------------------------------------------------------
+
+    public static synchronized boolean isStarted() {
+        return manager != null;
+    }
+
+    /**
+     * @return requests that leased a connection
+     */
+    public static long getLeasedConnections() {
+        return leased.get();
+    }
+
+    /**
+     * @return requests served on a connection that was already open
+     */
+    public static long getReusedConnections() {
+        return Math.max(0, leased.get() - opened.get());
+    }
+
+    /**
+     * @return e.g. "240 requests on 12 connections (95.0% reused), 18.4 ms per connect+handshake, ~4.2 s saved"
+     */
+    public static String getSummary() {
+        long requests = leased.get();
+        long connections = opened.get();
+        if (requests == 0) {
+            return "no API requests";
+        }
+        double openMillis = connections == 0 ? 0 : openNanos.get() / 1_000_000.0 / connections;
+        double savedMillis = getReusedConnections() * openMillis;
+        return String.format(Locale.ROOT, "%d requests on %d connections (%.1f%% reused), %.1f ms per connect+handshake, ~%s saved",
+                requests, connections, 100.0 * getReusedConnections() / requests, openMillis,
+                savedMillis >= 1000 ? String.format(Locale.ROOT, "%.1f s", savedMillis / 1000) : String.format(Locale.ROOT, "%.0f ms", savedMillis));
+    }
+
+    /**
+     * Pooling manager that counts leases and times the opening (and TLS layering) of new connections.
+     */
+    private static final class CountingConnectionManager extends PoolingClientConnectionManager {
+
+        CountingConnectionManager(SchemeRegistry schemes) {
+            super(schemes);
+        }
+
+        @Override
+        public ClientConnectionRequest requestConnection(HttpRoute route, Object state) {
+            leased.incrementAndGet();
+            return super.requestConnection(route, state);
+        }
+
+        @Override
+        protected ClientConnectionOperator createConnectionOperator(SchemeRegistry schemes) {
+            return new DefaultClientConnectionOperator(schemes) {
+                @Override
+                public void openConnection(OperatedClientConnection connection, HttpHost target, InetAddress local,
+                                           HttpContext context, HttpParams params) throws IOException {
+                    long start = System.nanoTime();
+                    super.openConnection(connection, target, local, context, params);
+                    opened.incrementAndGet();
+                    openNanos.addAndGet(System.nanoTime() - start);
+                }
+
+                @Override
+                public void updateSecureConnection(OperatedClientConnection connection, HttpHost target,
+                                                   HttpContext context, HttpParams params) throws IOException {
+                    // TLS over a proxy tunnel: the handshake happens here
+                    long start = System.nanoTime();
+                    super.updateSecureConnection(connection, target, context, params);
+                    openNanos.addAndGet(System.nanoTime() - start);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package api.base;
+
+import api.utils.ApiExchangeLog;
+import io.qameta.allure.restassured.AllureRestAssured;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.filter.log.LogDetail;
+import io.restassured.filter.log.RequestLoggingFilter;
+import io.restassured.filter.log.ResponseLoggingFilter;
+import io.restassured.http.ContentType;
+import io.restassured.specification.ProxySpecification;
+import io.restassured.specification.RequestSpecification;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.ConfigReader;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-thread RestAssured request specifications, so API tests can run in parallel.
+ *
+ * RestAssured's static configuration (RestAssured.baseURI, RestAssured.filters)
+ * is shared by all threads: a test pointing it at the users API while another
+ * is between steps against the shop sends the second test's request to the
+ * wrong host, and filters added by every setup pile up. Nothing here touches
+ * it. Each thread builds one template per base URI and proxy (Accept,
+ * User-Agent, request logging (see apiLogMode), httpProxy, the shared
+ * {@link ApiConnectionPool}) and never hands it out; every call returns a new
+ * specification merged from the template, so headers, filters or a body
+ * added by one test stay on that request.
+ *
+ * Usage:
+ * <pre>
+ *     RequestSpecs.given(ConfigReader.get("usersApiUrl")).body(user).when().post("/users");
+ * </pre>
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public final class RequestSpecs {
+
+    private static final Logger logger = LogManager.getLogger(RequestSpecs.class);
+
+    /** "baseUri proxy" to the calling thread's template for it. */
+    private static final ThreadLocal<Map<String, RequestSpecification>> templates = ThreadLocal.withInitial(HashMap::new);
+
+    private RequestSpecs() {
+        throw new IllegalStateException("Utility class - cannot be instantiated");
+    }
+
+    /**
+     * @return new request specification against the configured baseUrl
+     */
+    public static RequestSpecification given() {
+        return given(ConfigReader.get("baseUrl", BaseAPITest.BASE_URI));
+    }
+
+    /**
+     * @param baseUri e.g. ConfigReader.get("usersApiUrl")
+     * @return new request specification against baseUri, owned by the caller
+     */
+    public static RequestSpecification given(String baseUri) {
+        String httpProxy = ConfigReader.get("httpProxy", "");
+        RequestSpecification template = templates.get()
+                .computeIfAbsent(baseUri + " " + httpProxy, key -> build(baseUri, httpProxy));
+        return RestAssured.given().spec(template);
+    }
+
+    private static RequestSpecification build(String baseUri, String httpProxy) {
+        RequestSpecBuilder builder = new RequestSpecBuilder()
+                .setBaseUri(baseUri)
+                .setConfig(RestAssuredConfig.config().httpClient(ApiConnectionPool.httpClientConfig()))  // Shared keep-alive pool
+                .setAccept(ContentType.ANY)                   // Accept any content type (HTML, JSON, XML, etc.)
+                .addHeader("User-Agent", "RestAssured-Test");  // Identify requests as test traffic
+
+        if ("all".equalsIgnoreCase(ConfigReader.get("apiLogMode", "failure"))) {
+            // Every request and response to the console and an Allure step, formatted as it happens
+            builder.addFilter(new AllureRestAssured())
+                    .addFilter(new RequestLoggingFilter(LogDetail.ALL))
+                    .addFilter(new ResponseLoggingFilter(LogDetail.ALL));
+        } else {
+            // Buffered per test, written to the log and Allure only if the test fails
+            builder.addFilter(new ApiExchangeLog());
+        }
+
+        // Route through the configured HTTP proxy (host:port), e.g. the record/replay proxy
+        if (!httpProxy.isEmpty()) {
+            int colon = httpProxy.lastIndexOf(':');
+            builder.setProxy(ProxySpecification.host(httpProxy.substring(0, colon))
+                    .withPort(Integer.parseInt(httpProxy.substring(colon + 1))));
+        }
+        logger.debug("Request template for {} built on {}{}", baseUri, Thread.currentThread().getName(),
+                httpProxy.isEmpty() ? "" : " via proxy " + httpProxy);
+        return builder.build();
+    }
+}
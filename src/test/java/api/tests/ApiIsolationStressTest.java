@@ -0,0 +1,123 @@
+package api.tests;
+
+import api.base.BaseAPITest;
+import api.base.RequestSpecs;
+import io.qameta.allure.*;
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import stub.UserApiStub;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stress test for parallel API execution: many threads send requests to two
+ * different base URIs at once, each adding its own header and body, and every
+ * request must leave with exactly its own base URI, header and body.
+ *
+ * Runs against two private UserApiStub instances, so it needs no network and
+ * does not depend on userApiStub/offlineShop.
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+@Epic("Framework")
+@Feature("Parallel API Execution")
+public class ApiIsolationStressTest extends BaseAPITest {
+
+    private static final Logger logger = LogManager.getLogger(ApiIsolationStressTest.class);
+
+    private static final int INVOCATIONS = 120;
+    private static final int THREADS = 12;
+
+    private UserApiStub firstStub;
+    private UserApiStub secondStub;
+    private final AtomicInteger sentToFirst = new AtomicInteger();
+    private final AtomicInteger sentToSecond = new AtomicInteger();
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+    @BeforeClass
+    public void startStubs() {
+        firstStub = new UserApiStub(0, 4);
+        secondStub = new UserApiStub(0, 4);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStubs() {
+        if (firstStub != null) {
+            firstStub.stop();
+        }
+        if (secondStub != null) {
+            secondStub.stop();
+        }
+    }
+
+    @Test(
+            invocationCount = INVOCATIONS,
+            threadPoolSize = THREADS,
+            description = "Concurrent requests to two base URIs keep their own base URI, headers and body",
+            groups = {"api", "concurrency"}
+    )
+    @Story("Request Isolation")
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Sends requests from many threads to two API stubs at once, each with its own caller header and body, and checks every request on the wire and every response")
+    public void concurrentRequestsStayIsolated() {
+        String caller = Thread.currentThread().getName() + "-" + sequence.incrementAndGet();
+        threads.add(Thread.currentThread().getName());
+        boolean first = ThreadLocalRandom.current().nextBoolean();
+        String baseUri = (first ? firstStub : secondStub).getBaseUrl();
+        (first ? sentToFirst : sentToSecond).incrementAndGet();
+
+        Response response = RequestSpecs.given(baseUri)
+                .header("X-Caller", caller)
+                .filter((request, responseSpec, context) -> {
+                    // What actually goes out, after the shared template's filters have run
+                    Assert.assertTrue(request.getURI().startsWith(baseUri + "/users"),
+                            caller + " was sent to " + request.getURI() + " instead of " + baseUri);
+                    Assert.assertEquals(request.getHeaders().getValues("X-Caller"), List.of(caller),
+                            "Caller headers on " + caller + "'s request");
+                    return context.next(request, responseSpec);
+                })
+                .contentType("application/json")
+                .body(Map.of("name", caller, "job", "isolation check"))
+                .when()
+                .post("/users")
+                .then()
+                .extract()
+                .response();
+
+        Assert.assertEquals(response.getStatusCode(), 201, "Create user should return 201 for " + caller);
+        Assert.assertEquals(response.jsonPath().getString("name"), caller, "Response body should echo the caller's own request");
+    }
+
+    @Test(
+            dependsOnMethods = "concurrentRequestsStayIsolated",
+            description = "Every concurrent request reached its own stub and RestAssured's global state was never changed",
+            groups = {"api", "concurrency"}
+    )
+    @Story("Request Isolation")
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Compares each stub's request count with the requests addressed to it and checks RestAssured's static configuration is still the default")
+    public void requestsReachedTheirOwnBaseUri() {
+        logger.info("{} requests from {} threads: {} to {}, {} to {}", INVOCATIONS, threads.size(),
+                sentToFirst.get(), firstStub.getBaseUrl(), sentToSecond.get(), secondStub.getBaseUrl());
+        Allure.parameter("Threads", threads.size());
+
+        Assert.assertEquals(firstStub.getRequestCount(), sentToFirst.get(), "Requests served by " + firstStub.getBaseUrl());
+        Assert.assertEquals(secondStub.getRequestCount(), sentToSecond.get(), "Requests served by " + secondStub.getBaseUrl());
+        Assert.assertEquals(RestAssured.baseURI, RestAssured.DEFAULT_URI, "RestAssured.baseURI should never be reassigned");
+        Assert.assertTrue(RestAssured.filters().isEmpty(), "No global RestAssured filters should be registered");
+        Assert.assertNull(RestAssured.requestSpecification, "No global request specification should be set");
+    }
+}
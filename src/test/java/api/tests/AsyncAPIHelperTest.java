@@ -0,0 +1,110 @@
+package api.tests;
+
+import api.utils.APIHelper;
+import api.utils.ApiExchangeLog;
+import api.utils.AsyncAPIHelper;
+import io.qameta.allure.*;
+import io.restassured.response.Response;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import stub.UserApiStub;
+import utils.ConfigReader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Fans out GET requests through AsyncAPIHelper against a private UserApiStub
+ * and checks the in-flight limit, the order of awaitAll's results and that
+ * every exchange is kept for the calling test.
+ *
+ * The stub has more worker threads than the limit allows requests, so the
+ * stub's own peak of concurrent requests shows whether the limit held.
+ * apiAsyncMaxInFlight is read when AsyncAPIHelper is first used; the test
+ * lowers it before that and checks against the limit actually in force.
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+@Epic("Framework")
+@Feature("Async API Requests")
+public class AsyncAPIHelperTest {
+
+    private static final Logger logger = LogManager.getLogger(AsyncAPIHelperTest.class);
+
+    private static final int CALLS = 50;
+    private static final int MAX_IN_FLIGHT = 4;
+    private static final int STUB_THREADS = 16;
+
+    /** Ids 1..12 are seeded; 13 does not exist and answers 404. */
+    private static final int IDS = 13;
+
+    private UserApiStub stub;
+
+    @BeforeClass(alwaysRun = true)
+    public void startStub() {
+        ConfigReader.set("apiAsyncMaxInFlight", String.valueOf(MAX_IN_FLIGHT));
+        stub = new UserApiStub(0, STUB_THREADS);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStub() {
+        ConfigReader.clearOverride("apiAsyncMaxInFlight");
+        if (stub != null) {
+            stub.stop();
+        }
+    }
+
+    @Test(description = "Async fan-out stays within apiAsyncMaxInFlight and returns results in request order",
+            groups = {"api", "concurrency"})
+    @Story("Async Fan-out")
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Starts 50 GETs for users 1..13 at once, checks the stub never served more than the in-flight limit concurrently, "
+            + "validates each response in request order and checks all exchanges reached the test's API log")
+    public void fanOutStaysWithinLimit() {
+        ApiExchangeLog.reset();
+        int limit = AsyncAPIHelper.getMaxInFlight();
+
+        List<CompletableFuture<Response>> calls = new ArrayList<>(CALLS);
+        for (int i = 0; i < CALLS; i++) {
+            calls.add(AsyncAPIHelper.get(stub.getBaseUrl() + "/users/" + id(i)));
+        }
+        List<Response> responses = AsyncAPIHelper.awaitAll(calls);
+
+        logger.info("{} async calls, limit {}, stub peak in flight {}", CALLS, limit, stub.getPeakInFlight());
+        Allure.parameter("Peak in flight", stub.getPeakInFlight());
+
+        Assert.assertTrue(limit <= MAX_IN_FLIGHT, "AsyncAPIHelper should use the lowered apiAsyncMaxInFlight, not " + limit);
+        Assert.assertEquals(stub.getRequestCount(), CALLS, "Requests served by the stub");
+        Assert.assertTrue(stub.getPeakInFlight() <= limit,
+                "Stub served " + stub.getPeakInFlight() + " requests at once with apiAsyncMaxInFlight=" + limit);
+
+        Assert.assertEquals(responses.size(), CALLS, "awaitAll should return one response per call");
+        for (int i = 0; i < CALLS; i++) {
+            Response response = responses.get(i);
+            int id = id(i);
+            if (id == IDS) {
+                APIHelper.validateStatusCode(response, 404);
+                continue;
+            }
+            APIHelper.validateStatusCode(response, 200);
+            Assert.assertEquals(APIHelper.extractValue(response, "data.id", Integer.class), Integer.valueOf(id),
+                    "Response " + i + " should belong to request " + i);
+            Assert.assertTrue(APIHelper.extractValue(response, "data.email", String.class).endsWith("@reqres.in"),
+                    "Email of user " + id);
+        }
+
+        Assert.assertEquals(ApiExchangeLog.size(), CALLS,
+                "Every async exchange should be kept in the calling test's API log");
+        ApiExchangeLog.reset();
+    }
+
+    private static int id(int call) {
+        return call % IDS + 1;
+    }
+}
@@ -0,0 +1,133 @@
+package api.tests;
+
+import api.base.RequestSpecs;
+import io.qameta.allure.*;
+import io.restassured.response.Response;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import proxy.FaultInjectionProxy;
+import proxy.InjectFaults;
+import stub.DemoWebShopStub;
+import utils.ConfigReader;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs the shipped fault profiles through @InjectFaults against a private
+ * DemoWebShopStub and checks the proxy injects what they declare.
+ *
+ * Unless a fault proxy is already running, the class starts one in front of
+ * its own stub for its tests and afterwards puts baseUrl and httpProxy back.
+ * TestListener applies each test's profile, so the class must run with it
+ * (testng.xml does). Profiles are seeded, so the n-th request to a route gets
+ * the same faults on every run.
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+@Epic("Framework")
+@Feature("Fault Injection")
+public class FaultProfileTest {
+
+    private static final Logger logger = LogManager.getLogger(FaultProfileTest.class);
+
+    /** Anonymous checkout steps; with errorRate 0.2 and seed 7 some of them fail. */
+    private static final int CHECKOUT_POSTS = 10;
+
+    /** FaultInjectionProxy.getSummary(): profile name, requests matched, added latency. */
+    private static final Pattern SUMMARY = Pattern.compile("profile '([^']+)': (\\d+) request\\(s\\) matched, (\\d+) ms added latency");
+
+    private DemoWebShopStub stub;
+    private String baseUrl;
+    private String httpProxy;
+
+    @BeforeClass(alwaysRun = true)
+    public void startFaultProxy() {
+        if (FaultInjectionProxy.isRunning()) {
+            logger.info("Fault proxy already running - profiles apply to its upstream");
+            return;
+        }
+        baseUrl = ConfigReader.get("baseUrl");
+        httpProxy = ConfigReader.get("httpProxy", "");
+        stub = new DemoWebShopStub(0);
+        ConfigReader.set("baseUrl", stub.getBaseUrl());
+        ConfigReader.set("faultProxyEnabled", "true");
+        FaultInjectionProxy.startIfConfigured();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopFaultProxy() {
+        if (stub == null) {
+            return;
+        }
+        FaultInjectionProxy.stop();
+        stub.stop();
+        ConfigReader.clearOverride("faultProxyEnabled");
+        ConfigReader.set("baseUrl", baseUrl);
+        ConfigReader.set("httpProxy", httpProxy);
+    }
+
+    @Test(description = "flaky-checkout delays the cart and fails some checkout steps with HTTP 500",
+            groups = {"api", "faults"})
+    @InjectFaults("flaky-checkout")
+    @Story("Fault Profiles")
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Checks GET /cart takes the profile's fixed 500 ms and that the profile's injected 500s reach the client "
+            + "for POSTs to /checkout/")
+    public void flakyCheckoutProfileInjectsFaults() {
+        long start = System.nanoTime();
+        Response cart = RequestSpecs.given().get("/cart");
+        long cartMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        Assert.assertEquals(cart.getStatusCode(), 200, "GET /cart is delayed, not failed");
+        Assert.assertTrue(cartMillis >= 500, "GET /cart should take the profile's 500 ms latency, took " + cartMillis + " ms");
+
+        int injected = 0;
+        for (int i = 0; i < CHECKOUT_POSTS; i++) {
+            Response step = RequestSpecs.given().post("/checkout/opcsavebilling/");
+            if (step.getStatusCode() == 500) {
+                Assert.assertTrue(step.asString().contains("Injected fault"), "HTTP 500 should come from the proxy");
+                injected++;
+            } else {
+                Assert.assertEquals(step.getStatusCode(), 200, "Checkout step " + i);
+            }
+        }
+
+        String summary = FaultInjectionProxy.getSummary();
+        logger.info("{} of {} checkout steps failed; {}", injected, CHECKOUT_POSTS, summary);
+        Assert.assertTrue(injected > 0, "errorRate 0.2 should fail some of " + CHECKOUT_POSTS + " checkout steps");
+        Assert.assertTrue(summary.contains("profile 'flaky-checkout'"), "Active profile: " + summary);
+        Assert.assertTrue(summary.contains(String.format(Locale.ROOT, "%d error(s)", injected)),
+                "Proxy should count the errors the client saw: " + summary);
+    }
+
+    @Test(description = "slow-network delays every request", groups = {"api", "faults"})
+    @InjectFaults("slow-network")
+    @Story("Fault Profiles")
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Checks the homepage still loads but takes the sampled long-tail latency plus the 200 ms first-byte delay")
+    public void slowNetworkProfileDelaysRequests() {
+        long start = System.nanoTime();
+        Response home = RequestSpecs.given().get("/");
+        long homeMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        String summary = FaultInjectionProxy.getSummary();
+        logger.info("Homepage took {} ms; {}", homeMillis, summary);
+        Matcher matched = SUMMARY.matcher(summary);
+        Assert.assertTrue(matched.find(), "Unexpected summary: " + summary);
+        Assert.assertEquals(matched.group(1), "slow-network", "Active profile");
+        Assert.assertEquals(Integer.parseInt(matched.group(2)), 1, "Requests matched");
+        long added = Long.parseLong(matched.group(3));
+
+        Assert.assertEquals(home.getStatusCode(), 200, "Homepage through the slow network");
+        Assert.assertTrue(added > 0, "longtail:300:3000 should add latency: " + summary);
+        Assert.assertTrue(homeMillis >= added + 200, "Homepage should take the " + added
+                + " ms latency plus the 200 ms first byte, took " + homeMillis + " ms");
+    }
+}
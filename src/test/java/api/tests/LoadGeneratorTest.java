@@ -0,0 +1,94 @@
+package api.tests;
+
+import io.qameta.allure.*;
+import load.LatencyHistogram;
+import load.LoadGenerator;
+import load.LoadScenario;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import stub.UserApiStub;
+
+import java.util.Locale;
+
+/**
+ * Short open-model load run against a private UserApiStub, so the load
+ * generator and its percentile report can be checked offline.
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+@Epic("Framework")
+@Feature("API Load Generation")
+public class LoadGeneratorTest {
+
+    private static final double RATE = 50;
+    private static final int SECONDS = 3;
+    private static final int VIRTUAL_USERS = 50;
+    /** Share of RATE the run has to achieve; below it the generator, not the stub, set the pace. */
+    private static final double MIN_RATE_SHARE = 0.9;
+
+    private UserApiStub stub;
+
+    @BeforeClass(alwaysRun = true)
+    public void startStub() {
+        stub = new UserApiStub(0, 8);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStub() {
+        if (stub != null) {
+            stub.stop();
+        }
+    }
+
+    @Test(description = "Open-model load against the local users API stub produces a complete percentile report", groups = {"load"})
+    @Story("Open-model Load")
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Runs 50 arrivals per second for 3 seconds over three users API endpoints and checks the arrival count, "
+            + "achieved throughput, that the virtual users never all got busy, error rate and percentile ordering")
+    public void openModelLoadAgainstStub() {
+        LoadScenario scenario = LoadScenario.of("users-get,users-list,users-create", stub.getBaseUrl(), null);
+        LoadGenerator.Report report = new LoadGenerator(scenario, RATE, SECONDS, VIRTUAL_USERS, "constant").run();
+        Allure.addAttachment("Load Report", "text/plain", report.toText(), ".txt");
+
+        Assert.assertEquals(report.getArrivals(), (long) (RATE * SECONDS), "Arrivals should follow the target rate");
+        Assert.assertEquals(report.getUnfinished(), 0, "Every request should complete");
+        Assert.assertEquals(report.getAll().getCompleted(), report.getArrivals(), "Completed requests");
+        Assert.assertEquals(report.getAll().getErrors(), 0, "Errors against the stub: " + report.getAll().getFirstError());
+        Assert.assertEquals(stub.getRequestCount(), (int) report.getArrivals() + report.getWarmups(), "Requests served by the stub");
+        Assert.assertFalse(report.isSaturated(), "All " + VIRTUAL_USERS + " virtual users were busy at once (peak "
+                + report.getPeakInFlight() + "): the latencies measure the generator, not the stub");
+        double throughput = report.getThroughput(report.getAll());
+        Assert.assertTrue(throughput >= RATE * MIN_RATE_SHARE,
+                String.format(Locale.ROOT, "Achieved %.1f req/s of the %.0f req/s target", throughput, RATE));
+        for (LoadGenerator.Stats stats : report.getEndpoints().values()) {
+            Assert.assertEquals(stats.getCompleted(), report.getArrivals() / 3, "Share of " + stats.getName());
+            LatencyHistogram latency = stats.getLatency();
+            Assert.assertTrue(latency.getValueAtPercentile(50) <= latency.getValueAtPercentile(90)
+                    && latency.getValueAtPercentile(90) <= latency.getValueAtPercentile(99)
+                    && latency.getValueAtPercentile(99) <= latency.getValueAtPercentile(99.9)
+                    && latency.getValueAtPercentile(99.9) <= latency.getMaxMicros(), "Percentiles of " + stats.getName() + " should be ordered");
+            Assert.assertTrue(latency.getValueAtPercentile(99) >= stats.getServiceTime().getValueAtPercentile(99),
+                    "Latency from scheduled arrival can never be below the service time for " + stats.getName());
+        }
+    }
+
+    @Test(description = "Latency histogram percentiles stay within its 0.1% precision", groups = {"load"})
+    @Story("Open-model Load")
+    @Severity(SeverityLevel.MINOR)
+    @Description("Records 1 us to 1,000,000 us once each and checks p50, p99, p99.9 and max against the exact values")
+    public void histogramPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1_000_000; micros++) {
+            histogram.record(micros);
+        }
+        Assert.assertEquals(histogram.getCount(), 1_000_000);
+        Assert.assertEquals(histogram.getMaxMicros(), 1_000_000);
+        Assert.assertEquals(histogram.getValueAtPercentile(50), 500_000, 500_000 * 0.001);
+        Assert.assertEquals(histogram.getValueAtPercentile(99), 990_000, 990_000 * 0.001);
+        Assert.assertEquals(histogram.getValueAtPercentile(99.9), 999_000, 999_000 * 0.001);
+        Assert.assertEquals(histogram.getValueAtPercentile(100), 1_000_000);
+    }
+}
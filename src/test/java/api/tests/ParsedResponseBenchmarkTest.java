@@ -0,0 +1,135 @@
+package api.tests;
+
+import api.utils.ParsedResponse;
+import io.qameta.allure.*;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Checks ParsedResponse against RestAssured's JsonPath and benchmarks repeated
+ * extraction from 1 KB, 100 KB and 5 MB users payloads. Both run offline on
+ * responses built in memory.
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+@Epic("Framework")
+@Feature("Response Parsing")
+public class ParsedResponseBenchmarkTest {
+
+    private static final Logger logger = LogManager.getLogger(ParsedResponseBenchmarkTest.class);
+
+    private static final List<String> PATHS = Arrays.asList(
+            "page", "total", "data[0].email", "data[-1].id", "data[3].first_name",
+            "data.size()", "support.url", "data[1].job");
+
+    @Test(description = "Parsed responses return the same values as JsonPath", groups = {"api"})
+    @Story("Parse-once Extraction")
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Extracts fields, indexes, list projections, size() and a filter expression both ways from one users payload")
+    public void parsedPathsMatchJsonPath() {
+        Response response = usersPage(1_024);
+        ParsedResponse parsed = ParsedResponse.of(response);
+
+        for (String path : PATHS) {
+            Assert.assertEquals(String.valueOf(parsed.getObject(path, Object.class)),
+                    String.valueOf((Object) response.jsonPath().get(path)), "Value at " + path);
+        }
+        Assert.assertEquals(parsed.getList("data.id", Integer.class), response.jsonPath().getList("data.id", Integer.class));
+        Assert.assertEquals(parsed.getString("data.find { it.id == 2 }.email"), response.jsonPath().getString("data.find { it.id == 2 }.email"));
+        Assert.assertEquals(parsed.getInt("total"), response.jsonPath().getInt("total"));
+        Assert.assertNull(parsed.getObject("data[0].missing.deeper", String.class), "Missing path");
+        Assert.assertSame(ParsedResponse.of(response), parsed, "Same response on the same thread should reuse its parse");
+    }
+
+    @Test(description = "Compare repeated JSON path extraction through JsonPath and ParsedResponse", groups = {"benchmark"})
+    @Story("Parse-once Extraction")
+    @Severity(SeverityLevel.MINOR)
+    @Description("Extracts the same eight values from 1 KB, 100 KB and 5 MB payloads both ways and reports the time per response")
+    public void extractionBenchmark() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "%-8s %10s %8s %16s %16s %9s%n",
+                "payload", "bytes", "rounds", "jsonPath ms", "parsed ms", "speedup"));
+        report.append(measure("1 KB", usersPage(1_024), 50));
+        report.append(measure("100 KB", usersPage(100 * 1_024), 10));
+        report.append(measure("5 MB", usersPage(5 * 1_024 * 1_024), 2));
+
+        logger.info("JSON extraction benchmark ({} paths per response):\n{}", PATHS.size(), report);
+        Allure.addAttachment("JSON Extraction Benchmark", "text/plain", report.toString());
+    }
+
+    /**
+     * One round extracts every path from the response; the parsed side builds a new
+     * ParsedResponse per round, so its one parse is part of the time.
+     */
+    private String measure(String label, Response response, int rounds) {
+        for (String path : PATHS) {
+            Assert.assertEquals(String.valueOf(new ParsedResponse(response).getObject(path, Object.class)),
+                    String.valueOf((Object) response.jsonPath().get(path)), label + " value at " + path);
+        }
+        int warmup = Math.max(1, rounds / 10);
+        roundsWithJsonPath(response, warmup);
+        roundsWithParsedResponse(response, warmup);
+
+        long start = System.nanoTime();
+        roundsWithJsonPath(response, rounds);
+        double jsonPathMillis = (System.nanoTime() - start) / 1_000_000.0 / rounds;
+        start = System.nanoTime();
+        roundsWithParsedResponse(response, rounds);
+        double parsedMillis = (System.nanoTime() - start) / 1_000_000.0 / rounds;
+
+        return String.format(Locale.ROOT, "%-8s %10d %8d %16.3f %16.3f %8.1fx%n", label,
+                response.asByteArray().length, rounds, jsonPathMillis, parsedMillis, jsonPathMillis / parsedMillis);
+    }
+
+    private static void roundsWithJsonPath(Response response, int rounds) {
+        for (int i = 0; i < rounds; i++) {
+            for (String path : PATHS) {
+                response.jsonPath().get(path);
+            }
+        }
+    }
+
+    private static void roundsWithParsedResponse(Response response, int rounds) {
+        for (int i = 0; i < rounds; i++) {
+            ParsedResponse parsed = new ParsedResponse(response);
+            for (String path : PATHS) {
+                parsed.getObject(path, Object.class);
+            }
+        }
+    }
+
+    /**
+     * @return a reqres-style users page of at least the given size
+     */
+    private static Response usersPage(int bytes) {
+        StringBuilder data = new StringBuilder();
+        int users = 0;
+        while (data.length() < bytes || users < 4) {
+            users++;
+            if (users > 1) {
+                data.append(',');
+            }
+            data.append(String.format(Locale.ROOT,
+                    "{\"id\":%d,\"email\":\"user.%d@example.com\",\"first_name\":\"First%d\",\"last_name\":\"Last%d\","
+                            + "\"job\":\"QA Engineer\",\"avatar\":\"https://example.com/img/faces/%d-image.jpg\"}",
+                    users, users, users, users, users));
+        }
+        String body = "{\"page\":1,\"per_page\":" + users + ",\"total\":" + users + ",\"total_pages\":1,\"data\":[" + data
+                + "],\"support\":{\"url\":\"https://example.com/#support\",\"text\":\"Load test payload\"}}";
+        return new ResponseBuilder()
+                .setStatusCode(200)
+                .setContentType("application/json")
+                .setBody(body.getBytes(StandardCharsets.UTF_8))
+                .build();
+    }
+}
@@ -1,17 +1,16 @@
 package api.tests;
 
 import api.base.BaseAPITest;
+import api.base.RequestSpecs;
 import api.models.UserRequest;
 import api.models.UserResponse;
 import io.qameta.allure.*;
-import io.restassured.RestAssured;
 import io.restassured.response.Response;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.testng.Assert;
 import org.testng.annotations.Test;
-
-import static io.restassured.RestAssured.given;
+import utils.ConfigReader;
 
 /**
  * SampleAPITest - Comprehensive API testing suite
@@ -52,9 +51,8 @@ public class SampleAPITest extends BaseAPITest {
     // BEST PRACTICE: Use Log4j2 logger for debugging and tracking
     private static final Logger logger = LogManager.getLogger(SampleAPITest.class);
 
-    // API Configuration Constants
-    private static final String DEMO_WEBSHOP_BASE_URI = "https://demowebshop.tricentis.com";
-    private static final String JSONPLACEHOLDER_BASE_URI = "https://reqres.in/api";
+    // API Configuration Constants (usersApiUrl points at the local UserApiStub when enabled)
+    private static final String USERS_API_DEFAULT_URI = "https://reqres.in/api";
 
     // ═══════════════════════════════════════════════════════════════════════════
     // TEST 1: HTML Endpoint - DemoWebShop Page Load
@@ -73,25 +71,25 @@ public class SampleAPITest extends BaseAPITest {
 
         logger.info("🧪 Starting Test: DemoWebShop HTML Page Load");
 
-        Allure.step("Step 1: Configure API request for HTML endpoint", () -> {
-            logger.debug("Setting base URI: {}", DEMO_WEBSHOP_BASE_URI);
-            RestAssured.baseURI = DEMO_WEBSHOP_BASE_URI;
+        String demoWebShopBaseUri = Allure.step("Step 1: Configure API request for HTML endpoint", () -> {
+            String baseUri = ConfigReader.get("baseUrl");
+            logger.debug("Using base URI: {}", baseUri);
 
-            Allure.parameter("Base URI", DEMO_WEBSHOP_BASE_URI);
+            Allure.parameter("Base URI", baseUri);
             Allure.parameter("Endpoint", "/computing-and-internet");
             Allure.parameter("Expected Content Type", "text/html");
 
             logger.debug("✅ API request configured");
+            return baseUri;
         });
 
         Response response = Allure.step("Step 2: Send GET request to catalog page", () -> {
             logger.debug("Sending GET request to /computing-and-internet...");
 
-            Response resp = given()
+            Response resp = RequestSpecs.given(demoWebShopBaseUri)
                     .when()
                     .get("/computing-and-internet")
                     .then()
-                    .log().all()
                     .extract()
                     .response();
 
@@ -165,29 +163,29 @@ public class SampleAPITest extends BaseAPITest {
 
         logger.info("🧪 Starting Test: DemoWebShop Add to Cart API");
 
-        Allure.step("Step 1: Configure API request for add-to-cart endpoint", () -> {
-            logger.debug("Setting base URI: {}", DEMO_WEBSHOP_BASE_URI);
-            RestAssured.baseURI = DEMO_WEBSHOP_BASE_URI;
+        String demoWebShopBaseUri = Allure.step("Step 1: Configure API request for add-to-cart endpoint", () -> {
+            String baseUri = ConfigReader.get("baseUrl");
+            logger.debug("Using base URI: {}", baseUri);
 
-            Allure.parameter("Base URI", DEMO_WEBSHOP_BASE_URI);
+            Allure.parameter("Base URI", baseUri);
             Allure.parameter("Endpoint", "/addproducttocart/details/31/1");
             Allure.parameter("Product ID", 31);
             Allure.parameter("Quantity", 1);
             Allure.parameter("Content Type", "application/x-www-form-urlencoded");
 
             logger.debug("✅ API request configured");
+            return baseUri;
         });
 
         Response response = Allure.step("Step 2: Send POST request to add product to cart", () -> {
             logger.debug("Sending POST request to add product to cart...");
 
-            Response resp = given()
+            Response resp = RequestSpecs.given(demoWebShopBaseUri)
                     .contentType("application/x-www-form-urlencoded")
                     .formParam("addtocart_31.EnteredQuantity", "1")
                     .when()
                     .post("/addproducttocart/details/31/1")
                     .then()
-                    .log().all()
                     .extract()
                     .response();
 
@@ -283,28 +281,28 @@ public class SampleAPITest extends BaseAPITest {
             return request;
         });
 
-        Allure.step("Step 2: Configure API request for user creation", () -> {
-            logger.debug("Setting base URI: {}", JSONPLACEHOLDER_BASE_URI);
-            RestAssured.baseURI = JSONPLACEHOLDER_BASE_URI;
+        String usersApiUri = Allure.step("Step 2: Configure API request for user creation", () -> {
+            String baseUri = ConfigReader.get("usersApiUrl", USERS_API_DEFAULT_URI);
+            logger.debug("Using base URI: {}", baseUri);
 
-            Allure.parameter("Base URI", JSONPLACEHOLDER_BASE_URI);
+            Allure.parameter("Base URI", baseUri);
             Allure.parameter("Endpoint", "/users");
             Allure.parameter("HTTP Method", "POST");
             Allure.parameter("Content Type", "application/json");
 
             logger.debug("✅ API request configured");
+            return baseUri;
         });
 
         Response response = Allure.step("Step 3: Send POST request with UserRequest body", () -> {
             logger.debug("Sending POST request to create user...");
 
-            Response resp = given()
+            Response resp = RequestSpecs.given(usersApiUri)
                     .contentType("application/json")
                     .body(userRequest)  // RestAssured automatically serializes POJO to JSON
                     .when()
                     .post("/users")
                     .then()
-                    .log().all()
                     .extract()
                     .response();
 
@@ -1,5 +1,6 @@
 package api.utils;
 
+import api.base.RequestSpecs;
 import io.qameta.allure.Step;
 import io.restassured.response.Response;
 import org.slf4j.Logger;
@@ -7,10 +8,9 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Map;
 
-import static io.restassured.RestAssured.given;
-
 /**
  * API Helper class with common REST operations
+ * (against the configured baseUrl, on per-thread specifications from RequestSpecs)
  */
 public class APIHelper {
 
@@ -20,7 +20,7 @@ public class APIHelper {
     public static Response get(String endpoint) {
         logger.info("🌐 GET Request: {}", endpoint);
 
-        Response response = given()
+        Response response = RequestSpecs.given()
                 .when()
                 .get(endpoint)
                 .then()
@@ -35,7 +35,7 @@ public class APIHelper {
     public static Response get(String endpoint, Map<String, String> queryParams) {
         logger.info("🌐 GET Request: {} with params: {}", endpoint, queryParams);
 
-        Response response = given()
+        Response response = RequestSpecs.given()
                 .queryParams(queryParams)
                 .when()
                 .get(endpoint)
@@ -51,7 +51,7 @@ public class APIHelper {
     public static Response post(String endpoint, Object body) {
         logger.info("🌐 POST Request: {}", endpoint);
 
-        Response response = given()
+        Response response = RequestSpecs.given()
                 .body(body)
                 .when()
                 .post(endpoint)
@@ -67,7 +67,7 @@ public class APIHelper {
     public static Response put(String endpoint, Object body) {
         logger.info("🌐 PUT Request: {}", endpoint);
 
-        Response response = given()
+        Response response = RequestSpecs.given()
                 .body(body)
                 .when()
                 .put(endpoint)
@@ -83,7 +83,7 @@ public class APIHelper {
     public static Response delete(String endpoint) {
         logger.info("🌐 DELETE Request: {}", endpoint);
 
-        Response response = given()
+        Response response = RequestSpecs.given()
                 .when()
                 .delete(endpoint)
                 .then()
@@ -98,7 +98,7 @@ public class APIHelper {
     public static Response patch(String endpoint, Object body) {
         logger.info("🌐 PATCH Request: {}", endpoint);
 
-        Response response = given()
+        Response response = RequestSpecs.given()
                 .body(body)
                 .when()
                 .patch(endpoint)
@@ -128,9 +128,10 @@ public class APIHelper {
         logger.info("✅ Status code validation passed");
     }
 
+    // Parses the body once per response (see ParsedResponse), however many values are extracted from it
     @Step("Extract value from JSON path: {jsonPath}")
     public static <T> T extractValue(Response response, String jsonPath, Class<T> type) {
-        T value = response.jsonPath().getObject(jsonPath, type);
+        T value = ParsedResponse.of(response).getObject(jsonPath, type);
         logger.info("📝 Extracted value from '{}': {}", jsonPath, value);
         return value;
     }
@@ -0,0 +1,324 @@
+package api.utils;
+
+import io.qameta.allure.Allure;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.ConfigReader;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * RestAssured filter that keeps the current test's requests and responses in a
+ * bounded per-thread buffer and writes them out only when the test fails.
+ *
+ * Recording stores references (headers, the response bytes RestAssured has
+ * already read) and formats nothing, so passing tests pay no console or report
+ * cost for full HTML pages. When a test fails, TestListener calls
+ * {@link #emit(String)}: the exchanges are logged and attached to Allure as one
+ * text attachment. Bodies up to apiLogInlineBodyBytes are shown inline; larger
+ * ones are kept out of line and attached as their own Allure attachment with
+ * their content type, with only the first apiLogInlineBodyBytes in the text.
+ *
+ * Bounds per thread:
+ * - bodies are cut at apiLogMaxBodyBytes
+ * - at most apiLogCapacity exchanges and apiLogBufferBytes of bodies are kept;
+ *   the oldest exchanges are dropped first and the drop is reported
+ *
+ * Usage:
+ * <pre>
+ *     given().filter(new ApiExchangeLog())...
+ * </pre>
+ * RequestSpecs adds it to every request unless apiLogMode=all.
+ *
+ * Configuration (config.properties):
+ * - apiLogMode: failure | all (default: failure)
+ * - apiLogCapacity (default: 50 exchanges)
+ * - apiLogInlineBodyBytes (default: 2048)
+ * - apiLogMaxBodyBytes (default: 262144)
+ * - apiLogBufferBytes (default: 4194304)
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public class ApiExchangeLog implements Filter {
+
+    private static final Logger logger = LogManager.getLogger(ApiExchangeLog.class);
+
+    private static final int CAPACITY = Math.max(1, ConfigReader.getInt("apiLogCapacity", 50));
+    private static final int INLINE_BODY_BYTES = ConfigReader.getInt("apiLogInlineBodyBytes", 2048);
+    private static final int MAX_BODY_BYTES = ConfigReader.getInt("apiLogMaxBodyBytes", 262_144);
+    private static final long BUFFER_BYTES = ConfigReader.getInt("apiLogBufferBytes", 4_194_304);
+
+    private static final ThreadLocal<Buffer> buffer = ThreadLocal.withInitial(Buffer::new);
+
+    // ---------------------------------------------------------
+    // RECORDING
+    // ---------------------------------------------------------
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Exchange exchange = new Exchange(requestSpec.getMethod(), requestSpec.getURI(), requestSpec.getHeaders(),
+                body(requestSpec.getBody()));
+        exchange.formParams = requestSpec.getFormParams().isEmpty() ? null : new LinkedHashMap<>(requestSpec.getFormParams());
+
+        long start = System.nanoTime();
+        try {
+            Response response = ctx.next(requestSpec, responseSpec);
+            exchange.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            exchange.statusLine = "no response: " + e;
+            throw e;
+        } finally {
+            exchange.millis = (System.nanoTime() - start) / 1_000_000;
+            buffer.get().add(exchange);
+        }
+    }
+
+    /**
+     * Returns a recorder for exchanges made outside RestAssured's filter chain, such as
+     * {@link AsyncAPIHelper} calls that complete on another thread. Obtain it on the test's
+     * thread: what it records is kept (and emitted) with that thread's current test.
+     */
+    public static Recorder recorder() {
+        return new Recorder(buffer.get());
+    }
+
+    /**
+     * Records exchanges into the buffer of the thread that created it.
+     */
+    public static final class Recorder {
+        private final Buffer target;
+
+        private Recorder(Buffer target) {
+            this.target = target;
+        }
+
+        /**
+         * @param response the response, or null if the request failed
+         * @param error    why there is no response, or null
+         */
+        public void record(String method, String uri, Headers requestHeaders, byte[] requestBody,
+                           Response response, Throwable error, long millis) {
+            Exchange exchange = new Exchange(method, uri, requestHeaders, cap(requestBody));
+            if (response != null) {
+                exchange.complete(response);
+            } else {
+                exchange.statusLine = "no response: " + error;
+            }
+            exchange.millis = millis;
+            target.add(exchange);
+        }
+    }
+
+    private static byte[] body(Object body) {
+        if (body == null) {
+            return null;
+        }
+        byte[] bytes = body instanceof byte[] ? (byte[]) body : String.valueOf(body).getBytes(StandardCharsets.UTF_8);
+        return cap(bytes);
+    }
+
+    private static byte[] cap(byte[] bytes) {
+        return bytes == null || bytes.length <= MAX_BODY_BYTES ? bytes : Arrays.copyOf(bytes, MAX_BODY_BYTES);
+    }
+
+    // ---------------------------------------------------------
+    // TEST BOUNDARIES
+    // ---------------------------------------------------------
+
+    /**
+     * Forgets the current thread's exchanges. Called when a test starts, passes or is skipped.
+     */
+    public static void reset() {
+        buffer.get().clear();
+    }
+
+    /**
+     * @return exchanges currently held for this thread
+     */
+    public static int size() {
+        Buffer buf = buffer.get();
+        synchronized (buf) {
+            return buf.exchanges.size();
+        }
+    }
+
+    /**
+     * Logs the current thread's exchanges, attaches them to Allure and clears them.
+     * Does nothing when the test made no API calls.
+     *
+     * @param testName name of the failed test
+     */
+    public static void emit(String testName) {
+        Buffer buf = buffer.get();
+        synchronized (buf) {
+            if (buf.exchanges.isEmpty()) {
+                return;
+            }
+            try {
+                StringBuilder text = new StringBuilder();
+                if (buf.dropped > 0) {
+                    text.append("(").append(buf.dropped).append(" earlier exchanges dropped - buffer limit)\n\n");
+                }
+                int number = buf.dropped;
+                for (Exchange exchange : buf.exchanges) {
+                    number++;
+                    exchange.render(number, text);
+                }
+                logger.info("API exchanges of failed test {} ({} kept, {} dropped):\n{}", testName, buf.exchanges.size(),
+                        buf.dropped, text);
+                Allure.addAttachment("API Exchanges", "text/plain", text.toString(), ".txt");
+                number = buf.dropped;
+                for (Exchange exchange : buf.exchanges) {
+                    number++;
+                    exchange.attachLargeBodies(number);
+                }
+            } catch (Exception e) {
+                logger.warn("Failed to emit API exchanges for test '{}': {}", testName, e.getMessage());
+            } finally {
+                buf.clear();
+            }
+        }
+    }
+
+    // ---------------------------------------------------------
+    // BUFFER
+    // ---------------------------------------------------------
+
+    /**
+     * Oldest-first exchanges of the current test, bounded by count and body bytes.
+     * Synchronized because recorders add to it from other threads.
+     */
+    private static final class Buffer {
+        private final ArrayDeque<Exchange> exchanges = new ArrayDeque<>();
+        private long bodyBytes;
+        private int dropped;
+
+        private synchronized void add(Exchange exchange) {
+            exchanges.addLast(exchange);
+            bodyBytes += exchange.bodyBytes();
+            while (exchanges.size() > 1 && (exchanges.size() > CAPACITY || bodyBytes > BUFFER_BYTES)) {
+                bodyBytes -= exchanges.removeFirst().bodyBytes();
+                dropped++;
+            }
+        }
+
+        private synchronized void clear() {
+            exchanges.clear();
+            bodyBytes = 0;
+            dropped = 0;
+        }
+    }
+
+    /**
+     * One request and its response, kept unformatted until a failure needs it.
+     */
+    private static final class Exchange {
+        private final String method;
+        private final String uri;
+        private final Headers requestHeaders;
+        private final byte[] requestBody;
+        private Map<String, ?> formParams;
+        private String statusLine;
+        private Headers responseHeaders;
+        private String responseContentType;
+        private byte[] responseBody;
+        private long millis;
+
+        private Exchange(String method, String uri, Headers requestHeaders, byte[] requestBody) {
+            this.method = method;
+            this.uri = uri;
+            this.requestHeaders = requestHeaders;
+            this.requestBody = requestBody;
+        }
+
+        private void complete(Response response) {
+            statusLine = response.getStatusLine();
+            responseHeaders = response.getHeaders();
+            responseContentType = response.getContentType();
+            responseBody = cap(response.asByteArray());
+        }
+
+        private long bodyBytes() {
+            return (requestBody == null ? 0 : requestBody.length) + (responseBody == null ? 0 : responseBody.length);
+        }
+
+        private void render(int number, StringBuilder text) {
+            text.append('#').append(number).append(' ').append(method).append(' ').append(uri)
+                    .append(" -> ").append(statusLine).append(" (").append(millis).append(" ms)\n");
+            headers("> ", requestHeaders, text);
+            if (formParams != null) {
+                text.append("> form params: ").append(formParams).append('\n');
+            }
+            body("> ", requestBody, "request", number, text);
+            headers("< ", responseHeaders, text);
+            body("< ", responseBody, "response", number, text);
+            text.append('\n');
+        }
+
+        private static void headers(String prefix, Headers headers, StringBuilder text) {
+            if (headers == null) {
+                return;
+            }
+            for (Header header : headers) {
+                text.append(prefix).append(header.getName()).append(": ").append(header.getValue()).append('\n');
+            }
+        }
+
+        private static void body(String prefix, byte[] body, String kind, int number, StringBuilder text) {
+            if (body == null || body.length == 0) {
+                return;
+            }
+            text.append(prefix).append('\n');
+            if (body.length <= INLINE_BODY_BYTES) {
+                text.append(new String(body, StandardCharsets.UTF_8)).append('\n');
+            } else {
+                text.append(new String(body, 0, INLINE_BODY_BYTES, StandardCharsets.UTF_8))
+                        .append("\n... (").append(body.length).append(" bytes, full body attached as '")
+                        .append(attachmentName(kind, number)).append("')\n");
+            }
+        }
+
+        private void attachLargeBodies(int number) {
+            if (requestBody != null && requestBody.length > INLINE_BODY_BYTES) {
+                Allure.addAttachment(attachmentName("request", number), "text/plain",
+                        new ByteArrayInputStream(requestBody), ".txt");
+            }
+            if (responseBody != null && responseBody.length > INLINE_BODY_BYTES) {
+                String type = responseContentType == null || responseContentType.isEmpty() ? "text/plain"
+                        : responseContentType.split(";")[0].trim();
+                Allure.addAttachment(attachmentName("response", number), type,
+                        new ByteArrayInputStream(responseBody), extension(type));
+            }
+        }
+
+        private static String attachmentName(String kind, int number) {
+            return "API " + kind + " #" + number + " body";
+        }
+
+        private static String extension(String type) {
+            if (type.contains("html")) {
+                return ".html";
+            }
+            if (type.contains("json")) {
+                return ".json";
+            }
+            return type.contains("xml") ? ".xml" : ".txt";
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package api.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.qameta.allure.Allure;
+import io.qameta.allure.Step;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.ConfigReader;
+
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Non-blocking counterpart of {@link APIHelper} for checks that fan out, e.g. fifty product pages at once.
+ *
+ * Requests go out over the JDK HttpClient's asynchronous API and return a
+ * CompletableFuture of a RestAssured Response, so APIHelper.validateStatusCode
+ * and APIHelper.extractValue work on the results unchanged. Paths are resolved
+ * against baseUrl like APIHelper's; absolute URLs are used as they are.
+ *
+ * At most apiAsyncMaxInFlight requests are in flight at once. Starting another
+ * blocks the caller until one completes (backpressure), for at most
+ * apiTimeout seconds. Each call is an Allure step when it starts and again,
+ * with status and duration, when {@link #await} or {@link #awaitAll} collects
+ * it on the test thread. Exchanges go to the calling test's
+ * {@link ApiExchangeLog}, so they are written out if the test fails.
+ *
+ * Usage:
+ * <pre>
+ *     List&lt;CompletableFuture&lt;Response&gt;&gt; calls = new ArrayList&lt;&gt;();
+ *     for (String path : productPaths) {
+ *         calls.add(AsyncAPIHelper.get(path));
+ *     }
+ *     for (Response response : AsyncAPIHelper.awaitAll(calls)) {
+ *         APIHelper.validateStatusCode(response, 200);
+ *     }
+ * </pre>
+ *
+ * Uses HTTP/1.1 so the local stubs and proxies can serve it. It does not
+ * share RestAssured's connection pool; the JDK client keeps its own
+ * keep-alive connections.
+ *
+ * Configuration (config.properties):
+ * - apiAsyncMaxInFlight (default: 16)
+ * - apiTimeout, httpProxy: as for the other HTTP clients
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public final class AsyncAPIHelper {
+
+    private static final Logger logger = LogManager.getLogger(AsyncAPIHelper.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static final int MAX_IN_FLIGHT = Math.max(1, ConfigReader.getInt("apiAsyncMaxInFlight", 16));
+    private static final Semaphore permits = new Semaphore(MAX_IN_FLIGHT, true);
+
+    private static HttpClient client;
+    private static String clientProxy;
+
+    private AsyncAPIHelper() {
+        throw new IllegalStateException("Utility class - cannot be instantiated");
+    }
+
+    // ---------------------------------------------------------
+    // REQUESTS
+    // ---------------------------------------------------------
+
+    @Step("Async GET Request to: {endpoint}")
+    public static CompletableFuture<Response> get(String endpoint) {
+        return send("GET", endpoint, null);
+    }
+
+    @Step("Async GET Request to: {endpoint} with params")
+    public static CompletableFuture<Response> get(String endpoint, Map<String, String> queryParams) {
+        StringJoiner query = new StringJoiner("&");
+        queryParams.forEach((name, value) -> query.add(URLEncoder.encode(name, StandardCharsets.UTF_8) + "="
+                + URLEncoder.encode(value, StandardCharsets.UTF_8)));
+        return send("GET", endpoint + (endpoint.contains("?") ? "&" : "?") + query, null);
+    }
+
+    @Step("Async POST Request to: {endpoint}")
+    public static CompletableFuture<Response> post(String endpoint, Object body) {
+        return send("POST", endpoint, body);
+    }
+
+    @Step("Async PUT Request to: {endpoint}")
+    public static CompletableFuture<Response> put(String endpoint, Object body) {
+        return send("PUT", endpoint, body);
+    }
+
+    @Step("Async DELETE Request to: {endpoint}")
+    public static CompletableFuture<Response> delete(String endpoint) {
+        return send("DELETE", endpoint, null);
+    }
+
+    @Step("Async PATCH Request to: {endpoint}")
+    public static CompletableFuture<Response> patch(String endpoint, Object body) {
+        return send("PATCH", endpoint, body);
+    }
+
+    // ---------------------------------------------------------
+    // RESULTS
+    // ---------------------------------------------------------
+
+    /**
+     * Waits for one call (at most apiTimeout seconds) and reports it as an Allure step.
+     *
+     * @return the response
+     * @throws IllegalStateException if the request failed or timed out
+     */
+    public static Response await(CompletableFuture<Response> call) {
+        long timeoutSeconds = ConfigReader.getInt("apiTimeout", 30);
+        try {
+            Response response = call.get(timeoutSeconds, TimeUnit.SECONDS);
+            Allure.step(describe(call, response));
+            return response;
+        } catch (ExecutionException e) {
+            Allure.step(describe(call, null) + " failed: " + e.getCause());
+            throw new IllegalStateException("Async API request failed: " + e.getCause(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Async API request did not complete within " + timeoutSeconds + " seconds");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an async API request", e);
+        }
+    }
+
+    /**
+     * Waits for all calls and returns their responses in the same order.
+     */
+    public static List<Response> awaitAll(List<CompletableFuture<Response>> calls) {
+        return Allure.step("Await " + calls.size() + " async API responses", () -> {
+            List<Response> responses = new ArrayList<>(calls.size());
+            for (CompletableFuture<Response> call : calls) {
+                responses.add(await(call));
+            }
+            return responses;
+        });
+    }
+
+    /**
+     * @return the in-flight limit, read from apiAsyncMaxInFlight when this class was first used
+     */
+    public static int getMaxInFlight() {
+        return MAX_IN_FLIGHT;
+    }
+
+    private static String describe(CompletableFuture<Response> call, Response response) {
+        String request = call instanceof ApiCall ? ((ApiCall) call).method + " " + ((ApiCall) call).uri : "Async request";
+        if (response == null) {
+            return request;
+        }
+        String millis = call instanceof ApiCall ? " (" + ((ApiCall) call).millis + " ms)" : "";
+        return request + " -> " + response.getStatusCode() + millis;
+    }
+
+    // ---------------------------------------------------------
+    // SENDING
+    // ---------------------------------------------------------
+
+    private static CompletableFuture<Response> send(String method, String endpoint, Object body) {
+        URI uri = resolve(endpoint);
+        byte[] bytes = null;
+        String contentType = null;
+        if (body instanceof String) {
+            bytes = ((String) body).getBytes(StandardCharsets.UTF_8);
+            contentType = "text/plain; charset=UTF-8";
+        } else if (body != null) {
+            try {
+                bytes = mapper.writeValueAsBytes(body);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to serialize request body for " + method + " " + uri, e);
+            }
+            contentType = "application/json";
+        }
+
+        Duration timeout = Duration.ofSeconds(ConfigReader.getInt("apiTimeout", 30));
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("Accept", "*/*")
+                .header("User-Agent", "RestAssured-Test")
+                .method(method, bytes == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(bytes));
+        List<Header> requestHeaders = new ArrayList<>();
+        requestHeaders.add(new Header("Accept", "*/*"));
+        requestHeaders.add(new Header("User-Agent", "RestAssured-Test"));
+        if (contentType != null) {
+            builder.header("Content-Type", contentType);
+            requestHeaders.add(new Header("Content-Type", contentType));
+        }
+
+        acquire(method, uri, timeout);
+        ApiExchangeLog.Recorder recorder = ApiExchangeLog.recorder();
+        ApiCall call = new ApiCall(method, uri.toString());
+        byte[] requestBody = bytes;
+        long start = System.nanoTime();
+        try {
+            client().sendAsync(builder.build(), HttpResponse.BodyHandlers.ofByteArray())
+                    .whenComplete((httpResponse, error) -> {
+                        permits.release();
+                        call.millis = (System.nanoTime() - start) / 1_000_000;
+                        Response response = httpResponse == null ? null : toResponse(httpResponse);
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                        recorder.record(method, uri.toString(), new Headers(requestHeaders), requestBody, response, cause, call.millis);
+                        if (response != null) {
+                            logger.debug("Async {} {} -> {} ({} ms)", method, uri, response.getStatusCode(), call.millis);
+                            call.complete(response);
+                        } else {
+                            logger.warn("Async {} {} failed: {}", method, uri, cause);
+                            call.completeExceptionally(cause);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        return call;
+    }
+
+    /**
+     * Waits for a free in-flight slot: callers that start requests faster than they complete are slowed down here.
+     */
+    private static void acquire(String method, URI uri, Duration timeout) {
+        try {
+            if (!permits.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("No free async API slot for " + method + " " + uri + " within "
+                        + timeout.getSeconds() + " seconds (apiAsyncMaxInFlight)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to send " + method + " " + uri, e);
+        }
+    }
+
+    private static URI resolve(String endpoint) {
+        if (endpoint.startsWith("http://") || endpoint.startsWith("https://")) {
+            return URI.create(endpoint);
+        }
+        String base = ConfigReader.get("baseUrl");
+        if (base.endsWith("/") && endpoint.startsWith("/")) {
+            base = base.substring(0, base.length() - 1);
+        }
+        return URI.create(base + endpoint);
+    }
+
+    /**
+     * @return client for the current httpProxy; rebuilt when a proxy started after the first call
+     */
+    private static synchronized HttpClient client() {
+        String httpProxy = ConfigReader.get("httpProxy", "");
+        if (client == null || !httpProxy.equals(clientProxy)) {
+            HttpClient.Builder builder = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .followRedirects(HttpClient.Redirect.NORMAL)
+                    .connectTimeout(Duration.ofSeconds(ConfigReader.getInt("apiTimeout", 30)));
+            if (!httpProxy.isEmpty()) {
+                int colon = httpProxy.lastIndexOf(':');
+                builder.proxy(ProxySelector.of(new InetSocketAddress(httpProxy.substring(0, colon),
+                        Integer.parseInt(httpProxy.substring(colon + 1)))));
+            }
+            client = builder.build();
+            clientProxy = httpProxy;
+        }
+        return client;
+    }
+
+    private static Response toResponse(HttpResponse<byte[]> httpResponse) {
+        List<Header> headers = new ArrayList<>();
+        httpResponse.headers().map().forEach((name, values) -> {
+            if (!name.startsWith(":")) {
+                values.forEach(value -> headers.add(new Header(name, value)));
+            }
+        });
+        String contentType = httpResponse.headers().firstValue("Content-Type").orElse("");
+        return new ResponseBuilder()
+                .setStatusCode(httpResponse.statusCode())
+                .setStatusLine("HTTP/1.1 " + httpResponse.statusCode())
+                .setHeaders(new Headers(headers))
+                .setContentType(contentType)
+                .setBody(httpResponse.body())
+                .build();
+    }
+
+    /**
+     * Future of one call; remembers what was sent and how long it took, for the Allure step.
+     */
+    private static final class ApiCall extends CompletableFuture<Response> {
+        private final String method;
+        private final String uri;
+        private volatile long millis;
+
+        private ApiCall(String method, String uri) {
+            this.method = method;
+            this.uri = uri;
+        }
+    }
+}
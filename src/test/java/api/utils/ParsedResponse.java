@@ -0,0 +1,318 @@
+package api.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JSON response whose body is parsed once, for tests that extract many values from the same payload.
+ *
+ * response.jsonPath() parses the whole body again for every value it is
+ * asked for, and evaluates the path as a Groovy expression each time. This
+ * wrapper reads the body into a Jackson tree on first use and answers every
+ * later extraction from that tree. Paths are compiled once per JVM and shared
+ * by all threads.
+ *
+ * Supported paths (the GPath subset tests use for plain field access):
+ * - fields:            support.url
+ * - indexes:           data[0].email, data[-1].id (negative counts from the end), [2].name
+ * - fields over lists: data.id (one value per element, like GPath)
+ * - size():            data.size()
+ * - whole body:        "" or "$"
+ * Anything else (filters such as find{...}, spread operators, method calls)
+ * is handed to a RestAssured JsonPath that is also created only once per
+ * wrapper, so results match response.jsonPath() in every case.
+ *
+ * Values are converted with Jackson. One difference to JsonPath: decimals
+ * read as Object come back as Double, where JsonPath gives Float.
+ *
+ * Usage:
+ * <pre>
+ *     ParsedResponse parsed = ParsedResponse.of(response);
+ *     String email = parsed.getString("data.email");
+ *     int total = parsed.getInt("total");
+ * </pre>
+ * APIHelper.extractValue uses this, so repeated extractions from the same
+ * Response on one thread share one parse. The thread keeps only its last
+ * response, and TestListener releases it when the test ends.
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public final class ParsedResponse {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static final int MAX_COMPILED_PATHS = 1024;
+    private static final Map<String, CompiledPath> compiled = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<ParsedResponse> last = new ThreadLocal<>();
+
+    private final Response response;
+    private JsonNode tree;
+    private JsonPath jsonPath;
+
+    public ParsedResponse(Response response) {
+        this.response = response;
+    }
+
+    /**
+     * @return the wrapper for this response; the same one as last time when the
+     *         current thread asks about the same Response again
+     */
+    public static ParsedResponse of(Response response) {
+        ParsedResponse parsed = last.get();
+        if (parsed == null || parsed.response != response) {
+            parsed = new ParsedResponse(response);
+            last.set(parsed);
+        }
+        return parsed;
+    }
+
+    /**
+     * Forgets the current thread's last response, so its body and parse tree
+     * are not kept alive after the test. Called by TestListener when a test ends.
+     */
+    public static void release() {
+        last.remove();
+    }
+
+    // ---------------------------------------------------------
+    // EXTRACTION
+    // ---------------------------------------------------------
+
+    /**
+     * @return value at the path converted to type, or null when the path does not exist
+     * @throws IllegalStateException if the body is not JSON or the value cannot be converted
+     */
+    public <T> T getObject(String path, Class<T> type) {
+        CompiledPath compiledPath = compile(path);
+        if (compiledPath == null) {
+            return jsonPath().getObject(path, type);
+        }
+        JsonNode node = compiledPath.evaluate(tree());
+        if (node == null || node.isNull() || node.isMissingNode()) {
+            return null;
+        }
+        try {
+            return mapper.convertValue(node, type);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Cannot read '" + path + "' as " + type.getSimpleName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    public String getString(String path) {
+        return getObject(path, String.class);
+    }
+
+    public int getInt(String path) {
+        Integer value = getObject(path, Integer.class);
+        if (value == null) {
+            throw new IllegalStateException("No value at '" + path + "'");
+        }
+        return value;
+    }
+
+    public boolean getBoolean(String path) {
+        Boolean value = getObject(path, Boolean.class);
+        if (value == null) {
+            throw new IllegalStateException("No value at '" + path + "'");
+        }
+        return value;
+    }
+
+    /**
+     * @return the list at the path with each element converted to type, or null when the path does not exist
+     */
+    public <T> List<T> getList(String path, Class<T> type) {
+        CompiledPath compiledPath = compile(path);
+        if (compiledPath == null) {
+            return jsonPath().getList(path, type);
+        }
+        JsonNode node = compiledPath.evaluate(tree());
+        if (node == null || node.isNull() || node.isMissingNode()) {
+            return null;
+        }
+        if (!node.isArray()) {
+            throw new IllegalStateException("Value at '" + path + "' is not a list: " + node.getNodeType());
+        }
+        List<T> values = new ArrayList<>(node.size());
+        for (JsonNode element : node) {
+            values.add(element.isNull() ? null : mapper.convertValue(element, type));
+        }
+        return values;
+    }
+
+    public Response getResponse() {
+        return response;
+    }
+
+    private synchronized JsonNode tree() {
+        if (tree == null) {
+            try {
+                tree = mapper.readTree(response.asByteArray());
+            } catch (IOException e) {
+                throw new IllegalStateException("Response body is not JSON (" + response.getContentType() + "): " + e.getMessage(), e);
+            }
+        }
+        return tree;
+    }
+
+    private synchronized JsonPath jsonPath() {
+        if (jsonPath == null) {
+            jsonPath = response.jsonPath();
+        }
+        return jsonPath;
+    }
+
+    // ---------------------------------------------------------
+    // PATHS
+    // ---------------------------------------------------------
+
+    /**
+     * @return the compiled path, or null when it is outside the supported subset
+     */
+    static CompiledPath compile(String path) {
+        CompiledPath compiledPath = compiled.get(path);
+        if (compiledPath != null) {
+            return compiledPath == CompiledPath.UNSUPPORTED ? null : compiledPath;
+        }
+        compiledPath = CompiledPath.parse(path);
+        if (compiled.size() < MAX_COMPILED_PATHS) {
+            compiled.put(path, compiledPath);
+        }
+        return compiledPath == CompiledPath.UNSUPPORTED ? null : compiledPath;
+    }
+
+    /**
+     * A path split into steps: a field name, a list index, or size().
+     */
+    static final class CompiledPath {
+        private static final CompiledPath UNSUPPORTED = new CompiledPath(Collections.emptyList());
+
+        private final List<Object> steps;
+
+        private CompiledPath(List<Object> steps) {
+            this.steps = steps;
+        }
+
+        private static CompiledPath parse(String path) {
+            String text = path.trim();
+            if (text.isEmpty() || text.equals("$")) {
+                return new CompiledPath(Collections.emptyList());
+            }
+            List<Object> steps = new ArrayList<>();
+            int i = 0;
+            boolean nameAllowed = true;
+            while (i < text.length()) {
+                char c = text.charAt(i);
+                if (c == '[' && !(nameAllowed && i > 0)) {
+                    int close = text.indexOf(']', i);
+                    if (close < 0) {
+                        return UNSUPPORTED;
+                    }
+                    try {
+                        steps.add(Integer.valueOf(text.substring(i + 1, close)));
+                    } catch (NumberFormatException e) {
+                        return UNSUPPORTED;
+                    }
+                    i = close + 1;
+                    nameAllowed = false;
+                } else if (c == '.' && !nameAllowed && i + 1 < text.length()) {
+                    i++;
+                    nameAllowed = true;
+                } else if (nameAllowed && Character.isJavaIdentifierStart(c)) {
+                    int end = i + 1;
+                    while (end < text.length() && Character.isJavaIdentifierPart(text.charAt(end))) {
+                        end++;
+                    }
+                    String name = text.substring(i, end);
+                    if (text.startsWith("()", end)) {
+                        if (!name.equals("size") || end + 2 != text.length()) {
+                            return UNSUPPORTED;
+                        }
+                        steps.add(Size.INSTANCE);
+                        end += 2;
+                    } else {
+                        steps.add(name);
+                    }
+                    i = end;
+                    nameAllowed = false;
+                } else {
+                    return UNSUPPORTED;
+                }
+            }
+            return new CompiledPath(Collections.unmodifiableList(steps));
+        }
+
+        JsonNode evaluate(JsonNode root) {
+            JsonNode node = root;
+            for (Object step : steps) {
+                if (node == null || node.isNull() || node.isMissingNode()) {
+                    return null;
+                }
+                if (step instanceof String) {
+                    node = field(node, (String) step);
+                } else if (step instanceof Integer) {
+                    node = index(node, (Integer) step);
+                } else {
+                    node = size(node);
+                }
+            }
+            return node;
+        }
+
+        /**
+         * Field of an object, or (as in GPath) the field of every element of a list.
+         */
+        private static JsonNode field(JsonNode node, String name) {
+            if (node.isObject()) {
+                return node.get(name);
+            }
+            if (!node.isArray()) {
+                return null;
+            }
+            ArrayNode values = JsonNodeFactory.instance.arrayNode(node.size());
+            for (JsonNode element : node) {
+                if (element.isObject()) {
+                    JsonNode value = element.get(name);
+                    values.add(value == null ? JsonNodeFactory.instance.nullNode() : value);
+                }
+            }
+            return values;
+        }
+
+        private static JsonNode index(JsonNode node, int index) {
+            if (!node.isArray()) {
+                return null;
+            }
+            int position = index < 0 ? node.size() + index : index;
+            return position < 0 || position >= node.size() ? null : node.get(position);
+        }
+
+        private static JsonNode size(JsonNode node) {
+            if (node.isContainerNode()) {
+                return IntNode.valueOf(node.size());
+            }
+            return node.isTextual() ? IntNode.valueOf(node.textValue().length()) : null;
+        }
+
+        /**
+         * The size() step.
+         */
+        private enum Size {
+            INSTANCE
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package api.utils;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.Cookies;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+
+import java.net.URI;
+import java.util.Date;
+
+/**
+ * RestAssured filter that shares one cookie jar between RestAssured and a
+ * WebDriver session, in both directions.
+ *
+ * Before each request the browser's current cookies are sent (replacing any
+ * cookie of the same name already on the request); after the response every
+ * Set-Cookie is written back into the browser, and expired cookies are removed
+ * from it. The browser jar is the single source of truth, so this filter
+ * replaces RestAssured's CookieFilter/session handling: an item added over the
+ * API is in the browser's cart on its next page load, and a UI login is seen
+ * by the next API call, with no extra navigation.
+ *
+ * Requests to a host other than the page the browser is on are passed through
+ * untouched. The browser must already be on the shop domain.
+ *
+ * Usage:
+ * <pre>
+ *     given().filter(new SessionBridge(DriverFactory.getDriver()))...
+ * </pre>
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public class SessionBridge implements Filter {
+
+    private static final Logger logger = LogManager.getLogger(SessionBridge.class);
+
+    private final WebDriver driver;
+
+    public SessionBridge(WebDriver driver) {
+        if (driver == null) {
+            throw new IllegalArgumentException("WebDriver cannot be null");
+        }
+        this.driver = driver;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        if (!sameHost(requestSpec.getURI(), driver.getCurrentUrl())) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+
+        // Browser -> API
+        for (Cookie cookie : driver.manage().getCookies()) {
+            requestSpec.removeCookie(cookie.getName());
+            requestSpec.cookie(cookie.getName(), cookie.getValue());
+        }
+
+        Response response = ctx.next(requestSpec, responseSpec);
+
+        // API -> browser
+        Cookies received = response.getDetailedCookies();
+        int written = 0;
+        for (io.restassured.http.Cookie cookie : received) {
+            driver.manage().deleteCookieNamed(cookie.getName());
+            if (isExpired(cookie)) {
+                continue;
+            }
+            driver.manage().addCookie(new Cookie.Builder(cookie.getName(), cookie.getValue())
+                    .path("/")
+                    .expiresOn(cookie.getExpiryDate())
+                    .isSecure(cookie.isSecured())
+                    .isHttpOnly(cookie.isHttpOnly())
+                    .build());
+            written++;
+        }
+        if (received.size() > 0) {
+            logger.debug("Synced {} cookie(s) from {} {} into browser ({} removed)", written,
+                    requestSpec.getMethod(), requestSpec.getURI(), received.size() - written);
+        }
+        return response;
+    }
+
+    private static boolean isExpired(io.restassured.http.Cookie cookie) {
+        if (cookie.getValue() == null || cookie.getValue().isEmpty()) {
+            return true;
+        }
+        if (cookie.hasMaxAge() && cookie.getMaxAge() == 0) {
+            return true;
+        }
+        Date expiry = cookie.getExpiryDate();
+        return expiry != null && expiry.before(new Date());
+    }
+
+    private static boolean sameHost(String requestUri, String browserUrl) {
+        try {
+            String requestHost = URI.create(requestUri).getHost();
+            String browserHost = URI.create(browserUrl).getHost();
+            return requestHost != null && requestHost.equalsIgnoreCase(browserHost);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
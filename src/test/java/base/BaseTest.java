@@ -9,9 +9,14 @@ import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 import org.testng.ITestResult;
+import org.testng.annotations.AfterClass;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Listeners;
+import proxy.FaultInjectionProxy;
+import proxy.RecordingProxy;
+import session.AccountPool;
+import stub.DemoWebShopStub;
 import utils.ConfigReader;
 
 import java.io.ByteArrayInputStream;
@@ -27,6 +32,16 @@ public class BaseTest {
     @BeforeMethod
     public void setup() {
         logger.info("Starting test setup");
+
+        // A pooled account is kept for all tests of this class (see releaseAccounts)
+        AccountPool.enterScope(getClass().getName());
+
+        // Start the offline shop stub (offlineShop=true), the record/replay proxy
+        // (proxyMode=record|replay) and the fault proxy (faultProxyEnabled=true),
+        // each in front of the previous one, before baseUrl is read
+        DemoWebShopStub.startIfConfigured();
+        RecordingProxy.startIfConfigured();
+        FaultInjectionProxy.startIfConfigured();
         
         // Initialize driver if not already initialized
         if (!DriverFactory.isDriverInitialized()) {
@@ -70,7 +85,16 @@ public class BaseTest {
         }
 
         logger.info("Tearing down test");
-        DriverFactory.quitDriver();
+        // Quits the browser, or with reuseBrowser=true resets it and keeps it for the next test
+        DriverFactory.releaseDriver();
+    }
+
+    /**
+     * Cleans the pooled accounts this class's tests leased and returns them to the pool.
+     */
+    @AfterClass(alwaysRun = true)
+    public void releaseAccounts() {
+        AccountPool.releaseScope(getClass().getName());
     }
 
     /**
@@ -0,0 +1,377 @@
+package distributed;
+
+import listeners.DurationHistory;
+import listeners.DurationScheduler;
+import listeners.ImpactSelector;
+import listeners.ShardPlanner;
+import listeners.SuitePlanner;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import org.testng.xml.internal.Parser;
+import utils.ConfigReader;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the suite on a pool of worker JVMs that pull test methods from a shared queue.
+ *
+ * Static splits (see {@link ShardPlanner}) are only as good as the duration
+ * history; a flaky retry or a slow page on one shard leaves the others idle.
+ * Here the coordinator plans the suite as a normal run would (testng.xml,
+ * {@link SuitePlanner} de-duplication, {@link ImpactSelector} selection,
+ * dependsOnMethods kept together), queues
+ * the resulting units longest-first, and each {@link Worker} asks for the next
+ * unit whenever it is free. Results stream back per test as they finish; at
+ * the end the coordinator prints a summary, folds the durations into the
+ * history and exits with status 1 if anything failed.
+ *
+ * Workers are separate JVMs, so static state (drivers, stubs, account pools)
+ * is per worker, and each keeps its browser open between tests
+ * (reuseBrowser). A worker that dies mid-unit gives the unit back to the queue.
+ *
+ * Everything on one machine, three local workers:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) -DlocalWorkers=3 distributed.Coordinator testng.xml
+ * </pre>
+ * Workers on other hosts (coordinator started with -DcoordinatorHost=0.0.0.0 -DcoordinatorPort=7070):
+ * <pre>
+ * java -cp &lt;same classpath&gt; distributed.Worker coordinator-host:7070
+ * </pre>
+ * Locally started workers get the coordinator's -D and -X options and its
+ * -javaagent agents; their output goes to workerLogDir. A JaCoCo agent writes
+ * to a file per worker (jacoco.exec becomes jacoco-worker-1.exec, ...) next to
+ * the coordinator's, where the jacoco merge execution picks it up.
+ *
+ * Configuration (config.properties):
+ * - coordinatorHost (default: 127.0.0.1), coordinatorPort (default: 0 = any free port)
+ * - localWorkers (default: 2)
+ * - unitMaxAttempts (default: 2)
+ * - workerLogDir (default: target/worker-logs)
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public class Coordinator {
+
+    private static final Logger logger = LogManager.getLogger(Coordinator.class);
+
+    /** Suite listeners that only plan or time the run; the coordinator does that itself. */
+    private static final Set<String> PLANNING_LISTENERS = new LinkedHashSet<>(Arrays.asList(
+            SuitePlanner.class.getName(), ImpactSelector.class.getName(), ShardPlanner.class.getName(),
+            DurationScheduler.class.getName()));
+
+    private static final String JAVAAGENT = "-javaagent:";
+
+    private final List<String> listeners = new ArrayList<>();
+    private WorkQueue queue;
+    private ServerSocket server;
+
+    public static void main(String[] args) throws Exception {
+        List<String> suiteFiles = args.length > 0 ? Arrays.asList(args) : List.of("testng.xml");
+        System.exit(new Coordinator().run(suiteFiles));
+    }
+
+    /**
+     * @return process exit status: 0 if nothing failed
+     */
+    public int run(List<String> suiteFiles) throws IOException, InterruptedException {
+        return run(suiteFiles, DurationHistory.shared());
+    }
+
+    /**
+     * @param history durations to plan with; the run's durations are saved to it
+     * @return process exit status: 0 if nothing failed
+     */
+    public int run(List<String> suiteFiles, DurationHistory history) throws IOException, InterruptedException {
+        List<WorkQueue.Unit> units = plan(suiteFiles, history);
+        queue = new WorkQueue(units, ConfigReader.getInt("unitMaxAttempts", 2), history);
+        long predicted = units.stream().mapToLong(WorkQueue.Unit::getPredictedMillis).sum();
+        logger.info("Queued {} units, predicted {} of test time", units.size(), DurationScheduler.formatMillis(predicted));
+
+        String host = ConfigReader.get("coordinatorHost", "127.0.0.1");
+        server = new ServerSocket(ConfigReader.getInt("coordinatorPort", 0), 128, InetAddress.getByName(host));
+        String address = (server.getInetAddress().isAnyLocalAddress() ? "127.0.0.1" : host) + ":" + server.getLocalPort();
+        logger.info("Coordinator listening on {}:{}", host, server.getLocalPort());
+        Thread acceptor = new Thread(this::accept, "coordinator-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+
+        long start = System.currentTimeMillis();
+        List<Process> workers = startLocalWorkers(ConfigReader.getInt("localWorkers", 2), address);
+        while (!queue.awaitDone(1000)) {
+            if (!workers.isEmpty() && workers.stream().noneMatch(Process::isAlive) && queue.getConnectedWorkers() == 0) {
+                logger.error("All local workers exited with work left - see {}", ConfigReader.get("workerLogDir", "target/worker-logs"));
+                queue.cancel("not run: all workers exited");
+            }
+        }
+        long wall = System.currentTimeMillis() - start;
+
+        // Idle workers have been sent STOP; give them a moment to close their browsers
+        for (Process worker : workers) {
+            if (!worker.waitFor(30, TimeUnit.SECONDS)) {
+                worker.destroy();
+            }
+        }
+        server.close();
+
+        logger.info(queue.summary(wall));
+        history.save();
+        return queue.count(WorkQueue.FAILED) > 0 ? 1 : 0;
+    }
+
+    /**
+     * @return final result of every method of the last run
+     */
+    public List<WorkQueue.Outcome> getOutcomes() {
+        return queue == null ? new ArrayList<>() : queue.getOutcomes();
+    }
+
+    // ---------------------------------------------------------
+    // PLANNING
+    // ---------------------------------------------------------
+
+    private List<WorkQueue.Unit> plan(List<String> suiteFiles, DurationHistory history) throws IOException {
+        List<XmlSuite> suites = new ArrayList<>();
+        for (String suiteFile : suiteFiles) {
+            suites.addAll(new Parser(suiteFile).parseToList());
+        }
+        new SuitePlanner().alter(suites);
+        new ImpactSelector().alter(suites);
+
+        List<WorkQueue.Unit> units = new ArrayList<>();
+        for (XmlSuite suite : suites) {
+            for (String listener : suite.getListeners()) {
+                if (!PLANNING_LISTENERS.contains(listener) && !listeners.contains(listener)) {
+                    listeners.add(listener);
+                }
+            }
+            for (XmlTest block : suite.getTests()) {
+                for (Map.Entry<Class<?>, List<Method>> entry : SuitePlanner.selectedMethods(block).entrySet()) {
+                    for (Set<Method> group : groups(entry.getKey(), entry.getValue())) {
+                        units.add(unit(units.size() + 1, suite, block, entry.getKey(), group, history));
+                    }
+                }
+            }
+        }
+        // Longest first; ties in a fixed order so repeated runs hand out the same sequence
+        units.sort(Comparator.comparingLong(WorkQueue.Unit::getPredictedMillis).reversed()
+                .thenComparing(WorkQueue.Unit::toString));
+        return units;
+    }
+
+    /**
+     * Splits a class's selected methods into groups that must run in one TestNG run.
+     */
+    private static List<Set<Method>> groups(Class<?> testClass, List<Method> methods) {
+        List<Set<Method>> groups = new ArrayList<>();
+        if (SuitePlanner.usesGroupDependencies(testClass)) {
+            groups.add(new LinkedHashSet<>(methods));
+            return groups;
+        }
+        for (Method method : methods) {
+            Set<Method> closure = new LinkedHashSet<>();
+            closure.add(method);
+            SuitePlanner.addMethodDependencies(testClass, closure);
+            for (Iterator<Set<Method>> it = groups.iterator(); it.hasNext(); ) {
+                Set<Method> existing = it.next();
+                if (existing.stream().anyMatch(closure::contains)) {
+                    closure.addAll(existing);
+                    it.remove();
+                }
+            }
+            groups.add(closure);
+        }
+        return groups;
+    }
+
+    private static WorkQueue.Unit unit(int id, XmlSuite suite, XmlTest block, Class<?> testClass, Set<Method> methods,
+                                       DurationHistory history) {
+        List<String> names = new ArrayList<>();
+        long millis = history.estimateClassOverhead(testClass.getName());
+        for (Method method : methods) {
+            names.add(method.getName());
+            millis += history.estimateMethod(testClass.getName() + "#" + method.getName());
+        }
+        return new WorkQueue.Unit(id, suite.getName(), block.getName(), testClass.getName(), names,
+                block.getAllParameters(), millis);
+    }
+
+    // ---------------------------------------------------------
+    // SERVING WORKERS
+    // ---------------------------------------------------------
+
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                Thread handler = new Thread(() -> serve(socket), "coordinator-" + socket.getRemoteSocketAddress());
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                if (!server.isClosed()) {
+                    logger.warn("Failed to accept worker connection: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        String worker = null;
+        try (Socket connection = socket;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+             Writer writer = new BufferedWriter(new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8))) {
+            connection.setTcpNoDelay(true);
+            WorkMessage hello = WorkMessage.read(reader);
+            if (hello == null || !WorkMessage.HELLO.equals(hello.getType())) {
+                logger.warn("Closing connection from {} - expected HELLO", connection.getRemoteSocketAddress());
+                return;
+            }
+            worker = hello.getWorker() != null ? hello.getWorker() : String.valueOf(connection.getRemoteSocketAddress());
+            queue.connected(worker);
+            WorkMessage welcome = new WorkMessage(WorkMessage.WELCOME);
+            welcome.setListeners(listeners);
+            welcome.write(writer);
+
+            WorkMessage message;
+            while ((message = WorkMessage.read(reader)) != null) {
+                if (WorkMessage.RESULT.equals(message.getType())) {
+                    queue.record(worker, message);
+                } else if (WorkMessage.NEXT.equals(message.getType())) {
+                    if (message.getUnitId() != null) {
+                        queue.complete(worker, message.getUnitId());
+                    }
+                    WorkQueue.Unit unit = queue.take(worker);
+                    if (unit == null) {
+                        new WorkMessage(WorkMessage.STOP).write(writer);
+                        return;
+                    }
+                    unit.toMessage().write(writer);
+                }
+            }
+            logger.warn("Worker {} closed the connection", worker);
+        } catch (IOException e) {
+            logger.warn("Lost connection to worker {}: {}", worker, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (worker != null) {
+                queue.disconnected(worker);
+            }
+        }
+    }
+
+    // ---------------------------------------------------------
+    // LOCAL WORKERS
+    // ---------------------------------------------------------
+
+    private static List<Process> startLocalWorkers(int count, String address) throws IOException {
+        List<Process> workers = new ArrayList<>();
+        if (count <= 0) {
+            logger.info("No local workers - waiting for workers to connect to {}", address);
+            return workers;
+        }
+        Path logDir = Paths.get(ConfigReader.get("workerLogDir", "target/worker-logs"));
+        Files.createDirectories(logDir);
+        List<String> inputArguments = ManagementFactory.getRuntimeMXBean().getInputArguments();
+        for (int i = 1; i <= count; i++) {
+            List<String> workerCommand = new ArrayList<>();
+            workerCommand.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            workerCommand.addAll(workerArguments(inputArguments, i));
+            workerCommand.add("-cp");
+            workerCommand.add(System.getProperty("java.class.path"));
+            workerCommand.add(Worker.class.getName());
+            workerCommand.add(address);
+            workerCommand.add("local-" + i);
+            Path log = logDir.resolve("worker-" + i + ".log");
+            workers.add(new ProcessBuilder(workerCommand).redirectErrorStream(true).redirectOutput(log.toFile()).start());
+        }
+        logger.info("Started {} local workers (output in {})", count, logDir);
+        return workers;
+    }
+
+    /**
+     * Picks the coordinator's JVM options a local worker starts with: the same
+     * configuration overrides, heap settings and agents, but no debugger or
+     * agents bound to fixed ports. A JaCoCo agent gets the worker's own destfile
+     * (a JaCoCo tcpserver is bound to a port and is left out).
+     *
+     * @param inputArguments the coordinator's JVM options
+     * @param worker         local worker number, from 1
+     * @return options for that worker
+     */
+    static List<String> workerArguments(List<String> inputArguments, int worker) {
+        List<String> arguments = new ArrayList<>();
+        for (String argument : inputArguments) {
+            if (argument.startsWith("-D") || (argument.startsWith("-X") && !argument.startsWith("-Xrunjdwp")
+                    && !argument.startsWith("-Xdebug"))) {
+                arguments.add(argument);
+            } else if (argument.startsWith(JAVAAGENT) && !argument.contains("jdwp")) {
+                if (!isJacocoAgent(argument)) {
+                    arguments.add(argument);
+                } else if (!argument.contains("output=tcpserver")) {
+                    arguments.add(jacocoAgentFor(argument, worker));
+                }
+            }
+        }
+        return arguments;
+    }
+
+    private static boolean isJacocoAgent(String argument) {
+        int options = argument.indexOf('=');
+        String jar = options < 0 ? argument : argument.substring(0, options);
+        return jar.toLowerCase(Locale.ROOT).contains("jacoco");
+    }
+
+    /**
+     * @return the JaCoCo agent option with destfile (default jacoco.exec) renamed to &lt;name&gt;-worker-&lt;n&gt;.exec
+     */
+    static String jacocoAgentFor(String argument, int worker) {
+        int optionsStart = argument.indexOf('=');
+        String jar = optionsStart < 0 ? argument : argument.substring(0, optionsStart);
+        List<String> options = new ArrayList<>();
+        String destFile = "jacoco.exec";
+        if (optionsStart >= 0) {
+            for (String option : argument.substring(optionsStart + 1).split(",")) {
+                if (option.startsWith("destfile=")) {
+                    destFile = option.substring("destfile=".length());
+                } else if (!option.isEmpty()) {
+                    options.add(option);
+                }
+            }
+        }
+        int extension = destFile.lastIndexOf('.');
+        int separator = Math.max(destFile.lastIndexOf('/'), destFile.lastIndexOf('\\'));
+        String workerFile = extension > separator
+                ? destFile.substring(0, extension) + "-worker-" + worker + destFile.substring(extension)
+                : destFile + "-worker-" + worker;
+        options.add(0, "destfile=" + workerFile);
+        return jar + "=" + String.join(",", options);
+    }
+}
@@ -0,0 +1,42 @@
+package distributed;
+
+import org.testng.annotations.Test;
+
+/**
+ * Suite {@link CoordinatorTest} hands to its workers; not part of testng.xml.
+ *
+ * Each method takes a second, long enough for the second worker to start
+ * before the first has taken everything.
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public class CoordinatorProbe {
+
+    private static final long MILLIS = 1000;
+
+    @Test
+    public void first() throws InterruptedException {
+        Thread.sleep(MILLIS);
+    }
+
+    @Test
+    public void second() throws InterruptedException {
+        Thread.sleep(MILLIS);
+    }
+
+    @Test
+    public void third() throws InterruptedException {
+        Thread.sleep(MILLIS);
+    }
+
+    @Test
+    public void fourth() throws InterruptedException {
+        Thread.sleep(MILLIS);
+    }
+
+    @Test(dependsOnMethods = "fourth")
+    public void fifth() throws InterruptedException {
+        Thread.sleep(MILLIS);
+    }
+}
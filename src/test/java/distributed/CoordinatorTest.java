@@ -0,0 +1,128 @@
+package distributed;
+
+import io.qameta.allure.*;
+import listeners.DurationHistory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import utils.ConfigReader;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Runs a small suite through a {@link Coordinator} with two local worker JVMs
+ * and checks every method is reported back, the work is shared and the
+ * workers are started with the coordinator's agents.
+ *
+ * The suite is {@link CoordinatorProbe}: four independent methods and one
+ * that depends on the fourth, so the coordinator queues four units. The
+ * coordinator plans with a history in a temporary
+ * directory, so the run does not touch test-history.
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+@Epic("Framework")
+@Feature("Distributed Runs")
+public class CoordinatorTest {
+
+    private static final Logger logger = LogManager.getLogger(CoordinatorTest.class);
+
+    private static final int WORKERS = 2;
+
+    private Path workDir;
+    private Path suiteFile;
+
+    @BeforeClass(alwaysRun = true)
+    public void writeSuite() throws IOException {
+        workDir = Files.createTempDirectory("coordinator-test");
+        suiteFile = workDir.resolve("probe-suite.xml");
+        Files.write(suiteFile, Arrays.asList(
+                "<!DOCTYPE suite SYSTEM \"https://testng.org/testng-1.0.dtd\">",
+                "<suite name=\"Probe Suite\">",
+                "    <test name=\"Probe Tests\">",
+                "        <classes>",
+                "            <class name=\"" + CoordinatorProbe.class.getName() + "\"/>",
+                "        </classes>",
+                "    </test>",
+                "</suite>"), StandardCharsets.UTF_8);
+        ConfigReader.set("localWorkers", String.valueOf(WORKERS));
+        ConfigReader.set("workerLogDir", workDir.resolve("worker-logs").toString());
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void clearOverrides() {
+        ConfigReader.clearOverride("localWorkers");
+        ConfigReader.clearOverride("workerLogDir");
+    }
+
+    @Test(description = "Local workers get the JaCoCo agent with a destfile of their own",
+            groups = {"distributed"})
+    @Story("Local Workers")
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Checks which coordinator JVM options a local worker is started with")
+    public void workerArgumentsKeepAgents() {
+        String jacoco = "-javaagent:/repo/org/jacoco/org.jacoco.agent-0.8.11-runtime.jar"
+                + "=destfile=/work/target/jacoco.exec,append=true";
+        String aspectj = "-javaagent:/repo/org/aspectj/aspectjweaver-1.9.21.jar";
+        List<String> arguments = Coordinator.workerArguments(Arrays.asList(
+                "-Dshard=1/2", "-Xmx1g", jacoco, aspectj,
+                "-agentlib:jdwp=transport=dt_socket,server=y,address=5005", "-Xrunjdwp:transport=dt_socket"), 2);
+
+        Assert.assertEquals(arguments, Arrays.asList("-Dshard=1/2", "-Xmx1g",
+                "-javaagent:/repo/org/jacoco/org.jacoco.agent-0.8.11-runtime.jar"
+                        + "=destfile=/work/target/jacoco-worker-2.exec,append=true",
+                aspectj));
+        Assert.assertEquals(Coordinator.jacocoAgentFor("-javaagent:jacocoagent.jar", 1),
+                "-javaagent:jacocoagent.jar=destfile=jacoco-worker-1.exec",
+                "Without a destfile the agent writes jacoco.exec, so the worker gets jacoco-worker-1.exec");
+        Assert.assertTrue(Coordinator.workerArguments(List.of("-javaagent:jacocoagent.jar=output=tcpserver,port=6300"), 1)
+                .isEmpty(), "A JaCoCo tcpserver is bound to a port and must not be started twice");
+    }
+
+    @Test(description = "A coordinator with two local workers runs a small suite to the end",
+            groups = {"distributed"})
+    @Story("Local Workers")
+    @Severity(SeverityLevel.CRITICAL)
+    @Description("Runs the CoordinatorProbe suite on two local worker JVMs and checks every method passed, both workers took units "
+            + "and each worker wrote its own JaCoCo file when the coordinator has the agent")
+    public void twoLocalWorkersRunSuite() throws Exception {
+        Coordinator coordinator = new Coordinator();
+        int status = coordinator.run(List.of(suiteFile.toString()),
+                DurationHistory.load(workDir.resolve("durations.json")));
+
+        List<WorkQueue.Outcome> outcomes = coordinator.getOutcomes();
+        Set<String> workers = new TreeSet<>();
+        for (WorkQueue.Outcome outcome : outcomes) {
+            logger.info("{} {} on {}", outcome.getMethod(), outcome.getStatus(), outcome.getWorker());
+            Assert.assertEquals(outcome.getStatus(), WorkQueue.PASSED, outcome.getMethod());
+            workers.add(outcome.getWorker());
+        }
+        Assert.assertEquals(status, 0, "Coordinator exit status");
+        Assert.assertEquals(outcomes.size(), 5, "Every CoordinatorProbe method should be reported");
+        Assert.assertEquals(workers, new TreeSet<>(Arrays.asList("local-1", "local-2")), "Workers that ran units");
+
+        List<String> inputArguments = ManagementFactory.getRuntimeMXBean().getInputArguments();
+        for (int worker = 1; worker <= WORKERS; worker++) {
+            for (String argument : Coordinator.workerArguments(inputArguments, worker)) {
+                int destFile = argument.indexOf("destfile=");
+                if (argument.startsWith("-javaagent:") && destFile > 0) {
+                    Path exec = Paths.get(argument.substring(destFile + "destfile=".length()).split(",")[0]);
+                    Assert.assertTrue(Files.exists(exec), "JaCoCo data of worker " + worker + " at " + exec);
+                }
+            }
+        }
+    }
+}
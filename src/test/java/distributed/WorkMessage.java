@@ -0,0 +1,192 @@
+package distributed;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One line of the coordinator/worker protocol: a JSON object per line over a plain TCP socket.
+ *
+ * Conversation, worker (W) and coordinator (C):
+ * <pre>
+ * W: HELLO  worker              C: WELCOME listeners
+ * W: NEXT   [unitId just done]  C: RUN unitId, suite, block, className, methods, parameters
+ *                                  or STOP when the queue is drained
+ * W: RESULT unitId, className, method, status, millis, error   (one per test result, as it happens)
+ * </pre>
+ * A worker that disconnects while running a unit gives the unit back to the queue.
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WorkMessage {
+
+    public static final String HELLO = "HELLO";
+    public static final String WELCOME = "WELCOME";
+    public static final String NEXT = "NEXT";
+    public static final String RUN = "RUN";
+    public static final String RESULT = "RESULT";
+    public static final String STOP = "STOP";
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private String type;
+    private String worker;
+    private Integer unitId;
+    private String suite;
+    private String block;
+    private String className;
+    private List<String> methods;
+    private Map<String, String> parameters;
+    private List<String> listeners;
+    private String method;
+    private String status;
+    private Long millis;
+    private String error;
+
+    public WorkMessage() {
+    }
+
+    public WorkMessage(String type) {
+        this.type = type;
+    }
+
+    // ---------------------------------------------------------
+    // WIRE FORMAT
+    // ---------------------------------------------------------
+
+    /**
+     * @return the next message, or null when the peer closed the connection
+     */
+    public static WorkMessage read(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        return line == null ? null : mapper.readValue(line, WorkMessage.class);
+    }
+
+    /**
+     * Writes the message as one line and flushes it. Callers sharing a writer between threads synchronize on it.
+     */
+    public void write(Writer writer) throws IOException {
+        writer.write(mapper.writeValueAsString(this));
+        writer.write('\n');
+        writer.flush();
+    }
+
+    // ---------------------------------------------------------
+    // FIELDS
+    // ---------------------------------------------------------
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getWorker() {
+        return worker;
+    }
+
+    public void setWorker(String worker) {
+        this.worker = worker;
+    }
+
+    public Integer getUnitId() {
+        return unitId;
+    }
+
+    public void setUnitId(Integer unitId) {
+        this.unitId = unitId;
+    }
+
+    public String getSuite() {
+        return suite;
+    }
+
+    public void setSuite(String suite) {
+        this.suite = suite;
+    }
+
+    public String getBlock() {
+        return block;
+    }
+
+    public void setBlock(String block) {
+        this.block = block;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public void setClassName(String className) {
+        this.className = className;
+    }
+
+    public List<String> getMethods() {
+        return methods;
+    }
+
+    public void setMethods(List<String> methods) {
+        this.methods = methods == null ? null : new ArrayList<>(methods);
+    }
+
+    public Map<String, String> getParameters() {
+        return parameters;
+    }
+
+    public void setParameters(Map<String, String> parameters) {
+        this.parameters = parameters == null ? null : new LinkedHashMap<>(parameters);
+    }
+
+    public List<String> getListeners() {
+        return listeners;
+    }
+
+    public void setListeners(List<String> listeners) {
+        this.listeners = listeners == null ? null : new ArrayList<>(listeners);
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getMillis() {
+        return millis;
+    }
+
+    public void setMillis(Long millis) {
+        this.millis = millis;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,340 @@
+package distributed;
+
+import listeners.DurationHistory;
+import listeners.DurationScheduler;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The coordinator's queue of work units and the results streamed back for them.
+ *
+ * Workers take the next unit when they are free, so a slow or flaky stretch
+ * on one worker is absorbed by the others instead of being fixed in advance.
+ * Units are queued longest-first, which makes that pull model
+ * longest-processing-time-first scheduling. A unit whose worker disconnects
+ * goes back to the front of the queue until it has been handed out
+ * unitMaxAttempts times; after that its unreported methods count as failed.
+ *
+ * All methods are synchronized on the queue; {@link #take} blocks while the
+ * queue is empty but units are still running, since one of them may come back.
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public class WorkQueue {
+
+    private static final Logger logger = LogManager.getLogger(WorkQueue.class);
+
+    public static final String PASSED = "PASSED";
+    public static final String FAILED = "FAILED";
+    public static final String SKIPPED = "SKIPPED";
+
+    private final int maxAttempts;
+    private final DurationHistory history;
+    private final Deque<Unit> pending = new ArrayDeque<>();
+    private final Map<Integer, Unit> running = new LinkedHashMap<>();
+    private final Map<String, Outcome> outcomes = new TreeMap<>();
+    private final Map<String, WorkerStats> workers = new TreeMap<>();
+    private final int totalUnits;
+    private int finishedUnits;
+    private int connectedWorkers;
+
+    /**
+     * @param units       work in the order it should be handed out
+     * @param maxAttempts times a unit is handed out before a lost worker fails it
+     * @param history     receives the duration of every method that ran
+     */
+    public WorkQueue(List<Unit> units, int maxAttempts, DurationHistory history) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.history = history;
+        this.pending.addAll(units);
+        this.totalUnits = units.size();
+    }
+
+    // ---------------------------------------------------------
+    // WORKERS
+    // ---------------------------------------------------------
+
+    public synchronized void connected(String worker) {
+        connectedWorkers++;
+        workers.computeIfAbsent(worker, WorkerStats::new);
+        logger.info("Worker {} connected ({} connected)", worker, connectedWorkers);
+    }
+
+    /**
+     * Returns the units a worker was running to the queue, or fails them once they are out of attempts.
+     */
+    public synchronized void disconnected(String worker) {
+        connectedWorkers--;
+        for (Iterator<Unit> it = running.values().iterator(); it.hasNext(); ) {
+            Unit unit = it.next();
+            if (!unit.worker.equals(worker)) {
+                continue;
+            }
+            it.remove();
+            if (unit.attempts < maxAttempts) {
+                logger.warn("Worker {} lost while running {} - handing it out again (attempt {} of {})",
+                        worker, unit, unit.attempts + 1, maxAttempts);
+                unit.reported.clear();
+                pending.addFirst(unit);
+            } else {
+                logger.error("Worker {} lost while running {} - no attempts left", worker, unit);
+                failUnreported(unit, "worker " + worker + " lost while running it (" + unit.attempts + " attempts)");
+                finishedUnits++;
+            }
+        }
+        notifyAll();
+    }
+
+    public synchronized int getConnectedWorkers() {
+        return connectedWorkers;
+    }
+
+    // ---------------------------------------------------------
+    // UNITS
+    // ---------------------------------------------------------
+
+    /**
+     * @return the next unit for the worker, or null once everything has finished
+     */
+    public synchronized Unit take(String worker) throws InterruptedException {
+        while (pending.isEmpty() && !running.isEmpty()) {
+            wait();
+        }
+        Unit unit = pending.pollFirst();
+        if (unit == null) {
+            return null;
+        }
+        unit.attempts++;
+        unit.worker = worker;
+        unit.startMillis = System.currentTimeMillis();
+        running.put(unit.id, unit);
+        return unit;
+    }
+
+    public synchronized void record(String worker, WorkMessage result) {
+        Unit unit = running.get(result.getUnitId());
+        if (unit == null || !unit.worker.equals(worker)) {
+            logger.warn("Ignoring result for {}#{} from {} - unit {} is not running there",
+                    result.getClassName(), result.getMethod(), worker, result.getUnitId());
+            return;
+        }
+        // Retried tests report a skip first; the last result for a method is the one that counts
+        outcomes.put(unit.key(result.getMethod()), new Outcome(unit.block, result.getClassName() + "#" + result.getMethod(),
+                result.getStatus(), worker, result.getError()));
+        unit.reported.add(result.getMethod());
+        if (!SKIPPED.equals(result.getStatus()) && result.getMillis() != null) {
+            history.recordMethod(result.getClassName() + "#" + result.getMethod(), result.getMillis());
+        }
+    }
+
+    public synchronized void complete(String worker, int unitId) {
+        Unit unit = running.get(unitId);
+        if (unit == null || !unit.worker.equals(worker)) {
+            return;
+        }
+        running.remove(unitId);
+        for (String method : unit.methods) {
+            if (!unit.reported.contains(method)) {
+                outcomes.put(unit.key(method), new Outcome(unit.block, unit.className + "#" + method, SKIPPED, worker,
+                        "no result reported by the worker"));
+            }
+        }
+        long millis = System.currentTimeMillis() - unit.startMillis;
+        WorkerStats stats = workers.computeIfAbsent(worker, WorkerStats::new);
+        stats.units++;
+        stats.methods += unit.methods.size();
+        stats.busyMillis += millis;
+        finishedUnits++;
+        logger.info("[{}/{}] {} ran {} in {} (predicted {})", finishedUnits, totalUnits, worker, unit,
+                DurationScheduler.formatMillis(millis), DurationScheduler.formatMillis(unit.predictedMillis));
+        notifyAll();
+    }
+
+    /**
+     * Fails everything not yet finished, e.g. when no worker is left to run it.
+     */
+    public synchronized void cancel(String reason) {
+        List<Unit> unfinished = new ArrayList<>(pending);
+        unfinished.addAll(running.values());
+        pending.clear();
+        running.clear();
+        for (Unit unit : unfinished) {
+            failUnreported(unit, reason);
+            finishedUnits++;
+        }
+        notifyAll();
+    }
+
+    /**
+     * @return true once every unit has finished
+     */
+    public synchronized boolean awaitDone(long timeoutMillis) throws InterruptedException {
+        if (!isDone()) {
+            wait(timeoutMillis);
+        }
+        return isDone();
+    }
+
+    public synchronized boolean isDone() {
+        return pending.isEmpty() && running.isEmpty();
+    }
+
+    private void failUnreported(Unit unit, String reason) {
+        for (String method : unit.methods) {
+            if (!unit.reported.contains(method)) {
+                outcomes.put(unit.key(method), new Outcome(unit.block, unit.className + "#" + method, FAILED,
+                        unit.worker == null ? "no worker" : unit.worker, reason));
+            }
+        }
+    }
+
+    // ---------------------------------------------------------
+    // RESULTS
+    // ---------------------------------------------------------
+
+    public synchronized List<Outcome> getOutcomes() {
+        return new ArrayList<>(outcomes.values());
+    }
+
+    public synchronized int count(String status) {
+        int count = 0;
+        for (Outcome outcome : outcomes.values()) {
+            if (outcome.status.equals(status)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public synchronized String summary(long wallMillis) {
+        StringBuilder summary = new StringBuilder(String.format("Distributed run: %d methods in %d units, wall time %s%n",
+                outcomes.size(), totalUnits, DurationScheduler.formatMillis(wallMillis)));
+        summary.append(String.format("  passed %d, failed %d, skipped %d%n", count(PASSED), count(FAILED), count(SKIPPED)));
+        for (WorkerStats stats : workers.values()) {
+            summary.append(String.format(Locale.ROOT, "  worker %-20s %3d units %4d methods  busy %8s (%.0f%%)%n", stats.worker,
+                    stats.units, stats.methods, DurationScheduler.formatMillis(stats.busyMillis),
+                    wallMillis == 0 ? 0.0 : 100.0 * stats.busyMillis / wallMillis));
+        }
+        for (Outcome outcome : outcomes.values()) {
+            if (FAILED.equals(outcome.status)) {
+                summary.append("  FAILED ").append(outcome.method).append(" [").append(outcome.block).append("] on ")
+                        .append(outcome.worker).append(outcome.error == null ? "" : ": " + outcome.error).append('\n');
+            }
+        }
+        return summary.toString();
+    }
+
+    // ---------------------------------------------------------
+    // MODEL
+    // ---------------------------------------------------------
+
+    /**
+     * Methods of one class in one &lt;test&gt; block that must run in the same
+     * TestNG run: a method and its dependsOnMethods closure, or the whole class
+     * when it uses dependsOnGroups.
+     */
+    public static final class Unit {
+        final int id;
+        final String suite;
+        final String block;
+        final String className;
+        final List<String> methods;
+        final Map<String, String> parameters;
+        final long predictedMillis;
+        final Set<String> reported = new HashSet<>();
+        int attempts;
+        String worker;
+        long startMillis;
+
+        public Unit(int id, String suite, String block, String className, List<String> methods,
+                    Map<String, String> parameters, long predictedMillis) {
+            this.id = id;
+            this.suite = suite;
+            this.block = block;
+            this.className = className;
+            this.methods = new ArrayList<>(methods);
+            this.parameters = new LinkedHashMap<>(parameters);
+            this.predictedMillis = predictedMillis;
+        }
+
+        public long getPredictedMillis() {
+            return predictedMillis;
+        }
+
+        WorkMessage toMessage() {
+            WorkMessage message = new WorkMessage(WorkMessage.RUN);
+            message.setUnitId(id);
+            message.setSuite(suite);
+            message.setBlock(block);
+            message.setClassName(className);
+            message.setMethods(methods);
+            message.setParameters(parameters);
+            return message;
+        }
+
+        String key(String method) {
+            return block + "|" + className + "#" + method;
+        }
+
+        @Override
+        public String toString() {
+            String simpleName = className.substring(className.lastIndexOf('.') + 1);
+            return methods.size() == 1 ? simpleName + "#" + methods.get(0) : simpleName + " (" + methods.size() + " methods)";
+        }
+    }
+
+    /**
+     * Final result of one method.
+     */
+    public static final class Outcome {
+        final String block;
+        final String method;
+        final String status;
+        final String worker;
+        final String error;
+
+        Outcome(String block, String method, String status, String worker, String error) {
+            this.block = block;
+            this.method = method;
+            this.status = status;
+            this.worker = worker;
+            this.error = error;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public String getWorker() {
+            return worker;
+        }
+    }
+
+    private static final class WorkerStats {
+        final String worker;
+        int units;
+        int methods;
+        long busyMillis;
+
+        WorkerStats(String worker) {
+            this.worker = worker;
+        }
+    }
+}
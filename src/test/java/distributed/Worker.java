@@ -0,0 +1,212 @@
+package distributed;
+
+import drivers.DriverFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.TestNG;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import utils.ConfigReader;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Worker JVM for {@link Coordinator}: asks for a unit, runs it with TestNG, streams the results back, repeats.
+ *
+ * Usage: {@code distributed.Worker host:port [worker-id]}. The id defaults to
+ * hostname-pid. Each unit runs as a one-class TestNG suite with the original
+ * suite's listeners and the block's name and parameters, so Allure results,
+ * screenshots and fault profiles work as in a normal run. Browsers stay open
+ * between units (reuseBrowser is on unless set explicitly) and are closed when
+ * the coordinator sends STOP.
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public final class Worker {
+
+    private static final Logger logger = LogManager.getLogger(Worker.class);
+    /** How long a worker keeps trying to reach a coordinator that is not up yet. */
+    private static final long CONNECT_TIMEOUT_MILLIS = 30_000;
+
+    private Worker() {
+        throw new IllegalStateException("Utility class - cannot be instantiated");
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            throw new IllegalStateException("Usage: distributed.Worker host:port [worker-id]");
+        }
+        String id = args.length > 1 ? args[1]
+                : InetAddress.getLocalHost().getHostName() + "-" + ManagementFactory.getRuntimeMXBean().getPid();
+        if (System.getProperty("reuseBrowser") == null) {
+            ConfigReader.set("reuseBrowser", "true");
+        }
+        try {
+            run(args[0], id);
+        } finally {
+            DriverFactory.quitIdleDrivers();
+        }
+        // TestNG and the stubs leave non-daemon threads behind
+        System.exit(0);
+    }
+
+    private static void run(String address, String id) throws IOException, InterruptedException {
+        try (Socket socket = connect(address);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setTcpNoDelay(true);
+            WorkMessage hello = new WorkMessage(WorkMessage.HELLO);
+            hello.setWorker(id);
+            hello.write(writer);
+            WorkMessage welcome = WorkMessage.read(reader);
+            if (welcome == null || !WorkMessage.WELCOME.equals(welcome.getType())) {
+                throw new IllegalStateException("Coordinator at " + address + " did not answer HELLO");
+            }
+            List<String> listeners = welcome.getListeners() == null ? new ArrayList<>() : welcome.getListeners();
+            logger.info("Worker {} connected to coordinator {}", id, address);
+
+            Integer finished = null;
+            int units = 0;
+            while (true) {
+                WorkMessage next = new WorkMessage(WorkMessage.NEXT);
+                next.setUnitId(finished);
+                synchronized (writer) {
+                    next.write(writer);
+                }
+                WorkMessage unit = WorkMessage.read(reader);
+                if (unit == null || WorkMessage.STOP.equals(unit.getType())) {
+                    break;
+                }
+                runUnit(id, unit, listeners, writer);
+                finished = unit.getUnitId();
+                units++;
+            }
+            logger.info("Worker {} done after {} units", id, units);
+        }
+    }
+
+    private static Socket connect(String address) throws IOException, InterruptedException {
+        int colon = address.lastIndexOf(':');
+        if (colon < 1) {
+            throw new IllegalStateException("Invalid coordinator address '" + address + "' - expected host:port");
+        }
+        String host = address.substring(0, colon);
+        int port = Integer.parseInt(address.substring(colon + 1));
+        long deadline = System.currentTimeMillis() + CONNECT_TIMEOUT_MILLIS;
+        while (true) {
+            try {
+                return new Socket(host, port);
+            } catch (IOException e) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw e;
+                }
+                Thread.sleep(500);
+            }
+        }
+    }
+
+    // ---------------------------------------------------------
+    // RUNNING UNITS
+    // ---------------------------------------------------------
+
+    private static void runUnit(String id, WorkMessage unit, List<String> listeners, Writer writer) {
+        XmlSuite suite = new XmlSuite();
+        suite.setName(unit.getSuite());
+        suite.setListeners(listeners);
+        XmlTest test = new XmlTest(suite);
+        test.setName(unit.getBlock());
+        if (unit.getParameters() != null) {
+            test.setParameters(unit.getParameters());
+        }
+        XmlClass xmlClass = new XmlClass(unit.getClassName(), false);
+        List<XmlInclude> includes = new ArrayList<>();
+        for (String method : unit.getMethods()) {
+            includes.add(new XmlInclude(method, includes.size()));
+        }
+        xmlClass.setIncludedMethods(includes);
+        test.setXmlClasses(List.of(xmlClass));
+
+        TestNG testng = new TestNG(false);
+        testng.setXmlSuites(List.of(suite));
+        testng.setVerbose(0);
+        testng.setOutputDirectory(Paths.get("target", "worker-output", id).toString());
+        testng.addListener(new ResultStreamer(unit, writer));
+        logger.info("Running {} {}", unit.getClassName(), unit.getMethods());
+        try {
+            testng.run();
+        } catch (RuntimeException e) {
+            // e.g. the class cannot be loaded on this worker; the coordinator counts unreported methods as skipped
+            logger.error("Unit {} could not be run: {}", unit.getUnitId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Sends each test result to the coordinator as soon as TestNG reports it.
+     */
+    private static final class ResultStreamer implements ITestListener {
+        private final WorkMessage unit;
+        private final Writer writer;
+
+        ResultStreamer(WorkMessage unit, Writer writer) {
+            this.unit = unit;
+            this.writer = writer;
+        }
+
+        @Override
+        public void onTestSuccess(ITestResult result) {
+            send(result, WorkQueue.PASSED);
+        }
+
+        @Override
+        public void onTestFailure(ITestResult result) {
+            send(result, WorkQueue.FAILED);
+        }
+
+        @Override
+        public void onTestSkipped(ITestResult result) {
+            send(result, WorkQueue.SKIPPED);
+        }
+
+        @Override
+        public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+            send(result, WorkQueue.PASSED);
+        }
+
+        private void send(ITestResult result, String status) {
+            WorkMessage message = new WorkMessage(WorkMessage.RESULT);
+            message.setUnitId(unit.getUnitId());
+            message.setClassName(result.getMethod().getRealClass().getName());
+            message.setMethod(result.getMethod().getMethodName());
+            message.setStatus(status);
+            message.setMillis(result.getEndMillis() - result.getStartMillis());
+            if (result.getThrowable() != null) {
+                String error = String.valueOf(result.getThrowable());
+                message.setError(error.length() > 500 ? error.substring(0, 500) + "..." : error);
+            }
+            try {
+                synchronized (writer) {
+                    message.write(writer);
+                }
+            } catch (IOException e) {
+                logger.error("Failed to send result of {} to the coordinator: {}", message.getMethod(), e.getMessage());
+            }
+        }
+    }
+}
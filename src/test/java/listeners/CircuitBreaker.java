@@ -0,0 +1,259 @@
+package listeners;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IConfigurationListener;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.SkipException;
+import utils.ConfigReader;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Suite-level circuit breaker: once the run is clearly broken, the remaining tests are skipped instead of run.
+ *
+ * The breaker opens when
+ * - a sentinel test fails for good (after retries), e.g. the smoke login, or
+ * - circuitConsecutiveFailures tests or set-up methods in a row fail with the
+ *   same root cause: the innermost exception type plus the locator it was
+ *   waiting for, or its message when there is no locator.
+ *
+ * An open breaker skips the tests that depend on what broke: with
+ * circuitScope=base (the default), tests that share the failing test's base
+ * class, so a broken site stops the BaseTest UI tests but not the API tests;
+ * with circuitScope=suite, everything. Skipping happens before a test's
+ * &#64;BeforeClass/&#64;BeforeMethod, so no browser is started for it;
+ * &#64;After methods still run. Each skip carries the reason the breaker opened.
+ *
+ * The state lives for the JVM, so distributed workers keep it across units.
+ *
+ * Configuration (config.properties):
+ * - circuitBreaker (default: true)
+ * - circuitSentinels: Class#method (simple or qualified class name) or @group, comma-separated
+ *   (default: LoginTest#validLoginTest)
+ * - circuitConsecutiveFailures: 0 = off (default: 5)
+ * - circuitScope: base | suite (default: base)
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public class CircuitBreaker implements IInvokedMethodListener, ITestListener, IConfigurationListener, ISuiteListener {
+
+    private static final Logger logger = LogManager.getLogger(CircuitBreaker.class);
+    private static final String WHOLE_SUITE = "the whole suite";
+
+    /** "By.id: username (tried for 8 second(s)...)" from WebDriverWait, or Selenium's {"method":...,"selector":...}. */
+    private static final Pattern BY_LOCATOR = Pattern.compile("(By\\.\\w+: .+?)(?: \\(tried|\\n|$)");
+    private static final Pattern JSON_LOCATOR = Pattern.compile("\"method\":\"([^\"]+)\",\"selector\":\"((?:[^\"\\\\]|\\\\.)*)\"");
+
+    /** Scope (base class name, or WHOLE_SUITE) to the reason its breaker opened. */
+    private static final Map<String, String> open = new LinkedHashMap<>();
+    private static final Map<String, Streak> streaks = new LinkedHashMap<>();
+    private static final AtomicInteger skipped = new AtomicInteger();
+
+    // ---------------------------------------------------------
+    // SKIPPING
+    // ---------------------------------------------------------
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        ITestNGMethod testMethod = method.getTestMethod();
+        boolean skippable = method.isTestMethod() || testMethod.isBeforeClassConfiguration()
+                || testMethod.isBeforeMethodConfiguration();
+        if (!skippable || !enabled()) {
+            return;
+        }
+        String reason = reasonFor(testMethod.getRealClass());
+        if (reason != null) {
+            throw new SkipException("Skipped by circuit breaker: " + reason);
+        }
+    }
+
+    private static synchronized String reasonFor(Class<?> testClass) {
+        String reason = open.get(WHOLE_SUITE);
+        return reason != null ? reason : open.get(scope(testClass));
+    }
+
+    // ---------------------------------------------------------
+    // TRIPPING
+    // ---------------------------------------------------------
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        if (!enabled()) {
+            return;
+        }
+        String test = result.getMethod().getRealClass().getSimpleName() + "#" + result.getMethod().getMethodName();
+        String signature = signature(result.getThrowable());
+        if (isSentinel(result.getMethod())) {
+            trip(result.getMethod().getRealClass(), "sentinel " + test + " failed (" + signature + ")");
+        } else {
+            failed(result.getMethod().getRealClass(), signature);
+        }
+    }
+
+    @Override
+    public void onConfigurationFailure(ITestResult result) {
+        // A failing setupCheckout or BaseTest.setup fails every test behind it the same way
+        if (enabled() && result.getThrowable() != null && !(result.getThrowable() instanceof SkipException)) {
+            failed(result.getMethod().getRealClass(), signature(result.getThrowable()));
+        }
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        if (!result.wasRetried() && reasonFor(result.getMethod().getRealClass()) != null) {
+            skipped.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        synchronized (CircuitBreaker.class) {
+            streaks.remove(scope(result.getMethod().getRealClass()));
+        }
+    }
+
+    private static void failed(Class<?> testClass, String signature) {
+        int threshold = ConfigReader.getInt("circuitConsecutiveFailures", 5);
+        if (threshold <= 0) {
+            return;
+        }
+        int count;
+        synchronized (CircuitBreaker.class) {
+            Streak streak = streaks.computeIfAbsent(scope(testClass), scope -> new Streak());
+            if (signature.equals(streak.signature)) {
+                streak.count++;
+            } else {
+                streak.signature = signature;
+                streak.count = 1;
+            }
+            count = streak.count;
+        }
+        if (count >= threshold) {
+            trip(testClass, count + " consecutive failures with the same root cause (" + signature + ")");
+        }
+    }
+
+    private static void trip(Class<?> testClass, String cause) {
+        String scope = scope(testClass);
+        synchronized (CircuitBreaker.class) {
+            if (open.containsKey(scope) || open.containsKey(WHOLE_SUITE)) {
+                return;
+            }
+            open.put(scope, cause);
+        }
+        logger.error("CIRCUIT BREAKER OPEN - {}; skipping the remaining tests of {}", cause,
+                scope.equals(WHOLE_SUITE) ? WHOLE_SUITE : scope.substring(scope.lastIndexOf('.') + 1) + " and its subclasses");
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        synchronized (CircuitBreaker.class) {
+            if (!open.isEmpty()) {
+                logger.error("Circuit breaker skipped {} tests so far: {}", skipped.get(), open);
+            }
+        }
+    }
+
+    // ---------------------------------------------------------
+    // HELPERS
+    // ---------------------------------------------------------
+
+    private static boolean enabled() {
+        return ConfigReader.getBoolean("circuitBreaker", true);
+    }
+
+    /**
+     * @return the test's top-most base class (e.g. base.BaseTest), or WHOLE_SUITE with circuitScope=suite
+     */
+    private static String scope(Class<?> testClass) {
+        if ("suite".equalsIgnoreCase(ConfigReader.get("circuitScope", "base"))) {
+            return WHOLE_SUITE;
+        }
+        Class<?> base = testClass;
+        while (base.getSuperclass() != null && base.getSuperclass() != Object.class) {
+            base = base.getSuperclass();
+        }
+        return base.getName();
+    }
+
+    private static boolean isSentinel(ITestNGMethod method) {
+        List<String> groups = Arrays.asList(method.getGroups());
+        Class<?> testClass = method.getRealClass();
+        for (String sentinel : ConfigReader.get("circuitSentinels", "LoginTest#validLoginTest").split(",")) {
+            String entry = sentinel.trim();
+            if (entry.startsWith("@")) {
+                if (groups.contains(entry.substring(1))) {
+                    return true;
+                }
+            } else if (entry.contains("#")) {
+                String className = entry.substring(0, entry.indexOf('#'));
+                String methodName = entry.substring(entry.indexOf('#') + 1);
+                boolean classMatches = className.equals(testClass.getName()) || className.equals(testClass.getSimpleName());
+                if (classMatches && methodName.equals(method.getMethodName())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Root-cause signature: innermost exception type plus the locator named anywhere in the chain,
+     * or the first line of the innermost message with numbers blanked out.
+     */
+    static String signature(Throwable throwable) {
+        if (throwable == null) {
+            return "no exception";
+        }
+        List<Throwable> chain = new ArrayList<>();
+        for (Throwable t = throwable; t != null && !chain.contains(t); t = t.getCause()) {
+            chain.add(t);
+        }
+        Throwable root = chain.get(chain.size() - 1);
+        for (Throwable t : chain) {
+            String locator = locator(t.getMessage());
+            if (locator != null) {
+                return root.getClass().getSimpleName() + " at " + locator;
+            }
+        }
+        String message = root.getMessage() == null ? "" : root.getMessage().trim();
+        int newline = message.indexOf('\n');
+        message = (newline < 0 ? message : message.substring(0, newline)).replaceAll("\\d+", "#");
+        if (message.length() > 120) {
+            message = message.substring(0, 120);
+        }
+        return root.getClass().getSimpleName() + (message.isEmpty() ? "" : ": " + message);
+    }
+
+    private static String locator(String message) {
+        if (message == null) {
+            return null;
+        }
+        Matcher json = JSON_LOCATOR.matcher(message);
+        if (json.find()) {
+            return json.group(1) + "=" + json.group(2);
+        }
+        Matcher by = BY_LOCATOR.matcher(message);
+        return by.find() ? by.group(1).trim() : null;
+    }
+
+    private static final class Streak {
+        String signature;
+        int count;
+    }
+}
@@ -0,0 +1,261 @@
+package listeners;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.xml.XmlTest;
+import utils.ConfigReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Records which framework classes each test method exercises, for {@link ImpactSelector}.
+ *
+ * Uses the JaCoCo agent already attached by the jacoco-maven-plugin, reached
+ * through reflection so nothing changes when it is absent (e.g. in the IDE).
+ * The agent's counters are flushed to the exec file and reset when a test's
+ * &#64;BeforeMethod (or the test itself) starts; when the next test starts, or
+ * the &lt;test&gt; ends, the counters collected since are read, attributed to the
+ * test (including its &#64;AfterMethod) and flushed again. Flushing with
+ * dump(reset) appends to the agent's exec file, so the coverage report still
+ * sees everything.
+ *
+ * Only classes in impactPackages are kept; nested classes count as their
+ * outer class. The agent's counters are JVM-wide, so &lt;test&gt; blocks that
+ * run methods in parallel are not recorded.
+ *
+ * Configuration (config.properties):
+ * - impactCoverage (default: true)
+ * - impactPackages (default: pages,base,utils,drivers)
+ * - impactIndexFile (default: test-history/impact-index.txt)
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public class CoverageRecorder implements IInvokedMethodListener, ITestListener, ISuiteListener {
+
+    private static final Logger logger = LogManager.getLogger(CoverageRecorder.class);
+
+    /** JaCoCo execution data block types (org.jacoco.core.data.ExecutionDataWriter). */
+    private static final byte BLOCK_HEADER = 0x01;
+    private static final byte BLOCK_SESSIONINFO = 0x10;
+    private static final byte BLOCK_EXECUTIONDATA = 0x11;
+
+    private static Object agent;
+    private static Method getExecutionData;
+    private static Method dump;
+    private static boolean agentLookedUp;
+
+    private final List<String> packages = new ArrayList<>();
+    private final Set<String> parallelBlocks = new TreeSet<>();
+    private boolean active;
+    private String currentTest;
+    private String pendingTest;
+
+    public CoverageRecorder() {
+        for (String name : ConfigReader.get("impactPackages", "pages,base,utils,drivers").split(",")) {
+            if (!name.trim().isEmpty()) {
+                packages.add(name.trim() + ".");
+            }
+        }
+    }
+
+    // ---------------------------------------------------------
+    // TEST BOUNDARIES
+    // ---------------------------------------------------------
+
+    @Override
+    public synchronized void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!recording(testResult.getTestContext())) {
+            return;
+        }
+        ITestNGMethod testMethod = method.getTestMethod();
+        if (pendingTest != null && !testMethod.isAfterMethodConfiguration()) {
+            attribute(pendingTest);
+            pendingTest = null;
+        }
+        if (!active && (method.isTestMethod() || testMethod.isBeforeMethodConfiguration())) {
+            // Whatever ran outside a test (class set-up, another block) is not attributed
+            dump();
+            active = true;
+        }
+        if (method.isTestMethod()) {
+            currentTest = testMethod.getRealClass().getName() + "#" + testMethod.getMethodName();
+        }
+    }
+
+    @Override
+    public synchronized void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (active && method.isTestMethod() && currentTest != null) {
+            // Attributed once its @AfterMethod has run too
+            pendingTest = currentTest;
+            currentTest = null;
+            active = false;
+        }
+    }
+
+    @Override
+    public synchronized void onFinish(ITestContext context) {
+        if (pendingTest != null) {
+            attribute(pendingTest);
+            pendingTest = null;
+        }
+        active = false;
+        currentTest = null;
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (agent != null) {
+            ImpactIndex.shared().save();
+        }
+    }
+
+    private boolean recording(ITestContext context) {
+        if (!ConfigReader.getBoolean("impactCoverage", true) || !agentAvailable()) {
+            return false;
+        }
+        XmlTest xmlTest = context.getCurrentXmlTest();
+        if (xmlTest.getParallel().isParallel() && xmlTest.getThreadCount() > 1) {
+            if (parallelBlocks.add(context.getName())) {
+                logger.info("Per-test coverage not recorded for '{}' - it runs tests in parallel", context.getName());
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private void attribute(String testKey) {
+        byte[] data = executionData();
+        dump();
+        if (data == null) {
+            return;
+        }
+        try {
+            Set<String> classes = coveredClasses(data);
+            ImpactIndex.shared().record(testKey, classes);
+            logger.debug("{} exercised {} framework classes", testKey, classes.size());
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not read coverage of {}: {}", testKey, e.getMessage());
+        }
+    }
+
+    // ---------------------------------------------------------
+    // JACOCO AGENT
+    // ---------------------------------------------------------
+
+    private static synchronized boolean agentAvailable() {
+        if (!agentLookedUp) {
+            agentLookedUp = true;
+            try {
+                Class<?> agentInterface = Class.forName("org.jacoco.agent.rt.IAgent");
+                agent = Class.forName("org.jacoco.agent.rt.RT").getMethod("getAgent").invoke(null);
+                getExecutionData = agentInterface.getMethod("getExecutionData", boolean.class);
+                dump = agentInterface.getMethod("dump", boolean.class);
+                logger.info("JaCoCo agent found - recording per-test coverage for the impact index");
+            } catch (ReflectiveOperationException | LinkageError e) {
+                agent = null;
+                logger.info("JaCoCo agent not attached - per-test coverage not recorded");
+            }
+        }
+        return agent != null;
+    }
+
+    private static byte[] executionData() {
+        try {
+            return (byte[]) getExecutionData.invoke(agent, false);
+        } catch (ReflectiveOperationException e) {
+            logger.warn("Could not read JaCoCo execution data: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes the counters to the agent's output (the exec file) and resets them.
+     */
+    private static void dump() {
+        try {
+            dump.invoke(agent, true);
+        } catch (ReflectiveOperationException e) {
+            logger.warn("Could not dump JaCoCo execution data: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reads JaCoCo's exec format and returns the tracked classes with at least one probe hit.
+     */
+    Set<String> coveredClasses(byte[] data) throws IOException {
+        Set<String> classes = new TreeSet<>();
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        int type;
+        while ((type = in.read()) != -1) {
+            switch (type) {
+                case BLOCK_HEADER:
+                    in.readChar();
+                    in.readChar();
+                    break;
+                case BLOCK_SESSIONINFO:
+                    in.readUTF();
+                    in.readLong();
+                    in.readLong();
+                    break;
+                case BLOCK_EXECUTIONDATA:
+                    in.readLong();
+                    String className = in.readUTF().replace('/', '.');
+                    if (readProbes(in) && tracked(className)) {
+                        int nested = className.indexOf('$');
+                        classes.add(nested < 0 ? className : className.substring(0, nested));
+                    }
+                    break;
+                default:
+                    throw new IOException("Unknown block type " + type + " in JaCoCo execution data");
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * @return true if any probe is set; the array is a varint length followed by bits packed eight per byte
+     */
+    private static boolean readProbes(DataInputStream in) throws IOException {
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readUnsignedByte();
+            length |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+        }
+        byte[] bits = new byte[(length + 7) / 8];
+        in.readFully(bits);
+        for (byte b : bits) {
+            if (b != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean tracked(String className) {
+        for (String prefix : packages) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
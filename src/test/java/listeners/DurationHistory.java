@@ -0,0 +1,239 @@
+package listeners;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.ConfigReader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-method and per-class test durations from previous runs.
+ *
+ * Each run folds its timings into an exponentially weighted mean (recent runs
+ * weigh 30%), so estimates follow a test that got slower or faster without
+ * being thrown by a single outlier. Class entries hold the class's overhead:
+ * wall time not spent in test methods, mostly driver start-up in
+ * &#64;BeforeMethod/&#64;AfterMethod.
+ *
+ * Methods are keyed "fully.qualified.Class#method". Unknown methods are
+ * estimated from the median of their class, then of all methods, then
+ * {@link #DEFAULT_ESTIMATE_MILLIS}.
+ *
+ * Stored as JSON at durationHistoryFile (default: test-history/durations.json);
+ * CI should cache that directory between runs.
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public class DurationHistory {
+
+    private static final Logger logger = LogManager.getLogger(DurationHistory.class);
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    /** Weight of the latest run in the moving average. */
+    private static final double ALPHA = 0.3;
+    /** Estimate for a method when nothing at all is known yet. */
+    public static final long DEFAULT_ESTIMATE_MILLIS = 1000;
+
+    private static DurationHistory shared;
+
+    private final Path file;
+    private final Map<String, Entry> methods = new ConcurrentHashMap<>();
+    private final Map<String, Entry> classes = new ConcurrentHashMap<>();
+
+    private DurationHistory(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * @return history loaded from durationHistoryFile, shared by all listeners of the run
+     */
+    public static synchronized DurationHistory shared() {
+        if (shared == null) {
+            shared = load(Paths.get(ConfigReader.get("durationHistoryFile", "test-history/durations.json")));
+        }
+        return shared;
+    }
+
+    /**
+     * Loads a history file; a missing or unreadable file gives an empty history.
+     *
+     * @param file JSON history file
+     * @return history backed by that file
+     */
+    public static DurationHistory load(Path file) {
+        DurationHistory history = new DurationHistory(file);
+        if (!Files.exists(file)) {
+            logger.info("No test duration history at {} yet - estimates start from defaults", file);
+            return history;
+        }
+        try {
+            Snapshot snapshot = mapper.readValue(file.toFile(), Snapshot.class);
+            history.methods.putAll(snapshot.getMethods());
+            history.classes.putAll(snapshot.getClasses());
+            logger.info("Loaded durations of {} test methods from {}", history.methods.size(), file);
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable test duration history {}: {}", file, e.getMessage());
+        }
+        return history;
+    }
+
+    /**
+     * Writes the history atomically, so a killed run never leaves a half-written file.
+     */
+    public synchronized void save() {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Snapshot snapshot = new Snapshot();
+            snapshot.setMethods(new TreeMap<>(methods));
+            snapshot.setClasses(new TreeMap<>(classes));
+            Path temp = Files.createTempFile(parent, "durations", ".tmp");
+            mapper.writeValue(temp.toFile(), snapshot);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Saved durations of {} test methods to {}", methods.size(), file);
+        } catch (IOException e) {
+            logger.warn("Failed to save test duration history {}: {}", file, e.getMessage());
+        }
+    }
+
+    // ---------------------------------------------------------
+    // RECORDING
+    // ---------------------------------------------------------
+
+    public void recordMethod(String methodKey, long millis) {
+        methods.merge(methodKey, new Entry(millis, 1), DurationHistory::fold);
+    }
+
+    public void recordClassOverhead(String className, long millis) {
+        classes.merge(className, new Entry(Math.max(0, millis), 1), DurationHistory::fold);
+    }
+
+    private static Entry fold(Entry current, Entry latest) {
+        return new Entry(current.meanMillis + ALPHA * (latest.meanMillis - current.meanMillis), current.runs + 1);
+    }
+
+    // ---------------------------------------------------------
+    // ESTIMATES
+    // ---------------------------------------------------------
+
+    /**
+     * @param methodKey "fully.qualified.Class#method"
+     * @return true if the method ran before
+     */
+    public boolean isKnown(String methodKey) {
+        return methods.containsKey(methodKey);
+    }
+
+    /**
+     * @param methodKey "fully.qualified.Class#method"
+     * @return expected duration in milliseconds
+     */
+    public long estimateMethod(String methodKey) {
+        Entry entry = methods.get(methodKey);
+        if (entry != null) {
+            return Math.round(entry.meanMillis);
+        }
+        String classPrefix = methodKey.substring(0, methodKey.indexOf('#') + 1);
+        long classMedian = median(classPrefix);
+        if (classMedian >= 0) {
+            return classMedian;
+        }
+        long overallMedian = median("");
+        return overallMedian >= 0 ? overallMedian : DEFAULT_ESTIMATE_MILLIS;
+    }
+
+    /**
+     * @param className fully qualified class name
+     * @return expected set-up/tear-down time of the class in milliseconds, 0 if unknown
+     */
+    public long estimateClassOverhead(String className) {
+        Entry entry = classes.get(className);
+        return entry == null ? 0 : Math.round(entry.meanMillis);
+    }
+
+    private long median(String keyPrefix) {
+        List<Double> values = new ArrayList<>();
+        for (Map.Entry<String, Entry> entry : methods.entrySet()) {
+            if (entry.getKey().startsWith(keyPrefix)) {
+                values.add(entry.getValue().meanMillis);
+            }
+        }
+        if (values.isEmpty()) {
+            return -1;
+        }
+        Collections.sort(values);
+        return Math.round(values.get(values.size() / 2));
+    }
+
+    /**
+     * Moving average of one method or class.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Entry {
+        private double meanMillis;
+        private int runs;
+
+        public Entry() {
+        }
+
+        Entry(double meanMillis, int runs) {
+            this.meanMillis = meanMillis;
+            this.runs = runs;
+        }
+
+        public double getMeanMillis() {
+            return meanMillis;
+        }
+
+        public void setMeanMillis(double meanMillis) {
+            this.meanMillis = meanMillis;
+        }
+
+        public int getRuns() {
+            return runs;
+        }
+
+        public void setRuns(int runs) {
+            this.runs = runs;
+        }
+    }
+
+    /**
+     * JSON form of the history file.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Snapshot {
+        private Map<String, Entry> methods = new TreeMap<>();
+        private Map<String, Entry> classes = new TreeMap<>();
+
+        public Map<String, Entry> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(Map<String, Entry> methods) {
+            this.methods = methods;
+        }
+
+        public Map<String, Entry> getClasses() {
+            return classes;
+        }
+
+        public void setClasses(Map<String, Entry> classes) {
+            this.classes = classes;
+        }
+    }
+}
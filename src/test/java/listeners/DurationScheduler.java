@@ -0,0 +1,288 @@
+package listeners;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import utils.ConfigReader;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Duration-aware ordering of test classes for parallel="classes" runs.
+ *
+ * TestNG starts classes in priority and declaration order regardless of how
+ * long they take, so two long classes can end up on one thread while the
+ * other idles. This interceptor orders classes longest-first by their
+ * predicted duration (sum of the historical method durations plus the class's
+ * set-up overhead, see {@link DurationHistory}). Because TestNG gives each
+ * class to whichever thread is free next, that is longest-processing-time-first
+ * scheduling, which keeps the makespan within 4/3 of optimal.
+ *
+ * Classes are the unit of scheduling: with parallel="classes" a class never
+ * spans threads, and priorities and dependsOnMethods only relate methods of
+ * the same class. Parallel TestNG dispatches ready methods by priority across
+ * the whole &lt;test&gt;, so the new order is applied by renumbering priorities;
+ * methods keep their relative order inside a class and dependencies are
+ * untouched. Tests that are not parallel by classes (or instances) are left
+ * alone, so preserve-order suites keep their declared order.
+ *
+ * After each &lt;test&gt; the predicted and actual makespan are logged, and
+ * the observed durations are folded into the history at the end of the suite
+ * (except in sharded runs, see {@link ShardPlanner}).
+ *
+ * Configuration (config.properties):
+ * - durationScheduler: reorder classes (default: true; timings are recorded either way)
+ * - durationHistoryFile (default: test-history/durations.json)
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public class DurationScheduler implements IMethodInterceptor, IInvokedMethodListener, ITestListener, ISuiteListener {
+
+    private static final Logger logger = LogManager.getLogger(DurationScheduler.class);
+
+    private final Map<String, Plan> plans = new ConcurrentHashMap<>();
+    private final Map<String, Timing> timings = new ConcurrentHashMap<>();
+
+    // ---------------------------------------------------------
+    // SCHEDULING
+    // ---------------------------------------------------------
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        XmlTest xmlTest = context.getCurrentXmlTest();
+        int threads = Math.max(1, xmlTest.getThreadCount());
+        XmlSuite.ParallelMode parallel = xmlTest.getParallel();
+        boolean byClass = parallel == XmlSuite.ParallelMode.CLASSES || parallel == XmlSuite.ParallelMode.INSTANCES;
+        if (!byClass || threads < 2 || !ConfigReader.getBoolean("durationScheduler", true)) {
+            return methods;
+        }
+
+        DurationHistory history = DurationHistory.shared();
+        Map<String, ClassBatch> batches = new LinkedHashMap<>();
+        for (IMethodInstance instance : methods) {
+            String className = instance.getMethod().getRealClass().getName();
+            batches.computeIfAbsent(className, name -> new ClassBatch(name, history.estimateClassOverhead(name)))
+                    .add(instance, history);
+        }
+
+        // Without the scheduler TestNG starts classes roughly in the order of their lowest priority
+        List<ClassBatch> baseline = new ArrayList<>(batches.values());
+        baseline.sort(Comparator.comparingInt((ClassBatch batch) -> batch.lowestPriority));
+        List<ClassBatch> ordered = new ArrayList<>(baseline);
+        // Stable sort: classes with equal estimates keep TestNG's order
+        ordered.sort(Comparator.comparingLong((ClassBatch batch) -> batch.predictedMillis).reversed());
+
+        // Renumbered priorities carry the order; relative order inside each class is unchanged
+        List<IMethodInstance> result = new ArrayList<>(methods.size());
+        for (ClassBatch batch : ordered) {
+            for (IMethodInstance instance : batch.methods) {
+                instance.getMethod().setPriority(result.size());
+                result.add(instance);
+            }
+        }
+
+        Plan plan = new Plan(threads, simulate(ordered, threads), simulate(baseline, threads), ordered);
+        plans.put(context.getName(), plan);
+        logger.info("Scheduled {} classes of '{}' longest-first on {} threads: predicted makespan {} (TestNG order {})",
+                ordered.size(), context.getName(), threads,
+                formatMillis(plan.predictedMakespan), formatMillis(plan.baselineMakespan));
+        for (ClassBatch batch : ordered) {
+            logger.debug("  {} - {} methods, predicted {}{}", batch.className, batch.methods.size(),
+                    formatMillis(batch.predictedMillis), batch.unknownMethods > 0 ? " (" + batch.unknownMethods + " without history)" : "");
+        }
+        return result;
+    }
+
+    /**
+     * Replays TestNG's dispatch: each class goes to the thread that frees up first.
+     *
+     * @return predicted makespan in milliseconds
+     */
+    static long simulate(List<ClassBatch> order, int threads) {
+        PriorityQueue<long[]> loads = new PriorityQueue<>(Comparator.comparingLong(load -> load[0]));
+        for (int i = 0; i < threads; i++) {
+            loads.add(new long[]{0});
+        }
+        long makespan = 0;
+        for (ClassBatch batch : order) {
+            long[] load = loads.poll();
+            load[0] += batch.predictedMillis;
+            makespan = Math.max(makespan, load[0]);
+            loads.add(load);
+        }
+        return makespan;
+    }
+
+    // ---------------------------------------------------------
+    // MEASURING
+    // ---------------------------------------------------------
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        timings.computeIfAbsent(testResult.getTestContext().getName(), name -> new Timing())
+                .start(method.getTestMethod().getRealClass().getName(), System.currentTimeMillis());
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        long now = System.currentTimeMillis();
+        ITestNGMethod testMethod = method.getTestMethod();
+        String className = testMethod.getRealClass().getName();
+        Timing timing = timings.computeIfAbsent(testResult.getTestContext().getName(), name -> new Timing());
+        timing.end(className, now);
+        if (method.isTestMethod() && testResult.getStatus() != ITestResult.SKIP) {
+            long millis = testResult.getEndMillis() - testResult.getStartMillis();
+            timing.addMethodTime(className, millis);
+            DurationHistory.shared().recordMethod(className + "#" + testMethod.getMethodName(), millis);
+        }
+    }
+
+    @Override
+    public void onFinish(ITestContext context) {
+        Timing timing = timings.remove(context.getName());
+        if (timing == null) {
+            return;
+        }
+        DurationHistory history = DurationHistory.shared();
+        timing.classOverheads().forEach(history::recordClassOverhead);
+
+        Plan plan = plans.remove(context.getName());
+        if (plan == null) {
+            return;
+        }
+        long actual = timing.makespan();
+        double error = plan.predictedMakespan == 0 ? 0 : 100.0 * (actual - plan.predictedMakespan) / plan.predictedMakespan;
+        logger.info("'{}' makespan on {} threads: predicted {}, actual {} ({}), TestNG order would have been ~{}",
+                context.getName(), plan.threads, formatMillis(plan.predictedMakespan), formatMillis(actual),
+                String.format(Locale.ROOT, "%+.0f%%", error), formatMillis(plan.baselineMakespan));
+        for (ClassBatch batch : plan.order) {
+            logger.info("  {} - predicted {}, actual {}", batch.className,
+                    formatMillis(batch.predictedMillis), formatMillis(timing.classWall(batch.className)));
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (ShardPlanner.parseShard(ConfigReader.get("shard", "")) != null) {
+            // Every shard of a run must plan from the same history, so sharded runs leave it as they found it
+            logger.info("Sharded run - duration history not updated");
+            return;
+        }
+        DurationHistory.shared().save();
+    }
+
+    public static String formatMillis(long millis) {
+        return millis >= 60_000
+                ? String.format(Locale.ROOT, "%dm%02ds", millis / 60_000, (millis / 1000) % 60)
+                : String.format(Locale.ROOT, "%.1fs", millis / 1000.0);
+    }
+
+    // ---------------------------------------------------------
+    // MODEL
+    // ---------------------------------------------------------
+
+    /**
+     * The methods of one class, scheduled as a unit.
+     */
+    static final class ClassBatch {
+        final String className;
+        final List<IMethodInstance> methods = new ArrayList<>();
+        long predictedMillis;
+        int unknownMethods;
+        int lowestPriority = Integer.MAX_VALUE;
+
+        ClassBatch(String className, long overheadMillis) {
+            this.className = className;
+            this.predictedMillis = overheadMillis;
+        }
+
+        void add(IMethodInstance instance, DurationHistory history) {
+            String key = className + "#" + instance.getMethod().getMethodName();
+            if (!history.isKnown(key)) {
+                unknownMethods++;
+            }
+            predictedMillis += history.estimateMethod(key) * Math.max(1, instance.getMethod().getInvocationCount());
+            lowestPriority = Math.min(lowestPriority, instance.getMethod().getPriority());
+            methods.add(instance);
+        }
+    }
+
+    /**
+     * Order chosen for one &lt;test&gt; and its predicted makespan.
+     */
+    private static final class Plan {
+        final int threads;
+        final long predictedMakespan;
+        final long baselineMakespan;
+        final List<ClassBatch> order;
+
+        Plan(int threads, long predictedMakespan, long baselineMakespan, List<ClassBatch> order) {
+            this.threads = threads;
+            this.predictedMakespan = predictedMakespan;
+            this.baselineMakespan = baselineMakespan;
+            this.order = order;
+        }
+    }
+
+    /**
+     * Wall-clock span of each class (configuration methods included) and its time in test methods.
+     */
+    private static final class Timing {
+        private final Map<String, long[]> spans = new ConcurrentHashMap<>();
+        private final Map<String, Long> methodTime = new ConcurrentHashMap<>();
+
+        void start(String className, long now) {
+            spans.compute(className, (name, span) -> span == null ? new long[]{now, now} : new long[]{Math.min(span[0], now), span[1]});
+        }
+
+        void end(String className, long now) {
+            spans.compute(className, (name, span) -> span == null ? new long[]{now, now} : new long[]{span[0], Math.max(span[1], now)});
+        }
+
+        void addMethodTime(String className, long millis) {
+            methodTime.merge(className, millis, Long::sum);
+        }
+
+        long classWall(String className) {
+            long[] span = spans.get(className);
+            return span == null ? 0 : span[1] - span[0];
+        }
+
+        long makespan() {
+            long first = Long.MAX_VALUE;
+            long last = Long.MIN_VALUE;
+            for (long[] span : spans.values()) {
+                first = Math.min(first, span[0]);
+                last = Math.max(last, span[1]);
+            }
+            return spans.isEmpty() ? 0 : last - first;
+        }
+
+        Map<String, Long> classOverheads() {
+            Map<String, Long> overheads = new LinkedHashMap<>();
+            for (String className : spans.keySet()) {
+                overheads.put(className, classWall(className) - methodTime.getOrDefault(className, 0L));
+            }
+            return overheads;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package listeners;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.ConfigReader;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Which framework classes each test method exercised, from per-test coverage (see {@link CoverageRecorder}).
+ *
+ * Stored as a small text file at impactIndexFile (default:
+ * test-history/impact-index.txt): a numbered table of class names followed by
+ * one line per test listing the numbers of the classes it touched.
+ * <pre>
+ * C pages.CheckoutPage
+ * C utils.WaitUtils
+ * T tests.CheckoutTest#endToEndCheckoutTest 0 1
+ * </pre>
+ * Updates are incremental: a run replaces the entries of the tests it ran and
+ * keeps the rest. Saving re-reads the file under a lock first, so several JVMs
+ * (shards, distributed workers) can update it one after another. Entries of
+ * test methods that no longer exist are dropped on save.
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public class ImpactIndex {
+
+    private static final Logger logger = LogManager.getLogger(ImpactIndex.class);
+    private static final String HEADER = "# Test impact index: test method -> framework classes it exercised (listeners.ImpactIndex)";
+
+    private static ImpactIndex shared;
+
+    private final Path file;
+    private final Map<String, Set<String>> tests = new ConcurrentHashMap<>();
+    /** Entries recorded by this run, merged into the file on save. */
+    private final Map<String, Set<String>> updates = new ConcurrentHashMap<>();
+
+    private ImpactIndex(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * @return index loaded from impactIndexFile, shared by all listeners of the run
+     */
+    public static synchronized ImpactIndex shared() {
+        if (shared == null) {
+            shared = load(Paths.get(ConfigReader.get("impactIndexFile", "test-history/impact-index.txt")));
+        }
+        return shared;
+    }
+
+    /**
+     * Loads an index file; a missing or unreadable file gives an empty index.
+     */
+    public static ImpactIndex load(Path file) {
+        ImpactIndex index = new ImpactIndex(file);
+        try {
+            index.tests.putAll(read(file));
+            if (!index.tests.isEmpty()) {
+                logger.info("Loaded impact index of {} test methods from {}", index.tests.size(), file);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable impact index {}: {}", file, e.getMessage());
+        }
+        return index;
+    }
+
+    // ---------------------------------------------------------
+    // QUERIES
+    // ---------------------------------------------------------
+
+    /**
+     * @param testKey "fully.qualified.Class#method"
+     * @return true if coverage was recorded for the test
+     */
+    public boolean contains(String testKey) {
+        return tests.containsKey(testKey);
+    }
+
+    /**
+     * @return true if the test exercised any of the classes
+     */
+    public boolean touches(String testKey, Collection<String> classNames) {
+        Set<String> classes = tests.get(testKey);
+        if (classes == null) {
+            return false;
+        }
+        for (String className : classNames) {
+            if (classes.contains(className)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Set<String> classesOf(String testKey) {
+        return Collections.unmodifiableSet(tests.getOrDefault(testKey, Collections.emptySet()));
+    }
+
+    public int size() {
+        return tests.size();
+    }
+
+    // ---------------------------------------------------------
+    // UPDATES
+    // ---------------------------------------------------------
+
+    /**
+     * Records the classes a test exercised. Repeated invocations in one run (data providers, retries) are combined.
+     */
+    public void record(String testKey, Collection<String> classNames) {
+        Set<String> classes = updates.computeIfAbsent(testKey, key -> ConcurrentHashMap.newKeySet());
+        classes.addAll(classNames);
+        tests.put(testKey, new TreeSet<>(classes));
+    }
+
+    /**
+     * Merges this run's entries into the file.
+     */
+    public synchronized void save() {
+        if (updates.isEmpty()) {
+            return;
+        }
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            try (FileChannel lockChannel = FileChannel.open(parent.resolve(file.getFileName() + ".lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = lockChannel.lock();
+                try {
+                    Map<String, Set<String>> merged = new TreeMap<>();
+                    try {
+                        merged.putAll(read(file));
+                    } catch (IOException | RuntimeException e) {
+                        logger.warn("Rewriting unreadable impact index {}: {}", file, e.getMessage());
+                    }
+                    updates.forEach((key, classes) -> merged.put(key, new TreeSet<>(classes)));
+                    int stale = 0;
+                    for (String key : new ArrayList<>(merged.keySet())) {
+                        if (!testExists(key)) {
+                            merged.remove(key);
+                            stale++;
+                        }
+                    }
+                    Path temp = Files.createTempFile(parent, "impact-index", ".tmp");
+                    write(temp, merged);
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    logger.info("Impact index: updated {} test methods, {} in total{} ({})", updates.size(), merged.size(),
+                            stale > 0 ? ", dropped " + stale + " that no longer exist" : "", file);
+                } finally {
+                    lock.release();
+                }
+            }
+            updates.clear();
+        } catch (IOException e) {
+            logger.warn("Failed to save impact index {}: {}", file, e.getMessage());
+        }
+    }
+
+    // ---------------------------------------------------------
+    // FILE FORMAT
+    // ---------------------------------------------------------
+
+    static Map<String, Set<String>> read(Path file) throws IOException {
+        Map<String, Set<String>> entries = new TreeMap<>();
+        if (!Files.exists(file)) {
+            return entries;
+        }
+        List<String> classes = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("C ")) {
+                    classes.add(line.substring(2).trim());
+                } else if (line.startsWith("T ")) {
+                    String[] parts = line.substring(2).trim().split(" ");
+                    Set<String> touched = new TreeSet<>();
+                    for (int i = 1; i < parts.length; i++) {
+                        touched.add(classes.get(Integer.parseInt(parts[i])));
+                    }
+                    entries.put(parts[0], touched);
+                }
+            }
+        }
+        return entries;
+    }
+
+    static void write(Path file, Map<String, Set<String>> entries) throws IOException {
+        Map<String, Integer> numbers = new HashMap<>();
+        Set<String> classes = new TreeSet<>();
+        entries.values().forEach(classes::addAll);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (String className : classes) {
+                numbers.put(className, numbers.size());
+                writer.write("C " + className);
+                writer.newLine();
+            }
+            for (Map.Entry<String, Set<String>> entry : entries.entrySet()) {
+                StringBuilder line = new StringBuilder("T ").append(entry.getKey());
+                for (String className : entry.getValue()) {
+                    line.append(' ').append(numbers.get(className));
+                }
+                writer.write(line.toString());
+                writer.newLine();
+            }
+        }
+    }
+
+    private static boolean testExists(String testKey) {
+        int hash = testKey.indexOf('#');
+        try {
+            Class<?> testClass = Class.forName(testKey.substring(0, hash), false, Thread.currentThread().getContextClassLoader());
+            String methodName = testKey.substring(hash + 1);
+            for (Method method : testClass.getMethods()) {
+                if (method.getName().equals(methodName)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package listeners;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IAlterSuiteListener;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import utils.ConfigReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs only the tests affected by a change, using the coverage index built by {@link CoverageRecorder}.
+ *
+ * Enabled by naming the change, either as a git ref to diff the working tree
+ * against (-DimpactSince=origin/main) or as a list of files or classes
+ * (-DimpactChanged=src/main/java/pages/CheckoutPage.java or pages.CheckoutPage).
+ * A test is kept when:
+ * - it exercised a changed class in impactPackages according to the index
+ * - its own test class changed
+ * - the index has no entry for it yet (new tests, or blocks run in parallel)
+ *
+ * Changes the index cannot reason about select the whole suite: other
+ * framework packages, shared test code such as listeners, resources, pom.xml
+ * and testng.xml. Other files (documentation, CI configuration) are ignored.
+ * Runs after {@link SuitePlanner} and before {@link ShardPlanner}, so sharded
+ * runs split the selected tests.
+ *
+ * Configuration (config.properties):
+ * - impactSince: git ref, empty = no selection (default: empty)
+ * - impactChanged: comma-separated files or classes, empty = no selection (default: empty)
+ * - impactPackages, impactIndexFile: see {@link CoverageRecorder}
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public class ImpactSelector implements IAlterSuiteListener {
+
+    private static final Logger logger = LogManager.getLogger(ImpactSelector.class);
+    private static final String MAIN_SOURCES = "src/main/java/";
+    private static final String TEST_SOURCES = "src/test/java/";
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        String listed = ConfigReader.get("impactChanged", "").trim();
+        String since = ConfigReader.get("impactSince", "").trim();
+        if (listed.isEmpty() && since.isEmpty()) {
+            return;
+        }
+        List<String> changes = new ArrayList<>();
+        for (String item : listed.split(",")) {
+            if (!item.trim().isEmpty()) {
+                changes.add(item.trim());
+            }
+        }
+        if (!since.isEmpty()) {
+            List<String> diff = changedFiles(since);
+            if (diff == null) {
+                // An unusable ref must not silently shrink the run
+                logger.info("Impact selection: running everything - cannot diff against '{}'", since);
+                return;
+            }
+            changes.addAll(diff);
+        }
+
+        Map<XmlTest, Map<Class<?>, List<Method>>> selected = new LinkedHashMap<>();
+        Set<String> testClasses = new TreeSet<>();
+        for (XmlSuite suite : suites) {
+            for (XmlTest block : suite.getTests()) {
+                Map<Class<?>, List<Method>> methods = SuitePlanner.selectedMethods(block);
+                selected.put(block, methods);
+                methods.keySet().forEach(testClass -> testClasses.add(testClass.getName()));
+            }
+        }
+
+        Change change = classify(changes, testClasses);
+        if (change.runAllReason != null) {
+            logger.info("Impact selection: running everything - {}", change.runAllReason);
+            return;
+        }
+
+        ImpactIndex index = ImpactIndex.shared();
+        int total = 0;
+        int kept = 0;
+        int unknown = 0;
+        for (Map.Entry<XmlTest, Map<Class<?>, List<Method>>> entry : selected.entrySet()) {
+            Map<Class<?>, Set<Method>> affected = new LinkedHashMap<>();
+            for (Map.Entry<Class<?>, List<Method>> methods : entry.getValue().entrySet()) {
+                Class<?> testClass = methods.getKey();
+                for (Method method : methods.getValue()) {
+                    String key = testClass.getName() + "#" + method.getName();
+                    total++;
+                    boolean known = index.contains(key);
+                    if (!known || change.testClasses.contains(testClass.getName())
+                            || index.touches(key, change.frameworkClasses)) {
+                        affected.computeIfAbsent(testClass, c -> new LinkedHashSet<>()).add(method);
+                        kept++;
+                        if (!known) {
+                            unknown++;
+                        }
+                    }
+                }
+            }
+            for (Map.Entry<Class<?>, Set<Method>> methods : affected.entrySet()) {
+                SuitePlanner.addMethodDependencies(methods.getKey(), methods.getValue());
+            }
+            XmlTest block = entry.getKey();
+            if (affected.isEmpty()) {
+                block.getSuite().getTests().remove(block);
+            } else {
+                SuitePlanner.rewrite(block, affected);
+            }
+        }
+        logger.info("Impact selection: {} changed framework classes {}, {} changed test classes: running {} of {} tests"
+                        + " ({} without coverage data yet)", change.frameworkClasses.size(), change.frameworkClasses,
+                change.testClasses.size(), kept, total, unknown);
+    }
+
+    /**
+     * @return files changed in the working tree since the ref, untracked files included; null if git fails
+     */
+    private static List<String> changedFiles(String since) {
+        List<String> diff = git("diff", "--name-only", since);
+        List<String> untracked = git("ls-files", "--others", "--exclude-standard");
+        if (diff == null || untracked == null) {
+            return null;
+        }
+        diff.addAll(untracked);
+        return diff;
+    }
+
+    private static List<String> git(String... arguments) {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(List.of(arguments));
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            List<String> lines = new ArrayList<>();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lines.add(line.trim());
+                }
+            }
+            if (!process.waitFor(60, TimeUnit.SECONDS) || process.exitValue() != 0) {
+                logger.warn("'{}' failed: {}", String.join(" ", command), lines.isEmpty() ? "" : lines.get(0));
+                return null;
+            }
+            return lines;
+        } catch (IOException e) {
+            logger.warn("Could not run git: {}", e.getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Sorts the changes into framework classes, test classes, and reasons to run everything.
+     */
+    static Change classify(List<String> changes, Set<String> testClasses) {
+        List<String> packages = new ArrayList<>();
+        for (String name : ConfigReader.get("impactPackages", "pages,base,utils,drivers").split(",")) {
+            if (!name.trim().isEmpty()) {
+                packages.add(name.trim() + ".");
+            }
+        }
+        Change change = new Change();
+        for (String item : changes) {
+            String path = item.replace('\\', '/');
+            String className = null;
+            if (path.endsWith(".java")) {
+                int root = Math.max(path.indexOf(MAIN_SOURCES), path.indexOf(TEST_SOURCES));
+                if (root >= 0) {
+                    className = path.substring(root + MAIN_SOURCES.length(), path.length() - ".java".length()).replace('/', '.');
+                }
+            } else if (!path.contains("/") && path.matches("[\\w.$]+\\.[A-Z][\\w$]*")) {
+                className = path;
+            }
+
+            if (className != null) {
+                if (testClasses.contains(className) || isTestClass(className)) {
+                    change.testClasses.add(className);
+                } else if (packages.stream().anyMatch(className::startsWith)) {
+                    change.frameworkClasses.add(className);
+                } else {
+                    change.runAllReason = className + " is not tracked by the impact index";
+                    return change;
+                }
+            } else if (path.startsWith("src/") || path.equals("pom.xml") || path.matches("testng.*\\.xml")) {
+                change.runAllReason = path + " changed";
+                return change;
+            }
+        }
+        return change;
+    }
+
+    private static boolean isTestClass(String className) {
+        try {
+            Class<?> type = Class.forName(className, false, Thread.currentThread().getContextClassLoader());
+            if (type.isAnnotationPresent(Test.class)) {
+                return true;
+            }
+            for (Method method : type.getMethods()) {
+                if (method.isAnnotationPresent(Test.class)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * What a change touches.
+     */
+    static final class Change {
+        final Set<String> frameworkClasses = new TreeSet<>();
+        final Set<String> testClasses = new TreeSet<>();
+        String runAllReason;
+    }
+}
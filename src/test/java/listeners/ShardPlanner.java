@@ -0,0 +1,370 @@
+package listeners;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IAlterSuiteListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import utils.ConfigReader;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Splits the suite across N JVMs or machines with -Dshard=i/n (1-based, e.g. -Dshard=2/4).
+ *
+ * Runs after {@link SuitePlanner}: every method the suite would run is given
+ * to one shard, balanced by expected duration from {@link DurationHistory}
+ * (the method's mean plus its share of the class set-up overhead) rather than
+ * by count. Partitioning is longest-first onto the least-loaded shard, with
+ * ties broken by method name and shard number, so every shard computes the
+ * same assignment from the same inputs. Methods linked by dependsOnMethods stay
+ * together. All shards must therefore see the same history file; the plan
+ * fingerprint in each shard's report shows whether they did. Sharded runs do
+ * not update the history, so shards run one after another still agree; it is
+ * refreshed by unsharded runs.
+ *
+ * Each shard writes shardReportDir/shard-i-of-n.json with the predicted load
+ * of every shard and its own actual wall time; {@link ShardReport} combines
+ * the files into a skew report. Allure results need no merging beyond copying
+ * the shards' allure-results directories together; with the "shard" Maven
+ * profile (activated by -Dshard) each shard writes its own JaCoCo exec file
+ * and surefire reports, ready for jacoco:merge.
+ *
+ * Configuration (config.properties):
+ * - shard: i/n, empty = run everything (default: empty)
+ * - shardReportDir (default: target/shard-reports)
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public class ShardPlanner implements IAlterSuiteListener, ISuiteListener {
+
+    private static final Logger logger = LogManager.getLogger(ShardPlanner.class);
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final Pattern SHARD = Pattern.compile("^\\s*(\\d+)\\s*/\\s*(\\d+)\\s*$");
+
+    private final Map<String, ShardResult> plans = new HashMap<>();
+    private final Map<String, Long> suiteStarts = new HashMap<>();
+
+    // ---------------------------------------------------------
+    // PARTITIONING
+    // ---------------------------------------------------------
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        int[] shard = parseShard(ConfigReader.get("shard", ""));
+        if (shard == null) {
+            return;
+        }
+        for (XmlSuite suite : suites) {
+            plans.put(suite.getName(), partition(suite, shard[0], shard[1]));
+        }
+    }
+
+    /**
+     * @param value "i/n" with 1 &lt;= i &lt;= n, or empty
+     * @return {i, n}, or null for empty
+     * @throws IllegalStateException if the value is malformed
+     */
+    static int[] parseShard(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        Matcher matcher = SHARD.matcher(value);
+        if (!matcher.matches()) {
+            throw new IllegalStateException("Invalid shard '" + value + "' - expected i/n, e.g. -Dshard=2/4");
+        }
+        int index = Integer.parseInt(matcher.group(1));
+        int count = Integer.parseInt(matcher.group(2));
+        if (count < 1 || index < 1 || index > count) {
+            throw new IllegalStateException("Invalid shard '" + value + "' - index must be between 1 and " + count);
+        }
+        return new int[]{index, count};
+    }
+
+    private ShardResult partition(XmlSuite suite, int index, int count) {
+        DurationHistory history = DurationHistory.shared();
+
+        // Selected methods per block, and how many selected methods each class has suite-wide
+        Map<XmlTest, Map<Class<?>, List<Method>>> selected = new LinkedHashMap<>();
+        Map<Class<?>, Set<String>> classMethods = new HashMap<>();
+        for (XmlTest block : suite.getTests()) {
+            Map<Class<?>, List<Method>> methods = SuitePlanner.selectedMethods(block);
+            selected.put(block, methods);
+            methods.forEach((testClass, list) -> list.forEach(method ->
+                    classMethods.computeIfAbsent(testClass, c -> new LinkedHashSet<>()).add(method.getName())));
+        }
+
+        // Units: a method plus everything it depends on, merged when they overlap
+        Map<String, Unit> unitOf = new HashMap<>();
+        for (Map<Class<?>, List<Method>> methods : selected.values()) {
+            for (Map.Entry<Class<?>, List<Method>> entry : methods.entrySet()) {
+                Class<?> testClass = entry.getKey();
+                long overheadShare = history.estimateClassOverhead(testClass.getName())
+                        / Math.max(1, classMethods.get(testClass).size());
+                for (Method method : entry.getValue()) {
+                    Set<Method> closure = new LinkedHashSet<>();
+                    closure.add(method);
+                    SuitePlanner.addMethodDependencies(testClass, closure);
+                    Unit unit = new Unit();
+                    for (Method member : closure) {
+                        String key = testClass.getName() + "#" + member.getName();
+                        Unit existing = unitOf.get(key);
+                        if (existing != null && existing != unit) {
+                            unit = merge(existing, unit, unitOf);
+                        }
+                        if (unit.keys.add(key)) {
+                            unitOf.put(key, unit);
+                        }
+                    }
+                    unit.millis += history.estimateMethod(testClass.getName() + "#" + method.getName()) + overheadShare;
+                }
+            }
+        }
+
+        List<Unit> units = new ArrayList<>(new LinkedHashSet<>(unitOf.values()));
+        units.sort(Comparator.comparingLong((Unit unit) -> unit.millis).reversed()
+                .thenComparing(Unit::firstKey));
+        long[] loads = new long[count];
+        Map<String, Integer> assignment = new TreeMap<>();
+        for (Unit unit : units) {
+            int target = 0;
+            for (int i = 1; i < count; i++) {
+                if (loads[i] < loads[target]) {
+                    target = i;
+                }
+            }
+            loads[target] += unit.millis;
+            for (String key : unit.keys) {
+                assignment.put(key, target + 1);
+            }
+        }
+
+        // Keep only this shard's methods in each block
+        List<XmlTest> emptyBlocks = new ArrayList<>();
+        int methodCount = 0;
+        for (Map.Entry<XmlTest, Map<Class<?>, List<Method>>> entry : selected.entrySet()) {
+            Map<Class<?>, List<Method>> mine = new LinkedHashMap<>();
+            entry.getValue().forEach((testClass, methods) -> methods.forEach(method -> {
+                if (Integer.valueOf(index).equals(assignment.get(testClass.getName() + "#" + method.getName()))) {
+                    mine.computeIfAbsent(testClass, c -> new ArrayList<>()).add(method);
+                }
+            }));
+            if (mine.isEmpty()) {
+                emptyBlocks.add(entry.getKey());
+            } else {
+                SuitePlanner.rewrite(entry.getKey(), mine);
+                methodCount += mine.values().stream().mapToInt(List::size).sum();
+            }
+        }
+        suite.getTests().removeAll(emptyBlocks);
+
+        ShardResult result = new ShardResult();
+        result.setShard(index + "/" + count);
+        result.setFingerprint(fingerprint(assignment, units));
+        result.setMethodCount(methodCount);
+        List<Long> predicted = new ArrayList<>();
+        for (long load : loads) {
+            predicted.add(load);
+        }
+        result.setPredictedMillis(predicted);
+        List<String> methods = new ArrayList<>();
+        assignment.forEach((key, shard) -> {
+            if (shard == index) {
+                methods.add(key);
+            }
+        });
+        result.setMethods(methods);
+
+        logger.info("Shard {}/{} of '{}': {} methods, predicted {} (shards {}, predicted skew {}), plan {}",
+                index, count, suite.getName(), methodCount, DurationScheduler.formatMillis(loads[index - 1]),
+                formatLoads(predicted), formatSkew(predicted), result.getFingerprint());
+        return result;
+    }
+
+    private static Unit merge(Unit into, Unit from, Map<String, Unit> unitOf) {
+        for (String key : from.keys) {
+            into.keys.add(key);
+            unitOf.put(key, into);
+        }
+        into.millis += from.millis;
+        return into;
+    }
+
+    /**
+     * Short hash of the inputs and result of the partitioning, equal on every shard of a consistent run.
+     */
+    private static String fingerprint(Map<String, Integer> assignment, List<Unit> units) {
+        StringBuilder text = new StringBuilder();
+        assignment.forEach((key, shard) -> text.append(key).append('=').append(shard).append('\n'));
+        for (Unit unit : units) {
+            text.append(unit.millis).append('\n');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 6; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // ---------------------------------------------------------
+    // REPORTING
+    // ---------------------------------------------------------
+
+    @Override
+    public void onStart(ISuite suite) {
+        suiteStarts.put(suite.getName(), System.currentTimeMillis());
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        ShardResult result = plans.get(suite.getName());
+        Long start = suiteStarts.get(suite.getName());
+        if (result == null || start == null) {
+            return;
+        }
+        result.setActualMillis(System.currentTimeMillis() - start);
+        int index = Integer.parseInt(result.getShard().substring(0, result.getShard().indexOf('/')));
+        long predicted = result.getPredictedMillis().get(index - 1);
+        logger.info("Shard {} finished in {} (predicted {})", result.getShard(),
+                DurationScheduler.formatMillis(result.getActualMillis()), DurationScheduler.formatMillis(predicted));
+
+        Path file = Paths.get(ConfigReader.get("shardReportDir", "target/shard-reports"),
+                "shard-" + result.getShard().replace("/", "-of-") + ".json");
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            mapper.writeValue(file.toFile(), result);
+            logger.info("Shard report written to {}", file);
+        } catch (IOException e) {
+            logger.warn("Failed to write shard report {}: {}", file, e.getMessage());
+        }
+    }
+
+    static String formatLoads(List<Long> loads) {
+        List<String> parts = new ArrayList<>();
+        for (long load : loads) {
+            parts.add(DurationScheduler.formatMillis(load));
+        }
+        return String.join(" / ", parts);
+    }
+
+    /**
+     * @return slowest shard over the mean, e.g. "1.08x"
+     */
+    static String formatSkew(List<Long> loads) {
+        long max = 0;
+        long sum = 0;
+        for (long load : loads) {
+            max = Math.max(max, load);
+            sum += load;
+        }
+        double mean = loads.isEmpty() ? 0 : (double) sum / loads.size();
+        return mean == 0 ? "n/a" : String.format(Locale.ROOT, "%.2fx", max / mean);
+    }
+
+    // ---------------------------------------------------------
+    // MODEL
+    // ---------------------------------------------------------
+
+    /**
+     * Methods that must run in the same shard.
+     */
+    private static final class Unit {
+        final Set<String> keys = new LinkedHashSet<>();
+        long millis;
+
+        String firstKey() {
+            return keys.stream().min(String::compareTo).orElse("");
+        }
+    }
+
+    /**
+     * JSON form of one shard's plan and outcome.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class ShardResult {
+        private String shard;
+        private String fingerprint;
+        private int methodCount;
+        private List<Long> predictedMillis = new ArrayList<>();
+        private long actualMillis;
+        private List<String> methods = new ArrayList<>();
+
+        public String getShard() {
+            return shard;
+        }
+
+        public void setShard(String shard) {
+            this.shard = shard;
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public void setFingerprint(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        public int getMethodCount() {
+            return methodCount;
+        }
+
+        public void setMethodCount(int methodCount) {
+            this.methodCount = methodCount;
+        }
+
+        public List<Long> getPredictedMillis() {
+            return predictedMillis;
+        }
+
+        public void setPredictedMillis(List<Long> predictedMillis) {
+            this.predictedMillis = predictedMillis;
+        }
+
+        public long getActualMillis() {
+            return actualMillis;
+        }
+
+        public void setActualMillis(long actualMillis) {
+            this.actualMillis = actualMillis;
+        }
+
+        public List<String> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(List<String> methods) {
+            this.methods = methods;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package listeners;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Combines the shard-*.json files written by {@link ShardPlanner} into a skew report.
+ *
+ * Run after collecting every shard's report into one directory:
+ * <pre>
+ * java -cp target/test-classes:&lt;test classpath&gt; listeners.ShardReport target/shard-reports
+ * </pre>
+ * Prints predicted and actual time per shard, the skew (slowest shard over the
+ * mean) for both, and flags shards that used a different plan or are missing.
+ * Exits with status 1 when the shards' plans disagree, since that means some
+ * tests ran twice or not at all.
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public final class ShardReport {
+
+    private ShardReport() {
+        throw new IllegalStateException("Utility class - cannot be instantiated");
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Paths.get(args.length > 0 ? args[0] : "target/shard-reports");
+        List<ShardPlanner.ShardResult> results = read(directory);
+        if (results.isEmpty()) {
+            System.out.println("No shard reports found in " + directory);
+            return;
+        }
+        System.out.println(format(results));
+        if (!consistent(results)) {
+            System.exit(1);
+        }
+    }
+
+    static List<ShardPlanner.ShardResult> read(Path directory) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        List<ShardPlanner.ShardResult> results = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return results;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "shard-*.json")) {
+            for (Path file : files) {
+                results.add(mapper.readValue(file.toFile(), ShardPlanner.ShardResult.class));
+            }
+        }
+        results.sort(Comparator.comparingInt(ShardReport::index));
+        return results;
+    }
+
+    static String format(List<ShardPlanner.ShardResult> results) {
+        StringBuilder report = new StringBuilder("Shard report\n");
+        List<Long> predicted = new ArrayList<>();
+        List<Long> actual = new ArrayList<>();
+        for (ShardPlanner.ShardResult result : results) {
+            long shardPredicted = result.getPredictedMillis().get(index(result) - 1);
+            predicted.add(shardPredicted);
+            actual.add(result.getActualMillis());
+            report.append(String.format("  shard %-6s %4d methods  predicted %8s  actual %8s  plan %s%n",
+                    result.getShard(), result.getMethodCount(), DurationScheduler.formatMillis(shardPredicted),
+                    DurationScheduler.formatMillis(result.getActualMillis()), result.getFingerprint()));
+        }
+        report.append("  skew (slowest / mean): predicted ").append(ShardPlanner.formatSkew(predicted))
+                .append(", actual ").append(ShardPlanner.formatSkew(actual)).append('\n');
+
+        int count = count(results.get(0));
+        Set<Integer> present = new HashSet<>();
+        for (ShardPlanner.ShardResult result : results) {
+            present.add(index(result));
+        }
+        for (int i = 1; i <= count; i++) {
+            if (!present.contains(i)) {
+                report.append("  MISSING: no report for shard ").append(i).append('/').append(count).append('\n');
+            }
+        }
+        if (!consistent(results)) {
+            report.append("  INCONSISTENT: shards used different plans - check that all shards share the same "
+                    + "duration history and test selection\n");
+        }
+        return report.toString();
+    }
+
+    static boolean consistent(List<ShardPlanner.ShardResult> results) {
+        Set<String> fingerprints = new HashSet<>();
+        Set<Integer> counts = new HashSet<>();
+        for (ShardPlanner.ShardResult result : results) {
+            fingerprints.add(result.getFingerprint());
+            counts.add(count(result));
+        }
+        return fingerprints.size() == 1 && counts.size() == 1;
+    }
+
+    private static int index(ShardPlanner.ShardResult result) {
+        return Integer.parseInt(result.getShard().substring(0, result.getShard().indexOf('/')));
+    }
+
+    private static int count(ShardPlanner.ShardResult result) {
+        return Integer.parseInt(result.getShard().substring(result.getShard().indexOf('/') + 1));
+    }
+}
@@ -0,0 +1,367 @@
+package listeners;
+
+import io.qameta.allure.Allure;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IAlterSuiteListener;
+import org.testng.ITestResult;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlPackage;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import utils.ConfigReader;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs each test method once per suite, even when several &lt;test&gt; blocks select it.
+ *
+ * The blocks in testng.xml (Smoke, UI, Regression, Critical, E2E, ...) scan the
+ * same packages with overlapping groups, so a method tagged smoke, regression,
+ * ui, cart and critical used to run five times. Before the run starts this
+ * listener evaluates every block's selection the way TestNG does (classes and
+ * packages, included/excluded groups, including class-level &#64;Test groups,
+ * and per-class include/exclude lists), gives each method to the selecting
+ * block that runs the most threads (the first of them when tied), and rewrites
+ * each block as an explicit list of the methods it owns. Preferring parallel
+ * blocks keeps de-duplication from moving methods out of the one parallel
+ * block into sequential ones. Blocks left with nothing to run are dropped.
+ * Group filters stay in place, so configuration methods behave as before. The
+ * plan is logged per block with its parallelism, and how many runs land in
+ * parallel blocks.
+ *
+ * Every block that selected a method is still credited: {@link #attribute}
+ * tags the test in Allure with each of them and stores the list as the
+ * "selectedBy" result attribute.
+ *
+ * Exceptions:
+ * - dependsOnMethods targets also run in the dependent's block, since TestNG
+ *   resolves dependencies within a &lt;test&gt;
+ * - classes using dependsOnGroups are not de-duplicated
+ *
+ * Configuration (config.properties):
+ * - suiteDedup (default: true)
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public class SuitePlanner implements IAlterSuiteListener {
+
+    private static final Logger logger = LogManager.getLogger(SuitePlanner.class);
+
+    /** "fully.qualified.Class#method" to the names of every block that selected it. */
+    private static final Map<String, List<String>> selections = new ConcurrentHashMap<>();
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        if (!ConfigReader.getBoolean("suiteDedup", true)) {
+            logger.info("Suite de-duplication disabled (suiteDedup=false)");
+            return;
+        }
+        for (XmlSuite suite : suites) {
+            plan(suite);
+        }
+    }
+
+    /**
+     * Tags a running test with every block that selected it. Called from TestListener.
+     *
+     * @param result test about to run
+     */
+    public static void attribute(ITestResult result) {
+        List<String> blocks = selections.get(key(result.getMethod().getRealClass(), result.getMethod().getMethodName()));
+        if (blocks == null || blocks.size() < 2) {
+            return;
+        }
+        result.setAttribute("selectedBy", blocks);
+        for (String block : blocks) {
+            Allure.label("tag", block);
+        }
+    }
+
+    /**
+     * @param className  fully qualified class name
+     * @param methodName test method name
+     * @return names of the blocks that selected the method, in suite order; empty if none
+     */
+    public static List<String> getSelectingBlocks(String className, String methodName) {
+        return selections.getOrDefault(className + "#" + methodName, Collections.emptyList());
+    }
+
+    // ---------------------------------------------------------
+    // PLANNING
+    // ---------------------------------------------------------
+
+    private void plan(XmlSuite suite) {
+        Map<XmlTest, Map<Class<?>, List<Method>>> candidates = new LinkedHashMap<>();
+        Map<String, XmlTest> owners = new LinkedHashMap<>();
+        int selected = 0;
+
+        for (XmlTest block : suite.getTests()) {
+            Map<Class<?>, List<Method>> blockCandidates = selectedMethods(block);
+            candidates.put(block, blockCandidates);
+            for (Map.Entry<Class<?>, List<Method>> entry : blockCandidates.entrySet()) {
+                for (Method method : entry.getValue()) {
+                    String key = key(entry.getKey(), method.getName());
+                    selections.computeIfAbsent(key, k -> new ArrayList<>()).add(block.getName());
+                    selected++;
+                    owners.merge(key, block, (current, next) -> threads(next) > threads(current) ? next : current);
+                }
+            }
+        }
+
+        List<XmlTest> emptyBlocks = new ArrayList<>();
+        int totalRuns = 0;
+        int parallelRuns = 0;
+        for (Map.Entry<XmlTest, Map<Class<?>, List<Method>>> blockEntry : candidates.entrySet()) {
+            XmlTest block = blockEntry.getKey();
+            Map<Class<?>, Set<Method>> owned = new LinkedHashMap<>();
+            int blockSelected = 0;
+
+            for (Map.Entry<Class<?>, List<Method>> entry : blockEntry.getValue().entrySet()) {
+                Class<?> testClass = entry.getKey();
+                boolean keepAll = usesGroupDependencies(testClass);
+                for (Method method : entry.getValue()) {
+                    blockSelected++;
+                    if (keepAll || owners.get(key(testClass, method.getName())) == block) {
+                        owned.computeIfAbsent(testClass, c -> new LinkedHashSet<>()).add(method);
+                    }
+                }
+            }
+            for (Map.Entry<Class<?>, Set<Method>> entry : owned.entrySet()) {
+                addMethodDependencies(entry.getKey(), entry.getValue());
+            }
+
+            int runs = owned.values().stream().mapToInt(Set::size).sum();
+            totalRuns += runs;
+            if (threads(block) > 1) {
+                parallelRuns += runs;
+            }
+            logger.info("Suite plan - '{}': runs {} of the {} methods it selects ({})", block.getName(), runs,
+                    blockSelected, threads(block) > 1
+                            ? "parallel " + block.getParallel() + ", " + threads(block) + " threads" : "sequential");
+            if (runs == 0) {
+                emptyBlocks.add(block);
+            } else {
+                rewrite(block, owned);
+            }
+        }
+
+        suite.getTests().removeAll(emptyBlocks);
+        int unique = owners.size();
+        logger.info("Suite plan - '{}': {} selections, {} unique methods; {} duplicate runs removed{}",
+                suite.getName(), selected, unique, selected - unique,
+                emptyBlocks.isEmpty() ? "" : ", " + emptyBlocks.size() + " block(s) left with nothing to run");
+        logger.info("Suite plan - '{}': {} of {} runs in parallel blocks", suite.getName(), parallelRuns, totalRuns);
+    }
+
+    /**
+     * @return threads a block runs its methods on: its thread-count when it runs
+     *         classes, methods or instances in parallel, otherwise 1
+     */
+    static int threads(XmlTest block) {
+        XmlSuite.ParallelMode mode = block.getParallel();
+        if (mode == null || !mode.isParallel() || mode == XmlSuite.ParallelMode.TESTS) {
+            return 1;
+        }
+        return Math.max(1, block.getThreadCount());
+    }
+
+    /**
+     * Replaces a block's packages and classes with an explicit include list.
+     */
+    static void rewrite(XmlTest block, Map<Class<?>, ? extends Collection<Method>> owned) {
+        List<XmlClass> classes = new ArrayList<>();
+        for (Map.Entry<Class<?>, ? extends Collection<Method>> entry : owned.entrySet()) {
+            XmlClass xmlClass = new XmlClass(entry.getKey().getName(), false);
+            List<Method> methods = new ArrayList<>(entry.getValue());
+            // TestNG's own order: priority, then name
+            methods.sort(Comparator.comparingInt((Method method) -> testAnnotation(entry.getKey(), method).priority())
+                    .thenComparing(Method::getName));
+            List<XmlInclude> includes = new ArrayList<>();
+            for (Method method : methods) {
+                includes.add(new XmlInclude(method.getName(), includes.size()));
+            }
+            xmlClass.setIncludedMethods(includes);
+            xmlClass.setIndex(classes.size());
+            classes.add(xmlClass);
+        }
+        block.setXmlPackages(new ArrayList<>());
+        block.setXmlClasses(classes);
+    }
+
+    /**
+     * Test methods a block selects, per class, in class order.
+     */
+    public static Map<Class<?>, List<Method>> selectedMethods(XmlTest block) {
+        List<XmlClass> xmlClasses = new ArrayList<>(block.getXmlClasses());
+        for (XmlPackage xmlPackage : block.getXmlPackages()) {
+            xmlClasses.addAll(xmlPackage.getXmlClasses());
+        }
+        List<String> includedGroups = block.getIncludedGroups();
+        List<String> excludedGroups = block.getExcludedGroups();
+
+        Map<Class<?>, List<Method>> selected = new LinkedHashMap<>();
+        for (XmlClass xmlClass : xmlClasses) {
+            Class<?> testClass = load(xmlClass.getName());
+            if (testClass == null || Modifier.isAbstract(testClass.getModifiers())) {
+                continue;
+            }
+            Set<String> includedMethods = new HashSet<>();
+            for (XmlInclude include : xmlClass.getIncludedMethods()) {
+                includedMethods.add(include.getName());
+            }
+            for (Method method : testMethods(testClass)) {
+                if (!includedMethods.isEmpty() && !matchesAny(method.getName(), includedMethods)) {
+                    continue;
+                }
+                if (matchesAny(method.getName(), xmlClass.getExcludedMethods())) {
+                    continue;
+                }
+                Set<String> groups = groups(testClass, method);
+                boolean included = includedGroups.isEmpty() || intersects(groups, includedGroups);
+                if (included && !intersects(groups, excludedGroups)) {
+                    selected.computeIfAbsent(testClass, c -> new ArrayList<>()).add(method);
+                }
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Adds, transitively, the same-class methods named in dependsOnMethods.
+     */
+    public static void addMethodDependencies(Class<?> testClass, Set<Method> methods) {
+        Map<String, Method> byName = new LinkedHashMap<>();
+        for (Method method : testMethods(testClass)) {
+            byName.put(method.getName(), method);
+        }
+        List<Method> pending = new ArrayList<>(methods);
+        while (!pending.isEmpty()) {
+            Method method = pending.remove(pending.size() - 1);
+            for (String dependency : testAnnotation(testClass, method).dependsOnMethods()) {
+                String name = dependency.substring(dependency.lastIndexOf('.') + 1);
+                for (Map.Entry<String, Method> candidate : byName.entrySet()) {
+                    if (candidate.getKey().matches(name) && methods.add(candidate.getValue())) {
+                        pending.add(candidate.getValue());
+                    }
+                }
+            }
+        }
+    }
+
+    // ---------------------------------------------------------
+    // HELPERS
+    // ---------------------------------------------------------
+
+    private static List<Method> testMethods(Class<?> testClass) {
+        boolean classLevelTest = classAnnotation(testClass) != null;
+        List<Method> methods = new ArrayList<>();
+        for (Method method : testClass.getMethods()) {
+            if (method.getDeclaringClass() == Object.class) {
+                continue;
+            }
+            Test test = method.getAnnotation(Test.class);
+            if ((test != null && test.enabled()) || (test == null && classLevelTest && !isConfiguration(method))) {
+                methods.add(method);
+            }
+        }
+        return methods;
+    }
+
+    private static boolean isConfiguration(Method method) {
+        return Arrays.stream(method.getAnnotations())
+                .anyMatch(annotation -> annotation.annotationType().getPackage().getName().equals("org.testng.annotations")
+                        && annotation.annotationType() != Test.class);
+    }
+
+    private static Set<String> groups(Class<?> testClass, Method method) {
+        Set<String> groups = new HashSet<>();
+        Test test = method.getAnnotation(Test.class);
+        if (test != null) {
+            groups.addAll(Arrays.asList(test.groups()));
+        }
+        Test classTest = classAnnotation(testClass);
+        if (classTest != null) {
+            groups.addAll(Arrays.asList(classTest.groups()));
+        }
+        return groups;
+    }
+
+    /**
+     * @return true if the class or any of its test methods uses dependsOnGroups
+     */
+    public static boolean usesGroupDependencies(Class<?> testClass) {
+        for (Method method : testMethods(testClass)) {
+            if (testAnnotation(testClass, method).dependsOnGroups().length > 0) {
+                return true;
+            }
+        }
+        Test classTest = classAnnotation(testClass);
+        return classTest != null && classTest.dependsOnGroups().length > 0;
+    }
+
+    private static Test testAnnotation(Class<?> testClass, Method method) {
+        Test test = method.getAnnotation(Test.class);
+        return test != null ? test : classAnnotation(testClass);
+    }
+
+    private static Test classAnnotation(Class<?> testClass) {
+        for (Class<?> type = testClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            Test test = type.getAnnotation(Test.class);
+            if (test != null) {
+                return test;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * TestNG treats group and method names in testng.xml as regular expressions.
+     */
+    private static boolean intersects(Set<String> groups, List<String> patterns) {
+        for (String group : groups) {
+            if (matchesAny(group, patterns)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchesAny(String name, Collection<String> patterns) {
+        for (String pattern : patterns) {
+            if (name.equals(pattern) || name.matches(pattern)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Class<?> load(String className) {
+        try {
+            return Class.forName(className, false, Thread.currentThread().getContextClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            logger.warn("Suite plan - cannot load {}: {}", className, e.getMessage());
+            return null;
+        }
+    }
+
+    private static String key(Class<?> testClass, String methodName) {
+        return testClass.getName() + "#" + methodName;
+    }
+}
@@ -1,5 +1,8 @@
 package listeners;
 
+import api.base.ApiConnectionPool;
+import api.utils.ApiExchangeLog;
+import api.utils.ParsedResponse;
 import drivers.DriverFactory;
 import io.qameta.allure.Allure;
 import org.apache.logging.log4j.LogManager;
@@ -7,13 +10,23 @@ import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.testng.*;
+import proxy.FaultInjectionProxy;
+import proxy.InjectFaults;
+import utils.InteractionTimeline;
 
 import java.io.ByteArrayInputStream;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
-public class TestListener implements ITestListener, ISuiteListener {
+public class TestListener implements ITestListener, ISuiteListener, IConfigurationListener {
 
     private static final Logger logger = LogManager.getLogger(TestListener.class);
 
+    /** Test this thread is running, from its first @BeforeMethod to its last @AfterMethod. */
+    private static final ThreadLocal<TestScope> currentTest = new ThreadLocal<>();
+    /** Scopes not yet ended, so the ones left open by an aborted test can be ended with the test set. */
+    private static final Set<TestScope> openScopes = ConcurrentHashMap.newKeySet();
+
     // ===============================
     // SUITE LEVEL LOGGING
     // ===============================
@@ -24,6 +37,9 @@ public class TestListener implements ITestListener, ISuiteListener {
 
     @Override
     public void onFinish(ISuite suite) {
+        if (ApiConnectionPool.isStarted()) {
+            logger.info("API connections: {}", ApiConnectionPool.getSummary());
+        }
         logger.info("===== TEST SUITE FINISHED: {} =====", suite.getName());
     }
 
@@ -31,15 +47,49 @@ public class TestListener implements ITestListener, ISuiteListener {
     // TEST LEVEL LOGGING
     // ===============================
 
+    /**
+     * Starts the test before its first @BeforeMethod, so interactions and
+     * faulted traffic during set-up (login, cart seeding) belong to the test.
+     * TestNG calls onTestStart only after the @BeforeMethod methods have run.
+     */
+    @Override
+    public void beforeConfiguration(ITestResult result, ITestNGMethod testMethod) {
+        if (testMethod != null && result.getMethod().isBeforeMethodConfiguration()) {
+            beginTest(testMethod);
+        }
+    }
+
+    @Override
+    public void onConfigurationSuccess(ITestResult result, ITestNGMethod testMethod) {
+        afterMethodDone(result, testMethod);
+    }
+
+    @Override
+    public void onConfigurationFailure(ITestResult result, ITestNGMethod testMethod) {
+        afterMethodDone(result, testMethod);
+    }
+
+    @Override
+    public void onConfigurationSkip(ITestResult result, ITestNGMethod testMethod) {
+        afterMethodDone(result, testMethod);
+    }
+
     @Override
     public void onTestStart(ITestResult result) {
         logger.info("▶ STARTING TEST: {}", result.getMethod().getMethodName());
+        beginTest(result.getMethod());
+        SuitePlanner.attribute(result);
         Allure.step("🚀 Test Started: " + result.getMethod().getMethodName());
     }
 
     @Override
     public void onTestSuccess(ITestResult result) {
         logger.info("✅ TEST PASSED: {}", result.getMethod().getMethodName());
+        InteractionTimeline.attachToAllure(result.getMethod().getMethodName());
+        ApiExchangeLog.reset();
+        ParsedResponse.release();
+        reportInjectedFaults(result);
+        testEnded(result);
         Allure.step("🟢 Test Passed");
     }
 
@@ -55,6 +105,15 @@ public class TestListener implements ITestListener, ISuiteListener {
                 result.getThrowable().toString()
         );
 
+        // ===== INTERACTION TIMELINE =====
+        InteractionTimeline.attachToAllure(result.getMethod().getMethodName());
+
+        // ===== API REQUESTS AND RESPONSES =====
+        ApiExchangeLog.emit(result.getMethod().getMethodName());
+        ParsedResponse.release();
+        reportInjectedFaults(result);
+        testEnded(result);
+
         // ===== SCREENSHOT =====
         try {
             byte[] screenshot = ((TakesScreenshot) DriverFactory.getDriver())
@@ -71,6 +130,11 @@ public class TestListener implements ITestListener, ISuiteListener {
     @Override
     public void onTestSkipped(ITestResult result) {
         logger.warn("⚠ TEST SKIPPED: {}", result.getMethod().getMethodName());
+        InteractionTimeline.attachToAllure(result.getMethod().getMethodName());
+        ApiExchangeLog.reset();
+        ParsedResponse.release();
+        reportInjectedFaults(result);
+        testEnded(result);
         Allure.step("🟡 Test Skipped");
     }
 
@@ -84,6 +148,110 @@ public class TestListener implements ITestListener, ISuiteListener {
 
     @Override
     public void onFinish(ITestContext context) {
+        for (TestScope scope : openScopes) {
+            scope.end();
+        }
         logger.info("🏁 FINISHED TEST SET: {}", context.getName());
     }
+
+    // ===============================
+    // TEST SCOPE
+    // ===============================
+
+    /**
+     * Enters a test once per run (a retry starts again): clears the interaction
+     * timeline and API exchange log, and takes the fault proxy for its profile.
+     */
+    private void beginTest(ITestNGMethod testMethod) {
+        TestScope scope = currentTest.get();
+        if (scope != null && scope.testMethod == testMethod && !scope.resulted) {
+            return;
+        }
+        if (scope != null) {
+            scope.end();
+        }
+        InteractionTimeline.reset();
+        ApiExchangeLog.reset();
+        currentTest.set(new TestScope(testMethod));
+    }
+
+    /**
+     * The test has its result; its scope ends now, or after its @AfterMethod methods if it has any.
+     */
+    private void testEnded(ITestResult result) {
+        TestScope scope = currentTest.get();
+        if (scope == null || scope.testMethod != result.getMethod()) {
+            return;
+        }
+        scope.resulted = true;
+        if (scope.afterMethodsLeft <= 0) {
+            scope.end();
+            currentTest.remove();
+        }
+    }
+
+    private void afterMethodDone(ITestResult result, ITestNGMethod testMethod) {
+        TestScope scope = currentTest.get();
+        if (scope == null || testMethod == null || scope.testMethod != testMethod
+                || !result.getMethod().isAfterMethodConfiguration()) {
+            return;
+        }
+        if (--scope.afterMethodsLeft <= 0 && scope.resulted) {
+            scope.end();
+            currentTest.remove();
+        }
+    }
+
+    // ===============================
+    // FAULT INJECTION
+    // ===============================
+
+    /**
+     * Attaches what the test's fault profile injected so far.
+     */
+    private void reportInjectedFaults(ITestResult result) {
+        if (findInjectFaults(result.getMethod()) == null || !FaultInjectionProxy.isRunning()) {
+            return;
+        }
+        Allure.addAttachment("Injected Faults", "text/plain", FaultInjectionProxy.getSummary());
+        logger.info("Injected faults: {}", FaultInjectionProxy.getSummary());
+    }
+
+    private static InjectFaults findInjectFaults(ITestNGMethod method) {
+        InjectFaults faults = method.getConstructorOrMethod().getMethod().getAnnotation(InjectFaults.class);
+        Class<?> testClass = method.getRealClass();
+        return faults != null ? faults : testClass.getAnnotation(InjectFaults.class);
+    }
+
+    /**
+     * One run of a test: its fault profile (declared with @InjectFaults on the
+     * method or class), the fault proxy permits it holds, and the @AfterMethod
+     * methods still to run before they are handed back.
+     */
+    private static final class TestScope {
+        private final ITestNGMethod testMethod;
+        private final String profile;
+        private final int permits;
+        private int afterMethodsLeft;
+        private boolean resulted;
+        private boolean ended;
+
+        private TestScope(ITestNGMethod testMethod) {
+            this.testMethod = testMethod;
+            InjectFaults faults = findInjectFaults(testMethod);
+            this.profile = faults == null ? null : faults.value();
+            this.afterMethodsLeft = testMethod.getTestClass().getAfterTestMethods().length;
+            this.permits = FaultInjectionProxy.beginTest(profile);
+            openScopes.add(this);
+        }
+
+        private synchronized void end() {
+            if (ended) {
+                return;
+            }
+            ended = true;
+            openScopes.remove(this);
+            FaultInjectionProxy.endTest(profile, permits);
+        }
+    }
 }
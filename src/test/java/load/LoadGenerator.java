@@ -0,0 +1,422 @@
+package load;
+
+import api.utils.ApiExchangeLog;
+import io.restassured.response.Response;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import stub.DemoWebShopStub;
+import stub.UserApiStub;
+import utils.ConfigReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for the API endpoints of a {@link LoadScenario}.
+ *
+ * Requests arrive at a fixed target rate (loadArrival=constant) or as a
+ * Poisson process with that mean rate (loadArrival=poisson), however slowly
+ * the system answers: arrivals are scheduled up front and handed to a pool of
+ * loadVirtualUsers virtual users. The users run on virtual threads when the
+ * JVM has them (Java 21+) and on platform threads otherwise. When every user
+ * is busy, arrivals queue until one is free.
+ *
+ * Latency is measured from each request's scheduled arrival time, not from
+ * when a user got round to sending it. Time spent queued behind a slow system
+ * therefore counts, which corrects for coordinated omission. The service time
+ * (send to response) is recorded too and reported as the uncorrected p99, to
+ * show how much the correction adds. Both go into {@link LatencyHistogram}s
+ * per endpoint. Responses with status 400 or above and exceptions count as
+ * errors.
+ *
+ * Before the schedule starts, each endpoint is called once untimed, so class
+ * loading and connection set-up (seconds for RestAssured's first request) do
+ * not land on the first arrivals. A run in which every virtual user was busy
+ * at once is flagged as saturated in the report: its latencies then include
+ * time queued inside the generator, not only the server's.
+ *
+ * Run from the command line (e.g. offline against the stub):
+ * <pre>
+ *     java -DuserApiStub=true -DloadRate=200 -DloadDurationSeconds=20 ... load.LoadGenerator
+ * </pre>
+ * The percentile report is logged and written to loadReportFile.
+ *
+ * Configuration (config.properties):
+ * - loadEndpoints: see {@link LoadScenario} (default: users-get,users-list,users-create)
+ * - loadRate: arrivals per second (default: 50)
+ * - loadDurationSeconds (default: 30)
+ * - loadArrival: constant | poisson (default: constant)
+ * - loadVirtualUsers (default: 200)
+ * - loadReportFile (default: target/load-report.txt)
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public final class LoadGenerator {
+
+    private static final Logger logger = LogManager.getLogger(LoadGenerator.class);
+    private static final String ALL = "all endpoints";
+
+    private final LoadScenario scenario;
+    private final double ratePerSecond;
+    private final long durationSeconds;
+    private final int virtualUsers;
+    private final boolean poisson;
+
+    /**
+     * @param arrival constant or poisson
+     */
+    public LoadGenerator(LoadScenario scenario, double ratePerSecond, long durationSeconds, int virtualUsers, String arrival) {
+        if (ratePerSecond <= 0 || durationSeconds <= 0 || virtualUsers <= 0) {
+            throw new IllegalStateException("Load rate, duration and virtual users must be positive");
+        }
+        if (!"constant".equalsIgnoreCase(arrival) && !"poisson".equalsIgnoreCase(arrival)) {
+            throw new IllegalStateException("Unknown loadArrival '" + arrival + "' - expected constant or poisson");
+        }
+        this.scenario = scenario;
+        this.ratePerSecond = ratePerSecond;
+        this.durationSeconds = durationSeconds;
+        this.virtualUsers = virtualUsers;
+        this.poisson = "poisson".equalsIgnoreCase(arrival);
+    }
+
+    public static LoadGenerator fromConfig(LoadScenario scenario) {
+        return new LoadGenerator(scenario, Double.parseDouble(ConfigReader.get("loadRate", "50")),
+                ConfigReader.getInt("loadDurationSeconds", 30), ConfigReader.getInt("loadVirtualUsers", 200),
+                ConfigReader.get("loadArrival", "constant"));
+    }
+
+    public static void main(String[] args) throws IOException {
+        UserApiStub.startIfConfigured();
+        DemoWebShopStub.startIfConfigured();
+        Report report = fromConfig(LoadScenario.fromConfig()).run();
+        Path file = Paths.get(ConfigReader.get("loadReportFile", "target/load-report.txt"));
+        report.write(file);
+        logger.info("Load report written to {}", file);
+        // The stubs' server threads are not daemons
+        System.exit(0);
+    }
+
+    // ---------------------------------------------------------
+    // RUNNING
+    // ---------------------------------------------------------
+
+    /**
+     * Runs the load for the configured duration, then waits (up to apiTimeout) for requests still in flight.
+     */
+    public Report run() {
+        Map<String, Stats> stats = new LinkedHashMap<>();
+        for (LoadScenario.Endpoint endpoint : scenario.getEndpoints()) {
+            stats.put(endpoint.getName(), new Stats(endpoint.getName()));
+        }
+        Stats all = new Stats(ALL);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peakInFlight = new AtomicInteger();
+
+        logger.info("Load: {} arrivals/s ({}) for {} s over {} with {} virtual users", ratePerSecond,
+                poisson ? "poisson" : "constant", durationSeconds, stats.keySet(), virtualUsers);
+        int warmups = warmUp();
+        ExecutorService users = virtualUsers(virtualUsers);
+        SplittableRandom random = new SplittableRandom();
+        double intervalNanos = 1_000_000_000.0 / ratePerSecond;
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+        double offset = 0;
+        long arrivals = 0;
+        while (true) {
+            long intended = start + (long) offset;
+            if (intended >= end) {
+                break;
+            }
+            waitUntil(intended);
+            LoadScenario.Endpoint endpoint = scenario.endpointFor(arrivals++);
+            Stats endpointStats = stats.get(endpoint.getName());
+            users.execute(() -> {
+                peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    call(endpoint, intended, endpointStats, all);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+            offset += poisson ? -Math.log(1 - random.nextDouble()) * intervalNanos : intervalNanos;
+        }
+
+        users.shutdown();
+        long unfinished = 0;
+        try {
+            if (!users.awaitTermination(ConfigReader.getInt("apiTimeout", 30) + 5L, TimeUnit.SECONDS)) {
+                unfinished = users.shutdownNow().size() + inFlight.get();
+                logger.warn("{} requests still queued or in flight after the drain timeout", unfinished);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            users.shutdownNow();
+        }
+        Report report = new Report(stats, all, arrivals, unfinished, peakInFlight.get(), System.nanoTime() - start,
+                ratePerSecond, virtualUsers, warmups);
+        logger.info("Load report:\n{}", report.toText());
+        return report;
+    }
+
+    /**
+     * Calls each endpoint once, untimed; failures are left for the timed run to report.
+     *
+     * @return requests sent
+     */
+    private int warmUp() {
+        long start = System.nanoTime();
+        for (LoadScenario.Endpoint endpoint : scenario.getEndpoints()) {
+            try {
+                endpoint.call();
+            } catch (RuntimeException e) {
+                logger.warn("Warm-up call to {} failed: {}", endpoint.getName(), e.getMessage());
+            } finally {
+                ApiExchangeLog.reset();
+            }
+        }
+        logger.info("Warmed up {} endpoints in {} ms", scenario.getEndpoints().size(),
+                (System.nanoTime() - start) / 1_000_000);
+        return scenario.getEndpoints().size();
+    }
+
+    private static void call(LoadScenario.Endpoint endpoint, long intended, Stats endpointStats, Stats all) {
+        long sent = System.nanoTime();
+        String error = null;
+        try {
+            Response response = endpoint.call();
+            if (response.getStatusCode() >= 400) {
+                error = "HTTP " + response.getStatusCode();
+            }
+        } catch (RuntimeException e) {
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        } finally {
+            // Load requests are not a test: nothing to keep for a failure report
+            ApiExchangeLog.reset();
+        }
+        long done = System.nanoTime();
+        endpointStats.record(intended, sent, done, error);
+        all.record(intended, sent, done, error);
+    }
+
+    private static void waitUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    /**
+     * Fixed pool of virtual users: virtual threads on Java 21+, platform threads before.
+     * Neither inherits the starting thread's inheritable thread-locals (e.g. the Allure test context).
+     */
+    private static ExecutorService virtualUsers(int count) {
+        ThreadFactory factory;
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "load-vu-", 1L);
+            builder = builderType.getMethod("inheritInheritableThreadLocals", boolean.class).invoke(builder, false);
+            factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            logger.info("Virtual users run on virtual threads");
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            AtomicInteger number = new AtomicInteger();
+            factory = task -> {
+                Thread thread = new Thread(null, task, "load-vu-" + number.incrementAndGet(), 0, false);
+                thread.setDaemon(true);
+                return thread;
+            };
+            logger.info("Virtual threads need Java 21 - virtual users run on platform threads");
+        }
+        return Executors.newFixedThreadPool(count, factory);
+    }
+
+    // ---------------------------------------------------------
+    // RESULTS
+    // ---------------------------------------------------------
+
+    /**
+     * Latencies and errors of one endpoint (or all of them).
+     */
+    public static final class Stats {
+        private final String name;
+        /** From scheduled arrival to response: corrected for coordinated omission. */
+        private final LatencyHistogram latency = new LatencyHistogram();
+        /** From send to response. */
+        private final LatencyHistogram serviceTime = new LatencyHistogram();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicReference<String> firstError = new AtomicReference<>();
+
+        Stats(String name) {
+            this.name = name;
+        }
+
+        void record(long intended, long sent, long done, String error) {
+            latency.record((done - intended) / 1000);
+            serviceTime.record((done - sent) / 1000);
+            if (error != null) {
+                errors.incrementAndGet();
+                firstError.compareAndSet(null, error);
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public LatencyHistogram getServiceTime() {
+            return serviceTime;
+        }
+
+        public long getCompleted() {
+            return latency.getCount();
+        }
+
+        public long getErrors() {
+            return errors.get();
+        }
+
+        public String getFirstError() {
+            return firstError.get();
+        }
+    }
+
+    /**
+     * Percentile report of a run.
+     */
+    public static final class Report {
+        private final Map<String, Stats> endpoints;
+        private final Stats all;
+        private final long arrivals;
+        private final long unfinished;
+        private final int peakInFlight;
+        private final long wallNanos;
+        private final double targetRate;
+        private final int virtualUsers;
+        private final int warmups;
+
+        Report(Map<String, Stats> endpoints, Stats all, long arrivals, long unfinished, int peakInFlight,
+               long wallNanos, double targetRate, int virtualUsers, int warmups) {
+            this.endpoints = Collections.unmodifiableMap(endpoints);
+            this.all = all;
+            this.arrivals = arrivals;
+            this.unfinished = unfinished;
+            this.peakInFlight = peakInFlight;
+            this.wallNanos = wallNanos;
+            this.targetRate = targetRate;
+            this.virtualUsers = virtualUsers;
+            this.warmups = warmups;
+        }
+
+        public Map<String, Stats> getEndpoints() {
+            return endpoints;
+        }
+
+        public Stats getAll() {
+            return all;
+        }
+
+        public long getArrivals() {
+            return arrivals;
+        }
+
+        public long getUnfinished() {
+            return unfinished;
+        }
+
+        public int getPeakInFlight() {
+            return peakInFlight;
+        }
+
+        /**
+         * @return untimed requests sent before the schedule started (not in arrivals)
+         */
+        public int getWarmups() {
+            return warmups;
+        }
+
+        /**
+         * @return true when every virtual user was busy at once: arrivals queued in the generator,
+         *         so the latencies measure the generator's capacity as much as the server's
+         */
+        public boolean isSaturated() {
+            return peakInFlight >= virtualUsers;
+        }
+
+        /**
+         * @return completed requests per second over the whole run, drain included
+         */
+        public double getThroughput(Stats stats) {
+            return stats.getCompleted() / (wallNanos / 1e9);
+        }
+
+        public String toText() {
+            StringBuilder text = new StringBuilder();
+            text.append(String.format(Locale.ROOT, "Target %.1f req/s, %d arrivals, %d unfinished, peak %d of %d in flight, %.1f s%n",
+                    targetRate, arrivals, unfinished, peakInFlight, virtualUsers, wallNanos / 1e9));
+            if (isSaturated()) {
+                text.append("SATURATED: all ").append(virtualUsers).append(" virtual users were busy and arrivals queued"
+                        + " in the generator - the percentiles below are not server latency\n");
+            }
+            text.append("Latency in ms from scheduled arrival (corrected for coordinated omission); p99 svc = send to response\n");
+            text.append(String.format(Locale.ROOT, "%-16s %8s %8s %7s %9s %9s %9s %9s %9s %9s %9s%n", "endpoint", "requests",
+                    "req/s", "errors", "p50", "p90", "p99", "p99.9", "max", "mean", "p99 svc"));
+            for (Stats stats : endpoints.values()) {
+                row(stats, text);
+            }
+            if (endpoints.size() > 1) {
+                row(all, text);
+            }
+            for (Stats stats : endpoints.values()) {
+                if (stats.getFirstError() != null) {
+                    text.append(stats.getName()).append(" first error: ").append(stats.getFirstError()).append('\n');
+                }
+            }
+            return text.toString();
+        }
+
+        private void row(Stats stats, StringBuilder text) {
+            LatencyHistogram latency = stats.getLatency();
+            long completed = stats.getCompleted();
+            text.append(String.format(Locale.ROOT, "%-16s %8d %8.1f %6.2f%% %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    stats.getName(), completed, getThroughput(stats),
+                    completed == 0 ? 0.0 : 100.0 * stats.getErrors() / completed,
+                    millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(90)),
+                    millis(latency.getValueAtPercentile(99)), millis(latency.getValueAtPercentile(99.9)),
+                    millis(latency.getMaxMicros()), latency.getMeanMicros() / 1000.0,
+                    millis(stats.getServiceTime().getValueAtPercentile(99))));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+
+        public void write(Path file) throws IOException {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.write(file, toText().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
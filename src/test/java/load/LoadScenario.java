@@ -0,0 +1,123 @@
+package load;
+
+import api.models.UserRequest;
+import api.utils.APIHelper;
+import io.restassured.response.Response;
+import utils.ConfigReader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * The endpoints a load run sends requests to, each a named call through {@link APIHelper}.
+ *
+ * Available endpoints:
+ * - users-get:    GET  {usersApiUrl}/users/{1..12}
+ * - users-list:   GET  {usersApiUrl}/users?page=2
+ * - users-create: POST {usersApiUrl}/users with a {@link UserRequest}
+ * - shop-home:    GET  {baseUrl}/
+ * - shop-catalog: GET  {baseUrl}/computing-and-internet
+ * - shop-product: GET  {baseUrl}/14-1-inch-laptop
+ *
+ * Arrivals are spread over the endpoints in turn, so each gets an equal share
+ * of the target rate.
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public final class LoadScenario {
+
+    private static final int SEEDED_USERS = 12;
+
+    private final List<Endpoint> endpoints;
+
+    private LoadScenario(List<Endpoint> endpoints) {
+        if (endpoints.isEmpty()) {
+            throw new IllegalStateException("Load scenario has no endpoints");
+        }
+        this.endpoints = Collections.unmodifiableList(endpoints);
+    }
+
+    /**
+     * @return scenario from loadEndpoints, against the configured usersApiUrl and baseUrl
+     */
+    public static LoadScenario fromConfig() {
+        return of(ConfigReader.get("loadEndpoints", "users-get,users-list,users-create"),
+                ConfigReader.get("usersApiUrl", "https://reqres.in/api"), ConfigReader.get("baseUrl"));
+    }
+
+    /**
+     * @param names       comma-separated endpoint names (see class documentation)
+     * @param usersApiUrl users API root, e.g. a UserApiStub's base URL
+     * @param shopUrl     shop root, e.g. a DemoWebShopStub's base URL
+     */
+    public static LoadScenario of(String names, String usersApiUrl, String shopUrl) {
+        Map<String, Supplier<Response>> available = available(usersApiUrl, shopUrl);
+        List<Endpoint> endpoints = new ArrayList<>();
+        for (String name : names.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            Supplier<Response> call = available.get(trimmed);
+            if (call == null) {
+                throw new IllegalStateException("Unknown load endpoint '" + trimmed + "' - expected one of " + available.keySet());
+            }
+            endpoints.add(new Endpoint(trimmed, call));
+        }
+        return new LoadScenario(endpoints);
+    }
+
+    private static Map<String, Supplier<Response>> available(String usersApiUrl, String shopUrl) {
+        AtomicLong sequence = new AtomicLong();
+        String shop = shopUrl == null ? "" : shopUrl.replaceAll("/+$", "");
+        Map<String, Supplier<Response>> calls = new LinkedHashMap<>();
+        calls.put("users-get", () -> APIHelper.get(usersApiUrl + "/users/" + (sequence.incrementAndGet() % SEEDED_USERS + 1)));
+        calls.put("users-list", () -> APIHelper.get(usersApiUrl + "/users", Map.of("page", "2")));
+        calls.put("users-create", () -> APIHelper.post(usersApiUrl + "/users", UserRequest.builder()
+                .name("Load User " + sequence.incrementAndGet())
+                .job("Load Tester")
+                .build()));
+        calls.put("shop-home", () -> APIHelper.get(shop + "/"));
+        calls.put("shop-catalog", () -> APIHelper.get(shop + "/computing-and-internet"));
+        calls.put("shop-product", () -> APIHelper.get(shop + "/14-1-inch-laptop"));
+        return calls;
+    }
+
+    public List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * @return the endpoint for the n-th arrival
+     */
+    Endpoint endpointFor(long arrival) {
+        return endpoints.get((int) (arrival % endpoints.size()));
+    }
+
+    /**
+     * One named call.
+     */
+    public static final class Endpoint {
+        private final String name;
+        private final Supplier<Response> call;
+
+        Endpoint(String name, Supplier<Response> call) {
+            this.name = name;
+            this.call = call;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        Response call() {
+            return call.get();
+        }
+    }
+}
@@ -0,0 +1,810 @@
+package stub;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.ConfigReader;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * In-process stand-in for the DemoWebShop site, for fast and hermetic UI and API runs.
+ *
+ * Serves the pages and endpoints the suite touches - catalog, product pages,
+ * AJAX add-to-cart, login, registration, cart, one-page checkout and account
+ * addresses - from in-memory state on a loopback port. Markup follows the
+ * locators in the page objects; it is not a copy of the real site.
+ *
+ * Enabled with offlineShop=true (e.g. -DofflineShop=true). The shared instance
+ * is started once per JVM by {@link #startIfConfigured()}, which also points
+ * baseUrl at it, so page objects, HTTP helpers and tests need no changes.
+ *
+ * Configuration (config.properties):
+ * - offlineShop (default: false)
+ * - offlineShopPort (default: 0 = random free port)
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public class DemoWebShopStub {
+
+    private static final Logger logger = LogManager.getLogger(DemoWebShopStub.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    static final String AUTH_COOKIE = "NOPCOMMERCE.AUTH";
+    static final String GUEST_COOKIE = "Nop.customer";
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+
+    private static DemoWebShopStub shared;
+
+    private final Map<Integer, Product> catalog = new LinkedHashMap<>();
+    private final Map<String, String> categories = new LinkedHashMap<>();
+    private final Map<String, Customer> accounts = new HashMap<>();
+    private final Map<String, Customer> guests = new HashMap<>();
+    private final Map<String, String> authTokens = new HashMap<>();
+    private final AtomicInteger nextAddressId = new AtomicInteger(1);
+    private final AtomicInteger nextOrderNumber = new AtomicInteger(1000);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    // ---------------------------------------------------------
+    // LIFECYCLE
+    // ---------------------------------------------------------
+
+    /**
+     * Starts a stub on the given loopback port, seeded with the catalog and
+     * the configured validEmail/validPassword account.
+     *
+     * @param port port to bind, 0 for any free port
+     */
+    public DemoWebShopStub(int port) {
+        seed();
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to start DemoWebShop stub on port " + port, e);
+        }
+        executor = Executors.newFixedThreadPool(8, runnable -> {
+            Thread thread = new Thread(runnable, "demowebshop-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        logger.info("DemoWebShop stub listening on {}", getBaseUrl());
+    }
+
+    /**
+     * Starts the shared stub if offlineShop is enabled and points baseUrl at it.
+     * Safe to call from every setup method; only the first call starts a server.
+     *
+     * @return the shared stub, or null when offlineShop is disabled
+     */
+    public static synchronized DemoWebShopStub startIfConfigured() {
+        if (!ConfigReader.getBoolean("offlineShop", false)) {
+            return null;
+        }
+        if (shared == null) {
+            shared = new DemoWebShopStub(ConfigReader.getInt("offlineShopPort", 0));
+            ConfigReader.set("baseUrl", shared.getBaseUrl());
+            Runtime.getRuntime().addShutdownHook(new Thread(shared::stop, "demowebshop-stub-shutdown"));
+        }
+        return shared;
+    }
+
+    /**
+     * @return root URL of the stub, without trailing slash
+     */
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+        logger.info("DemoWebShop stub stopped");
+    }
+
+    private void seed() {
+        for (String[] category : StubPages.CATEGORIES) {
+            categories.put(category[0], category[1]);
+        }
+        addProduct(new Product(13, "Computing and Internet", "computing-and-internet", "books", 10.00, "CS_1",
+                "More Than 100 tips about computing and internet."));
+        addProduct(new Product(22, "Health Book", "health", "books", 10.00, "HB_1",
+                "Worried about your health. Get the book."));
+        addProduct(new Product(31, "14.1-inch Laptop", "14-1-inch-laptop", "computers", 1590.00, "LT_14",
+                "Unique Asian-influenced imprint wraps the laptop both inside and out."));
+        addProduct(new Product(43, "Smartphone", "smartphone", "electronics", 100.00, "SP_1",
+                "Smartphone with all the features you need."));
+        addProduct(new Product(5, "50's Rockabilly Polka Dot Top JR Plus Size", "50s-rockabilly-polka-dot-top-jr-plus-size",
+                "apparel-shoes", 11.00, "RT_1", "A classic top."));
+        addProduct(new Product(53, "3rd Album", "3rd-album", "digital-downloads", 1.00, "DD_3", "Music album download."));
+        addProduct(new Product(14, "Black & White Diamond Heart", "black-white-diamond-heart", "jewelry", 130.00, "JW_1",
+                "Heart-shaped pendant."));
+        addProduct(new Product(2, "$5 Virtual Gift Card", "5-virtual-gift-card", "gift-cards", 5.00, "GC_5",
+                "$5 Gift Card. Gift Cards must be redeemed through our site."));
+
+        String email = ConfigReader.get("validEmail");
+        String password = ConfigReader.get("validPassword");
+        if (email != null && password != null) {
+            Customer customer = new Customer(email, password,
+                    ConfigReader.get("checkoutFirstName", "John"), ConfigReader.get("checkoutLastName", "Doe"));
+            customer.addresses.add(new Address(nextAddressId.getAndIncrement(), customer.firstName, customer.lastName,
+                    email, "1", ConfigReader.get("checkoutCity", "New York"),
+                    ConfigReader.get("checkoutAddress1", "123 Main Street"), ConfigReader.get("checkoutZipCode", "10001"),
+                    ConfigReader.get("checkoutPhoneNumber", "1234567890")));
+            accounts.put(email.toLowerCase(), customer);
+        }
+    }
+
+    private void addProduct(Product product) {
+        catalog.put(product.id, product);
+    }
+
+    // ---------------------------------------------------------
+    // ROUTING
+    // ---------------------------------------------------------
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            Request request = new Request(exchange);
+            synchronized (this) {
+                resolveCustomer(request);
+                route(request);
+            }
+        } catch (Exception e) {
+            logger.error("DemoWebShop stub failed on {} {}: {}",
+                    exchange.getRequestMethod(), exchange.getRequestURI(), e.getMessage(), e);
+            send(exchange, 500, "text/plain; charset=utf-8", "Internal stub error: " + e);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void route(Request r) throws IOException {
+        String path = r.path;
+        boolean post = "POST".equals(r.method);
+
+        if (path.equals("/")) {
+            page(r, 200, "Home", StubPages.home(catalog.values()));
+        } else if (categories.containsKey(path.substring(1))) {
+            String slug = path.substring(1);
+            page(r, 200, categories.get(slug), StubPages.category(categories.get(slug), productsIn(slug)));
+        } else if (path.startsWith("/addproducttocart/details/") && post) {
+            addToCart(r);
+        } else if (path.equals("/login")) {
+            login(r);
+        } else if (path.equals("/logout")) {
+            logout(r);
+        } else if (path.equals("/register")) {
+            register(r);
+        } else if (path.startsWith("/registerresult")) {
+            page(r, 200, "Register", StubPages.registerResult());
+        } else if (path.equals("/cart")) {
+            cart(r);
+        } else if (path.equals("/checkout")) {
+            redirect(r, "/onepagecheckout");
+        } else if (path.equals("/onepagecheckout")) {
+            onePageCheckout(r);
+        } else if (path.startsWith("/checkout/opc") && post) {
+            checkoutStep(r, path.substring("/checkout/".length()));
+        } else if (path.equals("/checkout/completed")) {
+            page(r, 200, "Checkout", StubPages.orderCompleted(r.customer.lastOrderNumber));
+        } else if (path.equals("/customer/addresses")) {
+            requireLogin(r, () -> page(r, 200, "Addresses", StubPages.addresses(r.customer.addresses)));
+        } else if (path.startsWith("/customer/addressdelete/")) {
+            requireLogin(r, () -> {
+                String id = path.substring("/customer/addressdelete/".length());
+                r.customer.addresses.removeIf(address -> String.valueOf(address.id).equals(id));
+                redirect(r, "/customer/addresses");
+            });
+        } else if (path.equals("/customer/info")) {
+            requireLogin(r, () -> page(r, 200, "Customer info", StubPages.simplePage("My account - Customer info")));
+        } else if (path.equals("/wishlist")) {
+            page(r, 200, "Wishlist", StubPages.simplePage("Wishlist"));
+        } else if (path.equals("/search")) {
+            search(r);
+        } else if (path.equals("/passwordrecovery")) {
+            page(r, 200, "Password Recovery", StubPages.simplePage("Password recovery"));
+        } else {
+            Product product = productBySlug(path.substring(1));
+            if (product != null) {
+                page(r, 200, product.name, StubPages.product(product, categories.get(product.category), product.category));
+            } else {
+                page(r, 404, "Page not found", StubPages.notFound());
+            }
+        }
+    }
+
+    private interface Action {
+        void run() throws IOException;
+    }
+
+    private void requireLogin(Request r, Action action) throws IOException {
+        if (!r.loggedIn) {
+            redirect(r, "/login?ReturnUrl=" + URLEncoder.encode(r.path, StandardCharsets.UTF_8));
+            return;
+        }
+        action.run();
+    }
+
+    // ---------------------------------------------------------
+    // CATALOG AND CART
+    // ---------------------------------------------------------
+
+    private void addToCart(Request r) throws IOException {
+        String[] parts = r.path.substring("/addproducttocart/details/".length()).split("/");
+        Product product = catalog.get(parseInt(parts[0], -1));
+        boolean wishlist = parts.length > 1 && "2".equals(parts[1]);
+        Map<String, Object> json = new LinkedHashMap<>();
+        if (product == null) {
+            json.put("success", false);
+            json.put("message", "No product found with the specified ID");
+            json(r, json);
+            return;
+        }
+        int quantity = parseInt(r.form("addtocart_" + product.id + ".EnteredQuantity"), 1);
+        if (quantity <= 0) {
+            json.put("success", false);
+            json.put("message", new String[]{"Quantity should be positive"});
+            json(r, json);
+            return;
+        }
+        Map<Integer, Integer> target = wishlist ? r.customer.wishlist : r.customer.cart;
+        target.merge(product.id, quantity, Integer::sum);
+        json.put("success", true);
+        if (wishlist) {
+            json.put("message", "The product has been added to your <a href=\"/wishlist\">wishlist</a>");
+            json.put("updatetopwishlistsectionhtml", "(" + r.customer.wishlistQuantity() + ")");
+        } else {
+            json.put("message", "The product has been added to your <a href=\"/cart\">shopping cart</a>");
+            json.put("updatetopcartsectionhtml", "(" + r.customer.cartQuantity() + ")");
+        }
+        json(r, json);
+    }
+
+    private void cart(Request r) throws IOException {
+        String message = null;
+        if ("POST".equals(r.method)) {
+            if (r.form("continueshopping") != null) {
+                redirect(r, "/");
+                return;
+            }
+            if (r.form("updatecart") != null || r.form("checkout") != null) {
+                for (Integer id : new ArrayList<>(r.customer.cart.keySet())) {
+                    String quantity = r.form("itemquantity" + id);
+                    if (quantity != null) {
+                        int value = parseInt(quantity, -1);
+                        if (value == 0) {
+                            r.customer.cart.remove(id);
+                        } else if (value > 0) {
+                            r.customer.cart.put(id, value);
+                        } else {
+                            message = "Quantity should be positive";
+                        }
+                    }
+                }
+                for (String id : r.formValues("removefromcart")) {
+                    r.customer.cart.remove(parseInt(id, -1));
+                }
+            }
+            if (r.form("applydiscountcouponcode") != null) {
+                message = "The coupon code you entered couldn't be applied to your order";
+            } else if (r.form("applygiftcardcouponcode") != null) {
+                message = "The coupon code you entered couldn't be applied to your order";
+            }
+            if (r.form("checkout") != null && message == null && !r.customer.cart.isEmpty()) {
+                redirect(r, "/onepagecheckout");
+                return;
+            }
+        }
+        page(r, 200, "Shopping Cart", StubPages.cart(r.customer, catalog, message));
+    }
+
+    private void search(Request r) throws IOException {
+        String term = r.query("q") == null ? "" : r.query("q").trim().toLowerCase();
+        List<Product> found = new ArrayList<>();
+        for (Product product : catalog.values()) {
+            if (term.length() >= 3 && product.name.toLowerCase().contains(term)) {
+                found.add(product);
+            }
+        }
+        page(r, 200, "Search", StubPages.category("Search", found));
+    }
+
+    // ---------------------------------------------------------
+    // ACCOUNT
+    // ---------------------------------------------------------
+
+    private void login(Request r) throws IOException {
+        String returnUrl = r.query("ReturnUrl");
+        if (!"POST".equals(r.method)) {
+            page(r, 200, "Login", StubPages.login("", false, returnUrl));
+            return;
+        }
+        String email = r.form("Email") == null ? "" : r.form("Email").trim();
+        Customer account = accounts.get(email.toLowerCase());
+        if (account == null || !account.password.equals(r.form("Password"))) {
+            page(r, 200, "Login", StubPages.login(email, true, returnUrl));
+            return;
+        }
+        // The guest cart follows the customer into the account, as on the real shop
+        if (!r.loggedIn) {
+            r.customer.cart.forEach((id, quantity) -> account.cart.merge(id, quantity, Integer::sum));
+            r.customer.cart.clear();
+        }
+        String token = UUID.randomUUID().toString().replace("-", "");
+        authTokens.put(token, email.toLowerCase());
+        r.setCookie(AUTH_COOKIE, token, true);
+        redirect(r, returnUrl != null && returnUrl.startsWith("/") ? returnUrl : "/");
+    }
+
+    private void logout(Request r) throws IOException {
+        String token = r.cookies.get(AUTH_COOKIE);
+        if (token != null) {
+            authTokens.remove(token);
+        }
+        r.headers.add("Set-Cookie", AUTH_COOKIE + "=; path=/; expires=Thu, 01 Jan 1970 00:00:00 GMT; HttpOnly");
+        redirect(r, "/");
+    }
+
+    private void register(Request r) throws IOException {
+        if (!"POST".equals(r.method)) {
+            page(r, 200, "Register", StubPages.register(Collections.emptyMap(), Collections.emptyMap()));
+            return;
+        }
+        Map<String, String> values = new HashMap<>();
+        for (String field : new String[]{"Gender", "FirstName", "LastName", "Email", "Password", "ConfirmPassword"}) {
+            values.put(field, r.form(field) == null ? "" : r.form(field).trim());
+        }
+        Map<String, String> errors = new LinkedHashMap<>();
+        if (values.get("FirstName").isEmpty()) {
+            errors.put("FirstName", "First name is required.");
+        }
+        if (values.get("LastName").isEmpty()) {
+            errors.put("LastName", "Last name is required.");
+        }
+        if (values.get("Email").isEmpty()) {
+            errors.put("Email", "Email is required.");
+        } else if (!EMAIL.matcher(values.get("Email")).matches()) {
+            errors.put("Email", "Wrong email");
+        }
+        if (values.get("Password").isEmpty()) {
+            errors.put("Password", "Password is required.");
+        } else if (values.get("Password").length() < 6) {
+            errors.put("Password", "The password should have at least 6 characters.");
+        }
+        if (values.get("ConfirmPassword").isEmpty()) {
+            errors.put("ConfirmPassword", "Password is required.");
+        } else if (!values.get("ConfirmPassword").equals(values.get("Password"))) {
+            errors.put("ConfirmPassword", "The password and confirmation password do not match.");
+        }
+        if (errors.isEmpty() && accounts.containsKey(values.get("Email").toLowerCase())) {
+            errors.put("", "The specified email already exists");
+        }
+        if (!errors.isEmpty()) {
+            page(r, 200, "Register", StubPages.register(values, errors));
+            return;
+        }
+
+        String email = values.get("Email");
+        Customer account = new Customer(email, values.get("Password"), values.get("FirstName"), values.get("LastName"));
+        accounts.put(email.toLowerCase(), account);
+        // Registration signs the new customer in
+        String token = UUID.randomUUID().toString().replace("-", "");
+        authTokens.put(token, email.toLowerCase());
+        r.setCookie(AUTH_COOKIE, token, true);
+        redirect(r, "/registerresult/1");
+    }
+
+    // ---------------------------------------------------------
+    // ONE-PAGE CHECKOUT
+    // ---------------------------------------------------------
+
+    private void onePageCheckout(Request r) throws IOException {
+        if (!r.loggedIn) {
+            redirect(r, "/login?ReturnUrl=%2Fonepagecheckout");
+        } else if (r.customer.cart.isEmpty()) {
+            redirect(r, "/cart");
+        } else {
+            page(r, 200, "Checkout", StubPages.checkout(r.customer));
+        }
+    }
+
+    private void checkoutStep(Request r, String step) throws IOException {
+        Customer c = r.customer;
+        if (!r.loggedIn || c.cart.isEmpty()) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("redirect", "/cart");
+            json(r, json);
+            return;
+        }
+        List<String> errors = new ArrayList<>();
+        switch (step) {
+            case "opcsavebilling":
+                c.billing = address(r, "billing_address_id", "BillingNewAddress", errors);
+                if (errors.isEmpty()) {
+                    section(r, "shipping", StubPages.shippingSection(c));
+                    return;
+                }
+                break;
+            case "opcsaveshipping":
+                c.shipping = "true".equals(r.form("PickUpInStore")) ? c.billing
+                        : address(r, "shipping_address_id", "ShippingNewAddress", errors);
+                if (errors.isEmpty()) {
+                    section(r, "shipping_method", StubPages.shippingMethodSection());
+                    return;
+                }
+                break;
+            case "opcsaveshippingmethod":
+                c.shippingMethod = r.form("shippingoption");
+                if (c.shippingMethod == null || c.shippingMethod.isEmpty()) {
+                    errors.add("Selected shipping method can't be parsed");
+                    break;
+                }
+                section(r, "payment_method", StubPages.paymentMethodSection());
+                return;
+            case "opcsavepaymentmethod":
+                c.paymentMethod = r.form("paymentmethod");
+                if (c.paymentMethod == null || c.paymentMethod.isEmpty()) {
+                    errors.add("Selected payment method can't be parsed");
+                    break;
+                }
+                section(r, "payment_info", StubPages.paymentInfoSection(c.paymentMethod));
+                return;
+            case "opcsavepaymentinfo":
+                if ("Payments.Manual".equals(c.paymentMethod)) {
+                    requireField(r, "CardholderName", "Enter cardholder name", errors);
+                    requireField(r, "CardNumber", "Wrong card number", errors);
+                    requireField(r, "CardCode", "Wrong card code", errors);
+                }
+                if (errors.isEmpty()) {
+                    section(r, "confirm_order", StubPages.confirmSection(c, catalog));
+                    return;
+                }
+                break;
+            case "opcconfirmorder":
+                c.lastOrderNumber = nextOrderNumber.incrementAndGet();
+                c.cart.clear();
+                Map<String, Object> json = new LinkedHashMap<>();
+                json.put("redirect", "/checkout/completed/");
+                json(r, json);
+                logger.debug("Stub order {} placed by {}", c.lastOrderNumber, c.email);
+                return;
+            default:
+                page(r, 404, "Page not found", StubPages.notFound());
+                return;
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("error", 1);
+        json.put("message", errors);
+        json(r, json);
+    }
+
+    private Address address(Request r, String selectField, String prefix, List<String> errors) {
+        String selected = r.form(selectField);
+        if (selected != null && !selected.isEmpty()) {
+            for (Address address : r.customer.addresses) {
+                if (String.valueOf(address.id).equals(selected)) {
+                    return address;
+                }
+            }
+            errors.add("Address can't be loaded");
+            return null;
+        }
+        if (selected == null && r.form(prefix + ".FirstName") == null && r.customer.billing != null) {
+            // Shipping form without a new address: ship to the billing address
+            return r.customer.billing;
+        }
+        requireField(r, prefix + ".FirstName", "First name is required.", errors);
+        requireField(r, prefix + ".LastName", "Last name is required.", errors);
+        requireField(r, prefix + ".Email", "Email is required.", errors);
+        if (parseInt(r.form(prefix + ".CountryId"), 0) == 0) {
+            errors.add("Country is required.");
+        }
+        requireField(r, prefix + ".City", "City is required", errors);
+        requireField(r, prefix + ".Address1", "Street address is required", errors);
+        requireField(r, prefix + ".ZipPostalCode", "Zip / postal code is required", errors);
+        requireField(r, prefix + ".PhoneNumber", "Phone is required", errors);
+        if (!errors.isEmpty()) {
+            return null;
+        }
+        Address address = new Address(nextAddressId.getAndIncrement(), r.form(prefix + ".FirstName"),
+                r.form(prefix + ".LastName"), r.form(prefix + ".Email"), r.form(prefix + ".CountryId"),
+                r.form(prefix + ".City"), r.form(prefix + ".Address1"), r.form(prefix + ".ZipPostalCode"),
+                r.form(prefix + ".PhoneNumber"));
+        r.customer.addresses.add(address);
+        return address;
+    }
+
+    private static void requireField(Request r, String field, String message, List<String> errors) {
+        String value = r.form(field);
+        if (value == null || value.trim().isEmpty()) {
+            errors.add(message);
+        }
+    }
+
+    private void section(Request r, String name, String html) throws IOException {
+        Map<String, Object> update = new LinkedHashMap<>();
+        update.put("name", name);
+        update.put("html", html);
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("update_section", update);
+        json.put("goto_section", name);
+        json(r, json);
+    }
+
+    // ---------------------------------------------------------
+    // SESSION
+    // ---------------------------------------------------------
+
+    private void resolveCustomer(Request r) {
+        String token = r.cookies.get(AUTH_COOKIE);
+        String email = token == null ? null : authTokens.get(token);
+        if (email != null && accounts.containsKey(email)) {
+            r.customer = accounts.get(email);
+            r.loggedIn = true;
+            return;
+        }
+        String guestId = r.cookies.get(GUEST_COOKIE);
+        Customer guest = guestId == null ? null : guests.get(guestId);
+        if (guest == null) {
+            guestId = UUID.randomUUID().toString();
+            guest = new Customer("", "", "", "");
+            guests.put(guestId, guest);
+            r.setCookie(GUEST_COOKIE, guestId, false);
+        }
+        r.customer = guest;
+    }
+
+    // ---------------------------------------------------------
+    // RESPONSES
+    // ---------------------------------------------------------
+
+    private void page(Request r, int status, String title, String body) throws IOException {
+        send(r.exchange, status, "text/html; charset=utf-8", StubPages.layout(title, r.customer, r.loggedIn, body));
+    }
+
+    private void json(Request r, Map<String, Object> json) throws IOException {
+        String body;
+        try {
+            body = mapper.writeValueAsString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize stub response", e);
+        }
+        send(r.exchange, 200, "application/json; charset=utf-8", body);
+    }
+
+    private void redirect(Request r, String location) throws IOException {
+        r.headers.set("Location", location);
+        r.exchange.sendResponseHeaders(302, -1);
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    // ---------------------------------------------------------
+    // HELPERS
+    // ---------------------------------------------------------
+
+    private Collection<Product> productsIn(String category) {
+        List<Product> products = new ArrayList<>();
+        for (Product product : catalog.values()) {
+            if (product.category.equals(category)) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    private Product productBySlug(String slug) {
+        for (Product product : catalog.values()) {
+            if (product.slug.equals(slug)) {
+                return product;
+            }
+        }
+        return null;
+    }
+
+    private static int parseInt(String value, int fallback) {
+        try {
+            return value == null ? fallback : Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static Map<String, List<String>> parseParameters(String encoded) {
+        Map<String, List<String>> parameters = new LinkedHashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : encoded.split("&")) {
+            int separator = pair.indexOf('=');
+            String name = URLDecoder.decode(separator < 0 ? pair : pair.substring(0, separator), StandardCharsets.UTF_8);
+            String value = separator < 0 ? "" : URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+            parameters.computeIfAbsent(name, key -> new ArrayList<>()).add(value);
+        }
+        return parameters;
+    }
+
+    // ---------------------------------------------------------
+    // MODEL
+    // ---------------------------------------------------------
+
+    /**
+     * One incoming request with its parsed query, form and cookies.
+     */
+    private static final class Request {
+        final HttpExchange exchange;
+        final Headers headers;
+        final String method;
+        final String path;
+        final Map<String, List<String>> query;
+        final Map<String, List<String>> form;
+        final Map<String, String> cookies = new HashMap<>();
+        Customer customer;
+        boolean loggedIn;
+
+        Request(HttpExchange exchange) throws IOException {
+            this.exchange = exchange;
+            this.headers = exchange.getResponseHeaders();
+            this.method = exchange.getRequestMethod();
+            String rawPath = exchange.getRequestURI().getPath();
+            String trimmed = rawPath.length() > 1 && rawPath.endsWith("/") ? rawPath.substring(0, rawPath.length() - 1) : rawPath;
+            // nopCommerce routes are case-insensitive for the checkout endpoints
+            this.path = trimmed.startsWith("/checkout/") ? trimmed.toLowerCase() : trimmed;
+            this.query = parseParameters(exchange.getRequestURI().getRawQuery());
+            this.form = "POST".equals(method)
+                    ? parseParameters(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8))
+                    : Collections.emptyMap();
+            for (String header : exchange.getRequestHeaders().getOrDefault("Cookie", Collections.emptyList())) {
+                for (String cookie : header.split(";")) {
+                    int separator = cookie.indexOf('=');
+                    if (separator > 0) {
+                        cookies.put(cookie.substring(0, separator).trim(), cookie.substring(separator + 1).trim());
+                    }
+                }
+            }
+        }
+
+        String form(String name) {
+            List<String> values = form.get(name);
+            return values == null || values.isEmpty() ? null : values.get(0);
+        }
+
+        List<String> formValues(String name) {
+            return form.getOrDefault(name, Collections.emptyList());
+        }
+
+        String query(String name) {
+            List<String> values = query.get(name);
+            return values == null || values.isEmpty() ? null : values.get(0);
+        }
+
+        void setCookie(String name, String value, boolean httpOnly) {
+            cookies.put(name, value);
+            headers.add("Set-Cookie", name + "=" + value + "; path=/" + (httpOnly ? "; HttpOnly" : ""));
+        }
+    }
+
+    static final class Product {
+        final int id;
+        final String name;
+        final String slug;
+        final String category;
+        final double price;
+        final String sku;
+        final String shortDescription;
+
+        Product(int id, String name, String slug, String category, double price, String sku, String shortDescription) {
+            this.id = id;
+            this.name = name;
+            this.slug = slug;
+            this.category = category;
+            this.price = price;
+            this.sku = sku;
+            this.shortDescription = shortDescription;
+        }
+    }
+
+    static final class Address {
+        final int id;
+        final String firstName;
+        final String lastName;
+        final String email;
+        final String countryId;
+        final String city;
+        final String address1;
+        final String zipCode;
+        final String phoneNumber;
+
+        Address(int id, String firstName, String lastName, String email, String countryId,
+                String city, String address1, String zipCode, String phoneNumber) {
+            this.id = id;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.email = email;
+            this.countryId = countryId;
+            this.city = city;
+            this.address1 = address1;
+            this.zipCode = zipCode;
+            this.phoneNumber = phoneNumber;
+        }
+
+        String summary() {
+            return firstName + " " + lastName + ", " + address1 + ", " + city + " " + zipCode + ", "
+                    + StubPages.countryName(countryId);
+        }
+    }
+
+    static final class Customer {
+        final String email;
+        final String password;
+        final String firstName;
+        final String lastName;
+        final Map<Integer, Integer> cart = new LinkedHashMap<>();
+        final Map<Integer, Integer> wishlist = new LinkedHashMap<>();
+        final List<Address> addresses = new ArrayList<>();
+        Address billing;
+        Address shipping;
+        String shippingMethod;
+        String paymentMethod;
+        int lastOrderNumber;
+
+        Customer(String email, String password, String firstName, String lastName) {
+            this.email = email;
+            this.password = password;
+            this.firstName = firstName;
+            this.lastName = lastName;
+        }
+
+        int cartQuantity() {
+            return cart.values().stream().mapToInt(Integer::intValue).sum();
+        }
+
+        int wishlistQuantity() {
+            return wishlist.values().stream().mapToInt(Integer::intValue).sum();
+        }
+
+        double subtotal(Map<Integer, Product> catalog) {
+            double total = 0;
+            for (Map.Entry<Integer, Integer> line : cart.entrySet()) {
+                total += catalog.get(line.getKey()).price * line.getValue();
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,562 @@
+package stub;
+
+import stub.DemoWebShopStub.Address;
+import stub.DemoWebShopStub.Customer;
+import stub.DemoWebShopStub.Product;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * HTML rendering for {@link DemoWebShopStub}.
+ *
+ * Markup mirrors the ids, classes and texts the page objects locate on the
+ * real DemoWebShop (nopCommerce) - nothing more. Pages are plain HTML plus a
+ * small inline script for the AJAX add-to-cart and one-page checkout flows,
+ * so the stub needs no static assets.
+ */
+final class StubPages {
+
+    /** 1x1 transparent GIF, so images have a source without an extra request. */
+    private static final String PIXEL = "data:image/gif;base64,R0lGODlhAQABAIAAAAAAAP///yH5BAEAAAAALAAAAAABAAEAAAIBRAA7";
+
+    static final String[][] CATEGORIES = {
+            {"books", "Books"},
+            {"computers", "Computers"},
+            {"electronics", "Electronics"},
+            {"apparel-shoes", "Apparel & Shoes"},
+            {"digital-downloads", "Digital downloads"},
+            {"jewelry", "Jewelry"},
+            {"gift-cards", "Gift Cards"}
+    };
+
+    static final String[][] COUNTRIES = {
+            {"1", "United States"},
+            {"2", "Canada"},
+            {"3", "United Kingdom"},
+            {"4", "Germany"},
+            {"5", "Egypt"},
+            {"6", "India"}
+    };
+
+    static final String[][] SHIPPING_METHODS = {
+            {"Ground___Shipping.FixedRate", "Ground", "0.00"},
+            {"Next Day Air___Shipping.FixedRate", "Next Day Air", "0.00"},
+            {"2nd Day Air___Shipping.FixedRate", "2nd Day Air", "0.00"}
+    };
+
+    static final String[][] PAYMENT_METHODS = {
+            {"Payments.CashOnDelivery", "Cash On Delivery (COD)", "7.00"},
+            {"Payments.CheckMoneyOrder", "Check / Money Order", "5.00"},
+            {"Payments.Manual", "Credit Card", "0.00"},
+            {"Payments.PurchaseOrder", "Purchase Order", "0.00"}
+    };
+
+    private static final String SCRIPT =
+            "function setLocation(u){window.location.href=u;}"
+            + "function displayBarNotification(m,t){var b=document.getElementById('bar-notification');"
+            + "b.className='bar-notification '+t;b.querySelector('.content').innerHTML=m;b.style.display='block';}"
+            + "function post(u,f){return fetch(u,{method:'POST',credentials:'same-origin',"
+            + "body:new URLSearchParams(f?new FormData(f):undefined)}).then(function(r){return r.json();});}"
+            + "var AjaxCart={addproducttocart_details:function(u,s){post(u,document.querySelector(s)).then(function(d){"
+            + "if(d.updatetopcartsectionhtml){document.querySelector('.header-links .cart-qty').innerHTML=d.updatetopcartsectionhtml;}"
+            + "displayBarNotification(d.message,d.success?'success':'error');});}};"
+            + "var Checkout={setStepResponse:function(r){var e=document.getElementById('checkout-error');"
+            + "if(e){e.style.display='none';}"
+            + "if(r.update_section){var l=document.getElementById('checkout-'+r.update_section.name.replace(/_/g,'-')+'-load');"
+            + "if(l){l.innerHTML=r.update_section.html;}}if(r.goto_section){Checkout.gotoSection(r.goto_section);}},"
+            + "gotoSection:function(s){var li=document.querySelectorAll('#checkout-steps > li');for(var i=0;i<li.length;i++){"
+            + "var a=li[i].id==='opc-'+s;li[i].className='tab-section'+(a?' allow active':'');"
+            + "li[i].querySelector('.step').style.display=a?'block':'none';}}};"
+            + "function opcSave(u,id){post('/checkout/'+u+'/',document.getElementById(id)).then(function(r){"
+            + "if(r.error){var e=document.getElementById('checkout-error');e.innerHTML=[].concat(r.message).join('<br>');"
+            + "e.style.display='block';return;}if(r.redirect){location.href=r.redirect;return;}Checkout.setStepResponse(r);});}"
+            + "var Billing={save:function(){opcSave('OpcSaveBilling','co-billing-form');},"
+            + "newAddress:function(n){document.getElementById('billing-new-address-form').style.display=n?'block':'none';}};"
+            + "var Shipping={save:function(){opcSave('OpcSaveShipping','co-shipping-form');}};"
+            + "var ShippingMethod={save:function(){opcSave('OpcSaveShippingMethod','co-shipping-method-form');}};"
+            + "var PaymentMethod={save:function(){opcSave('OpcSavePaymentMethod','co-payment-method-form');}};"
+            + "var PaymentInfo={save:function(){opcSave('OpcSavePaymentInfo','co-payment-info-form');}};"
+            + "var ConfirmOrder={save:function(){opcSave('OpcConfirmOrder','co-confirm-order-form');}};";
+
+    private StubPages() {
+        throw new IllegalStateException("Utility class - cannot be instantiated");
+    }
+
+    // ---------------------------------------------------------
+    // LAYOUT
+    // ---------------------------------------------------------
+
+    static String layout(String title, Customer customer, boolean loggedIn, String body) {
+        StringBuilder html = new StringBuilder(4096 + body.length());
+        html.append("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>Demo Web Shop. ")
+                .append(escape(title)).append("</title><style>")
+                .append("body{font:13px Arial,sans-serif;margin:0}ul{list-style:none;padding:0}li{display:inline-block;margin-right:8px}")
+                .append(".step li,.method-list li,.details li{display:block}.qty-input{width:40px}")
+                .append(".bar-notification{position:fixed;top:0;left:0;right:0;padding:10px;background:#4bb07a}")
+                .append(".close{display:inline-block;width:12px;height:12px;cursor:pointer;float:right}")
+                .append("</style><script>").append(SCRIPT).append("</script></head><body>")
+                .append("<div class=\"master-wrapper-page\"><div class=\"header\">")
+                .append("<div class=\"header-logo\"><a href=\"/\"><img alt=\"Tricentis Demo Web Shop\" src=\"")
+                .append(PIXEL).append("\" width=\"150\" height=\"40\"></a></div>")
+                .append("<div class=\"header-links-wrapper\"><div class=\"header-links\"><ul>");
+        if (loggedIn) {
+            html.append("<li><a href=\"/customer/info\" class=\"account\">").append(escape(customer.email)).append("</a></li>")
+                    .append("<li><a href=\"/logout\" class=\"ico-logout\">Log out</a></li>");
+        } else {
+            html.append("<li><a href=\"/register\" class=\"ico-register\">Register</a></li>")
+                    .append("<li><a href=\"/login\" class=\"ico-login\">Log in</a></li>");
+        }
+        html.append("<li id=\"topcartlink\"><a href=\"/cart\" class=\"ico-cart\"><span class=\"cart-label\">Shopping cart</span>")
+                .append("<span class=\"cart-qty\">(").append(customer.cartQuantity()).append(")</span></a></li>")
+                .append("<li><a href=\"/wishlist\" class=\"ico-wishlist\"><span class=\"cart-label\">Wishlist</span>")
+                .append("<span class=\"wishlist-qty\">(").append(customer.wishlistQuantity()).append(")</span></a></li></ul></div></div>")
+                .append("<div class=\"search-box\"><form action=\"/search\" method=\"get\">")
+                .append("<input type=\"text\" class=\"search-box-text\" id=\"small-searchterms\" name=\"q\" value=\"\">")
+                .append("<input type=\"submit\" class=\"button-1 search-box-button\" value=\"Search\"></form></div></div>")
+                .append("<div class=\"header-menu\"><ul class=\"top-menu\">");
+        for (String[] category : CATEGORIES) {
+            html.append("<li><a href=\"/").append(category[0]).append("\">").append(escape(category[1])).append("</a></li>");
+        }
+        html.append("</ul></div><div class=\"master-wrapper-content\">").append(body).append("</div>")
+                .append("<div class=\"footer\"><a href=\"/sitemap\">Sitemap</a> <a href=\"/contactus\">Contact us</a></div>")
+                .append("<div id=\"bar-notification\" class=\"bar-notification\" style=\"display:none\">")
+                .append("<span class=\"close\" title=\"Close\" onclick=\"this.parentNode.style.display='none'\">x</span>")
+                .append("<p class=\"content\"></p></div></div></body></html>");
+        return html.toString();
+    }
+
+    static String notFound() {
+        return "<div class=\"page-title\"><h1>Page not found</h1></div>";
+    }
+
+    static String simplePage(String title) {
+        return "<div class=\"page\"><div class=\"page-title\"><h1>" + escape(title) + "</h1></div></div>";
+    }
+
+    // ---------------------------------------------------------
+    // CATALOG
+    // ---------------------------------------------------------
+
+    static String home(Collection<Product> products) {
+        return "<div class=\"page home-page\"><div class=\"page-body\"><div class=\"product-grid home-page-product-grid\">"
+                + productGrid(products) + "</div></div></div>";
+    }
+
+    static String category(String title, Collection<Product> products) {
+        return "<div class=\"page category-page\"><div class=\"page-title\"><h1>" + escape(title) + "</h1></div>"
+                + "<div class=\"page-body\"><div class=\"product-grid\">" + productGrid(products) + "</div></div></div>";
+    }
+
+    private static String productGrid(Collection<Product> products) {
+        StringBuilder html = new StringBuilder();
+        for (Product product : products) {
+            html.append("<div class=\"item-box\"><div class=\"product-item\" data-productid=\"").append(product.id).append("\">")
+                    .append("<div class=\"picture\"><a href=\"/").append(product.slug).append("\"><img alt=\"")
+                    .append(escape(product.name)).append("\" src=\"").append(PIXEL).append("\" width=\"120\" height=\"120\"></a></div>")
+                    .append("<div class=\"details\"><h2 class=\"product-title\"><a href=\"/").append(product.slug).append("\">")
+                    .append(escape(product.name)).append("</a></h2><div class=\"prices\"><span class=\"price actual-price\">")
+                    .append(money(product.price)).append("</span></div></div></div></div>");
+        }
+        return html.toString();
+    }
+
+    static String product(Product product, String categoryTitle, String categorySlug) {
+        int id = product.id;
+        return "<div class=\"breadcrumb\"><ul><li><a href=\"/\"><span>Home</span></a> / </li>"
+                + "<li><a href=\"/" + categorySlug + "\"><span>" + escape(categoryTitle) + "</span></a> / </li>"
+                + "<li><strong class=\"current-item\">" + escape(product.name) + "</strong></li></ul></div>"
+                + "<div class=\"page product-details-page\"><div class=\"page-body\">"
+                + "<form id=\"product-details-form\" action=\"\" method=\"post\"><div class=\"product-essential\">"
+                + "<div class=\"gallery\"><div class=\"picture\"><img id=\"main-product-img-" + id + "\" alt=\""
+                + escape(product.name) + "\" src=\"" + PIXEL + "\" width=\"300\" height=\"300\"></div></div>"
+                + "<div class=\"overview\"><div class=\"product-name\"><h1 itemprop=\"name\">" + escape(product.name) + "</h1></div>"
+                + "<div class=\"short-description\">" + escape(product.shortDescription) + "</div>"
+                + "<div class=\"product-review-box\"><div class=\"product-review-links\"><a href=\"/productreviews/" + id
+                + "\">0 review(s)</a></div></div>"
+                + "<div class=\"additional-details\"><div class=\"sku\"><span class=\"label\">SKU:</span> "
+                + "<span class=\"value\">" + escape(product.sku) + "</span></div></div>"
+                + "<div class=\"prices\"><div class=\"product-price\"><span itemprop=\"price\" class=\"price-value-" + id + "\">"
+                + money(product.price) + "</span></div></div>"
+                + "<div class=\"add-to-cart\"><div class=\"add-to-cart-panel\"><span class=\"qty-label\">Qty:</span>"
+                + "<input class=\"qty-input\" id=\"addtocart_" + id + "_EnteredQuantity\" name=\"addtocart_" + id
+                + ".EnteredQuantity\" type=\"text\" value=\"1\">"
+                + "<input type=\"button\" value=\"+\" onclick=\"var q=document.getElementById('addtocart_" + id
+                + "_EnteredQuantity');q.value=(parseInt(q.value)||0)+1\">"
+                + "<input type=\"button\" value=\"-\" onclick=\"var q=document.getElementById('addtocart_" + id
+                + "_EnteredQuantity');q.value=Math.max(1,(parseInt(q.value)||1)-1)\">"
+                + "<input type=\"button\" id=\"add-to-cart-button-" + id + "\" class=\"button-1 add-to-cart-button\" value=\"Add to cart\""
+                + " onclick=\"AjaxCart.addproducttocart_details('/addproducttocart/details/" + id
+                + "/1', '#product-details-form');return false;\"></div></div>"
+                + "<div class=\"overview-buttons\"><div class=\"add-to-wishlist\"><input type=\"button\" id=\"add-to-wishlist-button-" + id
+                + "\" class=\"button-2 add-to-wishlist-button\" value=\"Add to wishlist\" onclick=\"AjaxCart.addproducttocart_details("
+                + "'/addproducttocart/details/" + id + "/2', '#product-details-form');return false;\"></div>"
+                + "<div class=\"compare-products\"><input type=\"button\" value=\"Add to compare list\""
+                + " class=\"button-2 add-to-compare-list-button\" onclick=\"setLocation('/compareproducts/add/" + id + "')\"></div>"
+                + "<div class=\"email-a-friend\"><input type=\"button\" value=\"Email a friend\" class=\"button-2 email-a-friend-button\""
+                + " onclick=\"setLocation('/productemailafriend/" + id + "')\"></div></div></div>"
+                + "<div class=\"full-description\">" + escape(product.shortDescription) + " Full description.</div>"
+                + "</div></form></div></div>";
+    }
+
+    // ---------------------------------------------------------
+    // ACCOUNT
+    // ---------------------------------------------------------
+
+    static String login(String email, boolean failed, String returnUrl) {
+        String action = returnUrl == null ? "/login" : "/login?ReturnUrl=" + escape(returnUrl);
+        return "<div class=\"page login-page\"><div class=\"page-title\"><h1>Welcome, Please Sign In!</h1></div>"
+                + "<div class=\"page-body\"><div class=\"customer-blocks\"><div class=\"returning-wrapper\">"
+                + "<form method=\"post\" action=\"" + action + "\">"
+                + "<input name=\"__RequestVerificationToken\" type=\"hidden\" value=\"stub-token\">"
+                + (failed ? "<div class=\"message-error\"><div class=\"validation-summary-errors\">"
+                + "<span>Login was unsuccessful. Please correct the errors and try again.</span>"
+                + "<ul><li>The credentials provided are incorrect</li></ul></div></div>" : "")
+                + "<div class=\"form-fields\"><div class=\"inputs\"><label for=\"Email\">Email:</label>"
+                + "<input class=\"email\" id=\"Email\" name=\"Email\" type=\"text\" value=\"" + escape(email) + "\"></div>"
+                + "<div class=\"inputs\"><label for=\"Password\">Password:</label>"
+                + "<input class=\"password\" id=\"Password\" name=\"Password\" type=\"password\"></div>"
+                + "<div class=\"inputs reversed\"><input id=\"RememberMe\" name=\"RememberMe\" type=\"checkbox\" value=\"true\">"
+                + "<label for=\"RememberMe\">Remember me?</label>"
+                + "<span class=\"forgot-password\"><a href=\"/passwordrecovery\">Forgot password?</a></span></div></div>"
+                + "<div class=\"buttons\"><input class=\"button-1 login-button\" type=\"submit\" value=\"Log in\"></div>"
+                + "</form></div></div></div></div>";
+    }
+
+    static String register(Map<String, String> values, Map<String, String> errors) {
+        StringBuilder html = new StringBuilder("<div class=\"page registration-page\"><div class=\"page-title\"><h1>Register</h1></div>"
+                + "<div class=\"page-body\"><form method=\"post\" action=\"/register\">"
+                + "<input name=\"__RequestVerificationToken\" type=\"hidden\" value=\"stub-token\">"
+                + (errors.containsKey("") ? "<div class=\"message-error\"><div class=\"validation-summary-errors\"><ul><li>"
+                + escape(errors.get("")) + "</li></ul></div></div>" : "")
+                + "<div class=\"fieldset\"><div class=\"form-fields\"><div class=\"inputs\"><label>Gender:</label>"
+                + "<input type=\"radio\" id=\"gender-male\" name=\"Gender\" value=\"M\""
+                + ("M".equals(values.get("Gender")) ? " checked" : "") + "><label for=\"gender-male\">Male</label>"
+                + "<input type=\"radio\" id=\"gender-female\" name=\"Gender\" value=\"F\""
+                + ("F".equals(values.get("Gender")) ? " checked" : "") + "><label for=\"gender-female\">Female</label></div>");
+        for (String[] field : new String[][]{{"FirstName", "First name", "text"}, {"LastName", "Last name", "text"},
+                {"Email", "Email", "text"}, {"Password", "Password", "password"}, {"ConfirmPassword", "Confirm password", "password"}}) {
+            String value = "password".equals(field[2]) ? "" : values.getOrDefault(field[0], "");
+            html.append("<div class=\"inputs\"><label for=\"").append(field[0]).append("\">").append(field[1]).append(":</label>")
+                    .append("<input type=\"").append(field[2]).append("\" id=\"").append(field[0]).append("\" name=\"")
+                    .append(field[0]).append("\" value=\"").append(escape(value)).append("\">");
+            if (errors.containsKey(field[0])) {
+                html.append("<span class=\"field-validation-error\" for=\"").append(field[0]).append("\">")
+                        .append(escape(errors.get(field[0]))).append("</span>");
+            }
+            html.append("</div>");
+        }
+        html.append("</div></div><div class=\"buttons\"><input type=\"submit\" id=\"register-button\" class=\"button-1 register-next-step-button\"")
+                .append(" value=\"Register\" name=\"register-button\"></div></form></div></div>");
+        return html.toString();
+    }
+
+    static String registerResult() {
+        return "<div class=\"page registration-result-page\"><div class=\"page-title\"><h1>Register</h1></div>"
+                + "<div class=\"page-body\"><div class=\"result\">Your registration completed</div>"
+                + "<div class=\"buttons\"><input type=\"button\" class=\"button-1 register-continue-button\" value=\"Continue\""
+                + " onclick=\"setLocation('/')\"></div></div></div>";
+    }
+
+    static String addresses(List<Address> addresses) {
+        StringBuilder html = new StringBuilder("<div class=\"page account-page address-list-page\"><div class=\"page-title\">"
+                + "<h1>My account - Addresses</h1></div><div class=\"page-body\"><div class=\"address-list\">");
+        for (Address address : addresses) {
+            html.append("<div class=\"section address-item\"><div class=\"title\"><strong>").append(escape(address.summary()))
+                    .append("</strong></div><div class=\"buttons\"><input type=\"button\" class=\"button-2 delete-address-button\"")
+                    .append(" onclick=\"if (confirm('Are you sure?')) {location.href='/customer/addressdelete/")
+                    .append(address.id).append("';}\" value=\"Delete\"></div></div>");
+        }
+        return html.append("</div></div></div>").toString();
+    }
+
+    // ---------------------------------------------------------
+    // CART
+    // ---------------------------------------------------------
+
+    static String cart(Customer customer, Map<Integer, Product> catalog, String message) {
+        StringBuilder html = new StringBuilder("<div class=\"page shopping-cart-page\"><div class=\"page-title\"><h1>Shopping cart</h1></div>"
+                + "<div class=\"page-body\"><div class=\"order-summary-content\">");
+        if (customer.cart.isEmpty()) {
+            return html.append("Your Shopping Cart is empty!</div></div></div>").toString();
+        }
+        html.append("<form action=\"/cart\" method=\"post\">");
+        if (message != null) {
+            html.append("<div class=\"message-error\">").append(escape(message)).append("</div>");
+        }
+        html.append("<table class=\"cart\"><thead><tr><th>Remove</th><th>Product(s)</th><th>Price</th><th>Qty.</th><th>Total</th></tr></thead><tbody>")
+                .append(cartRows(customer, catalog, true))
+                .append("</tbody></table><div class=\"buttons\"><div class=\"common-buttons\">")
+                .append("<input type=\"submit\" name=\"updatecart\" value=\"Update shopping cart\" class=\"button-2 update-cart-button\">")
+                .append("<input type=\"submit\" name=\"continueshopping\" value=\"Continue shopping\" class=\"button-2 continue-shopping-button\">")
+                .append("</div></div><div class=\"cart-footer\"><div class=\"cart-collaterals\"><div class=\"deals\">")
+                .append("<div class=\"coupon-box\"><input type=\"text\" name=\"discountcouponcode\" class=\"discount-coupon-code\">")
+                .append("<input type=\"submit\" name=\"applydiscountcouponcode\" value=\"Apply coupon\" class=\"button-2 apply-discount-coupon-code-button\"></div>")
+                .append("<div class=\"giftcard-box\"><input type=\"text\" name=\"giftcardcouponcode\" class=\"gift-card-coupon-code\">")
+                .append("<input type=\"submit\" name=\"applygiftcardcouponcode\" value=\"Add gift card\" class=\"button-2 apply-gift-card-coupon-code-button\"></div></div>")
+                .append("<div class=\"shipping\"><div class=\"estimate-shipping\"><select id=\"CountryId\" name=\"CountryId\">")
+                .append(countryOptions(null)).append("</select><select id=\"StateProvinceId\" name=\"StateProvinceId\">")
+                .append("<option value=\"0\">Other (Non US)</option></select>")
+                .append("<input id=\"ZipPostalCode\" name=\"ZipPostalCode\" type=\"text\" value=\"\">")
+                .append("<input type=\"submit\" name=\"estimateshipping\" value=\"Estimate shipping\" class=\"button-2 estimate-shipping-button\"></div></div></div>")
+                .append("<div class=\"totals\"><table class=\"cart-total\"><tbody>")
+                .append("<tr><td class=\"cart-total-left\"><span class=\"nobr\">Sub-Total:</span></td><td class=\"cart-total-right\">")
+                .append("<span class=\"nobr\"><span class=\"product-price\">").append(money(customer.subtotal(catalog))).append("</span></span></td></tr>")
+                .append("<tr><td class=\"cart-total-left\"><span class=\"nobr\">Total:</span></td><td class=\"cart-total-right\">")
+                .append("<span class=\"nobr\"><span class=\"value-summary\"><strong>").append(money(customer.subtotal(catalog)))
+                .append("</strong></span></span></td></tr></tbody></table>")
+                .append("<div class=\"terms-of-service\"><input id=\"termsofservice\" type=\"checkbox\" name=\"termsofservice\">")
+                .append("<label for=\"termsofservice\">I agree with the terms of service and I adhere to them unconditionally</label></div>")
+                .append("<div id=\"terms-of-service-warning-box\" style=\"display:none\">Please accept the terms of service before the next step.</div>")
+                .append("<div class=\"checkout-buttons\"><button type=\"submit\" id=\"checkout\" name=\"checkout\" value=\"checkout\"")
+                .append(" class=\"button-1 checkout-button\" onclick=\"if(!document.getElementById('termsofservice').checked)")
+                .append("{document.getElementById('terms-of-service-warning-box').style.display='block';return false;}\">Checkout</button></div>")
+                .append("</div></div></form></div></div></div>");
+        return html.toString();
+    }
+
+    private static String cartRows(Customer customer, Map<Integer, Product> catalog, boolean editable) {
+        StringBuilder html = new StringBuilder();
+        for (Map.Entry<Integer, Integer> line : customer.cart.entrySet()) {
+            Product product = catalog.get(line.getKey());
+            html.append("<tr class=\"cart-item-row\">");
+            if (editable) {
+                html.append("<td class=\"remove-from-cart\"><input type=\"checkbox\" name=\"removefromcart\" value=\"")
+                        .append(product.id).append("\"></td>");
+            }
+            html.append("<td class=\"product\"><a href=\"/").append(product.slug).append("\" class=\"product-name\">")
+                    .append(escape(product.name)).append("</a></td><td class=\"unit-price nobr\"><span class=\"product-unit-price\">")
+                    .append(money(product.price)).append("</span></td><td class=\"qty nobr\">");
+            if (editable) {
+                html.append("<input name=\"itemquantity").append(product.id).append("\" type=\"text\" value=\"")
+                        .append(line.getValue()).append("\" class=\"qty-input\">");
+            } else {
+                html.append("<span>").append(line.getValue()).append("</span>");
+            }
+            html.append("</td><td class=\"subtotal nobr end\"><span class=\"product-subtotal\">")
+                    .append(money(product.price * line.getValue())).append("</span></td></tr>");
+        }
+        return html.toString();
+    }
+
+    // ---------------------------------------------------------
+    // ONE-PAGE CHECKOUT
+    // ---------------------------------------------------------
+
+    static String checkout(Customer customer) {
+        StringBuilder html = new StringBuilder("<div class=\"page checkout-page\"><div class=\"page-title\"><h1>Checkout</h1></div>"
+                + "<ol id=\"checkout-progress\"><li>Address</li><li>Shipping</li><li>Payment</li><li>Confirm</li></ol>"
+                + "<div class=\"page-body checkout-data\"><div class=\"message-error\" id=\"checkout-error\" style=\"display:none\"></div>"
+                + "<ol class=\"opc\" id=\"checkout-steps\">");
+        String[][] steps = {
+                {"billing", "Billing address"},
+                {"shipping", "Shipping address"},
+                {"shipping-method", "Shipping method"},
+                {"payment-method", "Payment method"},
+                {"payment-info", "Payment information"},
+                {"confirm-order", "Confirm order"}
+        };
+        for (int i = 0; i < steps.length; i++) {
+            String id = steps[i][0];
+            boolean first = i == 0;
+            html.append("<li id=\"opc-").append(id.replace('-', '_')).append("\" class=\"tab-section")
+                    .append(first ? " allow active" : "").append("\"><div class=\"step-title\"><span class=\"number\">").append(i + 1)
+                    .append("</span><h2 class=\"title\">").append(steps[i][1]).append("</h2></div>")
+                    .append("<div id=\"checkout-step-").append(id).append("\" class=\"step a-item\"")
+                    .append(first ? "" : " style=\"display:none\"").append("><form id=\"co-").append(id)
+                    .append("-form\" action=\"\" onsubmit=\"return false\"><div id=\"checkout-").append(id).append("-load\">")
+                    .append(first ? billingSection(customer) : "").append("</div></form></div></li>");
+        }
+        return html.append("</ol></div></div>").toString();
+    }
+
+    static String billingSection(Customer customer) {
+        boolean hasAddresses = !customer.addresses.isEmpty();
+        StringBuilder html = new StringBuilder("<div class=\"checkout-data\">");
+        if (hasAddresses) {
+            // Like the live site, the address book dropdown is only rendered when there is something to choose
+            html.append("<div class=\"section select-billing-address\">"
+                    + "<label for=\"billing-address-select\">Select a billing address from your address book or enter a new address.</label>"
+                    + "<div><select name=\"billing_address_id\" id=\"billing-address-select\" class=\"address-select\""
+                    + " onchange=\"Billing.newAddress(!this.value)\">")
+                    .append(addressOptions(customer.addresses)).append("</select></div></div>");
+        }
+        html.append("<div class=\"section new-billing-address\" id=\"billing-new-address-form\"")
+                .append(hasAddresses ? " style=\"display:none\"" : "").append("><div class=\"enter-address\">");
+        for (String[] field : new String[][]{{"FirstName", customer.firstName}, {"LastName", customer.lastName},
+                {"Email", customer.email}, {"Company", ""}}) {
+            html.append(addressInput("BillingNewAddress", field[0], field[1]));
+        }
+        html.append("<div class=\"inputs\"><label for=\"BillingNewAddress_CountryId\">Country:</label>")
+                .append("<select id=\"BillingNewAddress_CountryId\" name=\"BillingNewAddress.CountryId\">")
+                .append(countryOptions(null)).append("</select></div>")
+                .append("<div class=\"inputs\"><label for=\"BillingNewAddress_StateProvinceId\">State / province:</label>")
+                .append("<select id=\"BillingNewAddress_StateProvinceId\" name=\"BillingNewAddress.StateProvinceId\">")
+                .append("<option value=\"0\">Other (Non US)</option></select></div>");
+        for (String field : new String[]{"City", "Address1", "Address2", "ZipPostalCode", "PhoneNumber", "FaxNumber"}) {
+            html.append(addressInput("BillingNewAddress", field, ""));
+        }
+        return html.append("</div></div><div class=\"inputs\"><input id=\"ShipToSameAddress\" name=\"ShipToSameAddress\"")
+                .append(" type=\"checkbox\" value=\"true\" checked><label for=\"ShipToSameAddress\">Ship to the same address</label></div></div>")
+                .append("<div class=\"buttons\" id=\"billing-buttons-container\"><input type=\"button\" title=\"Continue\"")
+                .append(" class=\"button-1 new-address-next-step-button\" onclick=\"Billing.save()\" value=\"Continue\"></div>")
+                .toString();
+    }
+
+    static String shippingSection(Customer customer) {
+        StringBuilder html = new StringBuilder("<div class=\"checkout-data\"><div class=\"section select-shipping-address\">"
+                + "<label for=\"shipping-address-select\">Select a shipping address from your address book or enter a new address.</label>"
+                + "<div><select name=\"shipping_address_id\" id=\"shipping-address-select\" class=\"address-select\">");
+        html.append(addressOptions(customer.addresses)).append("</select></div></div>")
+                .append("<div class=\"section pickup-in-store\"><input id=\"PickUpInStore\" name=\"PickUpInStore\" type=\"checkbox\" value=\"true\">")
+                .append("<label for=\"PickUpInStore\">In-Store Pickup</label></div>")
+                .append("<div class=\"section new-shipping-address\" style=\"display:none\">");
+        for (String field : new String[]{"FirstName", "LastName", "Email", "Company"}) {
+            html.append(addressInput("ShippingNewAddress", field, ""));
+        }
+        html.append("<select id=\"ShippingNewAddress_CountryId\" name=\"ShippingNewAddress.CountryId\">").append(countryOptions(null))
+                .append("</select><select id=\"ShippingNewAddress_StateProvinceId\" name=\"ShippingNewAddress.StateProvinceId\">")
+                .append("<option value=\"0\">Other (Non US)</option></select>");
+        for (String field : new String[]{"City", "Address1", "Address2", "ZipPostalCode", "PhoneNumber"}) {
+            html.append(addressInput("ShippingNewAddress", field, ""));
+        }
+        return html.append("</div></div><div class=\"buttons\" id=\"shipping-buttons-container\"><input type=\"button\" title=\"Continue\"")
+                .append(" class=\"button-1 new-address-next-step-button\" onclick=\"Shipping.save()\" value=\"Continue\"></div>")
+                .toString();
+    }
+
+    static String shippingMethodSection() {
+        return "<div class=\"checkout-data\"><div class=\"section shipping-method\"><ul class=\"method-list\">"
+                + methodList("shippingoption", SHIPPING_METHODS) + "</ul></div></div>"
+                + "<div class=\"buttons\" id=\"shipping-method-buttons-container\"><input type=\"button\""
+                + " class=\"button-1 shipping-method-next-step-button\" onclick=\"ShippingMethod.save()\" value=\"Continue\"></div>";
+    }
+
+    static String paymentMethodSection() {
+        return "<div class=\"checkout-data\"><div class=\"section payment-method\"><ul class=\"method-list\">"
+                + methodList("paymentmethod", PAYMENT_METHODS) + "</ul></div></div>"
+                + "<div class=\"buttons\" id=\"payment-method-buttons-container\"><input type=\"button\""
+                + " class=\"button-1 payment-method-next-step-button\" onclick=\"PaymentMethod.save()\" value=\"Continue\"></div>";
+    }
+
+    static String paymentInfoSection(String paymentMethod) {
+        String info;
+        if ("Payments.Manual".equals(paymentMethod)) {
+            info = "<table class=\"info\"><tr><td><select id=\"CreditCardType\" name=\"CreditCardType\">"
+                    + "<option value=\"Visa\">Visa</option><option value=\"MasterCard\">Master card</option></select></td></tr>"
+                    + "<tr><td><input id=\"CardholderName\" name=\"CardholderName\" type=\"text\"></td></tr>"
+                    + "<tr><td><input id=\"CardNumber\" name=\"CardNumber\" type=\"text\"></td></tr>"
+                    + "<tr><td><select id=\"ExpireMonth\" name=\"ExpireMonth\"><option value=\"1\">01</option><option value=\"12\">12</option></select>"
+                    + "<select id=\"ExpireYear\" name=\"ExpireYear\"><option value=\"2030\">2030</option><option value=\"2031\">2031</option></select></td></tr>"
+                    + "<tr><td><input id=\"CardCode\" name=\"CardCode\" type=\"text\"></td></tr></table>";
+        } else if ("Payments.PurchaseOrder".equals(paymentMethod)) {
+            info = "<table class=\"info\"><tr><td><input id=\"PurchaseOrderNumber\" name=\"PurchaseOrderNumber\" type=\"text\"></td></tr></table>";
+        } else if ("Payments.CheckMoneyOrder".equals(paymentMethod)) {
+            info = "<table class=\"info\"><tr><td><p>Mail Personal or Business Check, Cashier's Check or money order to the shop.</p></td></tr></table>";
+        } else {
+            info = "<table class=\"info\"><tr><td><p>You will pay by COD</p></td></tr></table>";
+        }
+        return "<div class=\"checkout-data\"><div class=\"section payment-info\"><div class=\"info\">" + info + "</div></div></div>"
+                + "<div class=\"buttons\" id=\"payment-info-buttons-container\"><input type=\"button\""
+                + " class=\"button-1 payment-info-next-step-button\" onclick=\"PaymentInfo.save()\" value=\"Continue\"></div>";
+    }
+
+    static String confirmSection(Customer customer, Map<Integer, Product> catalog) {
+        double fee = 0;
+        String paymentName = customer.paymentMethod;
+        for (String[] method : PAYMENT_METHODS) {
+            if (method[0].equals(customer.paymentMethod)) {
+                fee = Double.parseDouble(method[2]);
+                paymentName = method[1];
+            }
+        }
+        String shippingName = customer.shippingMethod == null ? "" : customer.shippingMethod.split("___")[0];
+        return "<div class=\"checkout-data\"><div class=\"order-summary-content\"><div class=\"order-review-data\">"
+                + "<div class=\"billing-info\"><div class=\"title\"><strong>Billing Address</strong></div>"
+                + escape(customer.billing == null ? "" : customer.billing.summary()) + "</div>"
+                + "<div class=\"payment-method-info\"><strong>Payment Method</strong> " + escape(paymentName) + "</div>"
+                + "<div class=\"shipping-info\"><div class=\"title\"><strong>Shipping Address</strong></div>"
+                + escape(customer.shipping == null ? "" : customer.shipping.summary()) + "</div>"
+                + "<div class=\"shipping-method-info\"><strong>Shipping Method</strong> " + escape(shippingName) + "</div></div>"
+                + "<table class=\"cart\"><tbody>" + cartRows(customer, catalog, false) + "</tbody></table>"
+                + "<table class=\"cart-total\"><tbody><tr><td class=\"cart-total-left\"><span class=\"nobr\">Sub-Total:</span></td>"
+                + "<td class=\"cart-total-right\"><span class=\"product-price\">" + money(customer.subtotal(catalog)) + "</span></td></tr>"
+                + "<tr><td class=\"cart-total-left\"><span class=\"nobr\">Payment method additional fee:</span></td>"
+                + "<td class=\"cart-total-right\"><span class=\"product-price\">" + money(fee) + "</span></td></tr>"
+                + "<tr><td class=\"cart-total-left\"><span class=\"nobr\">Total:</span></td><td class=\"cart-total-right\">"
+                + "<span class=\"nobr\"><span class=\"product-price order-total\"><strong>" + money(customer.subtotal(catalog) + fee)
+                + "</strong></span></span></td></tr></tbody></table></div></div>"
+                + "<div class=\"buttons\" id=\"confirm-order-buttons-container\"><input type=\"button\" value=\"Confirm\""
+                + " class=\"button-1 confirm-order-next-step-button\" onclick=\"ConfirmOrder.save()\"></div>";
+    }
+
+    static String orderCompleted(int orderNumber) {
+        return "<div class=\"page checkout-page\"><div class=\"page-title\"><h1>Thank you</h1></div>"
+                + "<div class=\"page-body checkout-data\"><div class=\"section order-completed\">"
+                + "<div class=\"title\"><strong>Your order has been successfully processed!</strong></div>"
+                + "<ul class=\"details\"><li>Order number: " + orderNumber + "</li>"
+                + "<li><a href=\"/orderdetails/" + orderNumber + "\">Click here for order details.</a></li></ul>"
+                + "<div class=\"buttons\"><input type=\"button\" value=\"Continue\" class=\"button-2 order-completed-continue-button\""
+                + " onclick=\"setLocation('/')\"></div></div></div></div>";
+    }
+
+    // ---------------------------------------------------------
+    // HELPERS
+    // ---------------------------------------------------------
+
+    private static String methodList(String name, String[][] methods) {
+        StringBuilder html = new StringBuilder();
+        for (int i = 0; i < methods.length; i++) {
+            html.append("<li><div class=\"method-name\"><input id=\"").append(name).append('_').append(i)
+                    .append("\" type=\"radio\" name=\"").append(name).append("\" value=\"").append(escape(methods[i][0])).append('"')
+                    .append(i == 0 ? " checked" : "").append("><label for=\"").append(name).append('_').append(i).append("\">")
+                    .append(escape(methods[i][1])).append(" (").append(methods[i][2]).append(")</label></div></li>");
+        }
+        return html.toString();
+    }
+
+    private static String addressOptions(List<Address> addresses) {
+        StringBuilder html = new StringBuilder();
+        for (Address address : addresses) {
+            html.append("<option value=\"").append(address.id).append("\">").append(escape(address.summary())).append("</option>");
+        }
+        return html.append("<option value=\"\"").append(addresses.isEmpty() ? " selected" : "").append(">New Address</option>").toString();
+    }
+
+    private static String addressInput(String prefix, String field, String value) {
+        return "<div class=\"inputs\"><label for=\"" + prefix + "_" + field + "\">" + field + ":</label>"
+                + "<input type=\"text\" id=\"" + prefix + "_" + field + "\" name=\"" + prefix + "." + field + "\" value=\""
+                + escape(value) + "\"></div>";
+    }
+
+    private static String countryOptions(String selected) {
+        StringBuilder html = new StringBuilder("<option value=\"0\">Select country</option>");
+        for (String[] country : COUNTRIES) {
+            html.append("<option value=\"").append(country[0]).append('"').append(country[0].equals(selected) ? " selected" : "")
+                    .append('>').append(country[1]).append("</option>");
+        }
+        return html.toString();
+    }
+
+    static String countryName(String id) {
+        for (String[] country : COUNTRIES) {
+            if (country[0].equals(id)) {
+                return country[1];
+            }
+        }
+        return "";
+    }
+
+    static String money(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
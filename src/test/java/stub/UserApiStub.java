@@ -0,0 +1,373 @@
+package stub;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.ConfigReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process stand-in for the reqres.in users API used by SampleAPITest.
+ *
+ * Implements the users CRUD endpoints with reqres.in's JSON shapes:
+ * - GET    /api/users?page=&amp;per_page=  paged list (page, per_page, total, total_pages, data)
+ * - GET    /api/users/{id}               {"data": {...}}, or 404 with {}
+ * - POST   /api/users                    201, echoes the body with id and createdAt
+ * - PUT    /api/users/{id}               200, replaces the user, adds updatedAt
+ * - PATCH  /api/users/{id}               200, merges into the user, adds updatedAt
+ * - DELETE /api/users/{id}               204
+ * Unlike reqres.in, writes are kept, so a created user can be read back.
+ *
+ * Users live in a concurrent sorted map of immutable snapshots: reads never
+ * lock, writes replace a whole entry atomically, and there is no stub-wide
+ * lock, so throughput scales with the worker pool rather than serializing
+ * like the DemoWebShop stub. Thousands of requests per second on loopback is
+ * the expected range.
+ *
+ * The shared instance is started by {@link #startIfConfigured()} when
+ * userApiStub or offlineShop is true, and points usersApiUrl at itself.
+ *
+ * Configuration (config.properties):
+ * - usersApiUrl (default: https://reqres.in/api)
+ * - userApiStub (default: false)
+ * - userApiStubPort (default: 0 = random free port)
+ *
+ * @author QA Team
+ * @version 1.0
+ */
+public class UserApiStub {
+
+    private static final Logger logger = LogManager.getLogger(UserApiStub.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static final String USERS_PATH = "/api/users";
+    private static final int DEFAULT_PAGE_SIZE = 6;
+    private static final byte[] EMPTY_OBJECT = "{}".getBytes(StandardCharsets.UTF_8);
+
+    private static final String[][] SEED_USERS = {
+            {"george.bluth@reqres.in", "George", "Bluth"},
+            {"janet.weaver@reqres.in", "Janet", "Weaver"},
+            {"emma.wong@reqres.in", "Emma", "Wong"},
+            {"eve.holt@reqres.in", "Eve", "Holt"},
+            {"charles.morris@reqres.in", "Charles", "Morris"},
+            {"tracey.ramos@reqres.in", "Tracey", "Ramos"},
+            {"michael.lawson@reqres.in", "Michael", "Lawson"},
+            {"lindsay.ferguson@reqres.in", "Lindsay", "Ferguson"},
+            {"tobias.funke@reqres.in", "Tobias", "Funke"},
+            {"byron.fields@reqres.in", "Byron", "Fields"},
+            {"george.edwards@reqres.in", "George", "Edwards"},
+            {"rachel.howell@reqres.in", "Rachel", "Howell"}
+    };
+
+    static {
+        // Without TCP_NODELAY small keep-alive responses stall ~40 ms on delayed ACKs.
+        // Read once per JVM when the first HttpServer starts; surefire also sets it.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private static UserApiStub shared;
+
+    private final ConcurrentNavigableMap<Integer, Map<String, Object>> users = new ConcurrentSkipListMap<>();
+    private final AtomicInteger nextId = new AtomicInteger(SEED_USERS.length + 1);
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    // ---------------------------------------------------------
+    // LIFECYCLE
+    // ---------------------------------------------------------
+
+    /**
+     * Starts a stub on the given loopback port, seeded with reqres.in's twelve users.
+     *
+     * @param port    port to bind, 0 for any free port
+     * @param threads worker threads
+     */
+    public UserApiStub(int port, int threads) {
+        seed();
+        try {
+            // Backlog sized for load experiments that open many connections at once
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to start user API stub on port " + port, e);
+        }
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "user-api-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext(USERS_PATH, this::handle);
+        server.start();
+        logger.info("User API stub listening on {} ({} worker threads)", getBaseUrl(), threads);
+    }
+
+    /**
+     * Starts the shared stub if userApiStub or offlineShop is enabled and
+     * points usersApiUrl at it. Safe to call from every setup method.
+     *
+     * @return the shared stub, or null when disabled
+     */
+    public static synchronized UserApiStub startIfConfigured() {
+        if (!ConfigReader.getBoolean("userApiStub", false) && !ConfigReader.getBoolean("offlineShop", false)) {
+            return null;
+        }
+        if (shared == null) {
+            int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+            shared = new UserApiStub(ConfigReader.getInt("userApiStubPort", 0), threads);
+            ConfigReader.set("usersApiUrl", shared.getBaseUrl());
+            Runtime.getRuntime().addShutdownHook(new Thread(shared::stop, "user-api-stub-shutdown"));
+        }
+        return shared;
+    }
+
+    /**
+     * @return API root, e.g. http://127.0.0.1:53211/api, to use in place of https://reqres.in/api
+     */
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/api";
+    }
+
+    /**
+     * @return requests served since start
+     */
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * @return most requests the stub was handling at the same moment since start
+     */
+    public int getPeakInFlight() {
+        return peakInFlight.get();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+        logger.info("User API stub stopped after {} requests", requestCount.get());
+    }
+
+    private void seed() {
+        for (int i = 0; i < SEED_USERS.length; i++) {
+            Map<String, Object> user = new LinkedHashMap<>();
+            user.put("id", i + 1);
+            user.put("email", SEED_USERS[i][0]);
+            user.put("first_name", SEED_USERS[i][1]);
+            user.put("last_name", SEED_USERS[i][2]);
+            user.put("avatar", "https://reqres.in/img/faces/" + (i + 1) + "-image.jpg");
+            users.put(i + 1, Collections.unmodifiableMap(user));
+        }
+    }
+
+    // ---------------------------------------------------------
+    // ROUTING
+    // ---------------------------------------------------------
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            String path = exchange.getRequestURI().getRawPath();
+            String method = exchange.getRequestMethod();
+            String rest = path.substring(USERS_PATH.length());
+            if (rest.isEmpty() || rest.equals("/")) {
+                if ("GET".equals(method)) {
+                    list(exchange);
+                } else if ("POST".equals(method)) {
+                    create(exchange);
+                } else {
+                    send(exchange, 405, EMPTY_OBJECT);
+                }
+                return;
+            }
+
+            Integer id = parseId(rest.substring(1));
+            if (id == null) {
+                send(exchange, 404, EMPTY_OBJECT);
+                return;
+            }
+            switch (method) {
+                case "GET":
+                    read(exchange, id);
+                    break;
+                case "PUT":
+                    update(exchange, id, false);
+                    break;
+                case "PATCH":
+                    update(exchange, id, true);
+                    break;
+                case "DELETE":
+                    users.remove(id);
+                    send(exchange, 204, null);
+                    break;
+                default:
+                    send(exchange, 405, EMPTY_OBJECT);
+            }
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, json(Collections.singletonMap("error", e.getMessage())));
+        } catch (Exception e) {
+            logger.error("User API stub failed on {} {}: {}",
+                    exchange.getRequestMethod(), exchange.getRequestURI(), e.getMessage(), e);
+            send(exchange, 500, json(Collections.singletonMap("error", "Internal stub error: " + e)));
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    // ---------------------------------------------------------
+    // ENDPOINTS
+    // ---------------------------------------------------------
+
+    private void list(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        int page = Math.max(1, parseInt(query.get("page"), 1));
+        int perPage = Math.max(1, parseInt(query.get("per_page"), DEFAULT_PAGE_SIZE));
+
+        // Snapshot of the values view; concurrent writes may or may not be visible, never half-applied
+        List<Map<String, Object>> all = new ArrayList<>(users.values());
+        int from = (int) Math.min((long) (page - 1) * perPage, all.size());
+        int to = (int) Math.min((long) from + perPage, all.size());
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("page", page);
+        body.put("per_page", perPage);
+        body.put("total", all.size());
+        body.put("total_pages", (all.size() + perPage - 1) / perPage);
+        body.put("data", all.subList(from, to));
+        send(exchange, 200, json(body));
+    }
+
+    private void read(HttpExchange exchange, int id) throws IOException {
+        Map<String, Object> user = users.get(id);
+        if (user == null) {
+            send(exchange, 404, EMPTY_OBJECT);
+            return;
+        }
+        send(exchange, 200, json(Collections.singletonMap("data", user)));
+    }
+
+    private void create(HttpExchange exchange) throws IOException {
+        Map<String, Object> user = new LinkedHashMap<>(readBody(exchange));
+        int id = nextId.getAndIncrement();
+        user.put("id", id);
+        user.put("createdAt", Instant.now().toString());
+        users.put(id, Collections.unmodifiableMap(user));
+
+        // reqres.in returns created ids as strings
+        Map<String, Object> body = new LinkedHashMap<>(user);
+        body.put("id", String.valueOf(id));
+        send(exchange, 201, json(body));
+    }
+
+    private void update(HttpExchange exchange, int id, boolean merge) throws IOException {
+        Map<String, Object> changes = readBody(exchange);
+        String updatedAt = Instant.now().toString();
+        Map<String, Object> updated = users.compute(id, (key, current) -> {
+            Map<String, Object> user = merge && current != null ? new LinkedHashMap<>(current) : new LinkedHashMap<>();
+            user.putAll(changes);
+            user.put("id", key);
+            user.put("updatedAt", updatedAt);
+            return Collections.unmodifiableMap(user);
+        });
+        // reqres.in answers with the submitted fields plus updatedAt, not the stored user
+        Map<String, Object> body = new LinkedHashMap<>(changes);
+        body.put("updatedAt", updated.get("updatedAt"));
+        send(exchange, 200, json(body));
+    }
+
+    // ---------------------------------------------------------
+    // HELPERS
+    // ---------------------------------------------------------
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream input = exchange.getRequestBody()) {
+            byte[] body = input.readAllBytes();
+            if (body.length == 0) {
+                return Collections.emptyMap();
+            }
+            try {
+                return mapper.readValue(body, Map.class);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Request body is not a JSON object: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private static byte[] json(Object value) {
+        try {
+            return mapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize stub response", e);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    private static Integer parseId(String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static int parseInt(String value, int fallback) {
+        try {
+            return value == null ? fallback : Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static Map<String, String> parseQuery(String encoded) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : encoded.split("&")) {
+            int separator = pair.indexOf('=');
+            String name = URLDecoder.decode(separator < 0 ? pair : pair.substring(0, separator), StandardCharsets.UTF_8);
+            parameters.put(name, separator < 0 ? "" : URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+}
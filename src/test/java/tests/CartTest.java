@@ -8,13 +8,15 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 import pages.CartPage;
 import pages.HomePage;
-import pages.PDPPage;
+import session.CartSeeder;
+
+import java.util.Map;
 
 @Epic("E-Commerce Platform")
 @Feature("Shopping Cart")
 public class CartTest extends BaseTest {
 
-    private static final String BOOK_PRODUCT_URL = "https://demowebshop.tricentis.com/computing-and-internet";
+    private static final int BOOK_PRODUCT_ID = 13;
     private models.CartData cartData;
 
     @BeforeMethod
@@ -27,12 +29,8 @@ public class CartTest extends BaseTest {
              throw new RuntimeException("Failed to load cart data", e);
         }
 
-        DriverFactory.getDriver().get(BOOK_PRODUCT_URL);
-        PDPPage pdpPage = new PDPPage(DriverFactory.getDriver());
-        pdpPage.clickAddToCart();
-        pdpPage.waitForNotification();
-
-        DriverFactory.getDriver().get("https://demowebshop.tricentis.com/cart");
+        // Cart content is a precondition here - seed it over HTTP, then open the cart once
+        CartSeeder.seedAndOpenCart(DriverFactory.getDriver(), Map.of(BOOK_PRODUCT_ID, 1));
     }
 
     @Test(priority = 1, description = "Verify cart page loads and all main elements are visible", groups = {"smoke", "ui", "cart", "critical"})
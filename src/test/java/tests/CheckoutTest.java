@@ -3,11 +3,15 @@ package tests;
 import base.BaseTest;
 import drivers.DriverFactory;
 import io.qameta.allure.*;
+import org.openqa.selenium.WebDriver;
 import org.testng.Assert;
+import org.testng.SkipException;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 import pages.*;
-import utils.ConfigReader;
+import session.CartSeeder;
+import session.SessionBootstrapper;
+import session.SessionSnapshots;
 
 import models.BillingAddress;
 import models.CheckoutData;
@@ -15,13 +19,16 @@ import org.testng.annotations.DataProvider;
 import utils.JsonDataReader;
 
 import java.io.IOException;
+import java.util.Map;
 
 @Epic("E-Commerce Platform")
 @Feature("Checkout Process")
 public class CheckoutTest extends BaseTest {
 
-    private static final String BOOK_PRODUCT_URL = "https://demowebshop.tricentis.com/computing-and-internet";
+    private static final int BOOK_PRODUCT_ID = 13;
+    private static final String CHECKOUT_FIXTURE = "checkout-ready";
     private CheckoutData defaultTestData;
+    private boolean restoredFromSnapshot;
 
     @BeforeMethod
     public void setupCheckout() {
@@ -33,20 +40,19 @@ public class CheckoutTest extends BaseTest {
              throw new RuntimeException("Failed to load checkout data", e);
         }
 
-        LoginPage loginPage = new LoginPage();
-        loginPage.onLogin();
-        loginPage.login(ConfigReader.get("validEmail"), ConfigReader.get("validPassword"));
+        // Logged in, cart seeded, on checkout: captured once, restored by later tests
+        WebDriver driver = DriverFactory.getDriver();
+        restoredFromSnapshot = SessionSnapshots.restoreOrCapture(CHECKOUT_FIXTURE, driver, () -> {
+            // Login is a precondition here, not the subject under test - do it over HTTP
+            SessionBootstrapper.loginWithDefaultUser(driver);
 
-        DriverFactory.getDriver().get(BOOK_PRODUCT_URL);
-        PDPPage pdpPage = new PDPPage(DriverFactory.getDriver());
-        pdpPage.clickAddToCart();
-        pdpPage.navigateToCartFromNotification();
+            // Same for the cart content - seed it over HTTP and open the cart once
+            CartSeeder.seedAndOpenCart(driver, Map.of(BOOK_PRODUCT_ID, 1));
 
-        // HomePage homePage = new HomePage();
-        // homePage.clickCart();
-
-        CartPage cartPage = new CartPage(DriverFactory.getDriver());
-        cartPage.acceptTermsAndCheckout();
+            CartPage cartPage = new CartPage(driver);
+            cartPage.acceptTermsAndCheckout();
+            new CheckoutPage(driver).waitForPageToLoad();
+        }, null);
     }
 
     @Test(priority = 1, description = "Verify checkout page loads successfully")
@@ -69,6 +75,22 @@ public class CheckoutTest extends BaseTest {
         Allure.addAttachment("Page Title", pageTitle);
     }
 
+    @Test(priority = 2, dependsOnMethods = "verifyCheckoutPageLoadsTest",
+            description = "Verify a later checkout test restores the checkout session instead of repeating its setup")
+    @Story("Checkout Page Navigation")
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify that the logged-in, seeded checkout session captured by the first test is restored from its snapshot, "
+            + "with the same pooled account, rather than logging in and seeding the cart again")
+    public void checkoutSessionRestoredFromSnapshotTest() {
+        if (!SessionSnapshots.isEnabled()) {
+            throw new SkipException("Session snapshots are disabled (sessionSnapshotsEnabled=false)");
+        }
+        Assert.assertTrue(restoredFromSnapshot,
+                "Setup should have restored the '" + CHECKOUT_FIXTURE + "' snapshot captured by an earlier test");
+        Assert.assertTrue(new CheckoutPage(DriverFactory.getDriver()).isOnCheckoutPage(),
+                "Restored session should land on the checkout page");
+    }
+
     @Test(priority = 2, description = "Verify billing address section is visible")
     @Story("Billing Address Step")
     @Severity(SeverityLevel.CRITICAL)
@@ -123,13 +145,7 @@ public class CheckoutTest extends BaseTest {
     @Severity(SeverityLevel.CRITICAL)
     @Description("Verify that shipping address section appears after successfully completing billing address step")
     public void verifyShippingAddressSectionTest() {
-        CheckoutPage checkoutPage = new CheckoutPage(DriverFactory.getDriver());
-        checkoutPage.selectBillingAddress("New Address");
-
-        BillingAddress address = defaultTestData.getBillingAddress();
-        checkoutPage.fillBillingAddress(address.getFirstName(), address.getLastName(), address.getEmail(),
-                address.getCountry(), address.getCity(), address.getAddress1(), address.getZipPostalCode(), address.getPhoneNumber());
-        checkoutPage.clickBillingContinue();
+        CheckoutPage checkoutPage = fastForwardTo(CheckoutPage.CheckoutStep.SHIPPING);
 
         Assert.assertTrue(checkoutPage.waitForShippingSection(5),
                 "Shipping section should appear within timeout period");
@@ -146,13 +162,7 @@ public class CheckoutTest extends BaseTest {
     @Severity(SeverityLevel.NORMAL)
     @Description("Verify that 'Ship to same address' checkbox functionality allows users to use billing address for shipping")
     public void shipToSameAddressTest() {
-        CheckoutPage checkoutPage = new CheckoutPage(DriverFactory.getDriver());
-        checkoutPage.selectBillingAddress("New Address");
-
-        BillingAddress address = defaultTestData.getBillingAddress();
-        checkoutPage.fillBillingAddress(address.getFirstName(), address.getLastName(), address.getEmail(),
-                address.getCountry(), address.getCity(), address.getAddress1(), address.getZipPostalCode(), address.getPhoneNumber());
-        checkoutPage.clickBillingContinue();
+        CheckoutPage checkoutPage = fastForwardTo(CheckoutPage.CheckoutStep.SHIPPING);
 
         Assert.assertTrue(checkoutPage.waitForShippingSection(5),
                 "Shipping section should load after billing");
@@ -169,18 +179,7 @@ public class CheckoutTest extends BaseTest {
     @Severity(SeverityLevel.CRITICAL)
     @Description("Verify that shipping method selection section appears after completing shipping address step")
     public void verifyShippingMethodSectionTest() {
-        CheckoutPage checkoutPage = new CheckoutPage(DriverFactory.getDriver());
-        checkoutPage.selectBillingAddress("New Address");
-
-        BillingAddress address = defaultTestData.getBillingAddress();
-        checkoutPage.fillBillingAddress(address.getFirstName(), address.getLastName(), address.getEmail(),
-                address.getCountry(), address.getCity(), address.getAddress1(), address.getZipPostalCode(), address.getPhoneNumber());
-        checkoutPage.clickBillingContinue();
-
-        Assert.assertTrue(checkoutPage.waitForShippingSection(5),
-                "Shipping section should load");
-
-        checkoutPage.clickShippingContinue();
+        CheckoutPage checkoutPage = fastForwardTo(CheckoutPage.CheckoutStep.SHIPPING_METHOD);
 
         Assert.assertTrue(checkoutPage.waitForShippingMethodSection(5),
                 "Shipping method section should appear within timeout");
@@ -197,16 +196,7 @@ public class CheckoutTest extends BaseTest {
     @Severity(SeverityLevel.CRITICAL)
     @Description("Verify that users can select different shipping methods and selection is properly registered")
     public void selectShippingMethodTest() {
-        CheckoutPage checkoutPage = new CheckoutPage(DriverFactory.getDriver());
-        checkoutPage.selectBillingAddress("New Address");
-
-        BillingAddress address = defaultTestData.getBillingAddress();
-        checkoutPage.fillBillingAddress(address.getFirstName(), address.getLastName(), address.getEmail(),
-                address.getCountry(), address.getCity(), address.getAddress1(), address.getZipPostalCode(), address.getPhoneNumber());
-        checkoutPage.clickBillingContinue();
-        Assert.assertTrue(checkoutPage.waitForShippingSection(5));
-
-        checkoutPage.clickShippingContinue();
+        CheckoutPage checkoutPage = fastForwardTo(CheckoutPage.CheckoutStep.SHIPPING_METHOD);
         Assert.assertTrue(checkoutPage.waitForShippingMethodSection(5));
 
         checkoutPage.selectGroundShipping();
@@ -222,22 +212,7 @@ public class CheckoutTest extends BaseTest {
     @Severity(SeverityLevel.CRITICAL)
     @Description("Verify that payment method selection section appears after completing shipping method step")
     public void verifyPaymentMethodSectionTest() {
-        CheckoutPage checkoutPage = new CheckoutPage(DriverFactory.getDriver());
-        checkoutPage.selectBillingAddress("New Address");
-
-        BillingAddress address = defaultTestData.getBillingAddress();
-        checkoutPage.fillBillingAddress(address.getFirstName(), address.getLastName(), address.getEmail(),
-                address.getCountry(), address.getCity(), address.getAddress1(), address.getZipPostalCode(), address.getPhoneNumber());
-        checkoutPage.clickBillingContinue();
-
-        Assert.assertTrue(checkoutPage.waitForShippingSection(5));
-
-        checkoutPage.clickShippingContinue();
-
-        Assert.assertTrue(checkoutPage.waitForShippingMethodSection(5));
-
-        checkoutPage.selectGroundShipping();
-        checkoutPage.clickShippingMethodContinue();
+        CheckoutPage checkoutPage = fastForwardTo(CheckoutPage.CheckoutStep.PAYMENT_METHOD);
 
         Assert.assertTrue(checkoutPage.waitForPaymentMethodSection(5),
                 "Payment method section should appear within timeout");
@@ -254,20 +229,7 @@ public class CheckoutTest extends BaseTest {
     @Severity(SeverityLevel.CRITICAL)
     @Description("Verify that users can select different payment methods and selection is properly registered")
     public void selectPaymentMethodTest() {
-        CheckoutPage checkoutPage = new CheckoutPage(DriverFactory.getDriver());
-        checkoutPage.selectBillingAddress("New Address");
-
-        BillingAddress address = defaultTestData.getBillingAddress();
-        checkoutPage.fillBillingAddress(address.getFirstName(), address.getLastName(), address.getEmail(),
-                address.getCountry(), address.getCity(), address.getAddress1(), address.getZipPostalCode(), address.getPhoneNumber());
-        checkoutPage.clickBillingContinue();
-        Assert.assertTrue(checkoutPage.waitForShippingSection(5));
-
-        checkoutPage.clickShippingContinue();
-        Assert.assertTrue(checkoutPage.waitForShippingMethodSection(5));
-
-        checkoutPage.selectGroundShipping();
-        checkoutPage.clickShippingMethodContinue();
+        CheckoutPage checkoutPage = fastForwardTo(CheckoutPage.CheckoutStep.PAYMENT_METHOD);
         Assert.assertTrue(checkoutPage.waitForPaymentMethodSection(5));
 
         checkoutPage.selectCashOnDelivery();
@@ -283,24 +245,7 @@ public class CheckoutTest extends BaseTest {
     @Severity(SeverityLevel.CRITICAL)
     @Description("Verify that payment information section appears after selecting payment method")
     public void verifyPaymentInfoSectionTest() {
-        CheckoutPage checkoutPage = new CheckoutPage(DriverFactory.getDriver());
-        checkoutPage.selectBillingAddress("New Address");
-
-        BillingAddress address = defaultTestData.getBillingAddress();
-        checkoutPage.fillBillingAddress(address.getFirstName(), address.getLastName(), address.getEmail(),
-                address.getCountry(), address.getCity(), address.getAddress1(), address.getZipPostalCode(), address.getPhoneNumber());
-        checkoutPage.clickBillingContinue();
-        Assert.assertTrue(checkoutPage.waitForShippingSection(5));
-
-        checkoutPage.clickShippingContinue();
-        Assert.assertTrue(checkoutPage.waitForShippingMethodSection(5));
-
-        checkoutPage.selectGroundShipping();
-        checkoutPage.clickShippingMethodContinue();
-        Assert.assertTrue(checkoutPage.waitForPaymentMethodSection(5));
-
-        checkoutPage.selectCashOnDelivery();
-        checkoutPage.clickPaymentMethodContinue();
+        CheckoutPage checkoutPage = fastForwardTo(CheckoutPage.CheckoutStep.PAYMENT_INFO);
 
         Assert.assertTrue(checkoutPage.waitForPaymentInfoSection(5),
                 "Payment info section should appear within timeout");
@@ -317,28 +262,7 @@ public class CheckoutTest extends BaseTest {
     @Severity(SeverityLevel.BLOCKER)
     @Description("Verify that order confirmation section appears with all order details after completing all checkout steps")
     public void verifyConfirmOrderSectionTest() {
-        CheckoutPage checkoutPage = new CheckoutPage(DriverFactory.getDriver());
-        checkoutPage.selectBillingAddress("New Address");
-
-        BillingAddress address = defaultTestData.getBillingAddress();
-        checkoutPage.fillBillingAddress(address.getFirstName(), address.getLastName(), address.getEmail(),
-                address.getCountry(), address.getCity(), address.getAddress1(), address.getZipPostalCode(), address.getPhoneNumber());
-        checkoutPage.clickBillingContinue();
-        Assert.assertTrue(checkoutPage.waitForShippingSection(5));
-
-        checkoutPage.clickShippingContinue();
-        Assert.assertTrue(checkoutPage.waitForShippingMethodSection(5));
-
-        checkoutPage.selectGroundShipping();
-        checkoutPage.clickShippingMethodContinue();
-
-        Assert.assertTrue(checkoutPage.waitForPaymentMethodSection(5));
-
-        checkoutPage.selectCashOnDelivery();
-        checkoutPage.clickPaymentMethodContinue();
-        Assert.assertTrue(checkoutPage.waitForPaymentInfoSection(5));
-
-        checkoutPage.clickPaymentInfoContinue();
+        CheckoutPage checkoutPage = fastForwardTo(CheckoutPage.CheckoutStep.CONFIRM_ORDER);
 
         Assert.assertTrue(checkoutPage.waitForConfirmOrderSection(5),
                 "Confirm order section should appear within timeout period");
@@ -358,12 +282,8 @@ public class CheckoutTest extends BaseTest {
     @Severity(SeverityLevel.CRITICAL)
     @Description("Verify that order total is displayed correctly on the order confirmation page before final submission")
     public void verifyOrderTotalDisplayedTest() {
-        CheckoutPage checkoutPage = new CheckoutPage(DriverFactory.getDriver());
-        checkoutPage.selectBillingAddress("New Address");
-
-        BillingAddress address = defaultTestData.getBillingAddress();
-        checkoutPage.completeCheckoutWithCOD(address.getFirstName(), address.getLastName(), address.getEmail(),
-                address.getCountry(), address.getCity(), address.getAddress1(), address.getZipPostalCode(), address.getPhoneNumber());
+        CheckoutPage checkoutPage = fastForwardTo(CheckoutPage.CheckoutStep.CONFIRM_ORDER);
+        Assert.assertTrue(checkoutPage.waitForConfirmOrderSection(5));
 
         Assert.assertTrue(checkoutPage.isOrderTotalDisplayed(),
                 "Order total should be displayed on confirmation page");
@@ -381,6 +301,18 @@ public class CheckoutTest extends BaseTest {
         Allure.addAttachment("Order Total", orderTotal);
     }
 
+    /**
+     * Earlier checkout sections are preconditions for tests 4-12, not the subject
+     * under test - complete them through the shop's save endpoints.
+     */
+    private CheckoutPage fastForwardTo(CheckoutPage.CheckoutStep step) {
+        CheckoutPage checkoutPage = new CheckoutPage(DriverFactory.getDriver());
+        BillingAddress address = defaultTestData.getBillingAddress();
+        checkoutPage.fastForwardTo(step, address.getFirstName(), address.getLastName(), address.getEmail(),
+                address.getCountry(), address.getCity(), address.getAddress1(), address.getZipPostalCode(), address.getPhoneNumber());
+        return checkoutPage;
+    }
+
     @DataProvider(name = "checkoutData")
     public Object[][] getCheckoutData() throws IOException {
         String dataFilePath = "src/test/resources/testdata/checkout_data.json";
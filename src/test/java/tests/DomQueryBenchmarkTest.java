@@ -0,0 +1,104 @@
+package tests;
+
+import base.BaseTest;
+import base.DevToolsQueryBackend;
+import base.ElementQueryBackend;
+import base.ElementSnapshot;
+import base.WebDriverQueryBackend;
+import drivers.DriverFactory;
+import io.qameta.allure.*;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Benchmark of read-heavy page checks on the WebDriver and DevTools query backends.
+ * Runs the same locator batch against the homepage on both paths, verifies they
+ * agree, and attaches per-check timings to Allure. Chromium only.
+ */
+@Epic("Framework")
+@Feature("DOM Query Backends")
+public class DomQueryBenchmarkTest extends BaseTest {
+
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURED_ITERATIONS = 20;
+
+    private static final List<By> HOME_PAGE_CHECKS = Arrays.asList(
+            By.xpath("//a[normalize-space()='Log in']"),
+            By.xpath("//a[normalize-space()='Register']"),
+            By.xpath("//span[normalize-space()='Shopping cart']"),
+            By.xpath("//img[@alt='Tricentis Demo Web Shop']"),
+            By.xpath("//span[normalize-space()='Wishlist']"),
+            By.id("small-searchterms"),
+            By.xpath("//input[@value='Search']"),
+            By.xpath("//ul[@class='top-menu']//a[normalize-space()='Books']"),
+            By.xpath("//ul[@class='top-menu']//a[normalize-space()='Computers']"),
+            By.xpath("//ul[@class='top-menu']//a[normalize-space()='Electronics']"),
+            By.xpath("//ul[@class='top-menu']//a[normalize-space()='Apparel & Shoes']"),
+            By.xpath("//ul[@class='top-menu']//a[normalize-space()='Digital downloads']"),
+            By.xpath("//ul[@class='top-menu']//a[normalize-space()='Jewelry']"),
+            By.xpath("//ul[@class='top-menu']//a[normalize-space()='Gift Cards']"),
+            By.cssSelector("div.product-item"),
+            By.cssSelector("div.footer a"),
+            By.className("header-links"),
+            By.name("q")
+    );
+
+    @Test(description = "Compare read-heavy page checks over WebDriver and DevTools", groups = {"benchmark"})
+    @Story("Read-heavy Checks")
+    @Severity(SeverityLevel.MINOR)
+    @Description("Runs the same batch of counts and text reads on the homepage through both query backends and reports the time per check")
+    public void readHeavyChecksBenchmark() {
+        WebDriver driver = DriverFactory.getDriver();
+        if (!(driver instanceof ChromiumDriver)) {
+            throw new SkipException("DevTools query backend requires a Chromium browser");
+        }
+
+        ElementQueryBackend webDriverBackend = new WebDriverQueryBackend(driver);
+        ElementQueryBackend devToolsBackend = new DevToolsQueryBackend(driver);
+        try {
+            List<ElementSnapshot> expected = webDriverBackend.query(HOME_PAGE_CHECKS, true, "class");
+            List<ElementSnapshot> actual = devToolsBackend.query(HOME_PAGE_CHECKS, true, "class");
+            for (int i = 0; i < HOME_PAGE_CHECKS.size(); i++) {
+                Assert.assertEquals(actual.get(i).getCount(), expected.get(i).getCount(),
+                        "Count mismatch between backends for " + HOME_PAGE_CHECKS.get(i));
+            }
+            Assert.assertEquals(devToolsBackend.name(), "devtools", "DevTools backend should not have fallen back");
+
+            StringBuilder report = new StringBuilder();
+            report.append(String.format(Locale.ROOT, "%-12s %-10s %12s %14s%n", "backend", "check", "ms/batch", "ms/locator"));
+            for (ElementQueryBackend backend : Arrays.asList(webDriverBackend, devToolsBackend)) {
+                report.append(measure(backend, "counts", false));
+                report.append(measure(backend, "text+attr", true));
+            }
+
+            logger.info("DOM query benchmark ({} locators, {} iterations):\n{}",
+                    HOME_PAGE_CHECKS.size(), MEASURED_ITERATIONS, report);
+            Allure.addAttachment("DOM Query Benchmark", "text/plain", report.toString());
+        } finally {
+            // Not cached by ElementQueryBackends, so nothing else closes its DevTools session
+            devToolsBackend.close();
+        }
+    }
+
+    private String measure(ElementQueryBackend backend, String check, boolean withText) {
+        String attribute = withText ? "class" : null;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            backend.query(HOME_PAGE_CHECKS, withText, attribute);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            backend.query(HOME_PAGE_CHECKS, withText, attribute);
+        }
+        double perBatch = (System.nanoTime() - start) / 1_000_000.0 / MEASURED_ITERATIONS;
+        return String.format(Locale.ROOT, "%-12s %-10s %12.2f %14.3f%n",
+                backend.name(), check, perBatch, perBatch / HOME_PAGE_CHECKS.size());
+    }
+}
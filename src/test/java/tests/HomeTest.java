@@ -6,9 +6,11 @@ import io.qameta.allure.*;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 import pages.HomePage;
-import pages.LoginPage;
+import session.SessionBootstrapper;
 import utils.ConfigReader;
 
+import java.util.Arrays;
+
 @Epic("E-Commerce Platform")
 @Feature("Homepage Functionality")
 public class HomeTest extends BaseTest {
@@ -88,6 +90,18 @@ public class HomeTest extends BaseTest {
                 "Expected URL to contain '/wishlist', but got: " + currentUrl);
     }
 
+    @Test(priority = 6, description = "Verify the category menu lists every category",groups = {"smoke"})
+    @Story("Category Navigation")
+    @Severity(SeverityLevel.NORMAL)
+    @Description("Verify that all seven category links are in the top menu with the expected names, read in one pass")
+    public void verifyCategoryMenuLinksTest() {
+        HomePage homePage = new HomePage(DriverFactory.getDriver());
+
+        Assert.assertEquals(homePage.getCategoryLinkCount(), 7, "All category links should be in the top menu");
+        Assert.assertEquals(homePage.getCategoryLinkTexts(), Arrays.asList("Books", "Computers", "Electronics",
+                "Apparel & Shoes", "Digital downloads", "Jewelry", "Gift Cards"), "Category link names");
+    }
+
 //    @Test(priority = 6, description = "Verify search functionality works")
 //    @Story("Product Search")
 //    @Severity(SeverityLevel.CRITICAL)
@@ -123,7 +137,7 @@ public class HomeTest extends BaseTest {
 
         String urlAfterLogo = homePage.getUrl();
         Assert.assertTrue(
-                urlAfterLogo.equals("https://demowebshop.tricentis.com/") ||
+                urlAfterLogo.equals(ConfigReader.get("baseUrl") + "/") ||
                         !urlAfterLogo.contains("/login"),
                 "Should return to homepage after clicking logo, but got: " + urlAfterLogo
         );
@@ -176,13 +190,9 @@ public class HomeTest extends BaseTest {
     @Severity(SeverityLevel.CRITICAL)
     @Description("Verify that logged-in users can successfully logout and session is terminated properly")
     public void logoutFunctionalityTest() {
-        HomePage homePage = new HomePage(DriverFactory.getDriver());
-        homePage.clickLogin();
+        SessionBootstrapper.loginWithDefaultUser(DriverFactory.getDriver());
 
-        LoginPage loginPage = new LoginPage();
-        loginPage.login(ConfigReader.get("validEmail"), ConfigReader.get("validPassword"));
-
-        homePage = new HomePage(DriverFactory.getDriver());
+        HomePage homePage = new HomePage(DriverFactory.getDriver());
         Assert.assertTrue(homePage.isUserLoggedIn(),
                 "User should be logged in before logout test");
 
@@ -2,20 +2,20 @@ package tests;
 
 import base.BaseTest;
 import io.qameta.allure.*;
-import io.qameta.allure.restassured.AllureRestAssured;
-import io.restassured.RestAssured;
-import io.restassured.filter.log.LogDetail;
-import io.restassured.filter.log.RequestLoggingFilter;
-import io.restassured.filter.log.ResponseLoggingFilter;
 import io.restassured.response.Response;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
+import org.openqa.selenium.By;
+import api.base.RequestSpecs;
+import api.utils.SessionBridge;
 import drivers.DriverFactory;
-
-import static io.restassured.RestAssured.given;
+import proxy.FaultInjectionProxy;
+import proxy.RecordingProxy;
+import stub.DemoWebShopStub;
+import utils.ConfigReader;
 
 /**
  * HybridUIAPITest - Test suite combining UI and API testing
@@ -49,10 +49,10 @@ public class HybridUIAPITest extends BaseTest {
     private static final Logger logger = LogManager.getLogger(HybridUIAPITest.class);
 
     // API Configuration Constants
-    private static final String API_BASE_URI = "https://demowebshop.tricentis.com";
-    private static final String PRODUCT_URL = "https://demowebshop.tricentis.com/14-1-inch-laptop";
+    private static final String PRODUCT_PATH = "/14-1-inch-laptop";
     private static final String PRODUCT_NAME = "14.1-inch Laptop";
     private static final int PRODUCT_ID = 31;
+    private static final By CART_QUANTITY = By.cssSelector(".header-links .cart-qty");
 
     // ═══════════════════════════════════════════════════════════════════════════
     // SETUP - API Configuration
@@ -62,17 +62,13 @@ public class HybridUIAPITest extends BaseTest {
     public void setupAPI() {
         logger.info("Setting up REST Assured for Hybrid Testing...");
 
-        // Configure RestAssured base URI
-        RestAssured.baseURI = API_BASE_URI;
-
-        // Add filters for better logging and Allure integration
-        RestAssured.filters(
-                new AllureRestAssured(),
-                new RequestLoggingFilter(LogDetail.ALL),
-                new ResponseLoggingFilter(LogDetail.ALL)
-        );
+        // The offline stub or a proxy, when enabled, replaces baseUrl
+        DemoWebShopStub.startIfConfigured();
+        RecordingProxy.startIfConfigured();
+        FaultInjectionProxy.startIfConfigured();
 
-        logger.info("REST Assured configured with base URI: {}", API_BASE_URI);
+        // Requests come from RequestSpecs (Allure and logging filters included), never RestAssured's static configuration
+        logger.info("REST Assured configured with base URI: {}", ConfigReader.get("baseUrl"));
     }
 
     // ═══════════════════════════════════════════════════════════════════════════
@@ -109,13 +105,14 @@ public class HybridUIAPITest extends BaseTest {
         Response apiResponse = Allure.step("Step 2: Send API request to add product to cart", () -> {
             logger.debug("Sending POST request to add product to cart...");
 
-            Response response = given()
+            // Share the browser's session, so the item lands in the cart the UI shows
+            Response response = RequestSpecs.given()
+                    .filter(new SessionBridge(DriverFactory.getDriver()))
                     .contentType("application/x-www-form-urlencoded")
                     .formParam("addtocart_31.EnteredQuantity", "1")
                     .when()
                     .post("/addproducttocart/details/31/1")
                     .then()
-                    .log().all()
                     .extract()
                     .response();
 
@@ -173,11 +170,12 @@ public class HybridUIAPITest extends BaseTest {
         // ═══════════════════════════════════════════════════════════════════
 
         Allure.step("Step 6: Navigate to product page in UI", () -> {
-            logger.debug("Navigating to product page: {}", PRODUCT_URL);
+            String productUrl = ConfigReader.get("baseUrl") + PRODUCT_PATH;
+            logger.debug("Navigating to product page: {}", productUrl);
 
-            Allure.parameter("Product URL", PRODUCT_URL);
+            Allure.parameter("Product URL", productUrl);
 
-            DriverFactory.getDriver().get(PRODUCT_URL);
+            DriverFactory.getDriver().get(productUrl);
 
             logger.debug("✅ Navigated to product page");
         });
@@ -223,11 +221,26 @@ public class HybridUIAPITest extends BaseTest {
             logger.info("✅ Page title verified: {}", pageTitle);
         });
 
+        Allure.step("Step 10: Verify API-added product is in the UI cart", () -> {
+            logger.debug("Verifying header cart quantity reflects the API add-to-cart...");
+
+            String cartQuantity = DriverFactory.getDriver().findElement(CART_QUANTITY).getText();
+            String digits = cartQuantity.replaceAll("[^0-9]", "");
+            int quantity = digits.isEmpty() ? 0 : Integer.parseInt(digits);
+
+            Allure.parameter("Header Cart Quantity", cartQuantity);
+
+            Assert.assertTrue(quantity >= 1,
+                    "Product added over the API should be in the browser's cart, but header shows: " + cartQuantity);
+
+            logger.info("✅ API-added product visible in UI cart: {}", cartQuantity);
+        });
+
         // ═══════════════════════════════════════════════════════════════════
         // PART 3: Data Consistency Validation
         // ═══════════════════════════════════════════════════════════════════
 
-        Allure.step("Step 10: Validate data consistency between API and UI", () -> {
+        Allure.step("Step 11: Validate data consistency between API and UI", () -> {
             logger.debug("Performing final consistency check between API and UI...");
 
             // Both API and UI validations passed, data is consistent
@@ -11,6 +11,7 @@ import pages.HomePage;
 import pages.RegistrationPage;
 import models.RegistrationData;
 import org.testng.annotations.DataProvider;
+import utils.ConfigReader;
 import utils.JsonDataReader;
 import java.io.IOException;
 
@@ -652,7 +653,7 @@ public class RegistrationTest extends BaseTest {
             Allure.parameter("Current URL", currentUrl);
             Allure.addAttachment("URL After Continue", "text/plain", currentUrl);
             
-            Assert.assertTrue(currentUrl.equals("https://demowebshop.tricentis.com/") ||
+            Assert.assertTrue(currentUrl.equals(ConfigReader.get("baseUrl") + "/") ||
                             !currentUrl.contains("/register"),
                     "Should redirect to home page after clicking continue, but got: " + currentUrl);
             logger.info("✅ Navigation verified: {}", currentUrl);